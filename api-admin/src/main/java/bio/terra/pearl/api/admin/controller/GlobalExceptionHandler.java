@@ -11,6 +11,7 @@ import bio.terra.pearl.core.service.exception.ExceptionUtils;
 import bio.terra.pearl.core.service.exception.PermissionDeniedException;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -39,6 +40,7 @@ public class GlobalExceptionHandler {
     IllegalArgumentException.class,
     NoHandlerFoundException.class,
     ValidationException.class,
+    bio.terra.pearl.core.service.exception.ValidationException.class,
     BadRequestException.class,
     HttpMessageNotReadableException.class,
     MissingServletRequestParameterException.class
@@ -76,7 +78,19 @@ public class GlobalExceptionHandler {
 
   // catchall - internal server error
   @ExceptionHandler({InternalServerErrorException.class, Exception.class})
-  public ResponseEntity<ErrorReport> internalErrorExceptionHandler(Exception ex) {
+  public ResponseEntity<ErrorReport> internalErrorExceptionHandler(
+      Exception ex, HttpServletResponse response) throws Exception {
+    if (response.isCommitted()) {
+      // a streamed response (e.g. an export) failed partway through, so an error report can't be
+      // sent. The container closes the connection for an unhandled exception on a committed
+      // response, so the client sees an incomplete transfer rather than a truncated body
+      log.error(
+          "Error after response was committed: {} {}",
+          request.getMethod(),
+          request.getRequestURI(),
+          ex);
+      throw ex;
+    }
     return buildErrorReport(ex, HttpStatus.INTERNAL_SERVER_ERROR, request);
   }
 
@@ -50,4 +50,24 @@ public class EnrolleeSearchController implements EnrolleeSearchApi {
             expression,
             limit));
   }
+
+  @Override
+  public ResponseEntity<Object> executeSearchExpressionPage(
+      String portalShortcode,
+      String studyShortcode,
+      String envName,
+      String expression,
+      Integer limit,
+      String cursor,
+      Boolean includeCount) {
+    AdminUser operator = authUtilService.requireAdminUser(request);
+    return ResponseEntity.ok(
+        this.enrolleeSearchExtService.executeSearchExpressionPage(
+            PortalStudyEnvAuthContext.of(
+                operator, portalShortcode, studyShortcode, EnvironmentName.valueOf(envName)),
+            expression,
+            limit,
+            cursor,
+            Boolean.TRUE.equals(includeCount)));
+  }
 }
@@ -11,6 +11,7 @@ import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskAssignDto;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskUpdateDto;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentProgress;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
@@ -67,6 +68,18 @@ public class ParticipantTaskController implements ParticipantTaskApi {
     return ResponseEntity.ok(participantTasks);
   }
 
+  @Override
+  public ResponseEntity<Object> findAssignmentProgress(
+      String portalShortcode, String studyShortcode, String envName) {
+    AdminUser operator = authUtilService.requireAdminUser(request);
+    EnvironmentName environmentName = EnvironmentName.valueOfCaseInsensitive(envName);
+    List<TaskAssignmentProgress> progress =
+        participantTaskExtService.findAssignmentProgress(
+            PortalStudyEnvAuthContext.of(
+                operator, portalShortcode, studyShortcode, environmentName));
+    return ResponseEntity.ok(progress);
+  }
+
   @Override
   public ResponseEntity<Object> findAll(
       String portalShortcode, String studyShortcode, String envName, String targetStableId) {
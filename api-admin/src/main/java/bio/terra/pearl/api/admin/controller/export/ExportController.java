@@ -6,6 +6,7 @@ import bio.terra.pearl.api.admin.service.auth.context.PortalStudyEnvAuthContext;
 import bio.terra.pearl.api.admin.service.export.EnrolleeExportExtService;
 import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.admin.AdminUser;
+import bio.terra.pearl.core.service.exception.internal.IOInternalException;
 import bio.terra.pearl.core.service.export.ExportFileFormat;
 import bio.terra.pearl.core.service.export.ExportOptionsWithExpression;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
@@ -13,11 +14,13 @@ import bio.terra.pearl.core.service.search.EnrolleeSearchExpressionParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 
@@ -59,12 +62,13 @@ public class ExportController implements ExportApi {
             ? enrolleeSearchExpressionParser.parseRule(exportOptions.getFilterString())
             : null);
 
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    enrolleeExportExtService.export(
-        PortalStudyEnvAuthContext.of(user, portalShortcode, studyShortcode, environmentName),
-        exportOptions,
-        baos);
-    return ResponseEntity.ok().body(new ByteArrayResource(baos.toByteArray()));
+    return writeToResponse(
+        os ->
+            enrolleeExportExtService.export(
+                PortalStudyEnvAuthContext.of(
+                    user, portalShortcode, studyShortcode, environmentName),
+                exportOptions,
+                os));
   }
 
   /** gets a data dictionary for the environment */
@@ -80,12 +84,38 @@ public class ExportController implements ExportApi {
             ? enrolleeSearchExpressionParser.parseRule(exportOptions.getFilterString())
             : null);
 
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    enrolleeExportExtService.exportDictionary(
-        PortalStudyEnvAuthContext.of(user, portalShortcode, studyShortcode, environmentName),
-        exportOptions,
-        baos);
-    return ResponseEntity.ok().body(new ByteArrayResource(baos.toByteArray()));
+    return writeToResponse(
+        os ->
+            enrolleeExportExtService.exportDictionary(
+                PortalStudyEnvAuthContext.of(
+                    user, portalShortcode, studyShortcode, environmentName),
+                exportOptions,
+                os));
+  }
+
+  /**
+   * writes the export straight to the response as it's generated, rather than holding the whole
+   * file in memory. Returning null tells Spring the response has already been written. Errors
+   * raised before any output is flushed (e.g. permission checks) still get the usual error
+   * response. Errors raised after that can't change the status, so the connection is dropped
+   * instead (see GlobalExceptionHandler), and the client sees an incomplete download rather than
+   * a truncated file.
+   */
+  private ResponseEntity<Resource> writeToResponse(Consumer<OutputStream> writer) {
+    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+    try {
+      writer.accept(response.getOutputStream());
+      response.flushBuffer();
+    } catch (IOException e) {
+      throw new IOInternalException("Error writing export to response", e);
+    } catch (RuntimeException e) {
+      if (response.isCommitted()) {
+        // wrap the error so that it's handled as an internal error, whatever its type
+        throw new IOInternalException("Error writing export after response was committed", e);
+      }
+      throw e;
+    }
+    return null;
   }
 
   private ExportOptionsWithExpression optionsFromParams(
@@ -2,30 +2,37 @@ package bio.terra.pearl.api.admin.service.auth;
 
 import bio.terra.common.exception.UnauthorizedException;
 import bio.terra.common.iam.BearerTokenFactory;
+import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.PortalAttached;
+import bio.terra.pearl.core.model.admin.AdminPrincipal;
 import bio.terra.pearl.core.model.admin.AdminUser;
 import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.study.PortalStudy;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.model.survey.Survey;
+import bio.terra.pearl.core.service.admin.AdminAuthCache;
 import bio.terra.pearl.core.service.admin.AdminUserService;
 import bio.terra.pearl.core.service.exception.NotFoundException;
 import bio.terra.pearl.core.service.exception.PermissionDeniedException;
 import bio.terra.pearl.core.service.participant.EnrolleeService;
 import bio.terra.pearl.core.service.portal.PortalService;
 import bio.terra.pearl.core.service.study.PortalStudyService;
+import bio.terra.pearl.core.service.study.StudyEnvironmentService;
 import bio.terra.pearl.core.service.survey.SurveyService;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 
-/** Utility service for common auth-related methods */
+/**
+ * Utility service for common auth-related methods. The signed-in user's principal, and the portals,
+ * studies and environments named by shortcode, are resolved through AdminAuthCache, since every
+ * admin request repeats those lookups.
+ */
 @Service
 public class AuthUtilService {
   /**
@@ -39,22 +46,28 @@ public class AuthUtilService {
   private final BearerTokenFactory bearerTokenFactory;
   private final PortalService portalService;
   private final PortalStudyService portalStudyService;
+  private final StudyEnvironmentService studyEnvironmentService;
   private final EnrolleeService enrolleeService;
   private final SurveyService surveyService;
+  private final AdminAuthCache adminAuthCache;
 
   public AuthUtilService(
       AdminUserService adminUserService,
       BearerTokenFactory bearerTokenFactory,
       PortalService portalService,
       PortalStudyService portalStudyService,
+      StudyEnvironmentService studyEnvironmentService,
       EnrolleeService enrolleeService,
-      SurveyService surveyService) {
+      SurveyService surveyService,
+      AdminAuthCache adminAuthCache) {
     this.adminUserService = adminUserService;
     this.bearerTokenFactory = bearerTokenFactory;
     this.portalService = portalService;
     this.portalStudyService = portalStudyService;
+    this.studyEnvironmentService = studyEnvironmentService;
     this.enrolleeService = enrolleeService;
     this.surveyService = surveyService;
+    this.adminAuthCache = adminAuthCache;
   }
 
   /** gets the user from the request, throwing an exception if not present */
@@ -62,11 +75,26 @@ public class AuthUtilService {
     String token = bearerTokenFactory.from(request).getToken();
     DecodedJWT decodedJWT = JWT.decode(token);
     String email = decodedJWT.getClaim("email").asString();
-    Optional<AdminUser> userOpt = adminUserService.findByUsername(email);
-    if (userOpt.isEmpty()) {
+    Optional<AdminPrincipal> principalOpt = adminUserService.findPrincipalByUsername(email);
+    if (principalOpt.isEmpty()) {
       throw new UnauthorizedException("User not found: " + email);
     }
-    return userOpt.get();
+    return principalOpt.get().user();
+  }
+
+  /** checks the user's memberships through their cached principal */
+  protected boolean isUserInPortal(AdminUser user, UUID portalId) {
+    if (user.isSuperuser()) {
+      return true;
+    }
+    return findPrincipal(user).map(principal -> principal.isInPortal(portalId)).orElse(false);
+  }
+
+  protected Optional<AdminPrincipal> findPrincipal(AdminUser user) {
+    if (user.getUsername() == null) {
+      return Optional.empty();
+    }
+    return adminUserService.findPrincipalByUsername(user.getUsername());
   }
 
   /**
@@ -74,10 +102,12 @@ public class AuthUtilService {
    * avoid leaking information
    */
   public Portal authUserToPortal(AdminUser user, String portalShortcode) {
-    Optional<Portal> portalOpt = portalService.findOneByShortcode(portalShortcode);
+    Optional<Portal> portalOpt =
+        adminAuthCache.getPortal(
+            portalShortcode, () -> portalService.findOneByShortcode(portalShortcode));
     if (portalOpt.isPresent()) {
       Portal portal = portalOpt.get();
-      if (portalService.checkAdminIsInPortal(user, portal.getId())) {
+      if (isUserInPortal(user, portal.getId())) {
         return portal;
       }
     }
@@ -90,24 +120,15 @@ public class AuthUtilService {
     if (user.isSuperuser() || BASE_PERMISSION.equals(permission)) {
       return portal;
     }
-    adminUserService
-        .findByUsernameWithPermissions(user.getUsername())
-        .ifPresentOrElse(
-            adminUserWithPermissions -> {
-              if (!adminUserWithPermissions
-                  .portalPermissions()
-                  .getOrDefault(portal.getId(), new HashSet<>())
-                  .contains(permission)) {
-                throw new PermissionDeniedException(
-                    "User %s does not have permission %s on portal %s"
-                        .formatted(user.getUsername(), permission, portalShortcode));
-              }
-            },
-            () -> {
-              throw new PermissionDeniedException(
-                  "User %s does not have permission %s on portal %s"
-                      .formatted(user.getUsername(), permission, portalShortcode));
-            });
+    boolean hasPermission =
+        findPrincipal(user)
+            .map(principal -> principal.hasPermission(portal.getId(), permission))
+            .orElse(false);
+    if (!hasPermission) {
+      throw new PermissionDeniedException(
+          "User %s does not have permission %s on portal %s"
+              .formatted(user.getUsername(), permission, portalShortcode));
+    }
     return portal;
   }
 
@@ -115,7 +136,10 @@ public class AuthUtilService {
       AdminUser user, String portalShortcode, String studyShortcode) {
     Portal portal = authUserToPortal(user, portalShortcode);
     Optional<PortalStudy> portalStudy =
-        portalStudyService.findStudyInPortal(studyShortcode, portal.getId());
+        adminAuthCache.getPortalStudy(
+            portal.getId(),
+            studyShortcode,
+            () -> portalStudyService.findStudyInPortal(studyShortcode, portal.getId()));
     if (portalStudy.isEmpty()) {
       throw new PermissionDeniedException(
           "User %s does not have permissions on study %s"
@@ -124,6 +148,21 @@ public class AuthUtilService {
     return portalStudy.get();
   }
 
+  /** the equivalent of StudyEnvironmentService.verifyStudy, for resolving the study in a request */
+  public StudyEnvironment verifyStudyEnvironment(
+      String studyShortcode, EnvironmentName environmentName) {
+    return adminAuthCache
+        .getStudyEnvironment(
+            studyShortcode,
+            environmentName,
+            () -> studyEnvironmentService.findByStudy(studyShortcode, environmentName))
+        .orElseThrow(
+            () ->
+                new NotFoundException(
+                    "Study not found for environment %s: %s"
+                        .formatted(environmentName, studyShortcode)));
+  }
+
   public void checkEnrolleeInStudyEnv(Enrollee enrollee, StudyEnvironment studyEnvironment) {
     if (!studyEnvironment.getId().equals(enrollee.getStudyEnvironmentId())) {
       throw new PermissionDeniedException(
@@ -139,7 +178,7 @@ public class AuthUtilService {
     // least one
     List<PortalStudy> portalStudies = portalStudyService.findByEnrollee(enrolleeShortcode);
     List<UUID> portalIds = portalStudies.stream().map(PortalStudy::getPortalId).toList();
-    if (!portalService.checkAdminInAtLeastOnePortal(user, portalIds)) {
+    if (portalIds.stream().noneMatch(portalId -> isUserInPortal(user, portalId))) {
       throw new NotFoundException(
           "User %s does not have permissions on enrollee %s or enrollee does not exist"
               .formatted(user.getUsername(), enrolleeShortcode));
@@ -7,7 +7,6 @@ import bio.terra.pearl.core.model.study.PortalStudy;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.service.exception.NotFoundException;
 import bio.terra.pearl.core.service.participant.EnrolleeService;
-import bio.terra.pearl.core.service.study.StudyEnvironmentService;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -26,15 +25,11 @@ public class EnforcePortalEnrolleePermissionAspect
     extends BaseEnforcePermissionAspect<
         PortalEnrolleeAuthContext, EnforcePortalEnrolleePermission> {
   private final AuthUtilService authUtilService;
-  private final StudyEnvironmentService studyEnvironmentService;
   private final EnrolleeService enrolleeService;
 
   public EnforcePortalEnrolleePermissionAspect(
-      AuthUtilService authUtilService,
-      StudyEnvironmentService studyEnvironmentService,
-      EnrolleeService enrolleeService) {
+      AuthUtilService authUtilService, EnrolleeService enrolleeService) {
     this.authUtilService = authUtilService;
-    this.studyEnvironmentService = studyEnvironmentService;
     this.enrolleeService = enrolleeService;
   }
 
@@ -55,7 +50,7 @@ public class EnforcePortalEnrolleePermissionAspect
     authContext.setPortalStudy(portalStudy);
 
     StudyEnvironment studyEnv =
-        studyEnvironmentService.verifyStudy(
+        authUtilService.verifyStudyEnvironment(
             authContext.getStudyShortcode(), authContext.getEnvironmentName());
     authContext.setStudyEnvironment(studyEnv);
     String enrolleeShortcode = authContext.getEnrolleeShortcodeOrId();
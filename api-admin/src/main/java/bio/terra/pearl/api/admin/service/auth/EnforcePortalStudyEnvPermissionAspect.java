@@ -4,7 +4,6 @@ import bio.terra.pearl.api.admin.service.auth.context.PortalStudyEnvAuthContext;
 import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.study.PortalStudy;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
-import bio.terra.pearl.core.service.study.StudyEnvironmentService;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -22,12 +21,9 @@ public class EnforcePortalStudyEnvPermissionAspect
     extends BaseEnforcePermissionAspect<
         PortalStudyEnvAuthContext, EnforcePortalStudyEnvPermission> {
   private final AuthUtilService authUtilService;
-  private final StudyEnvironmentService studyEnvironmentService;
 
-  public EnforcePortalStudyEnvPermissionAspect(
-      AuthUtilService authUtilService, StudyEnvironmentService studyEnvironmentService) {
+  public EnforcePortalStudyEnvPermissionAspect(AuthUtilService authUtilService) {
     this.authUtilService = authUtilService;
-    this.studyEnvironmentService = studyEnvironmentService;
   }
 
   @Around(value = "@annotation(EnforcePortalStudyEnvPermission)")
@@ -47,7 +43,7 @@ public class EnforcePortalStudyEnvPermissionAspect
     authContext.setPortalStudy(portalStudy);
 
     StudyEnvironment studyEnv =
-        studyEnvironmentService.verifyStudy(
+        authUtilService.verifyStudyEnvironment(
             authContext.getStudyShortcode(), authContext.getEnvironmentName());
     authContext.setStudyEnvironment(studyEnv);
     return joinPoint.proceed();
@@ -4,7 +4,9 @@ import bio.terra.pearl.api.admin.service.auth.AuthUtilService;
 import bio.terra.pearl.api.admin.service.auth.EnforcePortalStudyEnvPermission;
 import bio.terra.pearl.api.admin.service.auth.context.PortalStudyEnvAuthContext;
 import bio.terra.pearl.core.model.search.EnrolleeSearchExpressionResult;
+import bio.terra.pearl.core.model.search.EnrolleeSearchResultPage;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.search.EnrolleeSearchCursor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchOptions;
 import bio.terra.pearl.core.service.search.EnrolleeSearchService;
 import bio.terra.pearl.core.service.study.StudyEnvironmentService;
@@ -43,4 +45,27 @@ public class EnrolleeSearchExtService {
         expression,
         EnrolleeSearchOptions.builder().limit(limit).build());
   }
+
+  /**
+   * returns a page of results, most recently created first. cursor should be null for the first page, and the
+   * nextCursor of the previous page after that.
+   */
+  @EnforcePortalStudyEnvPermission(permission = "participant_data_view")
+  public EnrolleeSearchResultPage executeSearchExpressionPage(
+      PortalStudyEnvAuthContext authContext,
+      String expression,
+      Integer limit,
+      String cursor,
+      boolean includeCount) {
+    return this.enrolleeSearchService.executeSearchExpressionPage(
+        authContext.getStudyEnvironment().getId(),
+        expression,
+        EnrolleeSearchOptions.builder()
+            .sortField(EnrolleeSearchOptions.CURSOR_SORT_FIELD)
+            .sortAscending(false)
+            .limit(limit)
+            .after(cursor != null ? EnrolleeSearchCursor.decode(cursor) : null)
+            .build(),
+        includeCount);
+  }
 }
@@ -15,6 +15,8 @@ import bio.terra.pearl.core.service.survey.SurveyTaskDispatcher;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskAssignDto;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskUpdateDto;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentProgress;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentTracker;
 import java.util.List;
 import org.springframework.stereotype.Service;
 
@@ -24,16 +26,19 @@ public class ParticipantTaskExtService {
   private final StudyEnvironmentService studyEnvironmentService;
   private final AuthUtilService authUtilService;
   private final SurveyTaskDispatcher surveyTaskDispatcher;
+  private final TaskAssignmentTracker taskAssignmentTracker;
 
   public ParticipantTaskExtService(
       ParticipantTaskService participantTaskService,
       StudyEnvironmentService studyEnvironmentService,
       AuthUtilService authUtilService,
-      SurveyTaskDispatcher surveyTaskDispatcher1) {
+      SurveyTaskDispatcher surveyTaskDispatcher1,
+      TaskAssignmentTracker taskAssignmentTracker) {
     this.participantTaskService = participantTaskService;
     this.studyEnvironmentService = studyEnvironmentService;
     this.authUtilService = authUtilService;
     this.surveyTaskDispatcher = surveyTaskDispatcher1;
+    this.taskAssignmentTracker = taskAssignmentTracker;
   }
 
   @EnforcePortalStudyEnvPermission(permission = "participant_data_view")
@@ -55,6 +60,16 @@ public class ParticipantTaskExtService {
         "task type %s not supported".formatted(assignDto.taskType()));
   }
 
+  /**
+   * progress of bulk assignments in the environment that are running or recently finished on this
+   * server. Each entry's operationId matches the audit records of the tasks it created.
+   */
+  @EnforcePortalStudyEnvPermission(permission = "participant_data_view")
+  public List<TaskAssignmentProgress> findAssignmentProgress(
+      PortalStudyEnvAuthContext authContext) {
+    return taskAssignmentTracker.findByStudyEnvironment(authContext.getStudyEnvironment().getId());
+  }
+
   /**
    * applies the task updates to the given environment. Returns a list of the updated tasks. This is
    * assumed to be a relatively rare operation, so this is not particularly optimized for
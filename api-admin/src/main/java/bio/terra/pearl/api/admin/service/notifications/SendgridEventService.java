@@ -8,7 +8,9 @@ import bio.terra.pearl.core.service.notification.email.SendgridClient;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,29 +55,31 @@ public class SendgridEventService {
   }
 
   /*
-   * Correlates Sendgrid events with notifications using the API request ID (X-Message-ID)
-   * This currently relies on the fact that we do not batch Sendgrid messages. If we ever start
-   * batching messages, we'll need to update our correlation logic to be a bit more sophisticated,
-   * because the API request ID will be the same for all messages in a batch. The Sendgrid Event
-   * Webhook may be useful in this case. In the meantime, this is fine for MVP.
+   * Correlates Sendgrid events with notifications using the API request ID (X-Message-ID). Bulk
+   * sends share one API request ID across all their recipients, so where a request ID matches more
+   * than one notification, the event's recipient address is used to pick between them.
    */
   public List<SendgridEvent> correlateNotificationsAndEvents(List<SendgridEvent> events) {
     List<String> sendGridApiRequestIds =
         events.stream().map(SendgridEvent::getApiRequestId).toList();
-    List<Notification> notifications =
-        notificationDao.findAllBySendgridApiRequestId(sendGridApiRequestIds);
+    Map<String, List<Notification>> notificationsByRequestId =
+        notificationDao.findAllBySendgridApiRequestId(sendGridApiRequestIds).stream()
+            .filter(n -> n.getSendgridApiRequestId() != null)
+            .collect(Collectors.groupingBy(Notification::getSendgridApiRequestId));
 
     for (SendgridEvent event : events) {
       List<Notification> notificationsForEvent =
-          notifications.stream()
-              .filter(
-                  n ->
-                      n.getSendgridApiRequestId() != null
-                          && n.getSendgridApiRequestId().equals(event.getApiRequestId()))
-              .toList();
+          notificationsByRequestId.getOrDefault(event.getApiRequestId(), List.of());
       if (notificationsForEvent.size() > 1) {
-        // This could happen if we start batching emails without updating the correlation logic.
-        // We'll log an error here so we know when this happens, and we won't correlate the event.
+        notificationsForEvent =
+            notificationsForEvent.stream()
+                .filter(
+                    n -> n.getSentTo() != null && n.getSentTo().equalsIgnoreCase(event.getToEmail()))
+                .toList();
+      }
+      if (notificationsForEvent.size() > 1) {
+        // This could happen if a bulk send included the same address twice, or if emails were
+        // redirected to a single address. We won't correlate the event in that case.
         log.error(
             "More than one notification found for Sendgrid api request id: {}",
             event.getApiRequestId());
@@ -1,33 +1,154 @@
 package bio.terra.pearl.api.admin.service.scheduled;
 
 import bio.terra.pearl.api.admin.service.system.CheckDisableScheduledTask;
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
+import bio.terra.pearl.core.config.BoundedTaskExecutor;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.study.StudyEnvironmentService;
+import bio.terra.pearl.core.service.workflow.TaskConfig;
 import bio.terra.pearl.core.service.workflow.TaskDispatcher;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Assigns recurring and delayed tasks. The work is split into one partition per study environment
+ * and task config, and partitions are run in parallel. Each partition takes its own lock, rather
+ * than the whole run taking one, so that multiple replicas can share the work, and a slow study
+ * doesn't hold up the others. Partitions run on the scheduledAssignmentExecutor (see
+ * AsyncExecutorConfig).
+ */
 @Slf4j
 @Component
 public class ScheduledAssignmentService {
-  private final List<TaskDispatcher> taskDispatchers;
+  /**
+   * a partition that has been run stays locked for most of the interval between runs, so that
+   * replicas whose runs are offset from one another don't each repeat it
+   */
+  private static final Duration PARTITION_LOCK_AT_LEAST_FOR = Duration.ofMinutes(50);
 
-  public ScheduledAssignmentService(List<TaskDispatcher> taskDispatchers) {
+  private static final Duration PARTITION_LOCK_AT_MOST_FOR = Duration.ofMinutes(60);
+  /** the number of slowest partitions to include in the summary of each run */
+  private static final int SLOWEST_PARTITIONS_TO_LOG = 5;
+
+  private final List<TaskDispatcher<?>> taskDispatchers;
+  private final StudyEnvironmentService studyEnvironmentService;
+  private final LockingTaskExecutor lockingTaskExecutor;
+  private final BoundedTaskExecutor executor;
+
+  public ScheduledAssignmentService(
+      List<TaskDispatcher<?>> taskDispatchers,
+      StudyEnvironmentService studyEnvironmentService,
+      LockProvider lockProvider,
+      @Qualifier(AsyncExecutorConfig.SCHEDULED_ASSIGNMENT_EXECUTOR) BoundedTaskExecutor executor) {
     this.taskDispatchers = taskDispatchers;
+    this.studyEnvironmentService = studyEnvironmentService;
+    this.lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+    this.executor = executor;
   }
 
   @Scheduled(
       fixedDelay = 60 * 60 * 1000,
       initialDelay = 5 * 1000) // wait an hour between executions, start after 5 seconds
-  @SchedulerLock(
-      name = "ScheduledSurveyAssignmentService.assignScheduledSurveys",
-      lockAtMostFor = "500s",
-      lockAtLeastFor = "60s")
   @CheckDisableScheduledTask
   public void assignScheduledSurveys() {
     log.info("Scheduled task processing beginning");
-    taskDispatchers.forEach(TaskDispatcher::assignScheduledTasks);
-    log.info("Scheduled task processing complete");
+    long startTime = System.currentTimeMillis();
+    List<Partition> partitions = new ArrayList<>();
+    for (StudyEnvironment studyEnv : studyEnvironmentService.findAll()) {
+      for (TaskDispatcher<?> taskDispatcher : taskDispatchers) {
+        partitions.addAll(findPartitions(taskDispatcher, studyEnv));
+      }
+    }
+
+    List<CompletableFuture<PartitionResult>> futures =
+        partitions.stream()
+            .map(partition -> CompletableFuture.supplyAsync(() -> runPartition(partition), executor))
+            .toList();
+    List<PartitionResult> results = futures.stream().map(CompletableFuture::join).toList();
+
+    List<PartitionResult> executed = results.stream().filter(PartitionResult::executed).toList();
+    log.info(
+        "Scheduled task processing complete: {} partitions run, {} skipped as locked elsewhere, {} failed, {} tasks created, {} ms",
+        executed.size(),
+        results.size() - executed.size(),
+        executed.stream().filter(PartitionResult::failed).count(),
+        executed.stream().mapToInt(PartitionResult::tasksCreated).sum(),
+        System.currentTimeMillis() - startTime);
+    executed.stream()
+        .sorted(Comparator.comparingLong(PartitionResult::durationMs).reversed())
+        .limit(SLOWEST_PARTITIONS_TO_LOG)
+        .forEach(
+            result ->
+                log.info(
+                    "Scheduled task processing slowest partition: {} -- {} tasks created, {} ms",
+                    result.lockName(),
+                    result.tasksCreated(),
+                    result.durationMs()));
+  }
+
+  private <T extends TaskConfig> List<Partition> findPartitions(
+      TaskDispatcher<T> taskDispatcher, StudyEnvironment studyEnv) {
+    return taskDispatcher.findScheduledTaskConfigs(studyEnv.getId()).stream()
+        .map(
+            taskConfig ->
+                new Partition(
+                    "ScheduledAssignmentService.%s.%s.%s"
+                        .formatted(
+                            taskDispatcher.getClass().getSimpleName(),
+                            studyEnv.getId(),
+                            taskConfig.getStableId()),
+                    () -> taskDispatcher.assignScheduledTasks(taskConfig)))
+        .toList();
+  }
+
+  private PartitionResult runPartition(Partition partition) {
+    LockConfiguration lockConfiguration =
+        new LockConfiguration(
+            Instant.now(),
+            partition.lockName(),
+            PARTITION_LOCK_AT_MOST_FOR,
+            PARTITION_LOCK_AT_LEAST_FOR);
+    long startTime = System.currentTimeMillis();
+    try {
+      LockingTaskExecutor.TaskResult<List<ParticipantTask>> taskResult =
+          lockingTaskExecutor.executeWithLock(
+              (LockingTaskExecutor.TaskWithResult<List<ParticipantTask>>) partition.assigner()::get,
+              lockConfiguration);
+      long durationMs = System.currentTimeMillis() - startTime;
+      if (!taskResult.wasExecuted()) {
+        return new PartitionResult(partition.lockName(), false, false, 0, durationMs);
+      }
+      int tasksCreated = taskResult.getResult().size();
+      log.info(
+          "Scheduled task partition {} complete: {} tasks created, {} ms",
+          partition.lockName(),
+          tasksCreated,
+          durationMs);
+      return new PartitionResult(partition.lockName(), true, false, tasksCreated, durationMs);
+    } catch (Throwable e) {
+      // one partition failing shouldn't stop the others
+      long durationMs = System.currentTimeMillis() - startTime;
+      log.error("Scheduled task partition {} failed", partition.lockName(), e);
+      return new PartitionResult(partition.lockName(), true, true, 0, durationMs);
+    }
   }
+
+  private record Partition(String lockName, Supplier<List<ParticipantTask>> assigner) {}
+
+  private record PartitionResult(
+      String lockName, boolean executed, boolean failed, int tasksCreated, long durationMs) {}
 }
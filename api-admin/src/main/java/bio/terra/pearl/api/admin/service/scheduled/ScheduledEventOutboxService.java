@@ -0,0 +1,47 @@
+package bio.terra.pearl.api.admin.service.scheduled;
+
+import bio.terra.pearl.api.admin.service.system.CheckDisableScheduledTask;
+import bio.terra.pearl.core.service.workflow.EventOutboxService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drains the event outbox. Most entries are delivered as soon as the transaction that wrote them
+ * commits, so this mostly picks up retries, and entries whose worker died. Entries are leased
+ * individually, so this doesn't need a lock, and can run on every replica.
+ */
+@Service
+@Slf4j
+public class ScheduledEventOutboxService {
+  private final EventOutboxService eventOutboxService;
+
+  public ScheduledEventOutboxService(EventOutboxService eventOutboxService) {
+    this.eventOutboxService = eventOutboxService;
+  }
+
+  @Scheduled(timeUnit = TimeUnit.SECONDS, fixedDelay = 30, initialDelay = 30)
+  @CheckDisableScheduledTask
+  public void drainOutbox() {
+    if (!eventOutboxService.isEnabled()) {
+      return;
+    }
+    int delivered = eventOutboxService.drain();
+    if (delivered > 0) {
+      log.info("Delivered {} event outbox entries", delivered);
+    }
+  }
+
+  @Scheduled(timeUnit = TimeUnit.HOURS, fixedDelay = 24, initialDelay = 1)
+  @SchedulerLock(
+      name = "ScheduledEventOutboxService.deleteExpired",
+      lockAtMostFor = "30m",
+      lockAtLeastFor = "5m")
+  @CheckDisableScheduledTask
+  public void deleteExpired() {
+    int deleted = eventOutboxService.deleteExpired();
+    log.info("Deleted {} delivered event outbox entries", deleted);
+  }
+}
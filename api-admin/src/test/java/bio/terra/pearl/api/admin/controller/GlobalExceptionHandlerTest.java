@@ -2,6 +2,7 @@ package bio.terra.pearl.api.admin.controller;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -34,6 +35,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -78,6 +80,25 @@ public class GlobalExceptionHandlerTest {
     log.info("Global exception handler: " + errorReport);
   }
 
+  @Test
+  void testCommittedResponseErrorIsRethrown() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setMethod("GET");
+    request.setRequestURI("/api/portals/v1/portal1/studies/study1/env/sandbox/export/data");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setCommitted(true);
+    Exception exportError = new RuntimeException("export failed");
+
+    // a partially written response can't carry an error report, so the error goes to the container
+    Exception thrown =
+        assertThrows(
+            Exception.class,
+            () ->
+                new GlobalExceptionHandler(request)
+                    .internalErrorExceptionHandler(exportError, response));
+    assertThat(thrown, equalTo(exportError));
+  }
+
   @Test
   void testStudyCreateThrowsPsqlException() throws Exception {
     AdminUser adminUser = AdminUser.builder().superuser(true).build();
@@ -18,6 +18,8 @@ public class EnrolleeSearchExtServiceTests extends BaseSpringBootTest {
             "getExpressionSearchFacets",
             AuthAnnotationSpec.withPortalStudyEnvPerm("BASE"),
             "executeSearchExpression",
+            AuthAnnotationSpec.withPortalStudyEnvPerm("participant_data_view"),
+            "executeSearchExpressionPage",
             AuthAnnotationSpec.withPortalStudyEnvPerm("participant_data_view")));
   }
 }
@@ -122,6 +122,46 @@ public class SendgridEventServiceTests extends BaseSpringBootTest {
     assertThat(correlatedEvents.stream().findFirst().get().getNotificationId(), equalTo(null));
   }
 
+  @Test
+  @Transactional
+  public void testCorrelationBulkSendByRecipient(TestInfo info) {
+    PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(getTestName(info));
+    StudyEnvironment studyEnv =
+        studyEnvironmentFactory.buildPersisted(portalEnv, getTestName(info));
+    EnrolleeBundle enrolleeBundle1 =
+        enrolleeFactory.buildWithPortalUser(getTestName(info), portalEnv, studyEnv);
+    EnrolleeBundle enrolleeBundle2 =
+        enrolleeFactory.buildWithPortalUser(getTestName(info), portalEnv, studyEnv);
+
+    Trigger trigger =
+        triggerFactory.buildPersisted(
+            Trigger.builder()
+                .deliveryType(NotificationDeliveryType.EMAIL)
+                .triggerType(TriggerType.TASK_REMINDER),
+            studyEnv.getId(),
+            portalEnv.getId());
+
+    // a bulk send gives each recipient's notification the same API request ID
+    notificationFactory.buildPersisted(
+        notificationFactory
+            .builder(enrolleeBundle1, trigger)
+            .sentTo("otherEmail")
+            .sendgridApiRequestId("fakeApiRequestId"));
+    Notification recipientNotification =
+        notificationFactory.buildPersisted(
+            notificationFactory
+                .builder(enrolleeBundle2, trigger)
+                .sentTo("toEmail")
+                .sendgridApiRequestId("fakeApiRequestId"));
+
+    List<SendgridEvent> correlatedEvents =
+        sendgridActivityService.correlateNotificationsAndEvents(mockEventPage(1));
+
+    assertThat(
+        correlatedEvents.stream().findFirst().get().getNotificationId(),
+        equalTo(recipientNotification.getId()));
+  }
+
   private List<SendgridEvent> mockEventPage(int numEvents) {
     List<SendgridEvent> events = new ArrayList<>();
     for (int i = 0; i < numEvents; i++) {
@@ -0,0 +1,159 @@
+package bio.terra.pearl.api.admin.service.scheduled;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.pearl.core.config.BoundedTaskExecutor;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.service.study.StudyEnvironmentService;
+import bio.terra.pearl.core.service.workflow.TaskConfig;
+import bio.terra.pearl.core.service.workflow.TaskDispatcher;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import net.javacrumbs.shedlock.core.LockProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ScheduledAssignmentServiceTests {
+  private final StudyEnvironment studyEnv1 =
+      StudyEnvironment.builder().id(UUID.randomUUID()).build();
+  private final StudyEnvironment studyEnv2 =
+      StudyEnvironment.builder().id(UUID.randomUUID()).build();
+  private final FirstTaskDispatcher firstDispatcher = mock(FirstTaskDispatcher.class);
+  private final SecondTaskDispatcher secondDispatcher = mock(SecondTaskDispatcher.class);
+  private final Set<String> lockNames = ConcurrentHashMap.newKeySet();
+  private final BoundedTaskExecutor executor =
+      new BoundedTaskExecutor(
+          "scheduledAssignmentExecutor", 2, 100, BoundedTaskExecutor.WhenFull.CALLER_RUNS);
+  private ScheduledAssignmentService service;
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testOnePartitionPerDispatcherStudyEnvAndTask() {
+    TaskConfig shared1 = taskConfig("shared");
+    TaskConfig other1 = taskConfig("other");
+    TaskConfig shared2 = taskConfig("shared");
+    TaskConfig secondShared1 = taskConfig("shared");
+    when(firstDispatcher.findScheduledTaskConfigs(studyEnv1.getId()))
+        .thenReturn(List.of(shared1, other1));
+    when(firstDispatcher.findScheduledTaskConfigs(studyEnv2.getId())).thenReturn(List.of(shared2));
+    when(secondDispatcher.findScheduledTaskConfigs(studyEnv1.getId()))
+        .thenReturn(List.of(secondShared1));
+    when(secondDispatcher.findScheduledTaskConfigs(studyEnv2.getId())).thenReturn(List.of());
+    service = buildService(Set.of());
+
+    service.assignScheduledSurveys();
+
+    // the same stable id gets its own partition in each study env, and for each dispatcher
+    assertThat(lockNames, hasSize(4));
+    assertThat(
+        lockNames.stream().map(this::withoutDispatcher).toList(),
+        containsInAnyOrder(
+            "%s.shared".formatted(studyEnv1.getId()),
+            "%s.other".formatted(studyEnv1.getId()),
+            "%s.shared".formatted(studyEnv2.getId()),
+            "%s.shared".formatted(studyEnv1.getId())));
+    assertThat(
+        lockNames.stream().filter(name -> name.contains("SecondTaskDispatcher")).toList(),
+        hasSize(1));
+    lockNames.forEach(name -> assertThat(name, startsWith("ScheduledAssignmentService.")));
+    verify(firstDispatcher).assignScheduledTasks(shared1);
+    verify(firstDispatcher).assignScheduledTasks(other1);
+    verify(firstDispatcher).assignScheduledTasks(shared2);
+    verify(secondDispatcher).assignScheduledTasks(secondShared1);
+  }
+
+  @Test
+  public void testLockedPartitionSkipped() {
+    TaskConfig locked = taskConfig("locked");
+    TaskConfig unlocked = taskConfig("unlocked");
+    when(firstDispatcher.findScheduledTaskConfigs(studyEnv1.getId()))
+        .thenReturn(List.of(locked, unlocked));
+    service = buildService(Set.of("locked"));
+
+    service.assignScheduledSurveys();
+
+    verify(firstDispatcher, never()).assignScheduledTasks(locked);
+    verify(firstDispatcher).assignScheduledTasks(unlocked);
+  }
+
+  @Test
+  public void testFailingPartitionDoesNotStopOthers() {
+    TaskConfig failing = taskConfig("failing");
+    TaskConfig succeeding1 = taskConfig("succeeding");
+    TaskConfig succeeding2 = taskConfig("succeeding");
+    when(firstDispatcher.findScheduledTaskConfigs(studyEnv1.getId()))
+        .thenReturn(List.of(failing, succeeding1));
+    when(firstDispatcher.findScheduledTaskConfigs(studyEnv2.getId()))
+        .thenReturn(List.of(succeeding2));
+    when(firstDispatcher.assignScheduledTasks(failing))
+        .thenThrow(new IllegalStateException("bad eligibility rule"));
+    service = buildService(Set.of());
+
+    service.assignScheduledSurveys();
+
+    verify(firstDispatcher).assignScheduledTasks(failing);
+    verify(firstDispatcher).assignScheduledTasks(succeeding1);
+    verify(firstDispatcher).assignScheduledTasks(succeeding2);
+  }
+
+  /**
+   * builds the service with a lock provider that records the lock names, and reports partitions for
+   * the given stable ids as locked elsewhere
+   */
+  private ScheduledAssignmentService buildService(Set<String> lockedStableIds) {
+    executor.initialize();
+    StudyEnvironmentService studyEnvironmentService = mock(StudyEnvironmentService.class);
+    when(studyEnvironmentService.findAll()).thenReturn(List.of(studyEnv1, studyEnv2));
+    LockProvider lockProvider =
+        lockConfiguration -> {
+          lockNames.add(lockConfiguration.getName());
+          boolean locked =
+              lockedStableIds.stream()
+                  .anyMatch(stableId -> lockConfiguration.getName().endsWith("." + stableId));
+          return locked ? Optional.empty() : Optional.of(() -> {});
+        };
+    return new ScheduledAssignmentService(
+        List.of(firstDispatcher, secondDispatcher),
+        studyEnvironmentService,
+        lockProvider,
+        executor);
+  }
+
+  private TaskConfig taskConfig(String stableId) {
+    TaskConfig taskConfig = mock(TaskConfig.class);
+    when(taskConfig.getStableId()).thenReturn(stableId);
+    return taskConfig;
+  }
+
+  /** strips the lock name prefix and dispatcher class, leaving "studyEnvId.stableId" */
+  private String withoutDispatcher(String lockName) {
+    String[] parts = lockName.split("\\.");
+    return String.join(".", List.of(parts).subList(2, parts.length));
+  }
+
+  abstract static class FirstTaskDispatcher extends TaskDispatcher<TaskConfig> {
+    FirstTaskDispatcher() {
+      super(null, null, null, null, null, null, null, null, null);
+    }
+  }
+
+  abstract static class SecondTaskDispatcher extends TaskDispatcher<TaskConfig> {
+    SecondTaskDispatcher() {
+      super(null, null, null, null, null, null, null, null, null);
+    }
+  }
+}
@@ -3,14 +3,19 @@ package bio.terra.pearl.api.participant.controller;
 import bio.terra.pearl.api.participant.api.PortalApi;
 import bio.terra.pearl.api.participant.models.dto.PortalBrandingDto;
 import bio.terra.pearl.core.model.EnvironmentName;
-import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.portal.PortalEnvironment;
 import bio.terra.pearl.core.model.site.LocalizedSiteContent;
 import bio.terra.pearl.core.service.exception.NotFoundException;
+import bio.terra.pearl.core.service.portal.ParticipantSiteContentCache.ParticipantSiteContent;
 import bio.terra.pearl.core.service.portal.PortalDashboardConfigService;
 import bio.terra.pearl.core.service.portal.PortalEnvironmentService;
 import bio.terra.pearl.core.service.portal.PortalService;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -21,22 +26,57 @@ public class PortalController implements PortalApi {
   private final PortalService portalService;
   private final PortalEnvironmentService portalEnvironmentService;
   private final PortalDashboardConfigService portalDashboardConfigService;
+  private final HttpServletRequest request;
 
   public PortalController(
       PortalService portalService,
       PortalEnvironmentService portalEnvironmentService,
-      PortalDashboardConfigService portalDashboardConfigService) {
+      PortalDashboardConfigService portalDashboardConfigService,
+      HttpServletRequest request) {
     this.portalService = portalService;
     this.portalEnvironmentService = portalEnvironmentService;
     this.portalDashboardConfigService = portalDashboardConfigService;
+    this.request = request;
   }
 
+  /**
+   * Returns the cached, already-serialized site content with a strong ETag. Clients that send a
+   * matching If-None-Match get a 304 without the content being sent again.
+   */
   @Override
   public ResponseEntity<Object> get(String portalShortcode, String envName, String language) {
     EnvironmentName environmentName = EnvironmentName.valueOfCaseInsensitive(envName);
-    Optional<Portal> portalOpt =
-        portalService.loadWithParticipantSiteContent(portalShortcode, environmentName, language);
-    return ResponseEntity.of(portalOpt.map(portal -> portal));
+    Optional<ParticipantSiteContent> contentOpt =
+        portalService.findParticipantSiteContent(portalShortcode, environmentName, language);
+    if (contentOpt.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    ParticipantSiteContent content = contentOpt.get();
+    if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), content.eTag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(content.eTag())
+          .cacheControl(CacheControl.noCache())
+          .build();
+    }
+    return ResponseEntity.ok()
+        .eTag(content.eTag())
+        .cacheControl(CacheControl.noCache())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(content.json());
+  }
+
+  /** If-None-Match uses weak comparison, so a W/ prefix is ignored */
+  private boolean matchesETag(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*") || trimmed.replaceFirst("^W/", "").equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -4,11 +4,9 @@ import bio.terra.common.exception.UnauthorizedException;
 import bio.terra.pearl.core.dao.participant.ParticipantUserDao;
 import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.participant.*;
-import bio.terra.pearl.core.service.participant.EnrolleeRelationService;
-import bio.terra.pearl.core.service.participant.EnrolleeService;
+import bio.terra.pearl.core.service.participant.ParticipantHubLoader;
+import bio.terra.pearl.core.service.participant.ParticipantHubLoader.ParticipantHub;
 import bio.terra.pearl.core.service.participant.PortalParticipantUserService;
-import bio.terra.pearl.core.service.participant.ProfileService;
-import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
 import bio.terra.pearl.core.service.workflow.RegistrationService;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
@@ -26,26 +24,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class CurrentUserService {
   private final ParticipantUserDao participantUserDao;
   private final PortalParticipantUserService portalParticipantUserService;
-  private final EnrolleeService enrolleeService;
-  private final EnrolleeRelationService enrolleeRelationService;
-  private final ParticipantTaskService participantTaskService;
-  private final ProfileService profileService;
+  private final ParticipantHubLoader participantHubLoader;
   private final RegistrationService registrationService;
 
   public CurrentUserService(
       ParticipantUserDao participantUserDao,
       PortalParticipantUserService portalParticipantUserService,
-      EnrolleeService enrolleeService,
-      EnrolleeRelationService enrolleeRelationService,
-      ParticipantTaskService participantTaskService,
-      ProfileService profileService,
+      ParticipantHubLoader participantHubLoader,
       RegistrationService registrationService) {
     this.participantUserDao = participantUserDao;
     this.portalParticipantUserService = portalParticipantUserService;
-    this.enrolleeService = enrolleeService;
-    this.enrolleeRelationService = enrolleeRelationService;
-    this.participantTaskService = participantTaskService;
-    this.profileService = profileService;
+    this.participantHubLoader = participantHubLoader;
     this.registrationService = registrationService;
   }
 
@@ -104,52 +93,13 @@ public class CurrentUserService {
     PortalParticipantUser ppUser = portalParticipantUser.get();
     user.getPortalParticipantUsers().add(ppUser);
 
-    List<Enrollee> enrollees = loadEnrollees(ppUser);
-
-    List<EnrolleeRelation> proxyRelations = loadProxyRelations(enrollees);
-    enrollees.addAll(proxyRelations.stream().map(EnrolleeRelation::getTargetEnrollee).toList());
-
+    ParticipantHub hub = participantHubLoader.load(ppUser);
+    // the main user's ppUser, followed by those they are a proxy for
     List<PortalParticipantUser> ppUsers = new ArrayList<>();
     ppUsers.add(ppUser);
+    ppUsers.addAll(hub.proxiedPpUsers());
 
-    // Load the main user's proxiable ppUsers
-    enrollees.forEach(
-        enrollee -> {
-          if (ppUsers.stream()
-              .anyMatch(ppu -> ppu.getProfileId().equals(enrollee.getProfileId()))) {
-            return;
-          }
-
-          Optional<PortalParticipantUser> proxyUser =
-              portalParticipantUserService.findByProfileId(enrollee.getProfileId());
-          proxyUser.ifPresent(ppUsers::add);
-        });
-
-    return new UserLoginDto(
-        user, profileService.loadProfile(ppUser), ppUsers, enrollees, proxyRelations);
-  }
-
-  private List<Enrollee> loadEnrollees(PortalParticipantUser ppUser) {
-    List<Enrollee> enrollees = enrolleeService.findByPortalParticipantUser(ppUser);
-    for (Enrollee enrollee : enrollees) {
-      enrolleeService.loadForParticipantDashboard(enrollee);
-    }
-    return enrollees;
-  }
-
-  private List<EnrolleeRelation> loadProxyRelations(List<Enrollee> enrollees) {
-    List<EnrolleeRelation> relations = new ArrayList<>();
-    if (!enrollees.isEmpty()) {
-      relations =
-          enrolleeRelationService.findByEnrolleeIdsAndRelationType(
-              enrollees.stream().map(Enrollee::getId).toList(), RelationshipType.PROXY);
-      enrolleeRelationService.attachTargetEnrollees(relations);
-      for (EnrolleeRelation relation : relations) {
-        enrolleeService.loadForParticipantDashboard(relation.getTargetEnrollee());
-      }
-    }
-
-    return relations;
+    return new UserLoginDto(user, hub.profile(), ppUsers, hub.enrollees(), hub.proxyRelations());
   }
 
   @Transactional
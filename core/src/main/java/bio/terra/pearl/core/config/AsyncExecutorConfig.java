@@ -0,0 +1,100 @@
+package bio.terra.pearl.core.config;
+
+import bio.terra.pearl.core.config.BoundedTaskExecutor.WhenFull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Executors for @Async work, one per kind of workload, so that a burst of one (e.g. a survey being assigned to every
+ * enrollee in a study, each of whom gets an email) can't exhaust memory or starve the others.  Use these by name,
+ * e.g. @Async(AsyncExecutorConfig.PARTICIPANT_EMAIL_EXECUTOR), rather than a bare @Async.
+ *
+ * Each is sized by env.async.[name].threads and env.async.[name].queueCapacity.
+ */
+@Configuration
+public class AsyncExecutorConfig {
+    /**
+     * the executor for any bare @Async.  Declaring our own executors turns off Spring Boot's default one, so this
+     * replaces it under the names it would have had, with the same pool size but a bounded queue.
+     */
+    public static final String DEFAULT_EXECUTOR = "taskExecutor";
+    public static final String PARTICIPANT_EMAIL_EXECUTOR = "participantEmailExecutor";
+    public static final String ADMIN_EMAIL_EXECUTOR = "adminEmailExecutor";
+    public static final String EXPORT_INTEGRATION_EXECUTOR = "exportIntegrationExecutor";
+    public static final String EXPORT_LOADER_EXECUTOR = "exportLoaderExecutor";
+    public static final String EVENT_OUTBOX_EXECUTOR = "eventOutboxExecutor";
+    public static final String SCHEDULED_ASSIGNMENT_EXECUTOR = "scheduledAssignmentExecutor";
+
+    @Bean(name = {DEFAULT_EXECUTOR, "applicationTaskExecutor"})
+    public BoundedTaskExecutor taskExecutor(Environment environment) {
+        return buildExecutor(environment, DEFAULT_EXECUTOR, 8, 1000, WhenFull.CALLER_RUNS);
+    }
+
+    /**
+     * participant emails are run by the caller when the queue is full, so a burst (e.g. a survey published to every
+     * enrollee) is slowed rather than dropped.  A caller inside a transaction (e.g. an enrollment) would hold it open
+     * for the SendGrid call, so those are rejected instead, and NotificationDispatcher resubmits the email once the
+     * transaction commits
+     */
+    @Bean(name = PARTICIPANT_EMAIL_EXECUTOR)
+    public BoundedTaskExecutor participantEmailExecutor(Environment environment) {
+        return buildExecutor(environment, PARTICIPANT_EMAIL_EXECUTOR, 4, 1000, WhenFull.CALLER_RUNS_OUTSIDE_TRANSACTION);
+    }
+
+    /**
+     * admin emails are few (e.g. invitations), so are run by the caller when the queue is full -- the caller is slowed
+     * by the send, but the email isn't lost
+     */
+    @Bean(name = ADMIN_EMAIL_EXECUTOR)
+    public BoundedTaskExecutor adminEmailExecutor(Environment environment) {
+        return buildExecutor(environment, ADMIN_EMAIL_EXECUTOR, 2, 100, WhenFull.CALLER_RUNS);
+    }
+
+    /**
+     * exports are long-running, so are rejected when the queue is full rather than tying up the request thread that
+     * started them
+     */
+    @Bean(name = EXPORT_INTEGRATION_EXECUTOR)
+    public BoundedTaskExecutor exportIntegrationExecutor(Environment environment) {
+        return buildExecutor(environment, EXPORT_INTEGRATION_EXECUTOR, 2, 20, WhenFull.REJECT);
+    }
+
+    /**
+     * loads the module data for a chunk of an export concurrently (see EnrolleeExportLoader).  Each thread holds a db
+     * connection while it runs, so this should stay well below the connection pool size; 1 thread disables concurrent
+     * loading.  Loads that don't fit in the queue are run by the exporting thread
+     */
+    @Bean(name = EXPORT_LOADER_EXECUTOR)
+    public BoundedTaskExecutor exportLoaderExecutor(Environment environment) {
+        return buildExecutor(environment, EXPORT_LOADER_EXECUTOR, 3, 100, WhenFull.CALLER_RUNS);
+    }
+
+    /**
+     * the workers that deliver event outbox entries (see EventOutboxService), each delivering one enrollee's events at
+     * a time.  A scheduled drain runs the overflow itself; a delivery kicked off by a commit is rejected instead, and
+     * left for the next drain
+     */
+    @Bean(name = EVENT_OUTBOX_EXECUTOR)
+    public BoundedTaskExecutor eventOutboxExecutor(Environment environment) {
+        return buildExecutor(environment, EVENT_OUTBOX_EXECUTOR, 4, 1000, WhenFull.CALLER_RUNS_OUTSIDE_TRANSACTION);
+    }
+
+    /**
+     * runs the partitions of the scheduled task assignment job.  Each holds a db connection while it runs, so this
+     * should stay well below the connection pool size.  The job is run from a scheduler thread, so partitions that
+     * don't fit in the queue are run by it
+     */
+    @Bean(name = SCHEDULED_ASSIGNMENT_EXECUTOR)
+    public BoundedTaskExecutor scheduledAssignmentExecutor(Environment environment) {
+        return buildExecutor(environment, SCHEDULED_ASSIGNMENT_EXECUTOR, 4, 1000, WhenFull.CALLER_RUNS);
+    }
+
+    private BoundedTaskExecutor buildExecutor(Environment environment, String name, int defaultThreads,
+                                              int defaultQueueCapacity, WhenFull whenFull) {
+        return new BoundedTaskExecutor(name,
+                environment.getProperty("env.async.%s.threads".formatted(name), Integer.class, defaultThreads),
+                environment.getProperty("env.async.%s.queueCapacity".formatted(name), Integer.class, defaultQueueCapacity),
+                whenFull);
+    }
+}
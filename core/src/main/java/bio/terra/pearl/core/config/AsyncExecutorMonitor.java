@@ -0,0 +1,66 @@
+package bio.terra.pearl.core.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the queue depth, active threads, and rejections of each BoundedTaskExecutor.  Idle executors
+ * aren't logged, and new rejections are logged as warnings, since they mean the executor is undersized or a burst
+ * of work is being throttled.
+ */
+@Component
+@Slf4j
+public class AsyncExecutorMonitor {
+    private final List<BoundedTaskExecutor> executors;
+    private final ScheduledExecutorService scheduler;
+    /** the rejected count for each executor as of the last report */
+    private final Map<String, Long> lastRejectedCounts = new HashMap<>();
+
+    public AsyncExecutorMonitor(List<BoundedTaskExecutor> executors, Environment environment) {
+        this.executors = executors;
+        int intervalSeconds = environment.getProperty("env.async.monitorIntervalSeconds", Integer.class, 60);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("async-executor-monitor-"));
+        if (intervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public List<BoundedTaskExecutor.Stats> getStats() {
+        return executors.stream().map(BoundedTaskExecutor::getStats).toList();
+    }
+
+    protected synchronized void report() {
+        try {
+            for (BoundedTaskExecutor.Stats stats : getStats()) {
+                long newRejections = stats.rejectedCount() - lastRejectedCounts.getOrDefault(stats.name(), 0L);
+                lastRejectedCounts.put(stats.name(), stats.rejectedCount());
+                if (newRejections > 0) {
+                    log.warn("Async executor {}: {} active threads, {} queued, {} rejected since last report ({} total)",
+                            stats.name(), stats.activeThreads(), stats.queueDepth(), newRejections, stats.rejectedCount());
+                } else if (stats.activeThreads() > 0 || stats.queueDepth() > 0) {
+                    log.info("Async executor {}: {} active threads, {} queued, {} queue capacity remaining, {} completed",
+                            stats.name(), stats.activeThreads(), stats.queueDepth(), stats.queueRemainingCapacity(),
+                            stats.completedCount());
+                }
+            }
+        } catch (Exception e) {
+            // don't let an error stop future reports
+            log.error("Error reporting async executor stats", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
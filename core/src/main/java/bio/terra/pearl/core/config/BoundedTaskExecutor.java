@@ -0,0 +1,68 @@
+package bio.terra.pearl.core.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size thread pool with a bounded queue, for one kind of @Async work.  When the queue is full, new work is
+ * either run on the calling thread, which slows the caller down to the rate the pool can keep up with, or rejected
+ * with a TaskRejectedException (see WhenFull).  Rejections are counted either way, and reported by
+ * AsyncExecutorMonitor.
+ */
+public class BoundedTaskExecutor extends ThreadPoolTaskExecutor {
+    private final String name;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public BoundedTaskExecutor(String name, int threads, int queueCapacity, WhenFull whenFull) {
+        this.name = name;
+        setThreadNamePrefix(name + "-");
+        setCorePoolSize(Math.max(1, threads));
+        setMaxPoolSize(Math.max(1, threads));
+        setQueueCapacity(Math.max(0, queueCapacity));
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+        setRejectedExecutionHandler((task, executor) -> {
+            rejectedCount.incrementAndGet();
+            // the handler runs on the submitting thread, so this checks the caller's transaction
+            boolean runOnCaller = whenFull == WhenFull.CALLER_RUNS
+                    || (whenFull == WhenFull.CALLER_RUNS_OUTSIDE_TRANSACTION
+                        && !TransactionSynchronizationManager.isActualTransactionActive());
+            (runOnCaller ? callerRuns : abort).rejectedExecution(task, executor);
+        });
+        // let queued work (e.g. emails whose notifications are already saved) finish on shutdown
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(30);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** returns a snapshot of the pool's activity.  The executor must have been initialized */
+    public Stats getStats() {
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        return new Stats(name, executor.getActiveCount(), executor.getPoolSize(), executor.getQueue().size(),
+                executor.getQueue().remainingCapacity(), executor.getCompletedTaskCount(), rejectedCount.get());
+    }
+
+    /** what to do with new work when the queue is full */
+    public enum WhenFull {
+        /** run it on the calling thread */
+        CALLER_RUNS,
+        /** reject it with a TaskRejectedException */
+        REJECT,
+        /**
+         * run it on the calling thread, unless the caller is in a transaction, which the work would hold open -- then
+         * reject it, so the caller can resubmit it once the transaction completes
+         */
+        CALLER_RUNS_OUTSIDE_TRANSACTION
+    }
+
+    /** rejectedCount includes tasks that were run on the calling thread because the queue was full */
+    public record Stats(String name, int activeThreads, int poolSize, int queueDepth, int queueRemainingCapacity,
+                        long completedCount, long rejectedCount) { }
+}
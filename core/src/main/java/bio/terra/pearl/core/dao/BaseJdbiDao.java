@@ -173,6 +173,29 @@ public abstract class BaseJdbiDao<T extends BaseEntity> implements JdbiDao<T> {
         }
     }
 
+    /**
+     * like bulkCreate, but inserts the ids already set on the objects.  Useful when the ids are needed after the
+     * insert, e.g. for audit records, since bulkCreate does not return them.
+     */
+    public void bulkCreateWithIdSpecified(List<T> modelObjs) {
+        if (modelObjs.isEmpty()) {
+            return;
+        }
+        int[] result = jdbi.withHandle(handle -> {
+            PreparedBatch batch = handle.prepareBatch(getCreateQueryWithIdSpecifiedSql());
+            for (T obj : modelObjs) {
+                if (obj.getId() == null) {
+                    throw new IllegalArgumentException("object passed to bulk create with id specified has no id");
+                }
+                batch.bindBean(obj).add();
+            }
+            return batch.execute();
+        });
+        if (result.length != modelObjs.size() || Arrays.stream(result).anyMatch(rowsUpdated -> rowsUpdated != 1)) {
+            throw new IllegalStateException("bulk create failed for at least one row");
+        }
+    }
+
     protected String getCreateQuerySql() {
         return "insert into " + tableName + " (" + StringUtils.join(insertColumns, ", ") +") " +
                 "values (" + StringUtils.join(insertFieldSymbols, ", ") + ");";
@@ -96,6 +96,48 @@ public abstract class BaseMutableJdbiDao<T extends BaseEntity> extends BaseJdbiD
         );
     }
 
+    /**
+     * updates each of the objects in a single batch.  Like update, this sets lastUpdatedAt and throws if any object has
+     * no id, but the updated rows aren't returned.
+     */
+    public void bulkUpdate(List<T> modelObjs) {
+        if (modelObjs.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (T obj : modelObjs) {
+            if (obj.getId() == null) {
+                throw new RuntimeException("attempted bulk update on " + clazz + " with no id");
+            }
+            obj.setLastUpdatedAt(now);
+        }
+        int[] result = jdbi.withHandle(handle -> {
+            PreparedBatch batch = handle.prepareBatch("update " + tableName + " set " + updateFieldString +
+                    " where id = :id;");
+            for (T obj : modelObjs) {
+                batch.bindBean(obj).add();
+            }
+            return batch.execute();
+        });
+        if (result.length != modelObjs.size() || Arrays.stream(result).anyMatch(rowsUpdated -> rowsUpdated != 1)) {
+            throw new IllegalStateException("bulk update failed for at least one row");
+        }
+    }
+
+    /**
+     * returns a stamp that changes whenever a row with the given column value is created, updated (via update or
+     * updateProperty) or deleted.  Useful for checking whether data cached from those rows is still current.
+     */
+    protected String findVersionStamp(String columnName, Object columnValue) {
+        return jdbi.withHandle(handle ->
+                handle.createQuery("select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from " + tableName +
+                                " where " + columnName + " = :columnValue;")
+                        .bind("columnValue", columnValue)
+                        .mapTo(String.class)
+                        .one()
+        );
+    }
+
     /** updates a single property.  This will also update the lastUpdatedAt property too */
     protected void updateProperty(UUID id, String propertyColumn, Object propertyValue) {
         updateProperty(id, propertyColumn, propertyValue, tableName, jdbi);
@@ -6,6 +6,7 @@ import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -24,6 +25,18 @@ public class ExportIntegrationJobDao extends BaseMutableJdbiDao<ExportIntegratio
         return findAllByProperty("export_integration_id", integrationId);
     }
 
+    /** the completed job with the latest high-water mark, if any */
+    public Optional<ExportIntegrationJob> findLatestCompletedWithHighWaterMark(UUID integrationId) {
+        return jdbi.withHandle(handle ->
+                handle.createQuery("select * from " + tableName + " where export_integration_id = :integrationId"
+                                + " and status = :status and high_water_mark is not null order by high_water_mark DESC LIMIT 1")
+                        .bind("integrationId", integrationId)
+                        .bind("status", ExportIntegrationJob.Status.COMPLETE)
+                        .mapTo(clazz)
+                        .findOne()
+        );
+    }
+
     public List<ExportIntegrationJob> findByStudyEnvironmentId(UUID studyEnvironmentId) {
         return jdbi.withHandle(handle ->
                 handle.createQuery("""
@@ -5,6 +5,7 @@ import bio.terra.pearl.core.dao.StudyEnvAttachedDao;
 import bio.terra.pearl.core.model.notification.EmailTemplate;
 import bio.terra.pearl.core.model.notification.Trigger;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.jdbi.v3.core.Jdbi;
@@ -27,6 +28,38 @@ public class TriggerDao extends BaseMutableJdbiDao<Trigger> implements StudyEnvA
         return findAllByTwoProperties("study_environment_id", studyEnvironmentId, "active", active);
     }
 
+    /** returns a stamp that changes whenever any of the study environment's triggers are created, updated or deleted */
+    public String findVersionStampByStudyEnvironmentId(UUID studyEnvironmentId) {
+        return findVersionStamp("study_environment_id", studyEnvironmentId);
+    }
+
+    /**
+     * returns a stamp that changes whenever the trigger, or anything loaded into its NotificationContextInfo (the email
+     * template and its localized templates, portal environment and config, portal, and study) is updated.  Empty if
+     * the trigger doesn't exist.
+     */
+    public Optional<String> findNotificationContextVersionStamp(UUID triggerId) {
+        return jdbi.withHandle(handle ->
+                handle.createQuery("""
+                                select concat_ws('|', t.last_updated_at, et.last_updated_at,
+                                    (select count(*) || ':' || coalesce(max(lt.last_updated_at)::text, '')
+                                     from localized_email_template lt where lt.email_template_id = et.id),
+                                    pe.last_updated_at, pec.last_updated_at, p.last_updated_at, s.last_updated_at)
+                                from %s t
+                                left join email_template et on et.id = t.email_template_id
+                                left join portal_environment pe on pe.id = t.portal_environment_id
+                                left join portal_environment_config pec on pec.id = pe.portal_environment_config_id
+                                left join portal p on p.id = pe.portal_id
+                                left join study_environment se on se.id = t.study_environment_id
+                                left join study s on s.id = se.study_id
+                                where t.id = :triggerId;
+                                """.formatted(tableName))
+                        .bind("triggerId", triggerId)
+                        .mapTo(String.class)
+                        .findOne()
+        );
+    }
+
     /** gets the configs for the portal environment that are unassociated with studies */
     public List<Trigger> findByPortalEnvironmentId(UUID portalEnvironmentId) {
         return jdbi.withHandle(handle ->
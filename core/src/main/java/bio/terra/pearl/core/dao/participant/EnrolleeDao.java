@@ -85,6 +85,38 @@ public class EnrolleeDao extends BaseMutableJdbiDao<Enrollee> implements StudyEn
         return findAllByProperty("profile_id", profileId);
     }
 
+    /**
+     * returns a stamp that changes whenever anything loaded for the participant hub of the profile's user is created,
+     * updated or deleted: their enrollees, the proxy relations from those enrollees and the enrollees they target,
+     * and all those enrollees' tasks, kit requests, profiles and mailing addresses.
+     */
+    public String findParticipantHubVersionStamp(UUID profileId) {
+        return jdbi.withHandle(handle ->
+                handle.createQuery("""
+                                with own_enrollee as (select id from enrollee where profile_id = :profileId),
+                                proxy_relation as (select * from enrollee_relation
+                                    where relationship_type = 'PROXY' and enrollee_id in (select id from own_enrollee)),
+                                hub_enrollee as (select * from enrollee where id in (select id from own_enrollee)
+                                    or id in (select target_enrollee_id from proxy_relation)),
+                                hub_profile as (select * from profile
+                                    where id = :profileId or id in (select profile_id from hub_enrollee))
+                                select concat_ws('|',
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from hub_enrollee),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from proxy_relation),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from participant_task
+                                        where enrollee_id in (select id from hub_enrollee)),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from kit_request
+                                        where enrollee_id in (select id from hub_enrollee)),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from hub_profile),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from mailing_address
+                                        where id in (select mailing_address_id from hub_profile)));
+                                """)
+                        .bind("profileId", profileId)
+                        .mapTo(String.class)
+                        .one()
+        );
+    }
+
     public Optional<Enrollee> findByParticipantUserId(UUID userId, UUID studyEnvironmentId) {
         return findByTwoProperties("participant_user_id", userId,
                 "study_environment_id", studyEnvironmentId);
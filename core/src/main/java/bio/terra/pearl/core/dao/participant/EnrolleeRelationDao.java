@@ -7,6 +7,7 @@ import bio.terra.pearl.core.model.participant.RelationshipType;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +41,10 @@ public class EnrolleeRelationDao extends BaseMutableJdbiDao<EnrolleeRelation> {
         return findAllByProperty("target_enrollee_id", enrolleeId);
     }
 
+    public List<EnrolleeRelation> findByTargetEnrolleeIds(Collection<UUID> enrolleeIds) {
+        return findAllByPropertyCollection("target_enrollee_id", enrolleeIds);
+    }
+
     public List<EnrolleeRelation> findEnrolleeRelationsByProxyParticipantUser(UUID participantUserId, List<UUID> targetEnrolleeIds) {
         return jdbi.withHandle(handle ->
                 handle.createQuery("select relation.* from enrollee proxy " +
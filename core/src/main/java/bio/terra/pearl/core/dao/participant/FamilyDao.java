@@ -6,9 +6,7 @@ import bio.terra.pearl.core.model.participant.Family;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 @Component
 public class FamilyDao extends BaseMutableJdbiDao<Family> implements StudyEnvAttachedDao<Family> {
@@ -33,6 +31,20 @@ public class FamilyDao extends BaseMutableJdbiDao<Family> implements StudyEnvAtt
                 .list());
     }
 
+    /** the families of each of the enrollees, keyed by enrollee id.  Enrollees with no family are omitted */
+    public Map<UUID, List<Family>> findByEnrolleeIds(Collection<UUID> enrolleeIds) {
+        if (enrolleeIds.isEmpty()) {
+            return Map.of();
+        }
+        return jdbi.withHandle(handle -> handle.createQuery("SELECT family_enrollee.enrollee_id AS member_enrollee_id, family.* FROM family family INNER JOIN family_enrollee family_enrollee ON family_enrollee.family_id = family.id WHERE family_enrollee.enrollee_id IN (<enrolleeIds>)")
+                .bindList("enrolleeIds", enrolleeIds)
+                .reduceRows(new HashMap<UUID, List<Family>>(), (map, rowView) -> {
+                    map.computeIfAbsent(rowView.getColumn("member_enrollee_id", UUID.class), id -> new ArrayList<>())
+                            .add(rowView.getRow(Family.class));
+                    return map;
+                }));
+    }
+
     public Optional<Family> findOneByShortcodeAndStudyEnvironmentId(String shortcode, UUID studyEnvironmentId) {
         return findByTwoProperties("shortcode", shortcode, "study_environment_id", studyEnvironmentId);
     }
@@ -5,6 +5,7 @@ import bio.terra.pearl.core.model.participant.FamilyEnrollee;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,6 +31,10 @@ public class FamilyEnrolleeDao extends BaseMutableJdbiDao<FamilyEnrollee> {
         return findAllByProperty("enrollee_id", enrolleeId);
     }
 
+    public List<FamilyEnrollee> findByEnrolleeIds(Collection<UUID> enrolleeIds) {
+        return findAllByPropertyCollection("enrollee_id", enrolleeIds);
+    }
+
     // WARNING: This method is not audited; it should only be used during study population/repopulation
     public void deleteByEnrolleeId(UUID enrolleeId) {
         deleteByProperty("enrollee_id", enrolleeId);
@@ -1,13 +1,18 @@
 package bio.terra.pearl.core.dao.participant;
 
 import bio.terra.pearl.core.dao.BaseMutableJdbiDao;
+import bio.terra.pearl.core.model.address.MailingAddress;
 import bio.terra.pearl.core.model.participant.Profile;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class ProfileDao extends BaseMutableJdbiDao<Profile> {
@@ -34,9 +39,12 @@ public class ProfileDao extends BaseMutableJdbiDao<Profile> {
 
     public List<Profile> loadAllWithMailingAddress(List<UUID> profileIds) {
         List<Profile> profiles = findAll(profileIds);
+        List<UUID> mailingAddressIds = profiles.stream().map(Profile::getMailingAddressId).filter(Objects::nonNull).toList();
+        Map<UUID, MailingAddress> mailingAddresses = mailingAddressDao.findAll(mailingAddressIds).stream()
+                .collect(Collectors.toMap(MailingAddress::getId, Function.identity()));
         profiles.forEach(profile -> {
             if (profile.getMailingAddressId() != null) {
-                profile.setMailingAddress(mailingAddressDao.find(profile.getMailingAddressId()).get());
+                profile.setMailingAddress(mailingAddresses.get(profile.getMailingAddressId()));
             }
         });
         return profiles;
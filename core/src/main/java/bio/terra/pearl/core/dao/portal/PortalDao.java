@@ -4,6 +4,7 @@ import bio.terra.pearl.core.dao.BaseMutableJdbiDao;
 import bio.terra.pearl.core.dao.admin.PortalAdminUserDao;
 import bio.terra.pearl.core.dao.study.PortalStudyDao;
 import bio.terra.pearl.core.dao.study.StudyDao;
+import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.admin.PortalAdminUser;
 import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.portal.PortalEnvironment;
@@ -125,5 +126,65 @@ public class PortalDao extends BaseMutableJdbiDao<Portal> {
                         .mapTo(clazz)
                         .findOne());
     }
-    
+
+    /**
+     * returns a stamp that changes whenever anything loaded into the participant site for the portal environment is
+     * created, updated or deleted: the portal and its environments and configs, the environment's languages, site
+     * content (pages, sections and navbar items, in all languages) and preregistration survey, and the portal's
+     * studies, with the environment's study environments, their configs, preenrollment surveys and kit types.
+     */
+    public String findParticipantSiteContentVersionStamp(UUID portalId, EnvironmentName environmentName) {
+        return jdbi.withHandle(handle ->
+                handle.createQuery("""
+                                with portal_env as (select * from portal_environment
+                                                    where portal_id = :portalId and environment_name = :environmentName),
+                                local_site as (select lsc.* from localized_site_content lsc
+                                               join portal_env on lsc.site_content_id = portal_env.site_content_id),
+                                page as (select hp.* from html_page hp
+                                         join local_site on hp.localized_site_content_id = local_site.id),
+                                study_env as (select se.* from study_environment se
+                                              join portal_study ps on ps.study_id = se.study_id
+                                              where ps.portal_id = :portalId and se.environment_name = :environmentName)
+                                select concat_ws('|',
+                                    (select p.last_updated_at from portal p where p.id = :portalId),
+                                    (select count(*) || ':' || coalesce(max(pe.last_updated_at)::text, '')
+                                     from portal_environment pe where pe.portal_id = :portalId),
+                                    (select count(*) || ':' || coalesce(max(pec.last_updated_at)::text, '')
+                                     from portal_environment_config pec
+                                     join portal_environment pe on pe.portal_environment_config_id = pec.id
+                                     where pe.portal_id = :portalId),
+                                    (select count(*) || ':' || coalesce(max(pel.last_updated_at)::text, '')
+                                     from portal_environment_language pel
+                                     join portal_env on pel.portal_environment_id = portal_env.id),
+                                    (select count(*) || ':' || coalesce(max(sc.last_updated_at)::text, '')
+                                     from site_content sc join portal_env on sc.id = portal_env.site_content_id),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from local_site),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from page),
+                                    (select count(*) || ':' || coalesce(max(hs.last_updated_at)::text, '')
+                                     from html_section hs
+                                     where hs.html_page_id in (select id from page)
+                                        or hs.id in (select footer_section_id from local_site)),
+                                    (select count(*) || ':' || coalesce(max(ni.last_updated_at)::text, '')
+                                     from navbar_item ni join local_site on ni.localized_site_content_id = local_site.id),
+                                    (select count(*) || ':' || coalesce(max(s.last_updated_at)::text, '')
+                                     from survey s join portal_env on s.id = portal_env.pre_reg_survey_id),
+                                    (select count(*) || ':' || coalesce(max(s.last_updated_at)::text, '')
+                                     from portal_study ps join study s on s.id = ps.study_id
+                                     where ps.portal_id = :portalId),
+                                    (select count(*) || ':' || coalesce(max(last_updated_at)::text, '') from study_env),
+                                    (select count(*) || ':' || coalesce(max(sec.last_updated_at)::text, '')
+                                     from study_environment_config sec
+                                     join study_env on sec.id = study_env.study_environment_config_id),
+                                    (select count(*) || ':' || coalesce(max(s.last_updated_at)::text, '')
+                                     from survey s join study_env on s.id = study_env.pre_enroll_survey_id),
+                                    (select count(*) || ':' || coalesce(max(sekt.last_updated_at)::text, '')
+                                     from study_environment_kit_type sekt
+                                     join study_env on sekt.study_environment_id = study_env.id));
+                                """)
+                        .bind("portalId", portalId)
+                        .bind("environmentName", environmentName)
+                        .mapTo(String.class)
+                        .one()
+        );
+    }
 }
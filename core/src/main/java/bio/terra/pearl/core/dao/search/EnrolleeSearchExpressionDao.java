@@ -9,6 +9,7 @@ import bio.terra.pearl.core.model.participant.*;
 import bio.terra.pearl.core.model.search.EnrolleeSearchExpressionResult;
 import bio.terra.pearl.core.model.survey.Answer;
 import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.cache.BoundedCache;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
 import bio.terra.pearl.core.service.search.EnrolleeSearchOptions;
 import bio.terra.pearl.core.service.search.expressions.DefaultSearchExpression;
@@ -30,6 +31,7 @@ import org.springframework.util.StopWatch;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -79,7 +81,7 @@ public class EnrolleeSearchExpressionDao {
             org.jooq.Query jooqQuery = search.toQuery(DSL.using(SQLDialect.POSTGRES), opts);
             Query query = jdbiFromJooq(jooqQuery, handle);
             var result = query
-                    .registerRowMapper(Family.class, BeanMapper.of(Family.class, "family"))
+                    .registerRowMapper(Family.class, beanMapperFor(Family.class, "family"))
                     .registerRowMapper(EnrolleeSearchExpressionResult.class, new EnrolleeSearchResultMapper())
                     .reduceRows(new EnrolleeSearchResultReducer())
                     .toList();
@@ -87,6 +89,18 @@ public class EnrolleeSearchExpressionDao {
         });
     }
 
+    /** counts the distinct enrollees matching the expression, without loading them */
+    public long countSearch(EnrolleeSearchExpression expression, UUID studyEnvId) {
+        if (expression == null) {
+            expression = new DefaultSearchExpression(enrolleeDao, profileDao);
+        }
+        EnrolleeSearchQueryBuilder search = expression.generateQueryBuilder(studyEnvId);
+        return jdbi.withHandle(handle ->
+                jdbiFromJooq(search.toCountQuery(DSL.using(SQLDialect.POSTGRES)), handle)
+                        .mapTo(Long.class)
+                        .one());
+    }
+
     private static Query jdbiFromJooq(org.jooq.Query jooqQuery, Handle handle) {
         Query query = handle.createQuery(jooqQuery.getSQL());
         for (int i = 0; i < jooqQuery.getBindValues().size(); i++) {
@@ -103,67 +117,99 @@ public class EnrolleeSearchExpressionDao {
     public static class EnrolleeSearchResultMapper implements RowMapper<EnrolleeSearchExpressionResult> {
         @Override
         public EnrolleeSearchExpressionResult map(ResultSet rs, StatementContext ctx) throws SQLException {
-            EnrolleeSearchExpressionResult result = new EnrolleeSearchExpressionResult();
-            for (SearchModuleMapper processor : moduleMappers) {
-                processor.map(rs, ctx, result);
-            }
-            return result;
+            return specialize(rs, ctx).map(rs, ctx);
         }
 
+        /**
+         * Every row of a search has the same columns, so which modules are present, and the bean mapper for each, is
+         * worked out once per query rather than once per row.
+         */
+        @Override
+        public RowMapper<EnrolleeSearchExpressionResult> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+            List<String> columnNames = new ArrayList<>();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                columnNames.add(rs.getMetaData().getColumnLabel(i));
+            }
+            List<BoundModuleMapper<?>> boundMappers = new ArrayList<>();
+            for (SearchModuleMapper<?> moduleMapper : moduleMappers) {
+                boundMappers.addAll(moduleMapper.bind(columnNames, rs, ctx));
+            }
+            return (rowRs, rowCtx) -> {
+                EnrolleeSearchExpressionResult result = new EnrolleeSearchExpressionResult();
+                for (BoundModuleMapper<?> boundMapper : boundMappers) {
+                    boundMapper.map(rowRs, rowCtx, result);
+                }
+                return result;
+            };
+        }
     }
 
     /**
      * Reduces rows from the database into a single {@link EnrolleeSearchExpressionResult} object.
      */
     public static class EnrolleeSearchResultReducer implements LinkedHashMapRowReducer<UUID, EnrolleeSearchExpressionResult> {
+        /** whether the query joined families -- checked on the first row, since every row has the same columns */
+        private Boolean hasFamilyColumns;
+
         @Override
         public void accumulate(Map<UUID, EnrolleeSearchExpressionResult> map, RowView rowView) {
             final EnrolleeSearchExpressionResult searchResult = map.computeIfAbsent(rowView.getColumn("enrollee_id", UUID.class),
                     id -> rowView.getRow(EnrolleeSearchExpressionResult.class));
 
+            if (hasFamilyColumns == null) {
+                hasFamilyColumns = isColumnPresent(rowView, "family_id", UUID.class);
+            }
             // Add family to enrollee
-            if (isColumnPresent(rowView, "family_id", UUID.class)) {
+            if (hasFamilyColumns && rowView.getColumn("family_id", UUID.class) != null) {
                 searchResult.getFamilies().add(rowView.getRow(Family.class));
             }
         }
 
         private <T> boolean isColumnPresent(RowView rv, String columnName, Class<T> c) {
             try {
-                return rv.getColumn(columnName, c) != null;
+                rv.getColumn(columnName, c);
+                return true;
             } catch (Exception e) {
                 return false;
             }
         }
     }
 
+    /**
+     * bean mappers by column prefix.  These are shared across queries, since building one means reflecting over the
+     * bean class, and each query then specializes them to its own columns.  Item prefixes include stable ids (e.g.
+     * answer_diagnosis), so the number of prefixes grows with the questions and activities searched on -- the cache is
+     * cleared when it fills.
+     */
+    private static final int MAX_CACHED_BEAN_MAPPERS = 1000;
+    private static final BoundedCache<String, RowMapper<?>> beanMappersByPrefix =
+            new BoundedCache<>(MAX_CACHED_BEAN_MAPPERS);
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowMapper<T> beanMapperFor(Class<T> clazz, String prefix) {
+        return (RowMapper<T>) beanMappersByPrefix.computeIfAbsent(clazz.getName() + ":" + prefix,
+                key -> BeanMapper.of(clazz, prefix));
+    }
+
     /** for simple beans that need to be mapped to a property in the EnrolleeSearchExpressionResult, like Profile */
     @Getter
     private static class SearchModuleMapper<T> {
         protected final String prefix;
-        protected final RowMapper<T> mapper;
         protected final BiConsumer<EnrolleeSearchExpressionResult,T> consumer;
         protected final Class<T> clazz;
 
         public SearchModuleMapper(String prefix, Class<T> clazz, BiConsumer<EnrolleeSearchExpressionResult, T> consumer) {
             this.prefix = prefix;
             this.clazz = clazz;
-            this.mapper = BeanMapper.of(clazz, prefix);
             this.consumer = consumer;
         }
 
-        public void map(ResultSet rs, StatementContext ctx, EnrolleeSearchExpressionResult result) throws SQLException {
-            if (isColumnPresent(rs, prefix + "_id")) {
-               consumer.accept(result, mapper.map(rs, ctx));
-            }
-        }
-
-        private boolean isColumnPresent(ResultSet rs, String columnName) {
-            try {
-                rs.findColumn(columnName);
-                return true;
-            } catch (SQLException e) {
-                return false;
+        /** returns the mappers needed for this module given the query's columns -- empty if the module isn't in the query */
+        public List<BoundModuleMapper<T>> bind(List<String> columnNames, ResultSet rs, StatementContext ctx) throws SQLException {
+            if (!columnNames.contains(prefix + "_id")) {
+                return List.of();
             }
+            return List.of(new BoundModuleMapper<>(beanMapperFor(clazz, prefix).specialize(rs, ctx), consumer, -1));
         }
     }
 
@@ -173,18 +219,34 @@ public class EnrolleeSearchExpressionDao {
             super(prefix, clazz, consumer);
         }
 
+        /** each item in the collection is joined under its own alias, e.g. answer_diagnosis */
         @Override
-        public void map(ResultSet rs, StatementContext ctx, EnrolleeSearchExpressionResult result) throws SQLException {
-            for (int i = 1; i < rs.getMetaData().getColumnCount(); i++) {
-                String columnName = rs.getMetaData().getColumnName(i);
+        public List<BoundModuleMapper<T>> bind(List<String> columnNames, ResultSet rs, StatementContext ctx) throws SQLException {
+            List<BoundModuleMapper<T>> boundMappers = new ArrayList<>();
+            for (String columnName : columnNames) {
                 if (columnName.startsWith(prefix) && columnName.endsWith("_created_at")) {
                     String itemPrefix = columnName.substring(
                             0,
                             columnName.length() - "_created_at".length());
-                    RowMapper<T> itemMapper = BeanMapper.of(clazz, itemPrefix);
-                    consumer.accept(result, itemMapper.map(rs, ctx));
+                    // the items are left joined, so skip them for enrollees that don't have one
+                    int idColumn = columnNames.indexOf(itemPrefix + "_id") + 1;
+                    boundMappers.add(new BoundModuleMapper<>(beanMapperFor(clazz, itemPrefix).specialize(rs, ctx), consumer, idColumn));
                 }
             }
+            return boundMappers;
+        }
+    }
+
+    /**
+     * a module mapper specialized to a query's columns.  If idColumn is positive, the module is only mapped if that
+     * column is non-null
+     */
+    private record BoundModuleMapper<T>(RowMapper<T> mapper, BiConsumer<EnrolleeSearchExpressionResult, T> consumer, int idColumn) {
+        public void map(ResultSet rs, StatementContext ctx, EnrolleeSearchExpressionResult result) throws SQLException {
+            if (idColumn > 0 && rs.getObject(idColumn) == null) {
+                return;
+            }
+            consumer.accept(result, mapper.map(rs, ctx));
         }
     }
 }
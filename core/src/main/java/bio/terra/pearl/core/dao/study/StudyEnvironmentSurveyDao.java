@@ -126,6 +126,14 @@ public class StudyEnvironmentSurveyDao extends BaseMutableJdbiDao<StudyEnvironme
                         .one()) > 0;
     }
 
+    /**
+     * returns a stamp that changes whenever any of the environment's survey configs are created, updated or deleted.
+     * Surveys themselves are versioned rather than updated, so any change to a configured survey also changes this.
+     */
+    public String findConfigVersionStamp(UUID studyEnvId) {
+        return findVersionStamp("study_environment_id", studyEnvId);
+    }
+
     protected enum ATTACH_SURVEY {
         WITH_CONTENT, // include the content json of the survey
         WITHOUT_CONTENT  // exclude the content from the retrieval
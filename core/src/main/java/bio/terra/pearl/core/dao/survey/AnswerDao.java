@@ -105,4 +105,55 @@ public class AnswerDao extends BaseMutableJdbiDao<Answer> {
                         .findFirst()
         );
     }
+
+    /** the latest answer to the question for each of the enrollees, keyed by enrollee id */
+    public Map<UUID, Answer> findLatestForEnrolleesByQuestion(Collection<UUID> enrolleeIds, String surveyStableId, String questionStableId) {
+        if (enrolleeIds.isEmpty()) {
+            return Map.of();
+        }
+        return jdbi.withHandle(handle ->
+                handle.createQuery("select distinct on (enrollee_id) * from " + tableName +
+                                " where enrollee_id in (<enrolleeIds>) " +
+                                "and survey_stable_id = :surveyStableId " +
+                                "and question_stable_id = :questionStableId " +
+                                "order by enrollee_id, last_updated_at desc")
+                        .bindList("enrolleeIds", enrolleeIds)
+                        .bind("surveyStableId", surveyStableId)
+                        .bind("questionStableId", questionStableId)
+                        .mapTo(clazz)
+                        .stream()
+                        .collect(Collectors.toMap(Answer::getEnrolleeId, answer -> answer))
+        );
+    }
+
+    /**
+     * the latest answer to the question in the given study for each of the profiles, keyed by profile id.
+     * Bulk equivalent of findByProfileIdStudyAndQuestion
+     */
+    public Map<UUID, Answer> findLatestForProfilesByStudyAndQuestion(Collection<UUID> profileIds, String studyName, String surveyStableId, String questionStableId) {
+        if (profileIds.isEmpty()) {
+            return Map.of();
+        }
+        return jdbi.withHandle(handle ->
+                handle.createQuery("""
+                                select distinct on (e.profile_id) e.profile_id as answer_profile_id, a.* from %s a
+                                inner join enrollee e on e.id = a.enrollee_id
+                                inner join study_environment se on se.id = e.study_environment_id
+                                inner join study s on s.id = se.study_id
+                                where e.profile_id in (<profileIds>)
+                                and s.name = :studyName
+                                and a.survey_stable_id = :surveyStableId
+                                and a.question_stable_id = :questionStableId
+                                order by e.profile_id, a.last_updated_at desc
+                                """.formatted(tableName))
+                        .bindList("profileIds", profileIds)
+                        .bind("studyName", studyName)
+                        .bind("surveyStableId", surveyStableId)
+                        .bind("questionStableId", questionStableId)
+                        .reduceRows(new HashMap<UUID, Answer>(), (map, rowView) -> {
+                            map.put(rowView.getColumn("answer_profile_id", UUID.class), rowView.getRow(clazz));
+                            return map;
+                        })
+        );
+    }
 }
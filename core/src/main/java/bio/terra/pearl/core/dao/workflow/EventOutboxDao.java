@@ -0,0 +1,102 @@
+package bio.terra.pearl.core.dao.workflow;
+
+import bio.terra.pearl.core.dao.BaseMutableJdbiDao;
+import bio.terra.pearl.core.model.workflow.EventOutboxEntry;
+import bio.terra.pearl.core.model.workflow.EventOutboxStatus;
+import org.jdbi.v3.core.Jdbi;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class EventOutboxDao extends BaseMutableJdbiDao<EventOutboxEntry> {
+
+    public EventOutboxDao(Jdbi jdbi) {
+        super(jdbi);
+    }
+
+    @Override
+    protected Class<EventOutboxEntry> getClazz() {
+        return EventOutboxEntry.class;
+    }
+
+    public List<EventOutboxEntry> findByEnrolleeId(UUID enrolleeId) {
+        return findAllByProperty("enrollee_id", enrolleeId);
+    }
+
+    /**
+     * Leases up to `limit` entries that are due for delivery, and returns them.  Only the oldest pending entry for
+     * each enrollee can be leased, so each enrollee's events are delivered one at a time, in order.  An entry whose
+     * lease has expired (e.g. because its worker died) can be leased again, so delivery is at least once.
+     *
+     * The lease condition is rechecked by the update, so concurrent workers never lease the same entry.
+     */
+    public List<EventOutboxEntry> leaseDue(int limit, Duration leaseDuration) {
+        return lease(null, limit, leaseDuration);
+    }
+
+    /** as leaseDue, but only for the given enrollee, so at most one entry is returned */
+    public List<EventOutboxEntry> leaseDueForEnrollee(UUID enrolleeId, Duration leaseDuration) {
+        return lease(enrolleeId, 1, leaseDuration);
+    }
+
+    private List<EventOutboxEntry> lease(UUID enrolleeId, int limit, Duration leaseDuration) {
+        Instant now = Instant.now();
+        return jdbi.withHandle(handle ->
+                handle.createQuery("""
+                                update %1$s set leased_until = :leasedUntil, last_updated_at = :now
+                                where id in (
+                                    select head.id from (
+                                        select distinct on (enrollee_id) id, next_attempt_at, leased_until, created_at
+                                        from %1$s
+                                        where status = :pending %2$s
+                                        order by enrollee_id, created_at, id
+                                    ) head
+                                    where head.next_attempt_at <= :now
+                                    and (head.leased_until is null or head.leased_until < :now)
+                                    order by head.created_at
+                                    limit :limit
+                                )
+                                and status = :pending
+                                and (leased_until is null or leased_until < :now)
+                                returning *;
+                                """.formatted(tableName, enrolleeId != null ? "and enrollee_id = :enrolleeId" : ""))
+                        .bind("leasedUntil", now.plus(leaseDuration))
+                        .bind("now", now)
+                        .bind("pending", EventOutboxStatus.PENDING)
+                        .bind("enrolleeId", enrolleeId)
+                        .bind("limit", limit)
+                        .mapTo(clazz)
+                        .list()
+        );
+    }
+
+    /** records that a listener step has completed for the entry, so that it is skipped if the entry is retried */
+    public void addCompletedStep(UUID entryId, String stepKey) {
+        jdbi.withHandle(handle ->
+                handle.createUpdate("""
+                                update %s set completed_steps = array_append(coalesce(completed_steps, '{}'), :stepKey),
+                                last_updated_at = :now
+                                where id = :id;
+                                """.formatted(tableName))
+                        .bind("stepKey", stepKey)
+                        .bind("now", Instant.now())
+                        .bind("id", entryId)
+                        .execute()
+        );
+    }
+
+    /** deletes delivered entries last updated before the given time.  returns the number deleted */
+    public int deleteDeliveredBefore(Instant cutoff) {
+        return jdbi.withHandle(handle ->
+                handle.createUpdate("delete from %s where status = :delivered and last_updated_at < :cutoff;"
+                                .formatted(tableName))
+                        .bind("delivered", EventOutboxStatus.DELIVERED)
+                        .bind("cutoff", cutoff)
+                        .execute()
+        );
+    }
+}
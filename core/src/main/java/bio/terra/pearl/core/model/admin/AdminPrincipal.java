@@ -0,0 +1,26 @@
+package bio.terra.pearl.core.model.admin;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An admin user with everything needed to authorize their requests: the portals they are a member of, and their
+ * permissions in each portal (granted through their roles).
+ */
+public record AdminPrincipal(AdminUser user, Set<UUID> portalIds, Map<UUID, Set<String>> portalPermissions) {
+    public AdminPrincipal {
+        portalIds = Set.copyOf(portalIds);
+        portalPermissions = portalPermissions.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> Set.copyOf(entry.getValue())));
+    }
+
+    public boolean isInPortal(UUID portalId) {
+        return user.isSuperuser() || portalIds.contains(portalId);
+    }
+
+    public boolean hasPermission(UUID portalId, String permission) {
+        return user.isSuperuser() || portalPermissions.getOrDefault(portalId, Set.of()).contains(permission);
+    }
+}
@@ -20,6 +20,13 @@ public class ExportIntegration extends BaseEntity implements StudyEnvAttached {
     @Builder.Default
 
     private boolean enabled = true;
+    /**
+     * if true, each run only exports enrollees whose data changed since the high-water mark of the last
+     * successful job, so the destination should upsert the rows (e.g. keyed on enrollee shortcode) rather than
+     * replace its data.  The first run exports everything.
+     */
+    @Builder.Default
+    private boolean incremental = false;
     private ExportDestinationType destinationType;
     private String destinationUrl;
     private UUID exportOptionsId;
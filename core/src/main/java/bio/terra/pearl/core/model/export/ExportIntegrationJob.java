@@ -20,6 +20,13 @@ public class ExportIntegrationJob extends BaseEntity {
     private ExportIntegrationJob.Status status;
     private Instant startedAt;
     private Instant completedAt;
+    /** for incremental exports, only enrollees changed after this time are included.  null if everything is exported */
+    private Instant changedSince;
+    /**
+     * the time the export data was read from.  Changes after this may not be included, so the next incremental
+     * export includes changes since this time.
+     */
+    private Instant highWaterMark;
     private String result;
 
     public enum Status {
@@ -0,0 +1,26 @@
+package bio.terra.pearl.core.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** a single page of search results */
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrolleeSearchResultPage {
+    private List<EnrolleeSearchExpressionResult> results = new ArrayList<>();
+    /**
+     * pass this as the cursor to get the next page.  null if this page is empty, or the search can't be paged by cursor
+     */
+    private String nextCursor;
+    /** the total number of enrollees matching the search, if it was requested */
+    private Long totalCount;
+}
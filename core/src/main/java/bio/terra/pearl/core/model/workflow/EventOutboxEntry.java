@@ -0,0 +1,47 @@
+package bio.terra.pearl.core.model.workflow;
+
+import bio.terra.pearl.core.model.BaseEntity;
+import bio.terra.pearl.core.model.kit.KitRequestStatus;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An enrollee event waiting to be delivered to OutboxEventListeners.  Entries are written in the same transaction as
+ * the change that caused the event, so an event is delivered if and only if that change is committed.
+ *
+ * Only the ids of the event's objects are stored -- the event is rebuilt from current data when it is delivered.
+ * This is deliberate: listeners see the enrollee as it is when the event is delivered, not as it was when the event
+ * was published, which is a change from synchronous delivery.  See EventOutboxService.rebuildEvent.
+ */
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+public class EventOutboxEntry extends BaseEntity {
+    private EventClass eventClass;
+    private UUID enrolleeId;
+    private UUID portalParticipantUserId;
+    private UUID surveyResponseId; // for survey events
+    private UUID participantTaskId; // for survey events
+    private UUID kitRequestId; // for kit status events
+    private KitRequestStatus kitStatus; // for kit status events, the status the kit changed to
+    private KitRequestStatus priorKitStatus; // for kit status events
+    @Builder.Default
+    private EventOutboxStatus status = EventOutboxStatus.PENDING;
+    private int attempts;
+    @Builder.Default
+    private Instant nextAttemptAt = Instant.now();
+    private Instant leasedUntil; // while set and in the future, the entry is being delivered by a worker
+    private String lastError;
+    /** keys of the listener steps that have completed, so a retry doesn't repeat them.  See OutboxDelivery */
+    @Builder.Default
+    private List<String> completedSteps = new ArrayList<>();
+}
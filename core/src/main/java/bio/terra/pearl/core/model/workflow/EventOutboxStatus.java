@@ -0,0 +1,7 @@
+package bio.terra.pearl.core.model.workflow;
+
+public enum EventOutboxStatus {
+    PENDING, // waiting to be delivered, or to be retried
+    DELIVERED,
+    FAILED // delivery failed too many times, and will not be retried
+}
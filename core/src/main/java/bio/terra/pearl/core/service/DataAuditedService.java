@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * base class for entities that should have changes tracked via DataChangeRecords.
@@ -61,6 +62,23 @@ public abstract class DataAuditedService<M extends BaseEntity, D extends BaseMut
         }
     }
 
+    /**
+     * creates all the objects in a single batch, with a change record for each made from its own audit info.
+     * Ids are assigned before the insert, so the returned objects (and their change records) have them.
+     */
+    @Transactional
+    public List<M> bulkCreateWithAuditInfos(List<M> modelObjs, Function<M, DataAuditInfo> auditInfoProvider) {
+        for (M model : modelObjs) {
+            model.setId(UUID.randomUUID());
+        }
+        dao.bulkCreateWithIdSpecified(modelObjs);
+        List<C> changeRecords = modelObjs.stream()
+                .map(model -> makeCreationChangeRecord(model, auditInfoProvider.apply(model)))
+                .toList();
+        dataChangeService.bulkCreate(changeRecords);
+        return modelObjs;
+    }
+
     @Transactional
     public M update(M obj, DataAuditInfo auditInfo) {
         try {
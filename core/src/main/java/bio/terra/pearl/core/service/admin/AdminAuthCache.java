@@ -0,0 +1,178 @@
+package bio.terra.pearl.core.service.admin;
+
+import bio.terra.pearl.core.model.EnvironmentName;
+import bio.terra.pearl.core.model.admin.AdminPrincipal;
+import bio.terra.pearl.core.model.admin.AdminUser;
+import bio.terra.pearl.core.model.portal.Portal;
+import bio.terra.pearl.core.model.study.PortalStudy;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.service.cache.BoundedCache;
+import bio.terra.pearl.core.service.cache.TransactionalEviction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches what the admin API resolves to authorize each request: the signed-in admin's principal (user, portal
+ * memberships and permissions), keyed by the username from their token, and the portals, portal studies, and study
+ * environments named by shortcode in request paths.  An admin page load makes many requests, each of which would
+ * otherwise repeat the same lookups.
+ *
+ * Entries expire after a short TTL (env.adminAuthCache.ttlSeconds, default 30s; 0 disables caching), which bounds how
+ * long a change made by another process can go unseen.  Changes made through the admin services evict entries
+ * directly, both immediately and again once the transaction completes, so that a reload in between can't cache
+ * the old data.  Nothing is cached while a transaction is active, so uncommitted (or rolled back) data is never
+ * cached.  Callers get their own copy of each cached entity, so may modify it freely.
+ */
+@Component
+public class AdminAuthCache {
+    private static final int MAX_CACHED_ENTRIES = 1000;
+    private final BoundedCache<String, CachedEntry<AdminPrincipal>> principals = new BoundedCache<>(MAX_CACHED_ENTRIES);
+    private final BoundedCache<String, CachedEntry<Portal>> portals = new BoundedCache<>(MAX_CACHED_ENTRIES);
+    private final BoundedCache<PortalStudyKey, CachedEntry<PortalStudy>> portalStudies =
+            new BoundedCache<>(MAX_CACHED_ENTRIES);
+    private final BoundedCache<StudyEnvKey, CachedEntry<StudyEnvironment>> studyEnvs =
+            new BoundedCache<>(MAX_CACHED_ENTRIES);
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AdminAuthCache(Environment env) {
+        this(Duration.ofSeconds(env.getProperty("env.adminAuthCache.ttlSeconds", Long.class, 30L)), Clock.systemUTC());
+    }
+
+    public AdminAuthCache(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /** returns the principal for the (case-insensitive) username, using the loader if it isn't cached */
+    public Optional<AdminPrincipal> getPrincipal(String username, Supplier<Optional<AdminPrincipal>> loader) {
+        return get(principals, username.toLowerCase(), loader, AdminAuthCache::copy);
+    }
+
+    public Optional<Portal> getPortal(String shortcode, Supplier<Optional<Portal>> loader) {
+        return get(portals, shortcode, loader, AdminAuthCache::copy);
+    }
+
+    public Optional<PortalStudy> getPortalStudy(UUID portalId, String studyShortcode,
+                                                Supplier<Optional<PortalStudy>> loader) {
+        return get(portalStudies, new PortalStudyKey(portalId, studyShortcode), loader, AdminAuthCache::copy);
+    }
+
+    public Optional<StudyEnvironment> getStudyEnvironment(String studyShortcode, EnvironmentName environmentName,
+                                                          Supplier<Optional<StudyEnvironment>> loader) {
+        return get(studyEnvs, new StudyEnvKey(studyShortcode, environmentName), loader, AdminAuthCache::copy);
+    }
+
+    public void evictPrincipal(UUID adminUserId) {
+        TransactionalEviction.evict(() ->
+                principals.removeIf((key, entry) -> entry.value().user().getId().equals(adminUserId)));
+    }
+
+    /** for changes that could affect any admin, such as to the permissions granted by a role */
+    public void evictAllPrincipals() {
+        TransactionalEviction.evict(principals::clear);
+    }
+
+    public void evictPortal(UUID portalId) {
+        TransactionalEviction.evict(() -> {
+            portals.removeIf((key, entry) -> entry.value().getId().equals(portalId));
+            portalStudies.removeIf((key, entry) -> key.portalId().equals(portalId));
+            // memberships of the portal are held in principals
+            principals.removeIf((key, entry) -> entry.value().portalIds().contains(portalId));
+        });
+    }
+
+    public void evictStudy(UUID studyId) {
+        TransactionalEviction.evict(() -> {
+            portalStudies.removeIf((key, entry) -> entry.value().getStudyId().equals(studyId));
+            studyEnvs.removeIf((key, entry) -> entry.value().getStudyId().equals(studyId));
+        });
+    }
+
+    public void evictStudyEnvironment(UUID studyEnvId) {
+        TransactionalEviction.evict(() ->
+                studyEnvs.removeIf((key, entry) -> entry.value().getId().equals(studyEnvId)));
+    }
+
+    private <K, V> Optional<V> get(BoundedCache<K, CachedEntry<V>> cache, K key, Supplier<Optional<V>> loader,
+                                   UnaryOperator<V> copier) {
+        if (ttl.isZero() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        Instant now = clock.instant();
+        CachedEntry<V> cached = cache.get(key);
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            return Optional.of(copier.apply(cached.value()));
+        }
+        Optional<V> loaded = loader.get();
+        if (loaded.isEmpty()) {
+            // misses aren't cached, so that new users and portals are found as soon as they're created
+            cache.remove(key);
+            return loaded;
+        }
+        cache.put(key, new CachedEntry<>(copier.apply(loaded.get()), now.plus(ttl)));
+        return loaded;
+    }
+
+    /** the copies below include the columns the entities are loaded with -- related entities are never cached */
+    private static AdminPrincipal copy(AdminPrincipal principal) {
+        AdminUser user = principal.user();
+        return new AdminPrincipal(AdminUser.builder()
+                .id(user.getId())
+                .createdAt(user.getCreatedAt())
+                .lastUpdatedAt(user.getLastUpdatedAt())
+                .username(user.getUsername())
+                .lastLogin(user.getLastLogin())
+                .superuser(user.isSuperuser())
+                .build(), principal.portalIds(), principal.portalPermissions());
+    }
+
+    private static Portal copy(Portal portal) {
+        return Portal.builder()
+                .id(portal.getId())
+                .createdAt(portal.getCreatedAt())
+                .lastUpdatedAt(portal.getLastUpdatedAt())
+                .name(portal.getName())
+                .shortcode(portal.getShortcode())
+                .build();
+    }
+
+    private static PortalStudy copy(PortalStudy portalStudy) {
+        return PortalStudy.builder()
+                .id(portalStudy.getId())
+                .createdAt(portalStudy.getCreatedAt())
+                .lastUpdatedAt(portalStudy.getLastUpdatedAt())
+                .portalId(portalStudy.getPortalId())
+                .studyId(portalStudy.getStudyId())
+                .build();
+    }
+
+    private static StudyEnvironment copy(StudyEnvironment studyEnv) {
+        return StudyEnvironment.builder()
+                .id(studyEnv.getId())
+                .createdAt(studyEnv.getCreatedAt())
+                .lastUpdatedAt(studyEnv.getLastUpdatedAt())
+                .environmentName(studyEnv.getEnvironmentName())
+                .studyId(studyEnv.getStudyId())
+                .studyEnvironmentConfigId(studyEnv.getStudyEnvironmentConfigId())
+                .preEnrollSurveyId(studyEnv.getPreEnrollSurveyId())
+                .build();
+    }
+
+    private record CachedEntry<V>(V value, Instant expiresAt) { }
+
+    private record PortalStudyKey(UUID portalId, String studyShortcode) { }
+
+    private record StudyEnvKey(String studyShortcode, EnvironmentName environmentName) { }
+}
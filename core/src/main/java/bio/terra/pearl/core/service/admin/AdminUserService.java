@@ -20,6 +20,7 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
     private final AdminDataChangeService adminDataChangeService;
     private final ParticipantDataChangeService participantDataChangeService;
     private final PortalEnvironmentChangeRecordService portalEnvironmentChangeRecordService;
+    private final AdminAuthCache adminAuthCache;
     private final ObjectMapper objectMapper;
 
     public AdminUserService(AdminUserDao adminUserDao,
@@ -28,6 +29,7 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
                             AdminDataChangeService adminDataChangeService,
                             ParticipantDataChangeService participantDataChangeService,
                             PortalEnvironmentChangeRecordService portalEnvironmentChangeRecordService,
+                            AdminAuthCache adminAuthCache,
                             ObjectMapper objectMapper) {
         super(adminUserDao, adminDataChangeService, objectMapper);
         this.portalAdminUserService = portalAdminUserService;
@@ -35,6 +37,7 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
         this.adminDataChangeService = adminDataChangeService;
         this.participantDataChangeService = participantDataChangeService;
         this.portalEnvironmentChangeRecordService = portalEnvironmentChangeRecordService;
+        this.adminAuthCache = adminAuthCache;
         this.objectMapper = objectMapper;
     }
 
@@ -47,6 +50,21 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
         return dao.findByUsernameWithPermissions(username);
     }
 
+    /**
+     * loads the user with their portal memberships and permissions, for authorizing requests.  This is cached (see
+     * AdminAuthCache), so shouldn't be used where the user will be updated.
+     */
+    public Optional<AdminPrincipal> findPrincipalByUsername(String username) {
+        return adminAuthCache.getPrincipal(username, () -> dao.findByUsername(username).map(user -> {
+            Set<UUID> portalIds = new HashSet<>();
+            portalAdminUserService.findByAdminUser(user.getId())
+                    .forEach(portalAdminUser -> portalIds.add(portalAdminUser.getPortalId()));
+            Map<UUID, Set<String>> portalPermissions =
+                    new HashMap<>(dao.loadWithPermissions(user).orElseThrow().portalPermissions());
+            return new AdminPrincipal(user, portalIds, portalPermissions);
+        }));
+    }
+
     @Transactional
     public AdminUser create(AdminUser adminUser, DataAuditInfo auditInfo) {
         //An AdminUser could belong to more than one portal, so we need to check if the user already exists
@@ -54,6 +72,7 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
         AdminUser savedUser = dao.findByUsername(adminUser.getUsername())
                                  .orElseGet(() -> super.create(adminUser, auditInfo));
 
+        adminAuthCache.evictPrincipal(savedUser.getId());
         logger.info("Created AdminUser - id: {}, username: {}", savedUser.getId(), savedUser.getUsername());
         for (PortalAdminUser portalAdminUser : adminUser.getPortalAdminUsers()) {
             portalAdminUser.setAdminUserId(savedUser.getId());
@@ -70,6 +89,15 @@ public class AdminUserService extends AdminDataAuditedService<AdminUser, AdminUs
         participantDataChangeService.deleteByResponsibleAdminUserId(adminUserId);
         portalEnvironmentChangeRecordService.deleteByResponsibleAdminUserId(adminUserId);
         dao.delete(adminUserId);
+        adminAuthCache.evictPrincipal(adminUserId);
+    }
+
+    @Transactional
+    @Override
+    public AdminUser update(AdminUser adminUser, DataAuditInfo auditInfo) {
+        AdminUser updatedUser = super.update(adminUser, auditInfo);
+        adminAuthCache.evictPrincipal(updatedUser.getId());
+        return updatedUser;
     }
 
     public List<AdminUser> findAllWithRoles() {
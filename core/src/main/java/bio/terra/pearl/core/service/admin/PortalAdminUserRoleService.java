@@ -26,18 +26,29 @@ public class PortalAdminUserRoleService extends AdminDataAuditedService<PortalAd
 
     private RoleService roleService;
 
+    private AdminAuthCache adminAuthCache;
+
     public PortalAdminUserRoleService(PermissionService permissionService,
                                       PortalAdminUserRoleDao portalAdminUserRoleDao,
                                       @Lazy PortalAdminUserService portalAdminUserService,
                                       RolePermissionService rolePermissionService,
                                       RoleService roleService,
                                       AdminDataChangeService adminDataChangeService,
+                                      AdminAuthCache adminAuthCache,
                                       ObjectMapper objectMapper) {
         super(portalAdminUserRoleDao, adminDataChangeService, objectMapper);
         this.permissionService = permissionService;
         this.portalAdminUserService = portalAdminUserService;
         this.rolePermissionService = rolePermissionService;
         this.roleService = roleService;
+        this.adminAuthCache = adminAuthCache;
+    }
+
+    @Override
+    public PortalAdminUserRole create(PortalAdminUserRole portalAdminUserRole, DataAuditInfo auditInfo) {
+        PortalAdminUserRole created = super.create(portalAdminUserRole, auditInfo);
+        evictPrincipal(created.getPortalAdminUserId());
+        return created;
     }
 
     public List<PortalAdminUserRole> getRolesForAdminUser(UUID adminUserId) {
@@ -71,6 +82,7 @@ public class PortalAdminUserRoleService extends AdminDataAuditedService<PortalAd
             PortalAdminUserRole portalAdminUserRole = PortalAdminUserRole.builder().portalAdminUserId(portalAdminUserId).roleId(role.getId()).build();
             return create(portalAdminUserRole, auditInfo);
         }).toList();
+        evictPrincipal(portalAdminUserId);
         return roles.stream().map(Role::getName).toList();
     }
 
@@ -81,6 +93,11 @@ public class PortalAdminUserRoleService extends AdminDataAuditedService<PortalAd
         return roles;
     }
 
+    private void evictPrincipal(UUID portalAdminUserId) {
+        portalAdminUserService.find(portalAdminUserId)
+                .ifPresent(portalAdminUser -> adminAuthCache.evictPrincipal(portalAdminUser.getAdminUserId()));
+    }
+
     /** this operation is not audited as it is assumed this is in the context of portal admin user deletion, which is */
     protected void deleteByPortalAdminUserId(UUID portalAdminUserId) {
         dao.deleteByPortalAdminUserId(portalAdminUserId);
@@ -21,13 +21,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class PortalAdminUserService extends AdminDataAuditedService<PortalAdminUser, PortalAdminUserDao> {
 
     private PortalAdminUserRoleService portalAdminUserRoleService;
+    private AdminAuthCache adminAuthCache;
 
     public PortalAdminUserService(PortalAdminUserDao portalAdminUserDao,
                                   PortalAdminUserRoleService portalAdminUserRoleService,
                                   AdminDataChangeService adminDataChangeService,
+                                  AdminAuthCache adminAuthCache,
                                   ObjectMapper objectMapper) {
         super(portalAdminUserDao, adminDataChangeService, objectMapper);
         this.portalAdminUserRoleService = portalAdminUserRoleService;
+        this.adminAuthCache = adminAuthCache;
     }
 
     public PortalAdminUser create(PortalAdminUser portalAdminUser, DataAuditInfo auditInfo) {
@@ -39,6 +42,7 @@ public class PortalAdminUserService extends AdminDataAuditedService<PortalAdminU
                 paUser.getPortalAdminUserRoles().add(pauRole);
             }
         }
+        adminAuthCache.evictPrincipal(paUser.getAdminUserId());
         return paUser;
     }
 
@@ -95,5 +99,6 @@ public class PortalAdminUserService extends AdminDataAuditedService<PortalAdminU
         auditInfo.setAdminUserId(existing.getAdminUserId());
         portalAdminUserRoleService.deleteByPortalAdminUserId(id);
         super.delete(id, auditInfo, cascades);
+        adminAuthCache.evictPrincipal(existing.getAdminUserId());
     }
 }
@@ -4,6 +4,7 @@ import bio.terra.pearl.core.dao.admin.RoleDao;
 import bio.terra.pearl.core.model.admin.Permission;
 import bio.terra.pearl.core.model.admin.Role;
 
+import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
 import bio.terra.pearl.core.service.ImmutableEntityService;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,7 @@ import bio.terra.pearl.core.model.admin.RolePermission;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,11 +22,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class RoleService extends CrudService<Role, RoleDao> {
     private final PermissionService permissionService;
     private final RolePermissionService rolePermissionService;
+    private final AdminAuthCache adminAuthCache;
 
-    public RoleService(RoleDao roleDao, PermissionService permissionService, RolePermissionService rolePermissionService) {
+    public RoleService(RoleDao roleDao, PermissionService permissionService, RolePermissionService rolePermissionService,
+                       AdminAuthCache adminAuthCache) {
         super(roleDao);
         this.permissionService = permissionService;
         this.rolePermissionService = rolePermissionService;
+        this.adminAuthCache = adminAuthCache;
     }
 
     @Transactional
@@ -66,9 +71,18 @@ public class RoleService extends CrudService<Role, RoleDao> {
                     .build());
         });
 
+        // any number of admins may have the role, so their permissions are all reloaded
+        adminAuthCache.evictAllPrincipals();
         return dao.update(role);
     }
 
+    @Transactional
+    @Override
+    public void delete(UUID roleId, Set<CascadeProperty> cascade) {
+        super.delete(roleId, cascade);
+        adminAuthCache.evictAllPrincipals();
+    }
+
     public void attachPermissions(List<Role> roles) {
         List<RolePermission> rolePermissions = rolePermissionService.findAllByRoleIds(roles.stream().map(Role::getId).toList());
         List<Permission> permissions = permissionService.findAll(rolePermissions.stream().map(RolePermission::getPermissionId).toList());
@@ -0,0 +1,67 @@
+package bio.terra.pearl.core.service.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map for in-memory caches whose keys aren't bounded, e.g. rule text, stable ids, or study environments
+ * across every portal.  It holds at most maxSize entries -- adding a new entry when it's full clears it first.  Cached
+ * values are cheap to reload, so an occasional full reload is simpler than tracking which entries to evict.
+ */
+public class BoundedCache<K, V> {
+    private final int maxSize;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    public BoundedCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** returns the cached value, or null if there isn't one */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            entries.clear();
+        }
+        entries.put(key, value);
+    }
+
+    /** returns the cached value, loading and caching it if there isn't one */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        return entries.computeIfAbsent(key, loader);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /** removes every entry the predicate matches */
+    public void removeIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /** a snapshot of the cached values */
+    public List<V> values() {
+        return List.copyOf(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
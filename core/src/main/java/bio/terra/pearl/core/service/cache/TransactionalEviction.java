@@ -0,0 +1,23 @@
+package bio.terra.pearl.core.service.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts cache entries for a change that may be part of a transaction.  The eviction runs immediately, so the changing
+ * thread doesn't read its own stale entry, and again once the transaction completes, so that the old data can't stay
+ * cached if another thread reloads it before the change commits.
+ */
+public class TransactionalEviction {
+    public static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bio.terra.pearl.core.service.cache;
+
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A BoundedCache whose entries are stored with a version stamp read from the database, e.g. the latest lastUpdatedAt
+ * of the rows a value is loaded from.  Callers read the current stamp and pass it in, and a cached value is only used
+ * if it was stored with the same stamp, so changes made by other processes are picked up.
+ *
+ * Callers must read the stamp before loading the value, so a value is never older than the stamp it is stored with --
+ * a change made in between is then caught by the next read, rather than hidden behind a stamp that already includes it.
+ */
+public class VersionedCache<K, V> {
+    private final BoundedCache<K, Versioned<V>> entries;
+
+    public VersionedCache(int maxSize) {
+        entries = new BoundedCache<>(maxSize);
+    }
+
+    /** returns the value cached with the version stamp, or loads and caches it if there isn't one */
+    public V get(K key, String versionStamp, Supplier<V> loader) {
+        return get(key, versionStamp, value -> true, loader);
+    }
+
+    /**
+     * returns the value cached with the version stamp, if isUsable accepts it, e.g. for values that also expire.
+     * Otherwise loads and caches it.
+     */
+    public V get(K key, String versionStamp, Predicate<V> isUsable, Supplier<V> loader) {
+        Versioned<V> cached = entries.get(key);
+        if (cached != null && cached.versionStamp().equals(versionStamp) && isUsable.test(cached.value())) {
+            return cached.value();
+        }
+        return load(key, versionStamp, loader);
+    }
+
+    /** loads the value and caches it with the version stamp.  Nothing is cached if the loader returns null. */
+    public V load(K key, String versionStamp, Supplier<V> loader) {
+        V value = loader.get();
+        if (value != null) {
+            entries.put(key, new Versioned<>(versionStamp, value));
+        }
+        return value;
+    }
+
+    /**
+     * returns the cached value with the stamp it was stored with, or null if there isn't one.  For callers that don't
+     * check the stamp on every read.
+     */
+    public Versioned<V> getVersioned(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, String versionStamp, V value) {
+        entries.put(key, new Versioned<>(versionStamp, value));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /** removes every entry the predicate matches */
+    public void removeIf(BiPredicate<K, V> predicate) {
+        entries.removeIf((key, cached) -> predicate.test(key, cached.value()));
+    }
+
+    public record Versioned<V>(String versionStamp, V value) { }
+}
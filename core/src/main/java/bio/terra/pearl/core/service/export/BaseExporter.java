@@ -12,7 +12,8 @@ public abstract class BaseExporter {
     protected final List<ModuleFormatter> moduleFormatters;
     protected final List<Map<String, String>> enrolleeMaps;
     private final List<String> columnSorting;
-    private List<Integer> columnTranspose;
+    /** the compiled columns, in output order */
+    protected final ExportColumnPlan columnPlan;
     /**
      * map of column keys to the value that should be exported if the value for an enrollee is nullish.
      * This saves us from having to include "0" for every option possibility in multiple choice questions
@@ -28,46 +29,62 @@ public abstract class BaseExporter {
         this.enrolleeMaps = enrolleeMaps;
         this.columnSorting = columnSorting;
         this.columnEmptyValueMap = makeEmptyValueMap();
-
-        /**
-         * if we have a columnSorting, generate an array mapping the default ordering to the sorted ordering.
-         * note that we need to account for the fact that some columns may not be present in the columnSorting due
-         * to repeated modules or other reasons.  Currently those are tacked at the end, we might want to do something more sophisticated
-         * later
-         */
-        if (columnSorting != null && !columnSorting.isEmpty()) {
-            List<String> columnKeys = getColumnKeys();
-            List<String> sortedList = new ArrayList<>(columnKeys);
-            sortedList.sort((a, b) -> {
-                int aIndex = columnSorting.indexOf(a);
-                int bIndex = columnSorting.indexOf(b);
-                if (aIndex == -1) {
-                    aIndex = Integer.MAX_VALUE;
-                }
-                if (bIndex == -1) {
-                    bIndex = Integer.MAX_VALUE;
-                }
-                return aIndex - bIndex;
-            });
-            columnTranspose = new ArrayList<>(columnKeys.size());
-            for (String columnKey : columnKeys) {
-                columnTranspose.add(sortedList.indexOf(columnKey));
-            }
-        }
+        this.columnPlan = new ExportColumnPlan(moduleFormatters, columnSorting);
     }
 
     public void export(OutputStream os) {
         export(os, true);
     };
 
-    public abstract void export(OutputStream os, boolean includeSubHeaders);
+    /**
+     * writes the header rows, all the enrolleeMaps the exporter was constructed with, and then finishes the file.
+     * This does not close the stream, so that multi-part streams (e.g. zip files) can be supported
+     */
+    public void export(OutputStream os, boolean includeSubHeaders) {
+        startExport(os, includeSubHeaders);
+        for (Map<String, String> enrolleeMap : enrolleeMaps) {
+            writeRow(enrolleeMap);
+        }
+        finishExport();
+    }
+
+    /**
+     * Streaming exports are done in three stages:  startExport writes the header rows, writeRow is then called
+     * once per enrollee, and finishExport completes the file.  This allows rows to be written as they are generated,
+     * rather than holding every enrollee's data in memory.  Since the header rows are written first, the
+     * moduleFormatters must already be sized to the full dataset (see ModuleFormatter.accommodateData)
+     */
+    public abstract void startExport(OutputStream os, boolean includeSubHeaders);
+
+    /** writes a single row -- startExport must have been called first */
+    public abstract void writeRow(Map<String, String> enrolleeMap);
+
+    /**
+     * writes a single row from a buffer generated by newRow() -- startExport must have been called first.
+     * This avoids building a map for every row, which matters for wide exports
+     */
+    public abstract void writeRow(ExportRow row);
+
+    /**
+     * writes the enrollee's value map as a single row, using the given row buffer (see newRow) -- startExport must
+     * have been called first.  Keys that aren't columns of this export are ignored
+     */
+    public void writeRow(Map<String, String> enrolleeMap, ExportRow row) {
+        row.clear();
+        enrolleeMap.forEach(row::put);
+        writeRow(row);
+    }
+
+    /** returns a row buffer matching this exporter's columns, which can be cleared and reused for every row */
+    public ExportRow newRow() {
+        return new ExportRow(columnPlan);
+    }
+
+    /** completes and flushes the file.  This does not close the stream -- that's the caller's responsibility */
+    public abstract void finishExport();
 
     protected List<String> getColumnKeys() {
-        List<String> columnKeys = new ArrayList<>();
-        applyToEveryColumn((moduleFormatter, itemExportInfo, isOtherDescription, choice, moduleRepeatNum) -> {
-            columnKeys.add(moduleFormatter.getColumnKey(itemExportInfo, isOtherDescription, choice, moduleRepeatNum));
-        });
-        return transposeIfNeeded(columnKeys);
+        return columnPlan.getColumnKeys();
     }
 
     /** gets the header row - uses getColumnHeader from ExportFormatter */
@@ -109,16 +126,19 @@ public abstract class BaseExporter {
         return rowValues;
     }
 
+    /**
+     * Fills rowValues with the sanitized values to render for the given row, in column order.
+     * rowValues must be at least as long as the row, and can be reused across rows.
+     */
+    protected void getRowValues(ExportRow row, String[] rowValues) {
+        for (int i = 0; i < row.size(); i++) {
+            rowValues[i] = sanitizeValue(row.get(i), columnPlan.getEmptyValue(i));
+        }
+    }
+
 
     protected List<String> transposeIfNeeded(List<String> row) {
-        if (columnTranspose != null) {
-            List<String> transposedRow = Arrays.asList(new String[row.size()]);
-            for (int i = 0; i < row.size(); i++) {
-                transposedRow.set(columnTranspose.get(i), row.get(i));
-            }
-            return transposedRow;
-        }
-        return row;
+        return columnPlan.transposeIfNeeded(row);
     }
 
 
@@ -129,6 +149,10 @@ public abstract class BaseExporter {
     }
 
     public void applyToEveryColumn(ColumnProcessor columnProcessor) {
+        applyToEveryColumn(moduleFormatters, columnProcessor);
+    }
+
+    public static void applyToEveryColumn(List<ModuleFormatter> moduleFormatters, ColumnProcessor columnProcessor) {
         for (ModuleFormatter moduleFormatter : moduleFormatters) {
             for (int moduleRepeatNum = 1; moduleRepeatNum <= moduleFormatter.getMaxNumRepeats(); moduleRepeatNum++) {
                 for (ItemFormatter itemFormatter : (List<ItemFormatter>) moduleFormatter.getItemFormatters()) {
@@ -1,31 +1,214 @@
 package bio.terra.pearl.core.service.export;
 
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
+import bio.terra.pearl.core.config.BoundedTaskExecutor;
 import bio.terra.pearl.core.dao.survey.AnswerDao;
-import bio.terra.pearl.core.dao.survey.SurveyDao;
-import bio.terra.pearl.core.dao.survey.SurveyQuestionDefinitionDao;
-import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
+import bio.terra.pearl.core.model.participant.*;
+import bio.terra.pearl.core.model.study.StudyEnvironmentConfig;
+import bio.terra.pearl.core.model.survey.Answer;
+import bio.terra.pearl.core.model.survey.SurveyResponse;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.kit.KitRequestDto;
+import bio.terra.pearl.core.service.kit.KitRequestService;
+import bio.terra.pearl.core.service.participant.EnrolleeRelationService;
+import bio.terra.pearl.core.service.participant.FamilyService;
+import bio.terra.pearl.core.service.participant.ParticipantUserService;
 import bio.terra.pearl.core.service.participant.ProfileService;
 import bio.terra.pearl.core.service.survey.SurveyResponseService;
+import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Batch-loads the per-module data for a chunk of enrollees.  The module queries are independent of each other,
+ * so they are issued concurrently on the exportLoaderExecutor (see AsyncExecutorConfig), and the time to load a chunk
+ * is bounded by the slowest query rather than the sum of all of them.  Each module's load times are accumulated, and
+ * available from getModuleStats.
+ */
 @Service
+@Slf4j
 public class EnrolleeExportLoader {
-    private ProfileService profileService;
-    private AnswerDao answerDao;
-    private SurveyQuestionDefinitionDao surveyQuestionDefinitionDao;
-    private SurveyResponseService surveyResponseService;
-    private ParticipantTaskService participantTaskService;
-    private SurveyDao surveyDao;
-
-    public EnrolleeExportLoader(ProfileService profileService, AnswerDao answerDao,
-                                SurveyQuestionDefinitionDao surveyQuestionDefinitionDao,
+    private final ProfileService profileService;
+    private final ParticipantUserService participantUserService;
+    private final AnswerDao answerDao;
+    private final SurveyResponseService surveyResponseService;
+    private final ParticipantTaskService participantTaskService;
+    private final KitRequestService kitRequestService;
+    private final EnrolleeRelationService enrolleeRelationService;
+    private final FamilyService familyService;
+    private final BoundedTaskExecutor executor;
+    private final Map<String, ModuleTimer> moduleTimers = new ConcurrentHashMap<>();
+
+    public EnrolleeExportLoader(ProfileService profileService,
+                                ParticipantUserService participantUserService,
+                                AnswerDao answerDao,
                                 SurveyResponseService surveyResponseService,
-                                ParticipantTaskService participantTaskService, SurveyDao surveyDao) {
+                                ParticipantTaskService participantTaskService,
+                                KitRequestService kitRequestService,
+                                EnrolleeRelationService enrolleeRelationService,
+                                FamilyService familyService,
+                                @Qualifier(AsyncExecutorConfig.EXPORT_LOADER_EXECUTOR) BoundedTaskExecutor executor) {
         this.profileService = profileService;
+        this.participantUserService = participantUserService;
         this.answerDao = answerDao;
-        this.surveyQuestionDefinitionDao = surveyQuestionDefinitionDao;
         this.surveyResponseService = surveyResponseService;
         this.participantTaskService = participantTaskService;
-        this.surveyDao = surveyDao;
+        this.kitRequestService = kitRequestService;
+        this.enrolleeRelationService = enrolleeRelationService;
+        this.familyService = familyService;
+        this.executor = executor;
+    }
+
+    /**
+     * loads each module's data for the given enrollees, keyed as described on ExportModuleData.  The number of queries
+     * issued does not depend on the number of enrollees.
+     */
+    public ExportModuleData loadModuleData(StudyEnvironmentConfig config, List<Enrollee> enrollees) {
+        List<UUID> enrolleeIds = enrollees.stream().map(Enrollee::getId).toList();
+        List<UUID> profileIds = enrollees.stream().map(Enrollee::getProfileId).toList();
+        List<UUID> participantUserIds = enrollees.stream().map(Enrollee::getParticipantUserId).toList();
+
+        // if the caller is in a transaction, the queries must run on the caller's thread, since a pooled thread
+        // would get its own connection and would not see any uncommitted data from the caller's transaction
+        boolean runConcurrently = executor.getMaxPoolSize() > 1 && !TransactionSynchronizationManager.isActualTransactionActive();
+        Map<String, Long> moduleTimesMs = Collections.synchronizedMap(new LinkedHashMap<>());
+        long startTime = System.currentTimeMillis();
+
+        CompletableFuture<Map<UUID, Profile>> profiles = load("profile", runConcurrently, moduleTimesMs,
+                () -> profileService.loadAllWithMailingAddress(profileIds));
+        CompletableFuture<Map<UUID, ParticipantUser>> participantUsers = load("participantUser", runConcurrently, moduleTimesMs,
+                () -> participantUserService.findByParticipantUserIds(participantUserIds));
+        CompletableFuture<Map<UUID, List<Answer>>> answers = load("answers", runConcurrently, moduleTimesMs,
+                () -> answerDao.findByEnrolleeIds(enrolleeIds));
+        CompletableFuture<Map<UUID, List<ParticipantTask>>> tasks = load("tasks", runConcurrently, moduleTimesMs,
+                () -> participantTaskService.findByEnrolleeIds(enrolleeIds));
+        CompletableFuture<Map<UUID, List<SurveyResponse>>> surveyResponses = load("surveyResponses", runConcurrently, moduleTimesMs,
+                () -> surveyResponseService.findByEnrolleeIdsNotRemoved(enrolleeIds));
+        CompletableFuture<Map<UUID, List<KitRequestDto>>> kitRequests = load("kitRequests", runConcurrently, moduleTimesMs,
+                () -> kitRequestService.findByEnrollees(enrollees));
+        CompletableFuture<Map<UUID, List<EnrolleeRelation>>> relations = load("relations", runConcurrently, moduleTimesMs,
+                () -> loadRelations(config, enrolleeIds));
+        CompletableFuture<Map<UUID, List<Family>>> families = load("families", runConcurrently, moduleTimesMs,
+                () -> config.isEnableFamilyLinkage() ? familyService.findByEnrolleeIdsWithProband(enrolleeIds) : Map.of());
+        // proxies are loaded from the relations, so that has to finish first
+        CompletableFuture<Map<UUID, List<ParticipantUser>>> proxies = relations.thenCompose(relationMap ->
+                load("proxies", runConcurrently, moduleTimesMs, () -> loadProxyUsers(config, relationMap)));
+
+        ExportModuleData moduleData = new ExportModuleData(
+                join(profiles),
+                join(participantUsers),
+                join(answers),
+                join(tasks),
+                join(surveyResponses),
+                join(kitRequests),
+                join(relations),
+                join(families),
+                join(proxies));
+        log.info("Loaded export data for {} enrollees in {} ms ({}); module times (ms): {}",
+                enrollees.size(), System.currentTimeMillis() - startTime,
+                runConcurrently ? "concurrent" : "sequential", moduleTimesMs);
+        return moduleData;
+    }
+
+    private Map<UUID, List<EnrolleeRelation>> loadRelations(StudyEnvironmentConfig config, List<UUID> enrolleeIds) {
+        // for performance reasons, we should grab nothing unless the study environment is configured to use
+        // family linkage or proxy enrollment
+        if (!config.isEnableFamilyLinkage() && !config.isAcceptingProxyEnrollment()) {
+            return Map.of();
+        }
+        return enrolleeRelationService.findByTargetEnrolleeIdsWithEnrollees(enrolleeIds, config.isEnableFamilyLinkage());
+    }
+
+    /** returns a map of target enrollee id to the participant users who are proxies for that enrollee */
+    private Map<UUID, List<ParticipantUser>> loadProxyUsers(StudyEnvironmentConfig config, Map<UUID, List<EnrolleeRelation>> relations) {
+        if (!config.isAcceptingProxyEnrollment()) {
+            return Map.of();
+        }
+        List<EnrolleeRelation> proxyRelations = relations.values().stream()
+                .flatMap(List::stream)
+                .filter(relation -> relation.getRelationshipType().equals(RelationshipType.PROXY))
+                .toList();
+        Map<UUID, ParticipantUser> proxyUsers = participantUserService.findByParticipantUserIds(
+                proxyRelations.stream().map(relation -> relation.getEnrollee().getParticipantUserId()).distinct().toList());
+        return proxyRelations.stream().collect(Collectors.groupingBy(EnrolleeRelation::getTargetEnrolleeId,
+                Collectors.mapping(relation -> proxyUsers.get(relation.getEnrollee().getParticipantUserId()), Collectors.toList())));
     }
+
+    private <T> CompletableFuture<T> load(String moduleName, boolean runConcurrently, Map<String, Long> moduleTimesMs, Supplier<T> loader) {
+        Supplier<T> timedLoader = () -> {
+            long moduleStartTime = System.currentTimeMillis();
+            T result = loader.get();
+            long durationMs = System.currentTimeMillis() - moduleStartTime;
+            moduleTimesMs.put(moduleName, durationMs);
+            moduleTimers.computeIfAbsent(moduleName, name -> new ModuleTimer()).record(durationMs);
+            return result;
+        };
+        if (!runConcurrently) {
+            return CompletableFuture.completedFuture(timedLoader.get());
+        }
+        return CompletableFuture.supplyAsync(timedLoader, executor);
+    }
+
+    /** waits for the result, rethrowing any exception from the loader as-is */
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /** the accumulated load times of each module, across every chunk loaded since startup */
+    public List<ModuleStats> getModuleStats() {
+        return moduleTimers.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparing(ModuleStats::module))
+                .toList();
+    }
+
+    public record ModuleStats(String module, long loadCount, long totalMs, long maxMs) {}
+
+    private static class ModuleTimer {
+        private final AtomicLong loadCount = new AtomicLong();
+        private final AtomicLong totalMs = new AtomicLong();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        void record(long durationMs) {
+            loadCount.incrementAndGet();
+            totalMs.addAndGet(durationMs);
+            maxMs.accumulateAndGet(durationMs, Math::max);
+        }
+
+        ModuleStats toStats(String module) {
+            return new ModuleStats(module, loadCount.get(), totalMs.get(), maxMs.get());
+        }
+    }
+
+    /**
+     * the batch-loaded module data for a chunk of enrollees.  profiles are keyed by profile id, participantUsers by
+     * participant user id, and everything else by enrollee id.  proxies are the participant users who are proxies
+     * for the enrollee.
+     */
+    public record ExportModuleData(Map<UUID, Profile> profiles,
+                                   Map<UUID, ParticipantUser> participantUsers,
+                                   Map<UUID, List<Answer>> answers,
+                                   Map<UUID, List<ParticipantTask>> tasks,
+                                   Map<UUID, List<SurveyResponse>> surveyResponses,
+                                   Map<UUID, List<KitRequestDto>> kitRequests,
+                                   Map<UUID, List<EnrolleeRelation>> relations,
+                                   Map<UUID, List<Family>> families,
+                                   Map<UUID, List<ParticipantUser>> proxies) {}
 }
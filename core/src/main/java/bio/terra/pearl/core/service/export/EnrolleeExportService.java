@@ -1,7 +1,6 @@
 package bio.terra.pearl.core.service.export;
 
 import bio.terra.pearl.core.dao.search.EnrolleeSearchExpressionDao;
-import bio.terra.pearl.core.dao.survey.AnswerDao;
 import bio.terra.pearl.core.dao.survey.SurveyQuestionDefinitionDao;
 import bio.terra.pearl.core.model.export.ExportOptions;
 import bio.terra.pearl.core.model.participant.*;
@@ -12,26 +11,19 @@ import bio.terra.pearl.core.model.study.StudyEnvironmentConfig;
 import bio.terra.pearl.core.model.survey.*;
 import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.service.export.formatters.module.*;
-import bio.terra.pearl.core.service.kit.KitRequestDto;
-import bio.terra.pearl.core.service.kit.KitRequestService;
-import bio.terra.pearl.core.service.participant.EnrolleeRelationService;
-import bio.terra.pearl.core.service.participant.FamilyService;
-import bio.terra.pearl.core.service.participant.ParticipantUserService;
-import bio.terra.pearl.core.service.participant.ProfileService;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
 import bio.terra.pearl.core.service.search.EnrolleeSearchOptions;
 import bio.terra.pearl.core.service.study.StudyEnvironmentConfigService;
 import bio.terra.pearl.core.service.study.StudyEnvironmentService;
 import bio.terra.pearl.core.service.study.StudyEnvironmentSurveyService;
 import bio.terra.pearl.core.service.study.StudyService;
-import bio.terra.pearl.core.service.survey.SurveyResponseService;
 import bio.terra.pearl.core.service.survey.SurveyService;
-import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.OutputStream;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -40,79 +32,101 @@ import static java.util.stream.Collectors.groupingBy;
 @Service
 @Slf4j
 public class EnrolleeExportService {
-    private final ProfileService profileService;
-    private final AnswerDao answerDao;
     private final SurveyQuestionDefinitionDao surveyQuestionDefinitionDao;
     private final StudyEnvironmentSurveyService studyEnvironmentSurveyService;
     private final SurveyService surveyService;
     private final StudyEnvironmentService studyEnvironmentService;
-    private final SurveyResponseService surveyResponseService;
-    private final ParticipantTaskService participantTaskService;
-    private final KitRequestService kitRequestService;
-    private final ParticipantUserService participantUserService;
     private final ObjectMapper objectMapper;
-    private final EnrolleeRelationService enrolleeRelationService;
-    private final FamilyService familyService;
     private final EnrolleeSearchExpressionDao enrolleeSearchExpressionDao;
     private final StudyEnvironmentConfigService studyEnvironmentConfigService;
     private final StudyService studyService;
+    private final ExportConfig exportConfig;
+    private final EnrolleeExportLoader enrolleeExportLoader;
 
-    public EnrolleeExportService(ProfileService profileService,
-                                 AnswerDao answerDao,
-                                 SurveyQuestionDefinitionDao surveyQuestionDefinitionDao,
+    public EnrolleeExportService(SurveyQuestionDefinitionDao surveyQuestionDefinitionDao,
                                  StudyEnvironmentSurveyService studyEnvironmentSurveyService,
-                                 SurveyService surveyService, StudyEnvironmentService studyEnvironmentService, SurveyResponseService surveyResponseService,
-                                 ParticipantTaskService participantTaskService,
-                                 KitRequestService kitRequestService,
-                                 ParticipantUserService participantUserService,
-                                 EnrolleeRelationService enrolleeRelationService,
+                                 SurveyService surveyService, StudyEnvironmentService studyEnvironmentService,
                                  ObjectMapper objectMapper,
-                                 FamilyService familyService,
                                  EnrolleeSearchExpressionDao enrolleeSearchExpressionDao,
                                  StudyEnvironmentConfigService studyEnvironmentConfigService,
-                                 StudyService studyService) {
-        this.profileService = profileService;
-        this.answerDao = answerDao;
+                                 StudyService studyService,
+                                 ExportConfig exportConfig,
+                                 EnrolleeExportLoader enrolleeExportLoader) {
         this.surveyQuestionDefinitionDao = surveyQuestionDefinitionDao;
         this.studyEnvironmentSurveyService = studyEnvironmentSurveyService;
         this.surveyService = surveyService;
         this.studyEnvironmentService = studyEnvironmentService;
-        this.surveyResponseService = surveyResponseService;
-        this.participantTaskService = participantTaskService;
-        this.kitRequestService = kitRequestService;
-        this.participantUserService = participantUserService;
-        this.enrolleeRelationService = enrolleeRelationService;
         this.objectMapper = objectMapper;
-        this.familyService = familyService;
         this.enrolleeSearchExpressionDao = enrolleeSearchExpressionDao;
         this.studyEnvironmentConfigService = studyEnvironmentConfigService;
         this.studyService = studyService;
+        this.exportConfig = exportConfig;
+        this.enrolleeExportLoader = enrolleeExportLoader;
     }
 
     /**
      * exports the specified number of enrollees from the given environment
-     * The enrollees will be returned most-recently-created first
+     * The enrollees will be returned most-recently-created first.
+     *
+     * Enrollee data is loaded and written in chunks, so that memory use is bounded by the chunk size rather than
+     * the size of the study.  Since the columns depend on the data (e.g. how many times a survey was taken), the rows
+     * can't be written until every enrollee has been read, so each enrollee's values are spooled to a temp file as
+     * their chunk is read, and written out once the columns are sized.
      * */
     public void export(ExportOptionsWithExpression exportOptions, UUID studyEnvironmentId, OutputStream os) {
+        export(exportOptions, studyEnvironmentId, null, os);
+    }
+
+    /**
+     * exports only the enrollees whose data changed after changedSince, or all enrollees if changedSince is null.  The
+     * change check is part of the search query -- see EnrolleeSearchQueryBuilder.changedSinceCondition for what counts
+     * as a change.  The columns are the same as a full export, so the result can be
+     * used to upsert rows in a previous full export.
+     */
+    public void export(ExportOptionsWithExpression exportOptions, UUID studyEnvironmentId, Instant changedSince, OutputStream os) {
+        Study study = studyService.findByStudyEnvironmentId(studyEnvironmentId).orElseThrow();
+        StudyEnvironmentConfig config = studyEnvironmentConfigService.findByStudyEnvironmentId(studyEnvironmentId);
+        List<Enrollee> enrollees = loadEnrollees(studyEnvironmentId, exportOptions.getFilterExpression(), changedSince, exportOptions.getRowLimit());
+        List<List<Enrollee>> enrolleeChunks = partition(enrollees, exportConfig.getChunkSize());
+
+        List<ModuleFormatter> moduleFormatters = generateModuleInfos(exportOptions, studyEnvironmentId, List.of());
+        try (ValueMapSpool valueMaps = new ValueMapSpool(objectMapper)) {
+            for (List<Enrollee> enrolleeChunk : enrolleeChunks) {
+                for (EnrolleeExportData exportData : loadEnrolleeExportData(study, config, enrolleeChunk)) {
+                    // size the columns for this enrollee before rendering, so that all of their values have a column
+                    moduleFormatters.forEach(moduleFormatter -> moduleFormatter.accommodateData(exportData));
+                    valueMaps.add(generateExportMap(exportData, moduleFormatters));
+                }
+            }
 
-        List<EnrolleeExportData> enrolleeExportData = loadEnrolleeExportData(studyEnvironmentId, exportOptions);
+            BaseExporter exporter = getExporter(exportOptions.getFileFormat(), moduleFormatters, List.of(), exportOptions.getIncludeFields());
+            exporter.startExport(os, exportOptions.isIncludeSubHeaders());
+            // the columns are fixed now, so every row is rendered into the same buffer
+            ExportRow row = exporter.newRow();
+            valueMaps.forEach(valueMap -> exporter.writeRow(valueMap, row));
+            exporter.finishExport();
+        }
+    }
 
-        List<ModuleFormatter> moduleFormatters = generateModuleInfos(exportOptions, studyEnvironmentId, enrolleeExportData);
-        List<Map<String, String>> enrolleeMaps = generateExportMaps(enrolleeExportData, moduleFormatters);
-        BaseExporter exporter = getExporter(exportOptions.getFileFormat(), moduleFormatters, enrolleeMaps, exportOptions.getIncludeFields());
-        exporter.export(os, exportOptions.isIncludeSubHeaders());
+    private static <T> List<List<T>> partition(List<T> list, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(list.size(), i + chunkSize)));
+        }
+        return chunks;
     }
 
-    private List<Enrollee> loadEnrollees(UUID studyEnvironmentId, EnrolleeSearchExpression filter, Integer limit) {
+    private List<Enrollee> loadEnrollees(UUID studyEnvironmentId, EnrolleeSearchExpression filter, Instant changedSince, Integer limit) {
         List<EnrolleeSearchExpressionResult> results =
                 enrolleeSearchExpressionDao.executeSearch(
                         filter,
                         studyEnvironmentId,
-                        EnrolleeSearchOptions.builder().sortField("enrollee.created_at").sortAscending(false).build());
-
-        if (limit != null && !results.isEmpty()) {
-            results = results.subList(0, Math.min(results.size(), limit));
-        }
+                        EnrolleeSearchOptions.builder()
+                                .sortField("enrollee.created_at")
+                                .sortAscending(false)
+                                .changedSince(changedSince)
+                                .limit(limit)
+                                .build());
 
         return results.stream()
                 .map(EnrolleeSearchExpressionResult::getEnrollee)
@@ -215,85 +229,52 @@ public class EnrolleeExportService {
 
     public List<EnrolleeExportData> loadEnrolleeExportData(UUID studyEnvironmentId, ExportOptionsWithExpression exportOptions) {
         Study study = studyService.findByStudyEnvironmentId(studyEnvironmentId).orElseThrow();
-        List<Enrollee> enrollees = loadEnrollees(studyEnvironmentId, exportOptions.getFilterExpression(), exportOptions.getRowLimit());
-
-        List<UUID> enrolleeIds = enrollees.stream().map(Enrollee::getId).toList();
-        List<UUID> profileIds = enrollees.stream().map(Enrollee::getProfileId).toList();
-        List<UUID> participantUserIds = enrollees.stream().map(Enrollee::getParticipantUserId).toList();
-
-        // batch load the following modules to reduce the number of queries and reduce the memory footprint of data exports.
-        // eventually, the in-clauses of these sql queries will be too large, and we'll need to batch load these in smaller chunks
-        Map<UUID, Profile> profiles = profileService.loadAllWithMailingAddress(profileIds);
-        Map<UUID, ParticipantUser> participantUsers = participantUserService.findByParticipantUserIds(participantUserIds);
-        Map<UUID, List<Answer>> answers = answerDao.findByEnrolleeIds(enrolleeIds);
-        Map<UUID, List<ParticipantTask>> tasks = participantTaskService.findByEnrolleeIds(enrolleeIds);
+        StudyEnvironmentConfig config = studyEnvironmentConfigService.findByStudyEnvironmentId(studyEnvironmentId);
+        List<Enrollee> enrollees = loadEnrollees(studyEnvironmentId, exportOptions.getFilterExpression(), null, exportOptions.getRowLimit());
+        return loadEnrolleeExportData(study, config, enrollees);
+    }
+
+    /** loads the export data for the given enrollees, in the same order as the enrollees */
+    public List<EnrolleeExportData> loadEnrolleeExportData(Study study, StudyEnvironmentConfig config, List<Enrollee> enrollees) {
+        // batch load the modules to reduce the number of queries and reduce the memory footprint of data exports.
+        // callers are responsible for keeping the enrollee list to a reasonable size (see ExportConfig.chunkSize)
+        EnrolleeExportLoader.ExportModuleData moduleData = enrolleeExportLoader.loadModuleData(config, enrollees);
         Map<UUID, List<SurveyResponseWithTaskDto>> surveyResponses =
-                attachTasksToSurveyResponses(
-                        tasks,
-                        surveyResponseService.findByEnrolleeIdsNotRemoved(enrolleeIds));
-        Map<UUID, List<KitRequestDto>> kitRequests = kitRequestService.findByEnrollees(enrollees);
+                attachTasksToSurveyResponses(moduleData.tasks(), moduleData.surveyResponses());
 
         return enrollees.stream()
-                .map(enrollee -> loadEnrolleeData(study, studyEnvironmentConfigService.findByStudyEnvironmentId(studyEnvironmentId), enrollee, profiles, participantUsers, answers, tasks, surveyResponses, kitRequests))
+                .map(enrollee -> loadEnrolleeData(study, enrollee, moduleData, surveyResponses))
                 .toList();
     }
 
-    protected EnrolleeExportData loadEnrolleeData(Study study, StudyEnvironmentConfig config, Enrollee enrollee,
-                                                  Map<UUID, Profile> profiles, Map<UUID, ParticipantUser> participantUsers,
-                                                  Map<UUID, List<Answer>> answers, Map<UUID, List<ParticipantTask>> tasks,
-                                                  Map<UUID, List<SurveyResponseWithTaskDto>> surveyResponses, Map<UUID, List<KitRequestDto>> kitRequests) {
-
-        List<EnrolleeRelation> enrolleeRelations = loadRelations(config, enrollee);
-        List<ParticipantUser> proxies = loadProxyUsers(config, enrolleeRelations);
-
+    protected EnrolleeExportData loadEnrolleeData(Study study, Enrollee enrollee, EnrolleeExportLoader.ExportModuleData moduleData,
+                                                  Map<UUID, List<SurveyResponseWithTaskDto>> surveyResponses) {
         return new EnrolleeExportData(
                 study,
                 enrollee,
-                participantUsers.get(enrollee.getParticipantUserId()),
-                profiles.get(enrollee.getProfileId()),
-                answers.getOrDefault(enrollee.getId(), Collections.emptyList()),
-                tasks.getOrDefault(enrollee.getId(), Collections.emptyList()),
+                moduleData.participantUsers().get(enrollee.getParticipantUserId()),
+                moduleData.profiles().get(enrollee.getProfileId()),
+                moduleData.answers().getOrDefault(enrollee.getId(), Collections.emptyList()),
+                moduleData.tasks().getOrDefault(enrollee.getId(), Collections.emptyList()),
                 surveyResponses
                         .getOrDefault(enrollee.getId(), Collections.emptyList())
                         .stream()
                         .sorted(Comparator.comparing(SurveyResponse::getCreatedAt).reversed()).toList(),
-                kitRequests.getOrDefault(enrollee.getId(), Collections.emptyList()),
-                enrolleeRelations,
-                config.isEnableFamilyLinkage() ? familyService.findByEnrolleeIdWithProband(enrollee.getId()) : Collections.emptyList(),
-                proxies
+                moduleData.kitRequests().getOrDefault(enrollee.getId(), Collections.emptyList()),
+                moduleData.relations().getOrDefault(enrollee.getId(), Collections.emptyList()),
+                moduleData.families().getOrDefault(enrollee.getId(), Collections.emptyList()),
+                moduleData.proxies().getOrDefault(enrollee.getId(), Collections.emptyList())
         );
     }
 
-    private List<ParticipantUser> loadProxyUsers(StudyEnvironmentConfig config, List<EnrolleeRelation> relations) {
-        if (config.isAcceptingProxyEnrollment()) {
-            return relations.stream()
-                    .filter(relation -> relation.getRelationshipType().equals(RelationshipType.PROXY))
-                    .map(relation -> participantUserService.findByEnrolleeId(relation.getEnrolleeId()).orElseThrow())
-                    .toList();
-        }
-
-        return Collections.emptyList();
-    }
-
-    private List<EnrolleeRelation> loadRelations(StudyEnvironmentConfig config, Enrollee enrollee) {
-        if (config.isEnableFamilyLinkage()) {
-            return enrolleeRelationService.findByTargetEnrolleeIdWithEnrolleesAndFamily(enrollee.getId());
-        }
-        if (config.isAcceptingProxyEnrollment()) {
-            return enrolleeRelationService.findByTargetEnrolleeIdWithEnrollees(enrollee.getId());
-        }
-
-        // for performance reasons, we should grab nothing unless the study environment is configured to use
-        // family linkage or proxy enrollment
-        return Collections.emptyList();
-    }
-
     protected BaseExporter getExporter(ExportFileFormat fileFormat, List<ModuleFormatter> moduleFormatters,
                                        List<Map<String, String>> enrolleeMaps, List<String> columnSorting) {
         if (fileFormat.equals(ExportFileFormat.JSON)) {
             return new JsonExporter(moduleFormatters, enrolleeMaps, columnSorting, objectMapper);
         } else if (fileFormat.equals(ExportFileFormat.EXCEL)) {
             return new ExcelExporter(moduleFormatters, enrolleeMaps, columnSorting);
+        } else if (fileFormat.equals(ExportFileFormat.PARQUET)) {
+            return new ParquetExporter(moduleFormatters, enrolleeMaps, columnSorting, objectMapper);
         }
         return new TsvExporter(moduleFormatters, enrolleeMaps, fileFormat, columnSorting);
     }
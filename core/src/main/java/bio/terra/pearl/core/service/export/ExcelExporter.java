@@ -2,9 +2,9 @@ package bio.terra.pearl.core.service.export;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
 
 import bio.terra.pearl.core.service.exception.internal.IOInternalException;
 import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
@@ -21,35 +21,54 @@ public class ExcelExporter extends BaseExporter {
 
     protected final SXSSFSheet sheet;
     private static final String SHEET_NAME = "Participants";
+    private OutputStream outputStream;
+    private List<String> columnKeys;
+    private String[] rowValueBuffer;
+    private int nextRowNum = 0;
 
     public ExcelExporter(List<ModuleFormatter> moduleFormatters, List<Map<String, String>> enrolleeMaps, List<String> columnSorting) {
         super(moduleFormatters, enrolleeMaps, columnSorting);
-        workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        // rows that leave the access window are flushed to compressed temp files, and strings are written inline
+        // rather than to a shared strings table, which would have to be held in memory until the file is written.
+        // Column widths are not auto-sized, since tracking widths across every row is very slow for wide exports
+        workbook = new SXSSFWorkbook(null, ROW_ACCESS_WINDOW_SIZE, true, false);
         sheet = workbook.createSheet(getSheetName());
-        sheet.trackAllColumnsForAutoSizing();
     }
 
     @Override
-    public void export(OutputStream os, boolean includeSubHeaders) {
-        List<String> columnKeys = getColumnKeys();
+    public void startExport(OutputStream os, boolean includeSubHeaders) {
+        this.outputStream = os;
+        columnKeys = getColumnKeys();
+        rowValueBuffer = new String[columnKeys.size()];
         List<String> headerRowValues = getHeaderRow();
         writeRowToSheet(headerRowValues, 0);
-        int dataStartRow = 1;
+        nextRowNum = 1;
 
         if (includeSubHeaders) {
             List<String> subHeaderRowValues = getSubHeaderRow();
             writeRowToSheet(subHeaderRowValues, 1);
-            dataStartRow = 2;
+            nextRowNum = 2;
         }
+    }
 
-        for (int i = 0; i < enrolleeMaps.size(); i++) {
-            Map<String, String> valueMap = enrolleeMaps.get(i);
-            List<String> rowValues = getRowValues(valueMap, columnKeys);
-            writeRowToSheet(rowValues, i + dataStartRow);
-        }
+    @Override
+    public void writeRow(Map<String, String> enrolleeMap) {
+        List<String> rowValues = getRowValues(enrolleeMap, columnKeys);
+        writeRowToSheet(rowValues, nextRowNum);
+        nextRowNum++;
+    }
 
+    @Override
+    public void writeRow(ExportRow row) {
+        getRowValues(row, rowValueBuffer);
+        writeRowToSheet(Arrays.asList(rowValueBuffer), nextRowNum);
+        nextRowNum++;
+    }
+
+    @Override
+    public void finishExport() {
         try {
-            writeAndCloseSheet(os);
+            writeAndCloseSheet(outputStream);
         } catch (IOException e) {
             throw new IOInternalException("Error writing excel file", e);
         }
@@ -63,10 +82,14 @@ public class ExcelExporter extends BaseExporter {
     }
 
     protected void writeRowToSheet(List<String> rowValues, int rowNum) {
-        Row headerRow = sheet.createRow(rowNum);
-        IntStream.range(0, rowValues.size()).forEach(i -> {
-            headerRow.createCell(i).setCellValue(rowValues.get(i));
-        });
+        Row row = sheet.createRow(rowNum);
+        for (int i = 0; i < rowValues.size(); i++) {
+            String value = rowValues.get(i);
+            // empty cells are left out entirely, which keeps sparse exports much smaller
+            if (value != null && !value.isEmpty()) {
+                row.createCell(i).setCellValue(value);
+            }
+        }
     }
 
     protected String getSheetName() {
@@ -0,0 +1,135 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * The columns of an export, compiled once the module formatters have been sized to the data.  Each column gets a
+ * fixed index (in output order, after any column sorting), so that enrollee rows can be rendered into a reusable
+ * ExportRow rather than building and re-reading a map of column key to value for every enrollee.
+ */
+public class ExportColumnPlan {
+    /** the column keys, in output order */
+    @Getter
+    private final List<String> columnKeys;
+    /** the value to export for each column if the enrollee has no value for it */
+    private final String[] emptyValues;
+    /** maps the default (module -> item) column order to the output order.  null if the output is in default order */
+    private final int[] columnTranspose;
+    private final Map<String, Integer> columnIndexesByKey;
+    /**
+     * for each item, the column index of its value for each module repeat.  Items are keyed by identity, since
+     * every item formatter belongs to exactly one module.  Split-option columns are only indexed by key, since which
+     * of them gets a value depends on the answer.
+     */
+    private final Map<ItemFormatter, int[]> valueColumnIndexes = new IdentityHashMap<>();
+    private final Map<ItemFormatter, int[]> otherDescriptionColumnIndexes = new IdentityHashMap<>();
+
+    /** if columnSorting is null or empty, the columns will be in module->item order */
+    public ExportColumnPlan(List<ModuleFormatter> moduleFormatters, List<String> columnSorting) {
+        List<String> defaultOrderKeys = new ArrayList<>();
+        List<String> defaultOrderEmptyValues = new ArrayList<>();
+        BaseExporter.applyToEveryColumn(moduleFormatters, (moduleFormatter, itemFormatter, isOtherDescription, choice, moduleRepeatNum) -> {
+            int columnIndex = defaultOrderKeys.size();
+            defaultOrderKeys.add(moduleFormatter.getColumnKey(itemFormatter, isOtherDescription, choice, moduleRepeatNum));
+            defaultOrderEmptyValues.add(itemFormatter.getEmptyValue());
+            if (choice == null) {
+                Map<ItemFormatter, int[]> indexMap = isOtherDescription ? otherDescriptionColumnIndexes : valueColumnIndexes;
+                int[] repeatIndexes = indexMap.computeIfAbsent(itemFormatter, item -> {
+                    int[] indexes = new int[moduleFormatter.getMaxNumRepeats()];
+                    Arrays.fill(indexes, -1);
+                    return indexes;
+                });
+                repeatIndexes[moduleRepeatNum - 1] = columnIndex;
+            }
+        });
+
+        columnTranspose = computeTranspose(defaultOrderKeys, columnSorting);
+        columnKeys = transposeIfNeeded(defaultOrderKeys);
+        emptyValues = transposeIfNeeded(defaultOrderEmptyValues).toArray(new String[0]);
+        if (columnTranspose != null) {
+            valueColumnIndexes.values().forEach(this::transposeIndexes);
+            otherDescriptionColumnIndexes.values().forEach(this::transposeIndexes);
+        }
+        columnIndexesByKey = new HashMap<>(columnKeys.size() * 2);
+        for (int i = columnKeys.size() - 1; i >= 0; i--) {
+            // iterate backwards so that if keys are duplicated, the first column wins
+            columnIndexesByKey.put(columnKeys.get(i), i);
+        }
+    }
+
+    /**
+     * generate an array mapping the default ordering to the sorted ordering.
+     * note that we need to account for the fact that some columns may not be present in the columnSorting due
+     * to repeated modules or other reasons.  Currently those are tacked at the end, we might want to do something more sophisticated
+     * later
+     */
+    private static int[] computeTranspose(List<String> columnKeys, List<String> columnSorting) {
+        if (columnSorting == null || columnSorting.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> sortPositions = new HashMap<>();
+        for (int i = 0; i < columnSorting.size(); i++) {
+            sortPositions.putIfAbsent(columnSorting.get(i), i);
+        }
+        // this sort is stable, so unsorted columns keep their default relative order
+        List<Integer> sortedColumns = new ArrayList<>(columnKeys.size());
+        for (int i = 0; i < columnKeys.size(); i++) {
+            sortedColumns.add(i);
+        }
+        sortedColumns.sort(Comparator.comparingInt(column -> sortPositions.getOrDefault(columnKeys.get(column), Integer.MAX_VALUE)));
+        int[] transpose = new int[columnKeys.size()];
+        for (int i = 0; i < sortedColumns.size(); i++) {
+            transpose[sortedColumns.get(i)] = i;
+        }
+        return transpose;
+    }
+
+    private void transposeIndexes(int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] >= 0) {
+                indexes[i] = columnTranspose[indexes[i]];
+            }
+        }
+    }
+
+    /** reorders a row from the default (module -> item) order into the output order */
+    public <T> List<T> transposeIfNeeded(List<T> row) {
+        if (columnTranspose == null) {
+            return row;
+        }
+        List<T> transposedRow = Arrays.asList((T[]) new Object[row.size()]);
+        for (int i = 0; i < row.size(); i++) {
+            transposedRow.set(columnTranspose[i], row.get(i));
+        }
+        return transposedRow;
+    }
+
+    public int getNumColumns() {
+        return emptyValues.length;
+    }
+
+    public String getEmptyValue(int columnIndex) {
+        return emptyValues[columnIndex];
+    }
+
+    /** returns the index of the column with the given key, or -1 if there is no such column */
+    public int getColumnIndex(String columnKey) {
+        return columnIndexesByKey.getOrDefault(columnKey, -1);
+    }
+
+    /**
+     * returns the index of the column for the given item's value (or other description), or -1 if the item has no such
+     * column in this plan.  This does not cover split-option columns, use getColumnIndex(String) for those.
+     */
+    public int getColumnIndex(ItemFormatter itemFormatter, boolean isOtherDescription, int moduleRepeatNum) {
+        int[] repeatIndexes = (isOtherDescription ? otherDescriptionColumnIndexes : valueColumnIndexes).get(itemFormatter);
+        if (repeatIndexes == null || moduleRepeatNum > repeatIndexes.length) {
+            return -1;
+        }
+        return repeatIndexes[moduleRepeatNum - 1];
+    }
+}
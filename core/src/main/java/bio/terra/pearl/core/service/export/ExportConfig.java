@@ -0,0 +1,32 @@
+package bio.terra.pearl.core.service.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+public class ExportConfig {
+    /** the number of enrollees whose data is loaded into memory at once during an export */
+    private int chunkSize;
+    /**
+     * the number of bytes of an export integration's payload that are held in memory before it is spilled to a temp
+     * file.  Integration jobs run concurrently, so this bounds the heap each one can use.
+     */
+    private int integrationMemoryThreshold;
+    /**
+     * how far before its start time an incremental export integration job sets its high water mark.  Changes in
+     * transactions that were still open when the job read the data are committed with earlier timestamps, so without
+     * this overlap they would never be exported.  Rows changed in the overlap are sent again by the next job, and the
+     * destination upserts them.
+     */
+    private int incrementalOverlapSeconds;
+
+    public ExportConfig(Environment environment) {
+        this.chunkSize = environment.getProperty("env.export.chunkSize", Integer.class, 500);
+        this.integrationMemoryThreshold = environment.getProperty("env.export.integrationMemoryThreshold", Integer.class, 1024 * 1024);
+        this.incrementalOverlapSeconds = environment.getProperty("env.export.incrementalOverlapSeconds", Integer.class, 300);
+    }
+}
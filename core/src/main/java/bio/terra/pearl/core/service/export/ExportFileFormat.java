@@ -4,5 +4,6 @@ public enum ExportFileFormat {
     EXCEL,
     TSV,
     CSV,
-    JSON
+    JSON,
+    PARQUET
 }
@@ -0,0 +1,54 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer for a single row of an export, with values stored by the column indexes of an ExportColumnPlan.
+ * Call clear() before rendering each enrollee.  Values for keys that are not columns in the plan are ignored.
+ */
+public class ExportRow implements ExportRowWriter {
+    @Getter
+    private final ExportColumnPlan columnPlan;
+    private final String[] values;
+
+    public ExportRow(ExportColumnPlan columnPlan) {
+        this.columnPlan = columnPlan;
+        this.values = new String[columnPlan.getNumColumns()];
+    }
+
+    @Override
+    public void put(ModuleFormatter moduleFormatter, ItemFormatter itemFormatter, boolean isOtherDescription, int moduleRepeatNum, String value) {
+        int columnIndex = columnPlan.getColumnIndex(itemFormatter, isOtherDescription, moduleRepeatNum);
+        if (columnIndex < 0) {
+            // the item isn't indexed (e.g. a formatter for an older version of a question), so find the column by key
+            put(moduleFormatter.getColumnKey(itemFormatter, isOtherDescription, null, moduleRepeatNum), value);
+            return;
+        }
+        values[columnIndex] = value;
+    }
+
+    @Override
+    public void put(String columnKey, String value) {
+        int columnIndex = columnPlan.getColumnIndex(columnKey);
+        if (columnIndex >= 0) {
+            values[columnIndex] = value;
+        }
+    }
+
+    /** the value for the given column, or null if none was set */
+    public String get(int columnIndex) {
+        return values[columnIndex];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+}
@@ -0,0 +1,30 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+
+import java.util.Map;
+
+/** receives the values of an enrollee's export row as the module formatters render them */
+public interface ExportRowWriter {
+    /** sets the value of the column for the given item (or its other description) */
+    void put(ModuleFormatter moduleFormatter, ItemFormatter itemFormatter, boolean isOtherDescription, int moduleRepeatNum, String value);
+
+    /** sets the value of the column with the given key.  Used for columns that depend on the value, like split options */
+    void put(String columnKey, String value);
+
+    /** a writer that puts the values into the given map of column key to value */
+    static ExportRowWriter forMap(Map<String, String> valueMap) {
+        return new ExportRowWriter() {
+            @Override
+            public void put(ModuleFormatter moduleFormatter, ItemFormatter itemFormatter, boolean isOtherDescription, int moduleRepeatNum, String value) {
+                valueMap.put(moduleFormatter.getColumnKey(itemFormatter, isOtherDescription, null, moduleRepeatNum), value);
+            }
+
+            @Override
+            public void put(String columnKey, String value) {
+                valueMap.put(columnKey, value);
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package bio.terra.pearl.core.service.export;
 
 import bio.terra.pearl.core.service.exception.internal.IOInternalException;
 import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -12,6 +13,8 @@ import java.util.Map;
 public class JsonExporter extends BaseExporter {
 
     private final ObjectMapper objectMapper;
+    private PrintWriter printWriter;
+    private JsonGenerator generator;
 
     public JsonExporter(List<ModuleFormatter> moduleFormatters, List<Map<String, String>> enrolleeMaps, List<String> columnSorting,
                         ObjectMapper objectMapper) {
@@ -19,20 +22,78 @@ public class JsonExporter extends BaseExporter {
         this.objectMapper = objectMapper;
     }
 
-    /** the 'includeSubheaders' parameter is ignored for JSON export -- subheaders are always available in the returned JSON object */
-    public void export(OutputStream os, boolean includeSubHeaders) {
-        PrintWriter printWriter = new PrintWriter(os);
-        List<String> columnKeys = getColumnKeys();
-        List<String> headerRowValues = getHeaderRow();
-        List<String> subHeaderRowValues = getSubHeaderRow();
+    /**
+     * the 'includeSubheaders' parameter is ignored for JSON export -- subheaders are always available in the returned JSON object.
+     * The output is equivalent to serializing a JsonExport record, but the valueMaps are written one at a time as
+     * they are generated.
+     */
+    @Override
+    public void startExport(OutputStream os, boolean includeSubHeaders) {
+        printWriter = new PrintWriter(os);
+        try {
+            generator = objectMapper.createGenerator(printWriter);
+            // we don't want the generator to close the stream -- that's the caller's responsibility
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeFieldName("columnKeys");
+            objectMapper.writeValue(generator, getColumnKeys());
+            generator.writeFieldName("headerRowValues");
+            objectMapper.writeValue(generator, getHeaderRow());
+            generator.writeFieldName("subHeaderRowValues");
+            objectMapper.writeValue(generator, getSubHeaderRow());
+            generator.writeFieldName("valueMaps");
+            generator.writeStartArray();
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing json to stream", e);
+        }
+    }
+
+    @Override
+    public void writeRow(Map<String, String> enrolleeMap) {
+        try {
+            objectMapper.writeValue(generator, enrolleeMap);
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing json to stream", e);
+        }
+    }
+
+    /**
+     * JSON rows are the enrollee's value map itself, so the map is written as an unstreamed export would, keeping
+     * the same keys in the same order.  Only the keys the formatters produced are included, so sparse rows stay small
+     */
+    @Override
+    public void writeRow(Map<String, String> enrolleeMap, ExportRow row) {
+        writeRow(enrolleeMap);
+    }
+
+    /** writes the row as a map of column key to value, in column order, omitting columns with no value */
+    @Override
+    public void writeRow(ExportRow row) {
+        try {
+            List<String> columnKeys = columnPlan.getColumnKeys();
+            generator.writeStartObject();
+            for (int i = 0; i < row.size(); i++) {
+                if (row.get(i) != null) {
+                    generator.writeStringField(columnKeys.get(i), row.get(i));
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing json to stream", e);
+        }
+    }
 
-        JsonExport jsonExport = new JsonExport(columnKeys, headerRowValues, subHeaderRowValues, enrolleeMaps);
+    @Override
+    public void finishExport() {
         try {
-            printWriter.println(objectMapper.writeValueAsString(jsonExport));
-            printWriter.flush();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
         } catch (IOException e) {
             throw new IOInternalException("Error writing json to stream", e);
         }
+        printWriter.println();
+        printWriter.flush();
         // do not close os -- that's the caller's responsibility
     }
 
@@ -0,0 +1,403 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.service.exception.internal.IOInternalException;
+import bio.terra.pearl.core.service.export.formatters.ExportFormatUtils;
+import bio.terra.pearl.core.service.export.formatters.item.AnswerItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.SurveyFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Generates a Parquet file with a typed column for each export column, so that analysis tools (pandas, Spark, etc.)
+ * can load the data without re-parsing strings.  The column types come from the item formatters:
+ *  - properties that are dates, timestamps, numbers or booleans are written as those types
+ *  - answers to boolean, rating and datepicker questions are booleans, numbers and dates (see getAnswerColumnType)
+ *  - split-option columns are booleans
+ *  - multi-select questions exported with stable ids are lists of strings
+ *  - everything else is a string
+ * Parquet dictionary-encodes each column until its dictionary gets too large, so choice questions and other repeated
+ * values are stored as small indexes, while columns of mostly unique values (e.g. free text) fall back to plain encoding.
+ * Parquet has no header rows, so the header and subheader text is stored as json arrays in the file's key-value
+ * metadata.  Rows are buffered into row groups of at most ROW_GROUP_SIZE bytes before being written to the stream.
+ */
+@Slf4j
+public class ParquetExporter extends BaseExporter {
+    public static final String HEADER_ROW_METADATA_KEY = "juniper.headerRowValues";
+    public static final String SUBHEADER_ROW_METADATA_KEY = "juniper.subHeaderRowValues";
+    private static final long ROW_GROUP_SIZE = 32 * 1024 * 1024;
+    /** multi-select answers are exported as the selected stable ids joined with this */
+    private static final String MULTI_SELECT_DELIMITER = ", ";
+
+    private final ObjectMapper objectMapper;
+    private List<ParquetColumn> columns;
+    private ParquetWriter<String[]> writer;
+    private String[] rowValueBuffer;
+
+    public ParquetExporter(List<ModuleFormatter> moduleFormatters, List<Map<String, String>> enrolleeMaps, List<String> columnSorting,
+                           ObjectMapper objectMapper) {
+        super(moduleFormatters, enrolleeMaps, columnSorting);
+        this.objectMapper = objectMapper;
+    }
+
+    /** the 'includeSubheaders' parameter is ignored -- subheaders are always included in the file metadata */
+    @Override
+    public void startExport(OutputStream os, boolean includeSubHeaders) {
+        columns = getColumns();
+        rowValueBuffer = new String[getColumnKeys().size()];
+        try {
+            Map<String, String> metadata = Map.of(
+                    HEADER_ROW_METADATA_KEY, objectMapper.writeValueAsString(getHeaderRow()),
+                    SUBHEADER_ROW_METADATA_KEY, objectMapper.writeValueAsString(getSubHeaderRow()));
+            writer = new ParquetWriterBuilder(new StreamOutputFile(os), new RowWriteSupport(columns, metadata))
+                    .withConf(new PlainParquetConfiguration())
+                    .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                    .withCompressionCodec(CompressionCodecName.SNAPPY)
+                    .withRowGroupSize(ROW_GROUP_SIZE)
+                    .withDictionaryEncoding(true)
+                    .build();
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing parquet file", e);
+        }
+    }
+
+    @Override
+    public void writeRow(Map<String, String> enrolleeMap) {
+        List<String> rowValues = getRowValues(enrolleeMap, getColumnKeys());
+        writeRowValues(rowValues.toArray(rowValueBuffer));
+    }
+
+    @Override
+    public void writeRow(ExportRow row) {
+        getRowValues(row, rowValueBuffer);
+        writeRowValues(rowValueBuffer);
+    }
+
+    private void writeRowValues(String[] rowValues) {
+        try {
+            writer.write(rowValues);
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing parquet file", e);
+        }
+    }
+
+    /** writes the last row group and the file footer.  The stream is flushed but not closed */
+    @Override
+    public void finishExport() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing parquet file", e);
+        }
+    }
+
+    /**
+     * gets the typed column for each export column, in output order.  Parquet column names must be unique, so if
+     * column keys are duplicated, only the first is written (matching how values are looked up by key)
+     */
+    protected List<ParquetColumn> getColumns() {
+        List<ParquetColumnType> columnTypes = new ArrayList<>();
+        List<ZoneId> zoneIds = new ArrayList<>();
+        applyToEveryColumn((moduleFormatter, itemFormatter, isOtherDescription, choice, moduleRepeatNum) -> {
+            columnTypes.add(getColumnType(itemFormatter, isOtherDescription, choice != null));
+            zoneIds.add(itemFormatter.getZoneId());
+        });
+        List<String> columnKeys = getColumnKeys();
+        List<ParquetColumnType> sortedColumnTypes = columnPlan.transposeIfNeeded(columnTypes);
+        List<ZoneId> sortedZoneIds = columnPlan.transposeIfNeeded(zoneIds);
+        Set<String> columnNames = new HashSet<>();
+        List<ParquetColumn> parquetColumns = new ArrayList<>(columnKeys.size());
+        for (int i = 0; i < columnKeys.size(); i++) {
+            if (columnNames.add(columnKeys.get(i))) {
+                parquetColumns.add(new ParquetColumn(columnKeys.get(i), i, sortedColumnTypes.get(i), sortedZoneIds.get(i)));
+            }
+        }
+        return parquetColumns;
+    }
+
+    protected static ParquetColumnType getColumnType(ItemFormatter itemFormatter, boolean isOtherDescription, boolean isSplitOption) {
+        if (isSplitOption) {
+            return ParquetColumnType.BOOLEAN;
+        }
+        if (itemFormatter instanceof AnswerItemFormatter answerItemFormatter) {
+            // if options are exported as their text, the text could contain the delimiter, so we can't reliably split them
+            boolean isMultiSelect = answerItemFormatter.isAllowMultiple() && answerItemFormatter.isStableIdsForOptions()
+                    && answerItemFormatter.getChoices() != null && !answerItemFormatter.getChoices().isEmpty();
+            if (isOtherDescription) {
+                return ParquetColumnType.STRING;
+            }
+            return isMultiSelect ? ParquetColumnType.STRING_LIST : getAnswerColumnType(answerItemFormatter.getQuestionType());
+        }
+        if (itemFormatter.getDataType() == null) {
+            return ParquetColumnType.STRING;
+        }
+        return switch (itemFormatter.getDataType()) {
+            case BOOLEAN -> ParquetColumnType.BOOLEAN;
+            case NUMBER -> ParquetColumnType.DOUBLE;
+            case DATE -> ParquetColumnType.DATE;
+            case DATE_TIME -> ParquetColumnType.TIMESTAMP;
+            default -> ParquetColumnType.STRING;
+        };
+    }
+
+    /**
+     * gets the column type for answers to the given type of survey question.  Only question types whose answers are
+     * always booleans, numbers or ISO dates are typed -- e.g. text questions with a numeric inputType are still
+     * strings, since the inputType isn't part of the question definition, and a free-text answer could be anything
+     */
+    protected static ParquetColumnType getAnswerColumnType(String questionType) {
+        if (questionType == null) {
+            return ParquetColumnType.STRING;
+        }
+        return switch (questionType) {
+            case "boolean" -> ParquetColumnType.BOOLEAN;
+            case "rating" -> ParquetColumnType.DOUBLE;
+            case "datepicker" -> ParquetColumnType.DATE;
+            default -> ParquetColumnType.STRING;
+        };
+    }
+
+    protected enum ParquetColumnType {
+        STRING,
+        STRING_LIST,
+        BOOLEAN,
+        DOUBLE,
+        DATE,
+        TIMESTAMP
+    }
+
+    /** a column of the file.  columnIndex is the index of the column's value in the export row */
+    protected record ParquetColumn(String name, int columnIndex, ParquetColumnType type, ZoneId zoneId) {}
+
+    protected static MessageType buildSchema(List<ParquetColumn> columns) {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (ParquetColumn column : columns) {
+            switch (column.type()) {
+                case STRING -> builder.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(column.name());
+                case STRING_LIST -> builder.optionalList()
+                        .optionalElement(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType())
+                        .named(column.name());
+                case BOOLEAN -> builder.optional(PrimitiveTypeName.BOOLEAN).named(column.name());
+                case DOUBLE -> builder.optional(PrimitiveTypeName.DOUBLE).named(column.name());
+                case DATE -> builder.optional(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named(column.name());
+                case TIMESTAMP -> builder.optional(PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                        .named(column.name());
+            }
+        }
+        return builder.named("enrollee");
+    }
+
+    /** writes rows of export strings, converting each value to its column's type */
+    private static class RowWriteSupport extends WriteSupport<String[]> {
+        private final List<ParquetColumn> columns;
+        private final MessageType schema;
+        private final Map<String, String> metadata;
+        private RecordConsumer recordConsumer;
+
+        RowWriteSupport(List<ParquetColumn> columns, Map<String, String> metadata) {
+            this.columns = columns;
+            this.schema = buildSchema(columns);
+            this.metadata = metadata;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, metadata);
+        }
+
+        @Override
+        public WriteContext init(org.apache.parquet.conf.ParquetConfiguration configuration) {
+            return new WriteContext(schema, metadata);
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.recordConsumer = recordConsumer;
+        }
+
+        @Override
+        public void write(String[] rowValues) {
+            recordConsumer.startMessage();
+            for (int fieldIndex = 0; fieldIndex < columns.size(); fieldIndex++) {
+                ParquetColumn column = columns.get(fieldIndex);
+                String value = rowValues[column.columnIndex()];
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+                Object typedValue = parseValue(column, value);
+                if (typedValue == null) {
+                    continue;
+                }
+                recordConsumer.startField(column.name(), fieldIndex);
+                writeValue(column.type(), typedValue);
+                recordConsumer.endField(column.name(), fieldIndex);
+            }
+            recordConsumer.endMessage();
+        }
+
+        private void writeValue(ParquetColumnType type, Object typedValue) {
+            switch (type) {
+                case STRING -> recordConsumer.addBinary(Binary.fromString((String) typedValue));
+                case BOOLEAN -> recordConsumer.addBoolean((Boolean) typedValue);
+                case DOUBLE -> recordConsumer.addDouble((Double) typedValue);
+                case DATE -> recordConsumer.addInteger((int) ((LocalDate) typedValue).toEpochDay());
+                case TIMESTAMP -> recordConsumer.addLong(((Instant) typedValue).toEpochMilli());
+                case STRING_LIST -> {
+                    // the standard three-level list structure, see the parquet LogicalTypes spec
+                    recordConsumer.startGroup();
+                    recordConsumer.startField("list", 0);
+                    for (String element : (String[]) typedValue) {
+                        recordConsumer.startGroup();
+                        recordConsumer.startField("element", 0);
+                        recordConsumer.addBinary(Binary.fromString(element));
+                        recordConsumer.endField("element", 0);
+                        recordConsumer.endGroup();
+                    }
+                    recordConsumer.endField("list", 0);
+                    recordConsumer.endGroup();
+                }
+            }
+        }
+
+        /** returns the value as its column's type, or null if it can't be parsed as that type */
+        private Object parseValue(ParquetColumn column, String value) {
+            try {
+                return switch (column.type()) {
+                    case STRING -> value;
+                    case STRING_LIST -> value.split(MULTI_SELECT_DELIMITER);
+                    case BOOLEAN -> parseBoolean(value);
+                    case DOUBLE -> Double.parseDouble(value);
+                    case DATE -> ExportFormatUtils.importLocalDate(value);
+                    case TIMESTAMP -> ExportFormatUtils.importInstant(value, column.zoneId());
+                };
+            } catch (RuntimeException e) {
+                // don't stop the entire export for one bad value
+                log.warn("Could not convert value for column {} to {}", column.name(), column.type());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * boolean questions can be configured with custom values for true and false, so anything other than the
+     * export's own boolean strings is rejected rather than read as false
+     */
+    private static boolean parseBoolean(String value) {
+        if (value.equals(SurveyFormatter.SPLIT_OPTION_SELECTED_VALUE) || value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equals(SurveyFormatter.SPLIT_OPTION_UNSELECTED_VALUE) || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Not a boolean value");
+    }
+
+    private static class ParquetWriterBuilder extends ParquetWriter.Builder<String[], ParquetWriterBuilder> {
+        private final WriteSupport<String[]> writeSupport;
+
+        ParquetWriterBuilder(OutputFile outputFile, WriteSupport<String[]> writeSupport) {
+            super(outputFile);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected ParquetWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<String[]> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+
+        @Override
+        protected WriteSupport<String[]> getWriteSupport(org.apache.parquet.conf.ParquetConfiguration conf) {
+            return writeSupport;
+        }
+    }
+
+    /**
+     * adapts the export stream to parquet's OutputFile, so the file is streamed to the caller rather than written to
+     * disk.  Parquet only appends (the footer is written last) so no seeking is needed
+     */
+    private static class StreamOutputFile implements OutputFile {
+        private final OutputStream outputStream;
+
+        StreamOutputFile(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position = 0;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    outputStream.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    outputStream.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    outputStream.flush();
+                }
+
+                /** the export stream is the caller's to close */
+                @Override
+                public void close() throws IOException {
+                    outputStream.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
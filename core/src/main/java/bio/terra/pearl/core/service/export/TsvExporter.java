@@ -13,6 +13,9 @@ import java.util.Map;
 
 public class TsvExporter extends BaseExporter {
     private final ExportFileFormat fileFormat;
+    private CSVPrinter writer;
+    private List<String> columnKeys;
+    private String[] rowValueBuffer;
 
     public TsvExporter(List<ModuleFormatter> moduleExportInfos, List<Map<String, String>> enrolleeMaps, ExportFileFormat fileFormat,
                        List<String> columnSorting) {
@@ -27,17 +30,14 @@ public class TsvExporter extends BaseExporter {
         this(moduleExportInfos, enrolleeMaps, ExportFileFormat.TSV, null);
     }
 
-    /**
-     * writes the data to the given stream. This does not close the stream, so that multi-part streams (e.g. zip files)
-     * can be supported
-     */
     @Override
-    public void export(OutputStream os, boolean includeSubHeaders) {
+    public void startExport(OutputStream os, boolean includeSubHeaders) {
         try {
             CSVFormat format = fileFormat.equals(ExportFileFormat.TSV) ? CSVFormat.TDF : CSVFormat.DEFAULT;
-            CSVPrinter writer = format.builder().setRecordSeparator('\n').build().print(new OutputStreamWriter(os));
+            writer = format.builder().setRecordSeparator('\n').build().print(new OutputStreamWriter(os));
 
-            List<String> columnKeys = getColumnKeys();
+            columnKeys = getColumnKeys();
+            rowValueBuffer = new String[columnKeys.size()];
             List<String> headerRowValues = getHeaderRow();
 
             writer.printRecord(headerRowValues);
@@ -45,12 +45,34 @@ public class TsvExporter extends BaseExporter {
                 List<String> subHeaderRowValues = getSubHeaderRow();
                 writer.printRecord(subHeaderRowValues);
             }
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing TSV file", e);
+        }
+    }
 
-            for (Map<String, String> enrolleeMap : enrolleeMaps) {
-                List<String> rowValues = getRowValues(enrolleeMap, columnKeys);
-                writer.printRecord(rowValues);
-            }
+    @Override
+    public void writeRow(Map<String, String> enrolleeMap) {
+        try {
+            List<String> rowValues = getRowValues(enrolleeMap, columnKeys);
+            writer.printRecord(rowValues);
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing TSV file", e);
+        }
+    }
+
+    @Override
+    public void writeRow(ExportRow row) {
+        try {
+            getRowValues(row, rowValueBuffer);
+            writer.printRecord((Object[]) rowValueBuffer);
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing TSV file", e);
+        }
+    }
 
+    @Override
+    public void finishExport() {
+        try {
             writer.flush();
             // do not close os -- that's the caller's responsibility
         } catch (IOException e) {
@@ -0,0 +1,76 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.service.exception.internal.IOInternalException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Holds rendered enrollee value maps in a temp file, one JSON object per line, from the time they are generated until
+ * the export's columns are known and the rows can be written.  This lets an export read each chunk of enrollee data
+ * from the database once, without holding every enrollee's values in memory.
+ * The maps are read back with their keys in the order they were written.
+ */
+class ValueMapSpool implements AutoCloseable {
+    private static final TypeReference<Map<String, String>> VALUE_MAP_TYPE = new TypeReference<>() {};
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final Path file;
+    private final BufferedWriter writer;
+
+    ValueMapSpool(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // each map has to fit on one line
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        try {
+            this.file = Files.createTempFile("export-rows-", ".jsonl");
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IOInternalException("Error creating export row file", e);
+        }
+    }
+
+    void add(Map<String, String> valueMap) {
+        try {
+            writer.write(lineWriter.writeValueAsString(valueMap));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new IOInternalException("Error writing export row file", e);
+        }
+    }
+
+    /** passes each map to the consumer, in the order they were added */
+    void forEach(Consumer<Map<String, String>> consumer) {
+        try {
+            writer.flush();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    consumer.accept(objectMapper.readValue(line, VALUE_MAP_TYPE));
+                }
+            }
+        } catch (IOException e) {
+            throw new IOInternalException("Error reading export row file", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new IOInternalException("Error deleting export row file", e);
+        }
+    }
+}
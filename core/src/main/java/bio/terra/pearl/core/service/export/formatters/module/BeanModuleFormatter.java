@@ -3,11 +3,11 @@ package bio.terra.pearl.core.service.export.formatters.module;
 import bio.terra.pearl.core.model.export.ExportOptions;
 import bio.terra.pearl.core.model.survey.QuestionChoice;
 import bio.terra.pearl.core.service.export.EnrolleeExportData;
+import bio.terra.pearl.core.service.export.ExportRowWriter;
 import bio.terra.pearl.core.service.export.formatters.ExportFormatUtils;
 import bio.terra.pearl.core.service.export.formatters.item.PropertyItemFormatter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,15 +27,11 @@ public abstract class BeanModuleFormatter<T> extends ModuleFormatter<T, Property
     public abstract T getBean(EnrolleeExportData enrolleeExportData);
 
     @Override
-    public Map<String, String> toStringMap(EnrolleeExportData enrolleeExportData) {
+    public void writeValues(EnrolleeExportData enrolleeExportData, ExportRowWriter row) {
         T bean = getBean(enrolleeExportData);
-        Map<String, String> valueMap = new HashMap<>();
         for (PropertyItemFormatter<T> itemInfo : getItemFormatters()) {
-            String value = itemInfo.getExportString(bean);
-            String columnName = getColumnKey(itemInfo, false, null, 1);
-            valueMap.put(columnName, value);
+            row.put(this, itemInfo, false, 1, itemInfo.getExportString(bean));
         }
-        return valueMap;
     }
 
     @Override
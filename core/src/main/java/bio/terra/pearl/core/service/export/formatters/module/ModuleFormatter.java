@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.export.formatters.module;
 import bio.terra.pearl.core.model.export.ExportOptions;
 import bio.terra.pearl.core.model.survey.QuestionChoice;
 import bio.terra.pearl.core.service.export.EnrolleeExportData;
+import bio.terra.pearl.core.service.export.ExportRowWriter;
 import bio.terra.pearl.core.service.export.formatters.ExportFormatUtils;
 import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
 import lombok.Getter;
@@ -11,6 +12,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.NotImplementedException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -61,7 +63,27 @@ public abstract class ModuleFormatter<T, F extends ItemFormatter<T>> {
         return ExportFormatUtils.camelToWordCase(itemFormatter.getBaseColumnKey());
     }
 
-    public abstract Map<String, String> toStringMap(EnrolleeExportData enrolleeExportData);
+    /**
+     * renders the enrollee's values for this module into the given row.  When writing an export, the row is an
+     * ExportRow buffer indexed by column, so no per-row maps are needed.
+     */
+    public abstract void writeValues(EnrolleeExportData enrolleeExportData, ExportRowWriter row);
+
+    /** returns a map of column key to value of the enrollee's values for this module */
+    public Map<String, String> toStringMap(EnrolleeExportData enrolleeExportData) {
+        Map<String, String> valueMap = new HashMap<>();
+        writeValues(enrolleeExportData, ExportRowWriter.forMap(valueMap));
+        return valueMap;
+    }
+
+    /**
+     * updates any data-dependent column information (e.g. maxNumRepeats) so that the columns can hold the given
+     * enrollee's data.  toStringMap also does this as a side effect, but this allows the columns to be sized without
+     * rendering, so that headers can be written before any rows are.
+     */
+    public void accommodateData(EnrolleeExportData enrolleeExportData) {
+        // by default, modules have a fixed set of columns
+    }
 
     public T fromStringMap(UUID studyEnvironmentId, Map<String, String> enrolleeMap, int moduleRepeatNum) {
         throw new NotImplementedException();
@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.export.formatters.module;
 import bio.terra.pearl.core.model.export.ExportOptions;
 import bio.terra.pearl.core.model.survey.*;
 import bio.terra.pearl.core.service.export.EnrolleeExportData;
+import bio.terra.pearl.core.service.export.ExportRowWriter;
 import bio.terra.pearl.core.service.export.formatters.ExportFormatUtils;
 import bio.terra.pearl.core.service.export.formatters.item.AnswerItemFormatter;
 import bio.terra.pearl.core.service.export.formatters.item.ItemFormatter;
@@ -34,6 +35,11 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
     public static String SPLIT_OPTION_UNSELECTED_VALUE = "0";
     private ObjectMapper objectMapper;
     private final List<UUID> surveyIds; // the list of surveyIds that are included in this module -- used for filtering responses
+    private final ExportOptions exportOptions;
+    private final List<SurveyQuestionDefinition> questionDefs;
+    private final Set<String> repeatableQuestionStableIds;
+    /** map of repeatable (e.g. paneldynamic) question stableIds to the max number of entries any enrollee has given */
+    private final Map<String, Integer> repeatableResponseLengths = new HashMap<>();
 
     public SurveyFormatter(ExportOptions exportOptions,
                            String stableId,
@@ -47,7 +53,16 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
                 surveys.stream().sorted(Comparator.comparingInt(Survey::getVersion).reversed()).findFirst().get().getName());
         this.objectMapper = objectMapper;
         this.surveyIds = surveys.stream().map(Survey::getId).toList();
-        generateAnswerItemFormatters(exportOptions, questionDefs, data);
+        this.exportOptions = exportOptions;
+        this.questionDefs = questionDefs;
+        this.repeatableQuestionStableIds = questionDefs.stream()
+                .filter(SurveyQuestionDefinition::isRepeatable)
+                .map(SurveyQuestionDefinition::getQuestionStableId)
+                .collect(Collectors.toSet());
+        for (EnrolleeExportData enrolleeData : data) {
+            updateRepeatableResponseLengths(enrolleeData);
+        }
+        generateAnswerItemFormatters(exportOptions, questionDefs);
         filterItemFormatters(exportOptions);
     }
 
@@ -69,13 +84,8 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
 
     private void generateAnswerItemFormatters(
             ExportOptions exportOptions,
-            List<SurveyQuestionDefinition> questionDefs,
-            List<EnrolleeExportData> data) {
-        // group all the questions that share a stableId (i.e. different versions of the same question), and then sort them by
-        // the export order of the most recent version
-        Collection<List<SurveyQuestionDefinition>> questionDefsByStableId = questionDefs.stream().collect(groupingBy(
-                SurveyQuestionDefinition::getQuestionStableId
-        )).values().stream().sorted(Comparator.comparingInt(a -> a.get(0).getExportOrder())).toList();
+            List<SurveyQuestionDefinition> questionDefs) {
+        Collection<List<SurveyQuestionDefinition>> questionDefsByStableId = groupQuestionDefsByStableId(questionDefs);
 
         for (List<SurveyQuestionDefinition> questionVersions : questionDefsByStableId) {
             SurveyQuestionDefinition mostRecent = questionVersions.get(0);
@@ -91,11 +101,21 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
 
             itemFormatters.add(new AnswerItemFormatter(exportOptions, moduleName, questionVersions, objectMapper));
 
-            itemFormatters.addAll(buildChildrenItemFormatters(exportOptions, questionDefsByStableId, data, mostRecent));
+            itemFormatters.addAll(buildChildrenItemFormatters(exportOptions, questionDefsByStableId, mostRecent));
 
         }
     }
 
+    /**
+     * group all the questions that share a stableId (i.e. different versions of the same question), and then sort them by
+     * the export order of the most recent version
+     */
+    private static Collection<List<SurveyQuestionDefinition>> groupQuestionDefsByStableId(List<SurveyQuestionDefinition> questionDefs) {
+        return questionDefs.stream().collect(groupingBy(
+                SurveyQuestionDefinition::getQuestionStableId
+        )).values().stream().sorted(Comparator.comparingInt(a -> a.get(0).getExportOrder())).toList();
+    }
+
     private Collection<List<SurveyQuestionDefinition>> getChildrenOf(Collection<List<SurveyQuestionDefinition>> questionDefs, SurveyQuestionDefinition parent) {
         return questionDefs.stream().filter(questionDef -> parent.getQuestionStableId().equals(questionDef.get(0).getParentStableId())).toList();
     }
@@ -103,7 +123,6 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
     private List<ItemFormatter<SurveyResponseWithTaskDto>> buildChildrenItemFormatters(
             ExportOptions exportOptions,
             Collection<List<SurveyQuestionDefinition>> questionDefs,
-            List<EnrolleeExportData> data,
             SurveyQuestionDefinition parent) {
 
         Collection<List<SurveyQuestionDefinition>> children = getChildrenOf(questionDefs, parent);
@@ -112,7 +131,7 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
         }
 
         if (parent.isRepeatable()) {
-            return buildRepeatableChildrenItemFormatters(exportOptions, data, parent, children);
+            return buildRepeatableChildrenItemFormatters(exportOptions, parent, children);
         }
 
         List<ItemFormatter<SurveyResponseWithTaskDto>> childrenItemFormatters = new ArrayList<>();
@@ -124,34 +143,11 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
 
     private List<ItemFormatter<SurveyResponseWithTaskDto>> buildRepeatableChildrenItemFormatters(
             ExportOptions exportOptions,
-            List<EnrolleeExportData> data,
             SurveyQuestionDefinition parent,
             Collection<List<SurveyQuestionDefinition>> children) {
-        int maxParentResponseLength = data
-                .stream()
-                .flatMap(enrolleeData -> enrolleeData.getAnswers().stream())
-                .filter(answer -> parent.getQuestionStableId().equals(answer.getQuestionStableId()))
-                .mapToInt(answer -> {
-
-                    String value = StringUtils.isEmpty(answer.getStringValue()) ? answer.getObjectValue() : answer.getStringValue();
-                    if (StringUtils.isEmpty(value)) {
-                        return 0;
-                    }
-
-                    try {
-                        return objectMapper.readTree(value).size();
-                    } catch (JsonProcessingException e) {
-                        return 0;
-                    }
-                })
-                .max()
-                .orElse(1);
-
-        if (maxParentResponseLength < 1) {
-            // always return one so that we can still introspect
-            // on the data even if no data exists
-            maxParentResponseLength = 1;
-        }
+        // always at least one so that we can still introspect
+        // on the data even if no data exists
+        int maxParentResponseLength = repeatableResponseLengths.getOrDefault(parent.getQuestionStableId(), 1);
 
         List<ItemFormatter<SurveyResponseWithTaskDto>> childrenItemFormatters = new ArrayList<>();
         for (int repeat = 0; repeat < maxParentResponseLength; repeat++) {
@@ -164,6 +160,51 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
     }
 
 
+    /**
+     * updates the max number of entries seen for each repeatable question, based on the given enrollee's answers.
+     * returns true if any of the maximums increased, meaning the child item formatters need to be regenerated
+     */
+    private boolean updateRepeatableResponseLengths(EnrolleeExportData enrolleeData) {
+        boolean updated = false;
+        for (Answer answer : enrolleeData.getAnswers()) {
+            if (!repeatableQuestionStableIds.contains(answer.getQuestionStableId())) {
+                continue;
+            }
+            int responseLength = getResponseLength(answer);
+            if (responseLength > repeatableResponseLengths.getOrDefault(answer.getQuestionStableId(), 1)) {
+                repeatableResponseLengths.put(answer.getQuestionStableId(), responseLength);
+                updated = true;
+            }
+        }
+        return updated;
+    }
+
+    private int getResponseLength(Answer answer) {
+        String value = StringUtils.isEmpty(answer.getStringValue()) ? answer.getObjectValue() : answer.getStringValue();
+        if (StringUtils.isEmpty(value)) {
+            return 0;
+        }
+        try {
+            return objectMapper.readTree(value).size();
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void accommodateData(EnrolleeExportData enrolleeExportData) {
+        long numResponses = enrolleeExportData.getResponses().stream()
+                .filter(response -> surveyIds.contains(response.getSurveyId()))
+                .count();
+        maxNumRepeats = Math.max(maxNumRepeats, (int) numResponses);
+        if (updateRepeatableResponseLengths(enrolleeExportData)) {
+            // an enrollee has more entries for a repeatable question than we've seen so far, so we need more columns
+            itemFormatters = generateItemFormatters(exportOptions);
+            generateAnswerItemFormatters(exportOptions, questionDefs);
+            filterItemFormatters(exportOptions);
+        }
+    }
+
     @Override
     public String getColumnKey(ItemFormatter itemFormatter, boolean isOtherDescription, QuestionChoice choice, int moduleRepeatNum) {
         return getColumnKeyChoiceStableId(itemFormatter, isOtherDescription, choice == null ? null : choice.stableId(), moduleRepeatNum);
@@ -256,20 +297,18 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
     }
 
     @Override
-    public Map<String, String> toStringMap(EnrolleeExportData exportData) {
-        Map<String, String> valueMap = new HashMap<>();
+    public void writeValues(EnrolleeExportData exportData, ExportRowWriter row) {
         List<SurveyResponseWithTaskDto> responses = exportData.getResponses().stream()
                 .filter(response -> surveyIds.contains(response.getSurveyId()))
                 .toList();
         for (int i = 0; i < responses.size(); i++) {
-            addResponseToMap(responses.get(i), exportData, valueMap, i + 1);
+            addResponseToRow(responses.get(i), exportData, row, i + 1);
         }
         maxNumRepeats = Math.max(maxNumRepeats, responses.size());
-        return valueMap;
     }
 
     // note that responseNum is 1-indexed, not zero-index since it goes to moduleRepeatNum
-    protected void addResponseToMap(SurveyResponse surveyResponse, EnrolleeExportData exportData, Map<String, String> valueMap, int responseNum) {
+    protected void addResponseToRow(SurveyResponse surveyResponse, EnrolleeExportData exportData, ExportRowWriter row, int responseNum) {
         List<Answer> answers = exportData.getAnswers().stream().filter(ans ->
                 Objects.equals(ans.getSurveyResponseId(), surveyResponse.getId())
         ).toList();
@@ -280,11 +319,11 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
         for (ItemFormatter itemFormatter : getItemFormatters()) {
             if (itemFormatter instanceof PropertyItemFormatter) {
                 // it's a property of the SurveyResponse
-                valueMap.put(getColumnKey(itemFormatter, false, null, responseNum),
+                row.put(this, itemFormatter, false, responseNum,
                         ((PropertyItemFormatter) itemFormatter).getExportString(surveyResponse));
             } else {
                 // it's an answer value
-                addAnswersToMap((AnswerItemFormatter) itemFormatter, answerMap, valueMap, responseNum);
+                addAnswersToRow((AnswerItemFormatter) itemFormatter, answerMap, row, responseNum);
             }
         }
     }
@@ -292,6 +331,11 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
 
     public void addAnswersToMap(AnswerItemFormatter itemFormatter,
                                 Map<String, List<Answer>> answerMap, Map<String, String> valueMap, int responseNum) {
+        addAnswersToRow(itemFormatter, answerMap, ExportRowWriter.forMap(valueMap), responseNum);
+    }
+
+    public void addAnswersToRow(AnswerItemFormatter itemFormatter,
+                                Map<String, List<Answer>> answerMap, ExportRowWriter row, int responseNum) {
         String valueStableId = itemFormatter.getQuestionStableId();
 
         // if the question is a child of another question, then we need to get the parent question's value
@@ -313,22 +357,26 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
             // just use the current version
             matchedItemFormatter = itemFormatter;
         }
-        addAnswerToMap(matchedItemFormatter, matchedAnswer, valueMap, objectMapper, responseNum);
+        addAnswerToRow(itemFormatter, matchedItemFormatter, matchedAnswer, row, objectMapper, responseNum);
     }
 
-    protected void addAnswerToMap(AnswerItemFormatter itemFormatter,
-                                  Answer answer, Map<String, String> valueMap, ObjectMapper objectMapper, int responseNum) {
+    /**
+     * columnFormatter is the formatter of the current version of the question, which determines the column, while
+     * itemFormatter is the formatter for the version of the question the answer was given to, which determines the value
+     */
+    protected void addAnswerToRow(AnswerItemFormatter columnFormatter, AnswerItemFormatter itemFormatter,
+                                  Answer answer, ExportRowWriter row, ObjectMapper objectMapper, int responseNum) {
         if (itemFormatter.isSplitOptionsIntoColumns()) {
-            addSplitOptionSelectionsToMap(itemFormatter, answer, valueMap, objectMapper, responseNum);
+            addSplitOptionSelectionsToRow(itemFormatter, answer, row, objectMapper, responseNum);
         } else {
-            valueMap.put(
-                    getColumnKey(itemFormatter, false, null, responseNum),
+            row.put(
+                    this, columnFormatter, false, responseNum,
                     valueAsString(itemFormatter, answer, itemFormatter.getChoices(), itemFormatter.isStableIdsForOptions(), objectMapper)
             );
         }
         if (itemFormatter.isHasOtherDescription() && answer.getOtherDescription() != null) {
-            valueMap.put(
-                    getColumnKey(itemFormatter, true, null, responseNum),
+            row.put(
+                    this, columnFormatter, true, responseNum,
                     answer.getOtherDescription()
             );
         }
@@ -398,13 +446,13 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
     }
 
     /**
-     * adds an entry to the valueMap for each selected option of a 'splitOptionsIntoColumns' question
+     * adds an entry to the row for each selected option of a 'splitOptionsIntoColumns' question
      */
-    protected void addSplitOptionSelectionsToMap(ItemFormatter itemFormatter,
-                                                 Answer answer, Map<String, String> valueMap, ObjectMapper objectMapper, int responseNum) {
+    protected void addSplitOptionSelectionsToRow(ItemFormatter itemFormatter,
+                                                 Answer answer, ExportRowWriter row, ObjectMapper objectMapper, int responseNum) {
         if (answer.getStringValue() != null) {
             // this was a single-select question, so we only need to add the selected option
-            valueMap.put(
+            row.put(
                     getColumnKeyChoiceStableId(itemFormatter, false, answer.getStringValue(), responseNum),
                     SPLIT_OPTION_SELECTED_VALUE
             );
@@ -414,7 +462,7 @@ public class SurveyFormatter extends ModuleFormatter<SurveyResponseWithTaskDto,
                 List<String> answerValues = objectMapper.readValue(answer.getObjectValue(), new TypeReference<List<String>>() {
                 });
                 for (String answerValue : answerValues) {
-                    valueMap.put(
+                    row.put(
                             getColumnKeyChoiceStableId(itemFormatter, false, answerValue, responseNum),
                             SPLIT_OPTION_SELECTED_VALUE
                     );
@@ -2,15 +2,22 @@ package bio.terra.pearl.core.service.export.integration;
 
 import bio.terra.pearl.core.model.export.ExportIntegration;
 import bio.terra.pearl.core.service.export.EnrolleeExportService;
+import bio.terra.pearl.core.service.export.ExportConfig;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
-import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 
 @Service
@@ -18,20 +25,23 @@ import java.util.function.Consumer;
 public class AirtableExporter extends ExternalExporter {
     private static final String AIRTABLE_API_KEY_NAME = "env.airtable.authToken";
     private static final String AIRTABLE_BASE_URL = "https://api.airtable.com/";
+    /** the size of each chunk read from the payload as the request body is streamed */
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
     private final WebClient webClient;
     private final AirtableConfig config;
 
     public AirtableExporter(WebClient.Builder webClientBuilder, AirtableConfig config,
                             ExportIntegrationJobService exportIntegrationJobService,
-                            EnrolleeExportService enrolleeExportService) {
-        super(exportIntegrationJobService, enrolleeExportService);
+                            EnrolleeExportService enrolleeExportService,
+                            ExportConfig exportConfig) {
+        super(exportIntegrationJobService, enrolleeExportService, exportConfig);
         this.webClient = webClientBuilder.build();
         this.config = config;
     }
 
-    protected void send(ExportIntegration integration, ByteArrayOutputStream outputStream,
+    protected void send(ExportIntegration integration, ExportPayload payload,
                        Consumer<String> handleComplete, Consumer<Exception> handleError) {
-        var postRequest = buildAuthedPostRequest(buildPath(integration), outputStream);
+        var postRequest = buildAuthedPostRequest(buildPath(integration), payload);
         postRequest.retrieve()
                 .toBodilessEntity()
                 .subscribe(
@@ -47,11 +57,19 @@ public class AirtableExporter extends ExternalExporter {
         return AIRTABLE_BASE_URL + integration.getDestinationUrl();
     }
 
-    private WebClient.RequestHeadersSpec<?> buildAuthedPostRequest(String path, ByteArrayOutputStream baos) {
+    /**
+     * the body is streamed from the payload in fixed-size chunks as the request is written, so the export is never
+     * held in memory as a whole
+     */
+    private WebClient.RequestHeadersSpec<?> buildAuthedPostRequest(String path, ExportPayload payload) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(payload::openInputStream,
+                DefaultDataBufferFactory.sharedInstance, UPLOAD_BUFFER_SIZE);
         return webClient.post()
                 .uri(path)
                 .header("Authorization", "Bearer " + config.getAuthToken())
-                .bodyValue(baos.toString());  // there'smight be  a way to have the webClient take the stream directly, but I couldn't find it easily
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(payload.getSize())
+                .body(BodyInserters.fromDataBuffers(body));
     }
 
     @Component @Getter @Setter
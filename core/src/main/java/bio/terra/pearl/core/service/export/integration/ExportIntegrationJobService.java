@@ -6,6 +6,7 @@ import bio.terra.pearl.core.service.CrudService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -18,6 +19,11 @@ public class ExportIntegrationJobService extends CrudService<ExportIntegrationJo
         return dao.findByStudyEnvironmentId(studyEnvironmentId);
     }
 
+    /** the most recent successful job that recorded a high-water mark -- used as the starting point for incremental exports */
+    public Optional<ExportIntegrationJob> findLatestCompletedWithHighWaterMark(UUID integrationId) {
+        return dao.findLatestCompletedWithHighWaterMark(integrationId);
+    }
+
     public void deleteByExportIntegrationId(UUID integrationId) {
         dao.deleteByExportIntegrationId(integrationId);
     }
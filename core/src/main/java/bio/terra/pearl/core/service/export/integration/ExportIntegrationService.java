@@ -15,9 +15,11 @@ import bio.terra.pearl.core.model.publishing.StudyEnvironmentChange;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
+import bio.terra.pearl.core.service.export.ExportConfig;
 import bio.terra.pearl.core.service.export.ExportOptionsWithExpression;
 import bio.terra.pearl.core.service.publishing.StudyEnvPublishable;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpressionParser;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,18 +32,20 @@ public class ExportIntegrationService extends CrudService<ExportIntegration, Exp
     private final ExportOptionsDao exportOptionsDao;
     private final EnrolleeSearchExpressionParser enrolleeSearchExpressionParser;
     private final Map<ExportDestinationType, ExternalExporter> externalExporters;
-
+    private final ExportConfig exportConfig;
 
     public ExportIntegrationService(ExportIntegrationDao dao,
                                     ExportIntegrationJobService exportIntegrationJobService,
                                     ExportOptionsDao exportOptionsDao,
                                     EnrolleeSearchExpressionParser enrolleeSearchExpressionParser,
-                                    AirtableExporter airtableExporter) {
+                                    AirtableExporter airtableExporter,
+                                    ExportConfig exportConfig) {
         super(dao);
         this.exportIntegrationJobService = exportIntegrationJobService;
         this.exportOptionsDao = exportOptionsDao;
         this.enrolleeSearchExpressionParser = enrolleeSearchExpressionParser;
         this.externalExporters = Map.of(ExportDestinationType.AIRTABLE, airtableExporter);
+        this.exportConfig = exportConfig;
     }
 
     public ExportIntegration create(ExportIntegration integration) {
@@ -84,15 +88,30 @@ public class ExportIntegrationService extends CrudService<ExportIntegration, Exp
             throw new IllegalArgumentException("Export options must be set to run an export integration");
         }
         ExportOptionsWithExpression parsedOpts = enrolleeSearchExpressionParser.parseExportOptions(integration.getExportOptions());
+        Instant startedAt = Instant.now();
+        // incremental exports pick up from the last successful job, so failed jobs' changes are retried next time
+        Instant changedSince = integration.isIncremental()
+                ? exportIntegrationJobService.findLatestCompletedWithHighWaterMark(integration.getId())
+                    .map(ExportIntegrationJob::getHighWaterMark).orElse(null)
+                : null;
         ExportIntegrationJob job = ExportIntegrationJob.builder()
                 .exportIntegrationId(integration.getId())
                 .status(ExportIntegrationJob.Status.GENERATING)
                 .creatingAdminUserId(operator.getAdminUser() != null ? operator.getAdminUser().getId() : null)
                 .systemProcess(operator.getSystemProcess())
-                .startedAt(Instant.now())
+                .startedAt(startedAt)
+                .changedSince(changedSince)
+                // the data is read after this, so anything changed later will be included in the next export.  The
+                // overlap also covers changes committed after the read by transactions that started before it
+                .highWaterMark(startedAt.minusSeconds(exportConfig.getIncrementalOverlapSeconds()))
                 .build();
         job = exportIntegrationJobService.create(job);
-        exporter.export(integration, parsedOpts, job);
+        try {
+            exporter.export(integration, parsedOpts, job);
+        } catch (TaskRejectedException e) {
+            // too many exports are already queued -- record the job as failed, so it's retried on the next run
+            exporter.handleError(job, integration, new TaskRejectedException("Too many exports in progress, try again later", e));
+        }
         return job;
     }
 
@@ -0,0 +1,113 @@
+package bio.terra.pearl.core.service.export.integration;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Holds the generated export for an integration job until it has been sent.  Small exports are kept in memory, but
+ * once more than memoryThreshold bytes are written the data is spilled to a temp file, so the heap used by a job
+ * stays bounded no matter how large the export is.
+ *
+ * Write the export to this stream and close() it, then read it back with openInputStream() as many times as needed.
+ * delete() must be called once the payload is no longer needed, to remove any temp file.
+ */
+@Slf4j
+public class ExportPayload extends OutputStream {
+    private final int memoryThreshold;
+    private ByteArrayOutputStream memoryBuffer = new ByteArrayOutputStream();
+    private Path file;
+    private OutputStream fileStream;
+    /** the number of bytes written */
+    @Getter
+    private long size = 0;
+    private boolean writeComplete = false;
+    private boolean deleted = false;
+
+    public ExportPayload(int memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (writeComplete) {
+            throw new IOException("Export payload has already been closed for writing");
+        }
+        if (fileStream == null && memoryBuffer.size() + len > memoryThreshold) {
+            spillToFile();
+        }
+        if (fileStream != null) {
+            fileStream.write(b, off, len);
+        } else {
+            memoryBuffer.write(b, off, len);
+        }
+        size += len;
+    }
+
+    private void spillToFile() throws IOException {
+        file = Files.createTempFile("export-integration-", ".tmp");
+        fileStream = new BufferedOutputStream(Files.newOutputStream(file));
+        memoryBuffer.writeTo(fileStream);
+        memoryBuffer = null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileStream != null) {
+            fileStream.flush();
+        }
+    }
+
+    /** marks the payload as fully written.  This does not discard the data, see delete() for that */
+    @Override
+    public void close() throws IOException {
+        if (!writeComplete && fileStream != null) {
+            fileStream.close();
+        }
+        writeComplete = true;
+    }
+
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    /** returns a new stream over the payload data.  The caller is responsible for closing it */
+    public InputStream openInputStream() throws IOException {
+        if (!writeComplete) {
+            throw new IllegalStateException("Export payload must be closed before it is read");
+        }
+        if (deleted) {
+            throw new IllegalStateException("Export payload has already been deleted");
+        }
+        if (file != null) {
+            return new BufferedInputStream(Files.newInputStream(file));
+        }
+        // this is a copy, but it is bounded by the memory threshold
+        return new ByteArrayInputStream(memoryBuffer.toByteArray());
+    }
+
+    /** releases the payload data.  Safe to call more than once */
+    public void delete() {
+        if (deleted) {
+            return;
+        }
+        deleted = true;
+        try {
+            close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete export payload file {}", file, e);
+        }
+        memoryBuffer = null;
+    }
+}
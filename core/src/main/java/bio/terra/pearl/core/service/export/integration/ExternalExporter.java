@@ -1,14 +1,17 @@
 package bio.terra.pearl.core.service.export.integration;
 
 
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
 import bio.terra.pearl.core.model.export.ExportIntegration;
 import bio.terra.pearl.core.model.export.ExportIntegrationJob;
 import bio.terra.pearl.core.service.export.EnrolleeExportService;
+import bio.terra.pearl.core.service.export.ExportConfig;
 import bio.terra.pearl.core.service.export.ExportOptionsWithExpression;
+import bio.terra.pearl.core.service.exception.internal.IOInternalException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -18,34 +21,69 @@ public abstract class ExternalExporter {
 
     private final EnrolleeExportService enrolleeExportService;
 
-    protected abstract void send(ExportIntegration integration, ByteArrayOutputStream outputStream, Consumer<String> handleComplete, Consumer<Exception> handleError);
+    private final ExportConfig exportConfig;
 
-    public ExternalExporter(ExportIntegrationJobService exportIntegrationJobService, EnrolleeExportService enrolleeExportService) {
+    /**
+     * sends the payload to the destination, calling exactly one of handleComplete or handleError when done.  This may
+     * return before the send is complete.  The payload should be streamed rather than read fully into memory,
+     * and it is deleted once either handler is called.
+     */
+    protected abstract void send(ExportIntegration integration, ExportPayload payload, Consumer<String> handleComplete, Consumer<Exception> handleError);
+
+    public ExternalExporter(ExportIntegrationJobService exportIntegrationJobService, EnrolleeExportService enrolleeExportService,
+                            ExportConfig exportConfig) {
         this.exportIntegrationJobService = exportIntegrationJobService;
         this.enrolleeExportService = enrolleeExportService;
+        this.exportConfig = exportConfig;
     }
 
-    protected ByteArrayOutputStream createExportStream(ExportIntegration integration, ExportOptionsWithExpression parsedOpts) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        enrolleeExportService.export(parsedOpts, integration.getStudyEnvironmentId(), baos);
-        return baos;
+    /** exports the enrollees changed since job.changedSince, or all enrollees if that is null */
+    protected ExportPayload createExportPayload(ExportIntegration integration, ExportOptionsWithExpression parsedOpts,
+                                                ExportIntegrationJob job) {
+        ExportPayload payload = new ExportPayload(exportConfig.getIntegrationMemoryThreshold());
+        try (payload) {
+            enrolleeExportService.export(parsedOpts, integration.getStudyEnvironmentId(), job.getChangedSince(), payload);
+        } catch (IOException e) {
+            payload.delete();
+            throw new IOInternalException("Error writing export payload", e);
+        } catch (RuntimeException e) {
+            payload.delete();
+            throw e;
+        }
+        return payload;
     }
 
-    @Async
+    /**
+     * runs the export in the background.  throws TaskRejectedException if too many exports are already queued
+     */
+    @Async(AsyncExecutorConfig.EXPORT_INTEGRATION_EXECUTOR)
     public void export(ExportIntegration integration, ExportOptionsWithExpression parsedOpts, ExportIntegrationJob job) {
+        ExportPayload payload = null;
         try {
             job.setStatus(ExportIntegrationJob.Status.GENERATING);
             job = exportIntegrationJobService.update(job);
 
-            ByteArrayOutputStream outputStream = createExportStream(integration, parsedOpts);
+            payload = createExportPayload(integration, parsedOpts, job);
+            log.info("Export payload generated: integration id: {}, job id: {}, {} bytes ({})", integration.getId(), job.getId(),
+                    payload.getSize(), payload.isInMemory() ? "in memory" : "on disk");
 
             job.setStatus(ExportIntegrationJob.Status.SENDING);
             final ExportIntegrationJob updatedJob = exportIntegrationJobService.update(job);
+            final ExportPayload sentPayload = payload;
 
-            send(integration, outputStream,
-                    (String msg) -> handleComplete(updatedJob, integration, msg),
-                    (Exception e) -> handleError(updatedJob, integration, e));
+            send(integration, payload,
+                    (String msg) -> {
+                        sentPayload.delete();
+                        handleComplete(updatedJob, integration, msg);
+                    },
+                    (Exception e) -> {
+                        sentPayload.delete();
+                        handleError(updatedJob, integration, e);
+                    });
         } catch (Exception e) {
+            if (payload != null) {
+                payload.delete();
+            }
             handleError(job, integration, e);
         }
     }
@@ -15,6 +15,7 @@ import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.model.study.StudyEnvironmentConfig;
 import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
+import bio.terra.pearl.core.service.TransactionHandler;
 import bio.terra.pearl.core.service.exception.NotFoundException;
 import bio.terra.pearl.core.service.exception.internal.InternalServerException;
 import bio.terra.pearl.core.service.kit.pepper.PepperApiException;
@@ -42,9 +43,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -52,6 +57,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
     private final DaoUtils daoUtils;
+    private final TransactionHandler transactionHandler;
 
     public KitRequestService(KitRequestDao dao,
                              StudyEnvironmentKitTypeService studyEnvironmentKitTypeService, @Lazy EnrolleeService enrolleeService,
@@ -64,7 +70,8 @@ public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
                              @Lazy StudyService studyService,
                              StudyEnvironmentConfigService studyEnvironmentConfigService,
                              ObjectMapper objectMapper,
-                             DaoUtils daoUtils) {
+                             DaoUtils daoUtils,
+                             TransactionHandler transactionHandler) {
         super(dao);
         this.studyEnvironmentKitTypeService = studyEnvironmentKitTypeService;
         this.enrolleeService = enrolleeService;
@@ -78,6 +85,7 @@ public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
         this.studyEnvironmentConfigService = studyEnvironmentConfigService;
         this.objectMapper = objectMapper;
         this.daoUtils = daoUtils;
+        this.transactionHandler = transactionHandler;
     }
 
     /**
@@ -272,9 +280,14 @@ public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
      * scheduled job during expected non-busy times for DSM. If on-demand updates are needed outside the scheduled job,
      * use {@link KitRequestService#syncKitStatusFromPepper} for a single kit or a batch operation that queries
      * Pepper for less than all open kits.
+     *
+     * The statuses for each study environment are fetched from Pepper concurrently, with at most
+     * PepperDSMClientWrapper.getMaxConcurrentRequests in flight, and then applied in this thread, each study
+     * environment in its own transaction, so that a failure for one study environment doesn't roll back the others.
+     * Returns the total counts of kits across all environments.
      */
-    @Transactional
-    public void syncAllKitStatusesFromPepper() {
+    public KitSyncResult syncAllKitStatusesFromPepper() {
+        long startTime = System.currentTimeMillis();
         // first get a list of all studies that have kit types configured
         List<StudyEnvironmentKitType> envKitTypes = studyEnvironmentKitTypeService.findAll();
         List<UUID> studyEnvIds = envKitTypes.stream().map(StudyEnvironmentKitType::getStudyEnvironmentId).distinct().toList();
@@ -285,61 +298,141 @@ public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
         // it doesn't actually matter what order we process the studies in, but it's nice for logging to have them
         // consistently alphabetical
         studies.sort(Comparator.comparing(Study::getShortcode));
-        for (StudyEnvironment studyEnv : studyEnvs) {
-            // for each study environment, grab all the statuses from Pepper
-            // Note that this will result in some duplicate fetching, as Pepper doesn't know about study environments,
-            // and so the calls will get all kits for a study, regardless of environment. This is necessary, though,
-            // since the different environments may be configured to hit different DSM endpoints.
-            StudyEnvironmentConfig studyEnvironmentConfig = studyEnvironmentConfigService.find(studyEnv.getStudyEnvironmentConfigId()).orElseThrow();
-            Study study = studies.stream().filter(s -> s.getId().equals(studyEnv.getStudyId())).findFirst().orElseThrow();
+        List<StudyEnvSync> syncs = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(pepperDSMClientWrapper.getMaxConcurrentRequests());
+        for (Study study : studies) {
+            for (StudyEnvironment studyEnv : studyEnvs.stream().filter(env -> env.getStudyId().equals(study.getId())).toList()) {
+                // for each study environment, grab all the statuses from Pepper
+                // Note that this will result in some duplicate fetching, as Pepper doesn't know about study environments,
+                // and so the calls will get all kits for a study, regardless of environment. This is necessary, though,
+                // since the different environments may be configured to hit different DSM endpoints.
+                StudyEnvironmentConfig studyEnvironmentConfig = studyEnvironmentConfigService.find(studyEnv.getStudyEnvironmentConfigId()).orElseThrow();
+                inFlight.acquireUninterruptibly();
+                CompletableFuture<Collection<PepperKit>> pepperKits =
+                        pepperDSMClientWrapper.fetchKitStatusByStudyAsync(study.getShortcode(), studyEnvironmentConfig);
+                pepperKits.whenComplete((kits, e) -> inFlight.release());
+                syncs.add(new StudyEnvSync(study, studyEnv, pepperKits));
+            }
+        }
+
+        KitSyncResult total = new KitSyncResult(0, 0, 0);
+        int failedStudyEnvs = 0;
+        for (StudyEnvSync sync : syncs) {
             try {
-                Collection<PepperKit> pepperKits = pepperDSMClientWrapper.fetchKitStatusByStudy(study.getShortcode(), studyEnvironmentConfig);
-                syncKitStatusesForStudyEnv(study.getShortcode(), studyEnv.getEnvironmentName(), pepperKits);
-            } catch (PepperParseException | PepperApiException e) {
+                Collection<PepperKit> pepperKits = sync.pepperKits().join();
+                KitSyncResult result = transactionHandler.runInTransaction(() ->
+                        syncKitStatusesForStudyEnv(sync.studyEnv(), pepperKits));
+                log.info("Kit status sync for study {} {}: {} unchanged, {} updated, {} failed",
+                        sync.study().getShortcode(), sync.studyEnv().getEnvironmentName(),
+                        result.unchanged(), result.updated(), result.failed());
+                total = total.plus(result);
+            } catch (CompletionException e) {
                 // if one sync fails, keep trying others in case the failure is just isolated unexpected data
-                log.error("kit status sync failed for study %s".formatted(study.getShortcode()), e);
+                failedStudyEnvs++;
+                log.error("kit status fetch failed for study %s".formatted(sync.study().getShortcode()), e.getCause());
+            } catch (Exception e) {
+                // the study environment's transaction is rolled back, but the others are unaffected
+                failedStudyEnvs++;
+                log.error("kit status sync failed for study %s %s".formatted(sync.study().getShortcode(),
+                        sync.studyEnv().getEnvironmentName()), e);
             }
         }
+        log.info("Kit status sync complete: {} study environments synced, {} failed; kits: {} unchanged, {} updated, {} failed; {} ms",
+                syncs.size() - failedStudyEnvs, failedStudyEnvs, total.unchanged(), total.updated(), total.failed(),
+                System.currentTimeMillis() - startTime);
+        return total;
     }
 
     @Transactional
-    public void syncKitStatusesForStudyEnv(Study study, EnvironmentName environmentName)
+    public KitSyncResult syncKitStatusesForStudyEnv(Study study, EnvironmentName environmentName)
             throws PepperParseException, PepperApiException {
         StudyEnvironmentConfig studyEnvironmentConfig = studyEnvironmentConfigService.findByStudyShortcode(study.getShortcode(), environmentName);
         Collection<PepperKit> pepperKits = pepperDSMClientWrapper.fetchKitStatusByStudy(study.getShortcode(), studyEnvironmentConfig);
-        syncKitStatusesForStudyEnv(study.getShortcode(), environmentName, pepperKits);
+        StudyEnvironment studyEnv = studyEnvironmentService.findByStudy(study.getShortcode(), environmentName)
+                .orElseThrow(() -> new NotFoundException("No matching study"));
+        return syncKitStatusesForStudyEnv(studyEnv, pepperKits);
     }
 
-    private void syncKitStatusesForStudyEnv(String studyShortcode, EnvironmentName envName,
-                                            Collection<PepperKit> pepperKits)
-            throws PepperParseException, PepperApiException {
-        UUID studyEnvId = studyEnvironmentService.findByStudy(studyShortcode, envName)
-                .orElseThrow(() -> new NotFoundException("No matching study")).getId();
+    /**
+     * Applies the Pepper statuses to the study environment's kits.  Only kits whose status, dates, tracking numbers,
+     * label, or error message have changed are saved, in a single batch, and events are only published for kits whose
+     * status changed.  If the batch doesn't update every kit (e.g. because one was deleted since it was read), the kits
+     * are saved one at a time instead, so that only the kits that can't be saved are counted as failed.
+     */
+    private KitSyncResult syncKitStatusesForStudyEnv(StudyEnvironment studyEnv, Collection<PepperKit> pepperKits) {
         Instant pepperStatusFetchedAt = Instant.now();
         Map<String, PepperKit> pepperKitByKitId = pepperKits.stream().collect(
                 Collectors.toMap(PepperKit::getJuniperKitId, Function.identity(),
                         (kit1, kit2) -> !kit1.getCurrentStatus().equals("Deactivated") ? kit1 : kit2));
 
-        studyEnvironmentService.find(studyEnvId).ifPresent(studyEnvironment -> {
-            List<KitRequest> kits = dao.findByStudyEnvironment(studyEnvironment.getId());
-
-            // The set of kits returned from DSM may be different from the set of incomplete kits in Juniper, but
-            // we want to update the records in Juniper so those are the ones we want to iterate here.
-            for (KitRequest kitRequest : kits) {
-                PepperKit pepperKit = pepperKitByKitId.get(kitRequest.getId().toString());
-                if (pepperKit != null) {
-                    try {
-                        saveKitStatus(kitRequest, pepperKit, pepperStatusFetchedAt);
-                    } catch (Exception e) {
-                        // continue processing other requests
-                        log.error("Error processing kit status update for kit request %s"
-                                .formatted(kitRequest.getId()), e);
+        List<KitRequest> kits = dao.findByStudyEnvironment(studyEnv.getId());
+        List<KitRequest> changedKits = new ArrayList<>();
+        Map<UUID, KitRequestStatus> priorStatuses = new HashMap<>();
+        int failed = 0;
+        // The set of kits returned from DSM may be different from the set of incomplete kits in Juniper, but
+        // we want to update the records in Juniper so those are the ones we want to iterate here.
+        for (KitRequest kitRequest : kits) {
+            PepperKit pepperKit = pepperKitByKitId.get(kitRequest.getId().toString());
+            if (pepperKit != null) {
+                KitRequestStatus priorStatus = kitRequest.getStatus();
+                try {
+                    if (applyKitStatus(kitRequest, pepperKit, pepperStatusFetchedAt)) {
+                        changedKits.add(kitRequest);
+                        priorStatuses.put(kitRequest.getId(), priorStatus);
                     }
+                } catch (Exception e) {
+                    // continue processing other requests
+                    failed++;
+                    log.error("Error processing kit status update for kit request %s"
+                            .formatted(kitRequest.getId()), e);
                 }
             }
-        });
+        }
+
+        List<KitRequest> savedKits = saveChangedKits(changedKits);
+        int unchanged = kits.size() - changedKits.size() - failed;
+        failed += changedKits.size() - savedKits.size();
+        for (KitRequest kitRequest : savedKits) {
+            try {
+                notifyKitStatusChange(kitRequest, priorStatuses.get(kitRequest.getId()));
+            } catch (Exception e) {
+                // the kit is already saved, so just log and continue notifying for the others
+                log.error("Error publishing kit status event for kit request %s"
+                        .formatted(kitRequest.getId()), e);
+            }
+        }
+        return new KitSyncResult(unchanged, savedKits.size(), failed);
+    }
+
+    /** saves the kits in a single batch, falling back to one at a time if that fails.  returns the kits saved */
+    private List<KitRequest> saveChangedKits(List<KitRequest> changedKits) {
+        try {
+            dao.bulkUpdate(changedKits);
+            return changedKits;
+        } catch (IllegalStateException e) {
+            log.warn("Bulk kit status update failed, saving {} kits individually", changedKits.size(), e);
+        }
+        List<KitRequest> savedKits = new ArrayList<>();
+        for (KitRequest kitRequest : changedKits) {
+            try {
+                dao.update(kitRequest);
+                savedKits.add(kitRequest);
+            } catch (IllegalStateException e) {
+                log.error("Error saving kit status update for kit request %s".formatted(kitRequest.getId()), e);
+            }
+        }
+        return savedKits;
     }
 
+    /** counts of the kits checked by a status sync.  Kits not returned by Pepper count as unchanged */
+    public record KitSyncResult(int unchanged, int updated, int failed) {
+        public KitSyncResult plus(KitSyncResult other) {
+            return new KitSyncResult(unchanged + other.unchanged, updated + other.updated, failed + other.failed);
+        }
+    }
+
+    private record StudyEnvSync(Study study, StudyEnvironment studyEnv, CompletableFuture<Collection<PepperKit>> pepperKits) { }
+
     public List<KitRequest> findByStudyEnvironment(UUID studyEnvironmentId) {
         return dao.findByStudyEnvironment(studyEnvironmentId);
     }
@@ -392,38 +485,63 @@ public class KitRequestService extends CrudService<KitRequest, KitRequestDao> {
     }
 
     /**
-     * Saves updated kit status and creates an event for certain status changes
+     * Saves updated kit status and creates an event for certain status changes.  Nothing is saved if the status
+     * is unchanged.
      */
     private void saveKitStatus(KitRequest kitRequest, PepperKit pepperKit, Instant pepperStatusFetchedAt) {
         KitRequestStatus priorStatus = kitRequest.getStatus();
+        if (applyKitStatus(kitRequest, pepperKit, pepperStatusFetchedAt)) {
+            dao.update(kitRequest);
+            notifyKitStatusChange(kitRequest, priorStatus);
+        }
+    }
+
+    /**
+     * Copies the status, dates, tracking numbers, label, and error message from the PepperKit to the kit request,
+     * and returns whether any of them changed.  If so, the PepperKit is also stored as the kit's externalKit.  Does
+     * not save the kit request.
+     */
+    protected boolean applyKitStatus(KitRequest kitRequest, PepperKit pepperKit, Instant pepperStatusFetchedAt) {
+        SyncedKitFields priorFields = SyncedKitFields.of(kitRequest);
+        KitRequestStatus status = PepperKitStatus.mapToKitRequestStatus(pepperKit.getCurrentStatus());
+
+        // This is a special case for in-person kits that have been collected by staff. DSM considers these
+        // kits to be "sent", but we need to provide some extra granularity for study staff, so they know which
+        // kits have been collecting and which are still waiting to be collected.
+        if(status == KitRequestStatus.SENT && kitRequest.getDistributionMethod() == DistributionMethod.IN_PERSON) {
+            status = KitRequestStatus.COLLECTED_BY_STAFF;
+        }
+
+        kitRequest.setStatus(status);
+        setKitDates(kitRequest, pepperKit);
+        kitRequest.setTrackingNumber(pepperKit.getTrackingNumber());
+        if(pepperKit.getReturnTrackingNumber() != null) {
+            kitRequest.setReturnTrackingNumber(pepperKit.getReturnTrackingNumber());
+        }
+        kitRequest.setKitLabel(pepperKit.getMfBarcode());
+        kitRequest.setErrorMessage(pepperKit.getErrorMessage());
+        if (priorFields.equals(SyncedKitFields.of(kitRequest))) {
+            return false;
+        }
         try {
             kitRequest.setExternalKit(objectMapper.writeValueAsString(pepperKit));
-            kitRequest.setExternalKitFetchedAt(pepperStatusFetchedAt);
-            KitRequestStatus status = PepperKitStatus.mapToKitRequestStatus(pepperKit.getCurrentStatus());
-
-            // This is a special case for in-person kits that have been collected by staff. DSM considers these
-            // kits to be "sent", but we need to provide some extra granularity for study staff, so they know which
-            // kits have been collecting and which are still waiting to be collected.
-            if(status == KitRequestStatus.SENT && kitRequest.getDistributionMethod() == DistributionMethod.IN_PERSON) {
-                status = KitRequestStatus.COLLECTED_BY_STAFF;
-            }
-
-            kitRequest.setStatus(status);
-            setKitDates(kitRequest, pepperKit);
-            // for now just copy these over on each update, since there is currently no reason to make it conditional
-            kitRequest.setTrackingNumber(pepperKit.getTrackingNumber());
-            if(pepperKit.getReturnTrackingNumber() != null) {
-                kitRequest.setReturnTrackingNumber(pepperKit.getReturnTrackingNumber());
-            }
-            kitRequest.setKitLabel(pepperKit.getMfBarcode());
-            kitRequest.setErrorMessage(pepperKit.getErrorMessage());
-            dao.update(kitRequest);
         } catch (JsonProcessingException e) {
             throw new InternalServerException("Error serializing PepperKit for kit request %s: %s"
                     .formatted(kitRequest.getId(), pepperKit.toString()), e);
         }
+        kitRequest.setExternalKitFetchedAt(pepperStatusFetchedAt);
+        return true;
+    }
 
-        notifyKitStatusChange(kitRequest, priorStatus);
+    /** the kit request fields that are synced from Pepper, for detecting whether a sync changed anything */
+    private record SyncedKitFields(KitRequestStatus status, Instant labeledAt, Instant sentAt, Instant receivedAt,
+                                   String trackingNumber, String returnTrackingNumber, String kitLabel,
+                                   String errorMessage) {
+        static SyncedKitFields of(KitRequest kitRequest) {
+            return new SyncedKitFields(kitRequest.getStatus(), kitRequest.getLabeledAt(), kitRequest.getSentAt(),
+                    kitRequest.getReceivedAt(), kitRequest.getTrackingNumber(), kitRequest.getReturnTrackingNumber(),
+                    kitRequest.getKitLabel(), kitRequest.getErrorMessage());
+        }
     }
 
     public KitRequest collectKit(AdminUser operator, String studyShortcode, KitRequest kitRequest) {
@@ -9,23 +9,30 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
 import jakarta.validation.ConstraintViolation;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import jakarta.validation.Validator;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -36,6 +43,7 @@ public class LivePepperDSMClient implements PepperDSMClient {
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final Validator validator;
+    private final PepperCircuitBreaker circuitBreaker;
     public final static String DEV_STUDY_REALM = "juniper-dev";
 
     public LivePepperDSMClient(PepperDSMConfig pepperDSMConfig,
@@ -43,14 +51,51 @@ public class LivePepperDSMClient implements PepperDSMClient {
                                ObjectMapper objectMapper,
                                Validator validator) {
         this.pepperDSMConfig = pepperDSMConfig;
-        this.webClient = webClientBuilder.build();
+        this.webClient = webClientBuilder.clientConnector(new ReactorClientHttpConnector(buildHttpClient(pepperDSMConfig))).build();
         this.objectMapper = objectMapper;
         this.validator = validator;
+        this.circuitBreaker = new PepperCircuitBreaker(pepperDSMConfig.getCircuitBreakerFailureThreshold(),
+                Duration.ofSeconds(pepperDSMConfig.getCircuitBreakerOpenSeconds()), Clock.systemUTC());
+    }
+
+    /**
+     * DSM requests use their own connection pool, so that they can't use up connections needed for other services,
+     * and have timeouts, so that a hung DSM can't hold a thread (or a connection) indefinitely.  Non-positive config
+     * values leave the reactor-netty defaults in place.
+     */
+    private static HttpClient buildHttpClient(PepperDSMConfig config) {
+        ConnectionProvider.Builder pool = ConnectionProvider.builder("pepper-dsm")
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60));
+        if (config.getMaxConnections() > 0) {
+            pool.maxConnections(config.getMaxConnections());
+        }
+        if (config.getPendingAcquireTimeoutSeconds() > 0) {
+            pool.pendingAcquireTimeout(Duration.ofSeconds(config.getPendingAcquireTimeoutSeconds()));
+        }
+        HttpClient httpClient = HttpClient.create(pool.build());
+        if (config.getConnectTimeoutMs() > 0) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMs());
+        }
+        if (config.getReadTimeoutSeconds() > 0) {
+            httpClient = httpClient.responseTimeout(Duration.ofSeconds(config.getReadTimeoutSeconds()));
+        }
+        return httpClient;
     }
 
     @Override
     public PepperKit sendKitRequest(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address)
     throws PepperApiException, PepperParseException {
+        return sendKitRequestMono(studyShortcode, studyEnvironmentConfig, enrollee, kitRequest, address).block();
+    }
+
+    /** sends the request without blocking.  The future completes on a reactor-netty thread. */
+    @Override
+    public CompletableFuture<PepperKit> sendKitRequestAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address) {
+        return sendKitRequestMono(studyShortcode, studyEnvironmentConfig, enrollee, kitRequest, address).toFuture();
+    }
+
+    private Mono<PepperKit> sendKitRequestMono(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address) {
         String kitRequestBody;
 
         if (kitRequest.getDistributionMethod() == DistributionMethod.IN_PERSON) {
@@ -60,31 +105,53 @@ public class LivePepperDSMClient implements PepperDSMClient {
         }
 
         WebClient.RequestHeadersSpec<? extends WebClient.RequestHeadersSpec<?>> request = buildAuthedPostRequest("shipKit", kitRequestBody);
-        PepperKitStatusResponse response = retrieveAndDeserializeResponse(request, PepperKitStatusResponse.class);
-        if (response.getKits().length != 1) {
-            throw new PepperParseException("Expected a single result from shipKit by ID (%s), got %d".formatted(
-                    kitRequest.getId(), response.getKits().length), Arrays.toString(response.getKits()), response);
-        }
-        return response.getKits()[0];
+        return retrieveAndDeserializeResponseAsync(request, PepperKitStatusResponse.class).map(response -> {
+            if (response.getKits().length != 1) {
+                throw new PepperParseException("Expected a single result from shipKit by ID (%s), got %d".formatted(
+                        kitRequest.getId(), response.getKits().length), Arrays.toString(response.getKits()), response);
+            }
+            return response.getKits()[0];
+        });
     }
 
     @Override
     public PepperKit fetchKitStatus(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) throws PepperApiException, PepperParseException {
+        return fetchKitStatusMono(studyEnvironmentConfig, kitRequestId).block();
+    }
+
+    /** sends the request without blocking.  The future completes on a reactor-netty thread. */
+    @Override
+    public CompletableFuture<PepperKit> fetchKitStatusAsync(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) {
+        return fetchKitStatusMono(studyEnvironmentConfig, kitRequestId).toFuture();
+    }
+
+    private Mono<PepperKit> fetchKitStatusMono(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) {
         WebClient.RequestHeadersSpec<? extends WebClient.RequestHeadersSpec<?>> request = buildAuthedGetRequest("kitstatus/juniperKit/%s" .formatted(kitRequestId));
-        PepperKitStatusResponse response = retrieveAndDeserializeResponse(request, PepperKitStatusResponse.class);
-        if (response.getKits().length != 1) {
-            throw new PepperApiException("Expected a single result from fetchKitStatus by ID (%s), got %d".formatted(
-                    kitRequestId, response.getKits().length));
-        }
-        return response.getKits()[0];
+        return retrieveAndDeserializeResponseAsync(request, PepperKitStatusResponse.class).map(response -> {
+            if (response.getKits().length != 1) {
+                throw new PepperApiException("Expected a single result from fetchKitStatus by ID (%s), got %d".formatted(
+                        kitRequestId, response.getKits().length));
+            }
+            return response.getKits()[0];
+        });
     }
 
     @Override
     public Collection<PepperKit> fetchKitStatusByStudy(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) throws PepperApiException, PepperParseException {
+        return fetchKitStatusByStudyMono(studyShortcode, studyEnvironmentConfig).block();
+    }
+
+    /** sends the request without blocking.  The future completes on a reactor-netty thread. */
+    @Override
+    public CompletableFuture<Collection<PepperKit>> fetchKitStatusByStudyAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) {
+        return fetchKitStatusByStudyMono(studyShortcode, studyEnvironmentConfig).toFuture();
+    }
+
+    private Mono<Collection<PepperKit>> fetchKitStatusByStudyMono(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) {
         WebClient.RequestHeadersSpec<? extends WebClient.RequestHeadersSpec<?>> request =
                 buildAuthedGetRequest("kitstatus/study/%s" .formatted(getPepperStudyName(studyShortcode, studyEnvironmentConfig)));
-        PepperKitStatusResponse response = retrieveAndDeserializeResponse(request, PepperKitStatusResponse.class);
-        return Arrays.asList(response.getKits());
+        return retrieveAndDeserializeResponseAsync(request, PepperKitStatusResponse.class)
+                .map(response -> Arrays.asList(response.getKits()));
     }
 
     public static String getPepperStudyName(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) {
@@ -176,9 +243,17 @@ public class LivePepperDSMClient implements PepperDSMClient {
      * exceptions parsing the response are thrown as PepperParseExceptions
      */
     private <T> T retrieveAndDeserializeResponse(WebClient.RequestHeadersSpec<?> requestHeadersSpec, Class<T> clazz) {
+        return retrieveAndDeserializeResponseAsync(requestHeadersSpec, clazz).block();
+    }
+
+    /**
+     * Like retrieveAndDeserializeResponse, but without blocking.  Connection errors and timeouts are also mapped to
+     * PepperApiExceptions, and the request is not sent at all if DSM has been failing (see PepperCircuitBreaker).
+     */
+    private <T> Mono<T> retrieveAndDeserializeResponseAsync(WebClient.RequestHeadersSpec<?> requestHeadersSpec, Class<T> clazz) {
         requestHeadersSpec.httpRequest(req -> log.info("Sending DSM request: {}", req.getURI()));
 
-        return requestHeadersSpec
+        return circuitBreaker.protect(requestHeadersSpec
                 .retrieve()
                 .onStatus(
                         status -> status.is4xxClientError() || status.is5xxServerError(),
@@ -187,7 +262,8 @@ public class LivePepperDSMClient implements PepperDSMClient {
                 .flatMap(deserializeTo(clazz))
                 .map(responseAndBody -> validate(responseAndBody, clazz))
                 .map(responseAndBody -> responseAndBody.responseObj)
-                .block();
+                .onErrorMap(e -> !(e instanceof PepperApiException || e instanceof PepperParseException) && e instanceof Exception,
+                        e -> new PepperApiException("Error communicating with Pepper: %s".formatted(e.getMessage()), (Exception) e)));
     }
 
     /**
@@ -266,11 +342,29 @@ public class LivePepperDSMClient implements PepperDSMClient {
         private String basePath;
         private String issuerClaim;
         private String secret;
+        private int connectTimeoutMs;
+        /** the longest to wait for DSM to send any part of a response.  Kit statuses for a large study can be slow */
+        private int readTimeoutSeconds;
+        private int maxConnections;
+        /** how long a request waits for a connection from the pool when all are in use */
+        private int pendingAcquireTimeoutSeconds;
+        /** the most requests sent at once when fanning out, e.g. fetching kit statuses for every study */
+        private int maxConcurrentRequests;
+        /** consecutive failures after which requests are paused.  0 disables pausing */
+        private int circuitBreakerFailureThreshold;
+        private int circuitBreakerOpenSeconds;
 
         public PepperDSMConfig(Environment environment) {
             this.basePath = environment.getProperty("env.dsm.basePath");
             this.issuerClaim = environment.getProperty("env.dsm.issuerClaim");
             this.secret = environment.getProperty("env.dsm.secret");
+            this.connectTimeoutMs = environment.getProperty("env.dsm.connectTimeoutMs", Integer.class, 5000);
+            this.readTimeoutSeconds = environment.getProperty("env.dsm.readTimeoutSeconds", Integer.class, 120);
+            this.maxConnections = environment.getProperty("env.dsm.maxConnections", Integer.class, 10);
+            this.pendingAcquireTimeoutSeconds = environment.getProperty("env.dsm.pendingAcquireTimeoutSeconds", Integer.class, 60);
+            this.maxConcurrentRequests = environment.getProperty("env.dsm.maxConcurrentRequests", Integer.class, 4);
+            this.circuitBreakerFailureThreshold = environment.getProperty("env.dsm.circuitBreakerFailureThreshold", Integer.class, 5);
+            this.circuitBreakerOpenSeconds = environment.getProperty("env.dsm.circuitBreakerOpenSeconds", Integer.class, 60);
         }
     }
 }
@@ -0,0 +1,98 @@
+package bio.terra.pearl.core.service.kit.pepper;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fails DSM requests fast after repeated failures, so that when DSM is down or slow, callers (e.g. the nightly kit
+ * sync, or admins requesting kits) don't each wait out the timeouts.  After failureThreshold consecutive failures, the
+ * circuit opens and requests fail with a PepperApiException without being sent.  Once openDuration has passed, a single
+ * trial request is let through: if it succeeds, the circuit closes, otherwise it opens again.
+ *
+ * Only failures that suggest DSM is unavailable are counted: connection errors, timeouts, and 5xx responses.  A
+ * failureThreshold of 0 or less disables the breaker.
+ */
+@Slf4j
+public class PepperCircuitBreaker {
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private int consecutiveFailures = 0;
+    /** null when the circuit is closed */
+    private Instant openUntil = null;
+    private boolean trialInFlight = false;
+
+    public PepperCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /** returns a Mono that runs the request if the circuit allows it, and records the outcome */
+    public <T> Mono<T> protect(Mono<T> request) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.error(new PepperApiException(
+                        "DSM requests are paused after %d consecutive failures".formatted(failureThreshold)));
+            }
+            return request
+                    .doOnSuccess(result -> onSuccess())
+                    .doOnError(this::onError)
+                    .doOnCancel(this::onCancel);
+        });
+    }
+
+    public synchronized boolean isOpen() {
+        return openUntil != null;
+    }
+
+    protected synchronized boolean tryAcquire() {
+        if (failureThreshold <= 0 || openUntil == null) {
+            return true;
+        }
+        if (trialInFlight || clock.instant().isBefore(openUntil)) {
+            return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+
+    protected synchronized void onSuccess() {
+        if (openUntil != null) {
+            log.info("DSM request succeeded, resuming requests");
+        }
+        consecutiveFailures = 0;
+        openUntil = null;
+        trialInFlight = false;
+    }
+
+    protected synchronized void onError(Throwable e) {
+        if (!indicatesUnavailable(e)) {
+            // DSM responded, even if it didn't like the request
+            onSuccess();
+            return;
+        }
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (failureThreshold > 0 && consecutiveFailures >= failureThreshold) {
+            openUntil = clock.instant().plus(openDuration);
+            log.warn("{} consecutive DSM request failures, pausing requests until {}", consecutiveFailures, openUntil);
+        }
+    }
+
+    protected synchronized void onCancel() {
+        // a cancelled trial tells us nothing, so let another request try
+        trialInFlight = false;
+    }
+
+    protected static boolean indicatesUnavailable(Throwable e) {
+        if (e instanceof PepperApiException apiException) {
+            return apiException.getHttpStatusCode() == null || apiException.getHttpStatusCode().is5xxServerError();
+        }
+        return !(e instanceof PepperParseException);
+    }
+}
@@ -6,6 +6,7 @@ import bio.terra.pearl.core.model.study.StudyEnvironmentConfig;
 
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface PepperDSMClient {
     /**
@@ -21,4 +22,34 @@ public interface PepperDSMClient {
     PepperKit sendKitRequest(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address) throws PepperApiException, PepperParseException;
     PepperKit fetchKitStatus(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) throws PepperApiException, PepperParseException;
     Collection<PepperKit> fetchKitStatusByStudy(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) throws PepperApiException, PepperParseException;
+
+    /**
+     * Like sendKitRequest, but for clients that can send the request without blocking, returns before the response
+     * arrives.  Errors complete the future exceptionally.  By default this sends synchronously.
+     */
+    default CompletableFuture<PepperKit> sendKitRequestAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address) {
+        try {
+            return CompletableFuture.completedFuture(sendKitRequest(studyShortcode, studyEnvironmentConfig, enrollee, kitRequest, address));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Like fetchKitStatus, but without blocking -- see sendKitRequestAsync */
+    default CompletableFuture<PepperKit> fetchKitStatusAsync(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) {
+        try {
+            return CompletableFuture.completedFuture(fetchKitStatus(studyEnvironmentConfig, kitRequestId));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Like fetchKitStatusByStudy, but without blocking -- see sendKitRequestAsync */
+    default CompletableFuture<Collection<PepperKit>> fetchKitStatusByStudyAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) {
+        try {
+            return CompletableFuture.completedFuture(fetchKitStatusByStudy(studyShortcode, studyEnvironmentConfig));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Wraps multiple PepperDsmClient implementations and delegates appropriately using the study environment config
@@ -50,4 +51,29 @@ public class PepperDSMClientWrapper implements PepperDSMClient {
     public Collection<PepperKit> fetchKitStatusByStudy(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) throws PepperApiException, PepperParseException {
         return getPepperDSMClient(studyEnvironmentConfig).fetchKitStatusByStudy(studyShortcode, studyEnvironmentConfig);
     }
+
+    @Override
+    public CompletableFuture<PepperKit> sendKitRequestAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig, Enrollee enrollee, KitRequest kitRequest, PepperKitAddress address) {
+        return getPepperDSMClient(studyEnvironmentConfig)
+                .sendKitRequestAsync(studyShortcode, studyEnvironmentConfig, enrollee, kitRequest, address);
+    }
+
+    @Override
+    public CompletableFuture<PepperKit> fetchKitStatusAsync(StudyEnvironmentConfig studyEnvironmentConfig, UUID kitRequestId) {
+        return getPepperDSMClient(studyEnvironmentConfig).fetchKitStatusAsync(studyEnvironmentConfig, kitRequestId);
+    }
+
+    @Override
+    public CompletableFuture<Collection<PepperKit>> fetchKitStatusByStudyAsync(String studyShortcode, StudyEnvironmentConfig studyEnvironmentConfig) {
+        if (studyEnvironmentConfig.isUseStubDsm()) {
+            // the stub reads kits from the database, so it runs synchronously, in the caller's transaction
+            return PepperDSMClient.super.fetchKitStatusByStudyAsync(studyShortcode, studyEnvironmentConfig);
+        }
+        return livePepperDSMClient.fetchKitStatusByStudyAsync(studyShortcode, studyEnvironmentConfig);
+    }
+
+    /** the most requests callers should have in flight at once when fanning out requests across studies */
+    public int getMaxConcurrentRequests() {
+        return Math.max(1, pepperDSMConfig.getMaxConcurrentRequests());
+    }
 }
@@ -90,12 +90,11 @@ public class EnrolleeReminderService {
 
         NotificationContextInfo envContext = notificationDispatcher.loadContextInfo(trigger);
 
-        for (EnrolleeContext enrolleeContext : enrolleeData) {
-            // don't send non-consent task reminders to enrollees who haven't consented
-            if (shouldSendReminder(enrolleeContext, trigger)) {
-                notificationDispatcher.dispatchNotification(trigger, enrolleeContext, envContext);
-            }
-        }
+        // don't send non-consent task reminders to enrollees who haven't consented
+        List<EnrolleeContext> toRemind = enrolleeData.stream()
+                .filter(enrolleeContext -> shouldSendReminder(enrolleeContext, trigger))
+                .toList();
+        notificationDispatcher.dispatchNotifications(trigger, toRemind, envContext);
     }
 
     public boolean shouldSendReminder(EnrolleeContext enrolleeContext, Trigger trigger) {
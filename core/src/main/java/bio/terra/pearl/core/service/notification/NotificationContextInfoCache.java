@@ -0,0 +1,53 @@
+package bio.terra.pearl.core.service.notification;
+
+import bio.terra.pearl.core.dao.notification.TriggerDao;
+import bio.terra.pearl.core.model.notification.Trigger;
+import bio.terra.pearl.core.service.cache.VersionedCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caches the NotificationContextInfo for each trigger and email template, so that sending a notification doesn't
+ * reload the portal, environment, config, study, and templates every time.
+ *
+ * Each entry is stored with a version stamp covering everything the context info is loaded from (see
+ * TriggerDao.findNotificationContextVersionStamp), which is checked on every read, so changes to the trigger,
+ * templates, or portal environment config are picked up, including changes made by other processes.
+ */
+@Component
+public class NotificationContextInfoCache {
+    private static final int MAX_CACHED_TRIGGERS = 1000;
+    private final VersionedCache<CacheKey, NotificationContextInfo> cache = new VersionedCache<>(MAX_CACHED_TRIGGERS);
+    private final TriggerDao triggerDao;
+
+    public NotificationContextInfoCache(TriggerDao triggerDao) {
+        this.triggerDao = triggerDao;
+    }
+
+    /**
+     * returns the cached context info for the trigger, using the loader if it is missing or out of date.  Triggers
+     * that haven't been saved are never cached.  The returned context info must not be modified.
+     */
+    public NotificationContextInfo get(Trigger config, Supplier<NotificationContextInfo> loader) {
+        if (config.getId() == null) {
+            return loader.get();
+        }
+        Optional<String> versionStamp = triggerDao.findNotificationContextVersionStamp(config.getId());
+        if (versionStamp.isEmpty()) {
+            return loader.get();
+        }
+        // a null context info isn't cached, since the environment may not have finished populating
+        return cache.get(new CacheKey(config.getId(), config.getEmailTemplateId()), versionStamp.get(), loader);
+    }
+
+    public void evict(UUID triggerId) {
+        if (triggerId != null) {
+            cache.removeIf((key, contextInfo) -> key.triggerId().equals(triggerId));
+        }
+    }
+
+    private record CacheKey(UUID triggerId, UUID emailTemplateId) { }
+}
@@ -13,7 +13,10 @@ import bio.terra.pearl.core.service.workflow.EnrolleeEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Map;
@@ -39,12 +42,30 @@ public class NotificationDispatcher {
      * the surrounding transaction will roll back (e.g. undoing the enrollee creation) and so we don't want a saved notification.
      * Where this will help is for bulk operations -- if we want to send out 2000 emails to all the ourHealth participants
      * because of a new survey, it lets us have just 1 database operation per notification instead of 2
+     *
+     * If too many emails are already queued, the email is sent on the calling thread instead (see
+     * AsyncExecutorConfig.participantEmailExecutor) -- unless the caller is in a transaction, which the send would hold
+     * open.  Then the email is queued again once the transaction commits, so it is delayed rather than lost.
      * */
     public void dispatchNotificationAsync(Trigger config, EnrolleeContext enrolleeContext, UUID portalEnvId) {
-        Notification notification = initializeNotification(config, enrolleeContext, portalEnvId, null);
-        notification = notificationService.create(notification);
-        senderMap.get(config.getDeliveryType())
-                .processNotificationAsync(notification, config, enrolleeContext);
+        Notification notification = notificationService.create(
+                initializeNotification(config, enrolleeContext, portalEnvId, null));
+        NotificationSender sender = senderMap.get(config.getDeliveryType());
+        try {
+            sender.processNotificationAsync(notification, config, enrolleeContext);
+        } catch (TaskRejectedException e) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                throw e;
+            }
+            log.info("Notification queue full, sending notification {} once the current transaction commits",
+                    notification.getId());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sender.processNotificationAsync(notification, config, enrolleeContext);
+                }
+            });
+        }
     }
 
     public void dispatchNotification(Trigger config, EnrolleeContext enrolleeContext,
@@ -60,6 +81,23 @@ public class NotificationDispatcher {
                 .processNotification(notification, config, enrolleeContext, notificationContextInfo);
     }
 
+    /**
+     * dispatches the trigger's notification to all the given enrollees at once, so that they can be sent and saved in
+     * bulk rather than one at a time.  Use this for large sends, such as reminders.
+     */
+    public void dispatchNotifications(Trigger config, List<EnrolleeContext> enrolleeContexts,
+                                      NotificationContextInfo notificationContextInfo) {
+        if (enrolleeContexts.isEmpty()) {
+            return;
+        }
+        UUID portalEnvId = notificationContextInfo != null ? notificationContextInfo.portalEnv().getId() : config.getPortalEnvironmentId();
+        List<Notification> notifications = enrolleeContexts.stream()
+                .map(enrolleeContext -> initializeNotification(config, enrolleeContext, portalEnvId, Map.of()))
+                .toList();
+        senderMap.get(config.getDeliveryType())
+                .processNotifications(notifications, config, enrolleeContexts, notificationContextInfo);
+    }
+
     public void dispatchTestNotification(Trigger config, EnrolleeContext enrolleeContext) {
         senderMap.get(config.getDeliveryType())
                 .sendTestNotification(config, enrolleeContext);
@@ -4,6 +4,8 @@ import bio.terra.pearl.core.model.notification.Notification;
 import bio.terra.pearl.core.model.notification.Trigger;
 import bio.terra.pearl.core.service.rule.EnrolleeContext;
 
+import java.util.List;
+
 /** notification sender -- e.g. emailer or text messager */
 public interface NotificationSender {
     void processNotificationAsync(Notification notification, Trigger config, EnrolleeContext ruleData);
@@ -11,6 +13,13 @@ public interface NotificationSender {
     void processNotification(Notification notification, Trigger config, EnrolleeContext ruleData,
                              NotificationContextInfo notificationContextInfo);
 
+    /**
+     * processes the notifications together, so that they can be sent and saved in bulk.  The notifications must not
+     * have been saved yet.  notifications and enrolleeContexts correspond by index.
+     */
+    void processNotifications(List<Notification> notifications, Trigger config, List<EnrolleeContext> enrolleeContexts,
+                              NotificationContextInfo notificationContextInfo);
+
     void sendTestNotification(Trigger config, EnrolleeContext ruleData);
 
     NotificationContextInfo loadContextInfo(Trigger config);
@@ -9,25 +9,33 @@ import bio.terra.pearl.core.model.publishing.PortalEnvironmentChange;
 import bio.terra.pearl.core.model.publishing.StudyEnvironmentChange;
 import bio.terra.pearl.core.model.publishing.VersionedConfigChange;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
 import bio.terra.pearl.core.service.notification.email.EmailTemplateService;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
 import bio.terra.pearl.core.service.publishing.PortalEnvPublishable;
 import bio.terra.pearl.core.service.publishing.PublishingUtils;
 import bio.terra.pearl.core.service.publishing.StudyEnvPublishable;
+import bio.terra.pearl.core.service.workflow.TriggerRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TriggerService extends CrudService<Trigger, TriggerDao> implements PortalEnvPublishable, StudyEnvPublishable {
     private EmailTemplateService emailTemplateService;
+    private final TriggerRegistry triggerRegistry;
+    private final NotificationContextInfoCache notificationContextInfoCache;
 
-    public TriggerService(TriggerDao dao, EmailTemplateService emailTemplateService) {
+    public TriggerService(TriggerDao dao, EmailTemplateService emailTemplateService, TriggerRegistry triggerRegistry,
+                          NotificationContextInfoCache notificationContextInfoCache) {
         super(dao);
         this.emailTemplateService = emailTemplateService;
+        this.triggerRegistry = triggerRegistry;
+        this.notificationContextInfoCache = notificationContextInfoCache;
     }
 
     public List<Trigger> findByStudyEnvironmentId(UUID studyEnvironmentId) {
@@ -52,14 +60,32 @@ public class TriggerService extends CrudService<Trigger, TriggerDao> implements
         }
         Trigger savedConfig = dao.create(action);
         savedConfig.setEmailTemplate(emailTemplate);
+        triggerRegistry.evict(savedConfig.getStudyEnvironmentId());
         return savedConfig;
     }
 
+    @Override
+    @Transactional
+    public Trigger update(Trigger trigger) {
+        triggerRegistry.evict(trigger.getStudyEnvironmentId());
+        notificationContextInfoCache.evict(trigger.getId());
+        return super.update(trigger);
+    }
+
+    @Override
+    @Transactional
+    public void delete(UUID id, Set<CascadeProperty> cascades) {
+        dao.find(id).ifPresent(trigger -> triggerRegistry.evict(trigger.getStudyEnvironmentId()));
+        notificationContextInfoCache.evict(id);
+        super.delete(id, cascades);
+    }
+
     public void attachTemplates(List<Trigger> actions) {
         dao.attachTemplates(actions);
     }
 
     public void deleteByStudyEnvironmentId(UUID studyEnvironmentId) {
+        triggerRegistry.evict(studyEnvironmentId);
         dao.deleteByStudyEnvironmentId(studyEnvironmentId);
     }
 
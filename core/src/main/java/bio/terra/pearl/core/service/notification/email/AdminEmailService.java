@@ -1,5 +1,6 @@
 package bio.terra.pearl.core.service.notification.email;
 
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
 import bio.terra.pearl.core.model.admin.AdminUser;
 import bio.terra.pearl.core.model.notification.*;
 import bio.terra.pearl.core.model.participant.Enrollee;
@@ -64,7 +65,7 @@ public class AdminEmailService {
     this.portalEnvironmentConfigService = portalEnvironmentConfigService;
   }
 
-  @Async
+  @Async(AsyncExecutorConfig.ADMIN_EMAIL_EXECUTOR)
   public void sendWelcomeEmail(Portal portal, AdminUser adminUser) {
     NotificationContextInfo contextInfo = loadContextInfo(WELCOME_EMAIL_TEMPLATE_STABLEID, WELCOME_EMAIL_TEMPLATE_VERSION, portal);
     sendEmail(contextInfo, adminUser, null);
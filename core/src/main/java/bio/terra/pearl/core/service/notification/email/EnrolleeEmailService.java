@@ -1,11 +1,13 @@
 package bio.terra.pearl.core.service.notification.email;
 
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
 import bio.terra.pearl.core.model.notification.*;
 import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.portal.PortalEnvironment;
 import bio.terra.pearl.core.model.study.Study;
 import bio.terra.pearl.core.model.workflow.TaskType;
 import bio.terra.pearl.core.service.notification.NotificationContextInfo;
+import bio.terra.pearl.core.service.notification.NotificationContextInfoCache;
 import bio.terra.pearl.core.service.notification.NotificationSender;
 import bio.terra.pearl.core.service.notification.NotificationService;
 import bio.terra.pearl.core.service.notification.substitutors.EnrolleeEmailSubstitutor;
@@ -15,19 +17,29 @@ import bio.terra.pearl.core.service.rule.EnrolleeContext;
 import bio.terra.pearl.core.service.study.StudyService;
 import bio.terra.pearl.core.shared.ApplicationRoutingPaths;
 import com.sendgrid.helpers.mail.Mail;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringSubstitutor;
-import org.springframework.retry.backoff.ExponentialBackOffPolicy;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class EnrolleeEmailService implements NotificationSender {
+    /** failed notification updates are retried after 4, 8, 16, and 32 seconds */
+    private static final long UPDATE_RETRY_INITIAL_DELAY_MS = 4000;
+    private static final int UPDATE_RETRY_ATTEMPTS = 4;
     private final NotificationService notificationService;
     private final PortalEnvironmentService portalEnvService;
     private final PortalService portalService;
@@ -35,11 +47,16 @@ public class EnrolleeEmailService implements NotificationSender {
     private final EmailTemplateService emailTemplateService;
     private final ApplicationRoutingPaths routingPaths;
     private final SendgridClient sendgridClient;
+    private final NotificationContextInfoCache notificationContextInfoCache;
+    /** runs notification update retries, so that waiting to retry doesn't hold an email thread */
+    private final ScheduledExecutorService updateRetryScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-update-retry-"));
 
     public EnrolleeEmailService(NotificationService notificationService,
                                 PortalEnvironmentService portalEnvService, PortalService portalService,
                                 StudyService studyService, EmailTemplateService emailTemplateService,
-                                ApplicationRoutingPaths routingPaths, SendgridClient sendgridClient) {
+                                ApplicationRoutingPaths routingPaths, SendgridClient sendgridClient,
+                                NotificationContextInfoCache notificationContextInfoCache) {
         this.notificationService = notificationService;
         this.portalEnvService = portalEnvService;
         this.portalService = portalService;
@@ -47,9 +64,10 @@ public class EnrolleeEmailService implements NotificationSender {
         this.emailTemplateService = emailTemplateService;
         this.routingPaths = routingPaths;
         this.sendgridClient = sendgridClient;
+        this.notificationContextInfoCache = notificationContextInfoCache;
     }
 
-    @Async
+    @Async(AsyncExecutorConfig.PARTICIPANT_EMAIL_EXECUTOR)
     @Override
     public void processNotificationAsync(Notification notification, Trigger config, EnrolleeContext ruleData) {
         NotificationContextInfo contextInfo = loadContextInfo(config);
@@ -77,33 +95,121 @@ public class EnrolleeEmailService implements NotificationSender {
         }
         // now save/update the Notification object
         if (notification.getId() != null) {
-            // the notification might have been saved, but in a transaction not-yet completed (if, for example,
-            // study enrollment transaction is taking a long time). So retry the update if it fails
-            RetryTemplate retryTemplate = RetryTemplate.defaultInstance();
-            // exponential backoff with a max interval of 32 seconds, so we'll make retry attempts after 4, 8, 16, and 32 seconds
-            ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
-            backOffPolicy.setInitialInterval(4000);
-            backOffPolicy.setMaxInterval(32000);
-            retryTemplate.setBackOffPolicy(backOffPolicy);
-            try {
-                retryTemplate.execute(arg -> notificationService.update(notification));
-            } catch (Exception e) {
-                if (routingPaths.getDeploymentZone().equals("local") &&
-                        ruleData.getEnrollee().getShortcode().endsWith("GONE")) {
-                    // for these participants, they are deleted before the async process to send out the welcome
-                    // email starts, so the notification update will fail. This is expected and not a problem.
-                    log.info("notification update failed for populated withdrawn participant -- this is expected");
-                } else {
-                    log.error("failed to update notification: {}, portal: {}, trigger: {}, error: {}",
-                            notification.getId(), contextInfo.portal().getShortcode(), config.getId(), e.getMessage());
-                }
-            }
-
+            updateNotificationWithRetry(notification, config, ruleData, contextInfo, 0);
         } else {
             notificationService.create(notification);
         }
     }
 
+    /**
+     * the notification might have been saved, but in a transaction not-yet completed (if, for example, study
+     * enrollment transaction is taking a long time). So retry the update if it fails, with exponential backoff.
+     * Retries are scheduled rather than slept for, so a slow transaction doesn't tie up the calling thread.
+     */
+    protected void updateNotificationWithRetry(Notification notification, Trigger config, EnrolleeContext ruleData,
+                                               NotificationContextInfo contextInfo, int retriesDone) {
+        try {
+            notificationService.update(notification);
+        } catch (Exception e) {
+            if (retriesDone < UPDATE_RETRY_ATTEMPTS) {
+                long delayMs = UPDATE_RETRY_INITIAL_DELAY_MS << retriesDone;
+                updateRetryScheduler.schedule(
+                        () -> updateNotificationWithRetry(notification, config, ruleData, contextInfo, retriesDone + 1),
+                        delayMs, TimeUnit.MILLISECONDS);
+            } else if (routingPaths.getDeploymentZone().equals("local") &&
+                    ruleData.getEnrollee().getShortcode().endsWith("GONE")) {
+                // for these participants, they are deleted before the async process to send out the welcome
+                // email starts, so the notification update will fail. This is expected and not a problem.
+                log.info("notification update failed for populated withdrawn participant -- this is expected");
+            } else {
+                log.error("failed to update notification: {}, portal: {}, trigger: {}, error: {}",
+                        notification.getId(), contextInfo.portal().getShortcode(), config.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateRetryScheduler.shutdown();
+    }
+
+    /**
+     * sends the notifications in bulk: recipients are grouped by localized template, and each group is sent with as
+     * few SendGrid requests as possible (see SendgridClient.buildBulkEmail).  The notifications are then saved with a
+     * single batch insert, so they must not have been saved already.  notifications and enrolleeContexts correspond
+     * by index.
+     */
+    @Override
+    public void processNotifications(List<Notification> notifications, Trigger config,
+                                     List<EnrolleeContext> enrolleeContexts, NotificationContextInfo contextInfo) {
+        Map<LocalizedEmailTemplate, List<BulkSend>> sendsByTemplate = new LinkedHashMap<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            EnrolleeContext ruleData = enrolleeContexts.get(i);
+            if (!shouldSendEmail(config, ruleData, contextInfo)) {
+                notification.setDeliveryStatus(NotificationDeliveryStatus.SKIPPED);
+                continue;
+            }
+            notification.setSentTo(ruleData.getProfile().getContactEmail());
+            LocalizedEmailTemplate localizedEmailTemplate = getPreferredTemplateWithDefault(contextInfo.template(),
+                    ruleData.getProfile().getPreferredLanguage());
+            SendgridClient.BulkEmailRecipient recipient = new SendgridClient.BulkEmailRecipient(
+                    ruleData.getProfile().getContactEmail(),
+                    EnrolleeEmailSubstitutor.newSubstitutor(ruleData, contextInfo, routingPaths, notification.getCustomMessagesMap()));
+            if (sendgridClient.getSubstitutionBytes(localizedEmailTemplate, recipient) > SendgridClient.MAX_SUBSTITUTION_BYTES) {
+                // too much to send as a personalization, so send this one on its own
+                sendIndividually(notification, config, ruleData, contextInfo);
+                continue;
+            }
+            sendsByTemplate.computeIfAbsent(localizedEmailTemplate, template -> new ArrayList<>())
+                    .add(new BulkSend(notification, ruleData, recipient));
+        }
+
+        sendsByTemplate.forEach((localizedEmailTemplate, sends) -> {
+            for (int start = 0; start < sends.size(); start += sendgridClient.getBulkBatchSize()) {
+                sendBatch(config, contextInfo, localizedEmailTemplate,
+                        sends.subList(start, Math.min(start + sendgridClient.getBulkBatchSize(), sends.size())));
+            }
+        });
+        notificationService.bulkCreate(notifications);
+    }
+
+    private void sendBatch(Trigger config, NotificationContextInfo contextInfo,
+                           LocalizedEmailTemplate localizedEmailTemplate, List<BulkSend> sends) {
+        try {
+            Mail mail = sendgridClient.buildBulkEmail(localizedEmailTemplate,
+                    sends.stream().map(BulkSend::recipient).toList(),
+                    getFromAddress(contextInfo), getFromName(contextInfo));
+            String sendGridApiRequestId = sendgridClient.sendBulkEmail(mail);
+            sends.forEach(send -> {
+                send.notification().setDeliveryStatus(NotificationDeliveryStatus.SENT);
+                send.notification().setSendgridApiRequestId(sendGridApiRequestId);
+            });
+            log.info("Bulk email sent: config: {}, recipients: {}, language: {}", config.getId(),
+                    sends.size(), localizedEmailTemplate.getLanguage());
+        } catch (Exception e) {
+            sends.forEach(send -> send.notification().setDeliveryStatus(NotificationDeliveryStatus.FAILED));
+            // don't log the exception itself since the trace might have PII in it.
+            log.error("Bulk email failed to send: config: {}, recipients: {}, language: {}", config.getId(),
+                    sends.size(), localizedEmailTemplate.getLanguage());
+        }
+    }
+
+    private void sendIndividually(Notification notification, Trigger config, EnrolleeContext ruleData,
+                                  NotificationContextInfo contextInfo) {
+        try {
+            notification.setSendgridApiRequestId(buildAndSendEmail(contextInfo, ruleData, notification));
+            notification.setDeliveryStatus(NotificationDeliveryStatus.SENT);
+        } catch (Exception e) {
+            notification.setDeliveryStatus(NotificationDeliveryStatus.FAILED);
+            log.error("Email failed to send: config: {}, enrollee: {}, language: {}", config.getId(),
+                    ruleData.getEnrollee().getShortcode(), ruleData.getProfile().getPreferredLanguage());
+        }
+    }
+
+    private record BulkSend(Notification notification, EnrolleeContext ruleData,
+                            SendgridClient.BulkEmailRecipient recipient) { }
+
     /**
      * skips processing, checks, and logging, and just sends the email. Should only be used for debugging and
      * test emails, since we want all regular emails to be logged via notifications in standard ways.
@@ -126,11 +232,26 @@ public class EnrolleeEmailService implements NotificationSender {
 
         StringSubstitutor substitutor = EnrolleeEmailSubstitutor
                 .newSubstitutor(ruleData, contextInfo, routingPaths, notification.getCustomMessagesMap());
+
+        Mail mail = sendgridClient.buildEmail(
+                localizedEmailTemplate,
+                ruleData.getProfile().getContactEmail(),
+                getFromAddress(contextInfo),
+                getFromName(contextInfo),
+                substitutor);
+        return mail;
+    }
+
+    protected String getFromAddress(NotificationContextInfo contextInfo) {
         String fromAddress = contextInfo.portalEnvConfig().getEmailSourceAddress();
         if (fromAddress == null) {
             // if this portal environment hasn't been configured with a specific email, just send from the support address
             fromAddress = routingPaths.getSupportEmailAddress();
         }
+        return fromAddress;
+    }
+
+    protected String getFromName(NotificationContextInfo contextInfo) {
         String fromName = "Juniper";
         if (contextInfo.portal().getName() != null) {
             fromName = contextInfo.portal().getName();
@@ -139,14 +260,7 @@ public class EnrolleeEmailService implements NotificationSender {
         if (!contextInfo.portalEnv().getEnvironmentName().isLive()) {
             fromName += " (%s)".formatted(contextInfo.portalEnv().getEnvironmentName());
         }
-
-        Mail mail = sendgridClient.buildEmail(
-                localizedEmailTemplate,
-                ruleData.getProfile().getContactEmail(),
-                fromAddress,
-                fromName,
-                substitutor);
-        return mail;
+        return fromName;
     }
 
     public boolean shouldSendEmail(Trigger config,
@@ -179,13 +293,17 @@ public class EnrolleeEmailService implements NotificationSender {
     }
 
     /**
-     * loads the context information needed to send a notification (things not specific to an enrollee/user)
-     * this method will almost certainly benefit from caching, especially with respect to bulk emails.
+     * loads the context information needed to send a notification (things not specific to an enrollee/user).
+     * The context info is cached per trigger (see NotificationContextInfoCache), and must not be modified.
      * This can return null if called in an async context where the trigger points to an
      * environment that either no longer exists or has not yet been populated (e.g. during a populate_portal.sh call)
      */
     @Override
     public NotificationContextInfo loadContextInfo(Trigger config) {
+        return notificationContextInfoCache.get(config, () -> loadContextInfoUncached(config));
+    }
+
+    protected NotificationContextInfo loadContextInfoUncached(Trigger config) {
         PortalEnvironment portalEnvironment = portalEnvService.loadWithEnvConfig(config.getPortalEnvironmentId()).orElse(null);
         if (portalEnvironment == null) {
             return null;
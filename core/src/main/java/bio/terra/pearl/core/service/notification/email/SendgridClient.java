@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.notification.email;
 import bio.terra.pearl.core.model.notification.LocalizedEmailTemplate;
 import bio.terra.pearl.core.model.notification.SendgridEvent;
 import bio.terra.pearl.core.service.exception.internal.IOInternalException;
+import bio.terra.pearl.core.service.notification.substitutors.CompiledTemplate;
 import bio.terra.pearl.core.shared.ApplicationRoutingPaths;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -22,23 +23,52 @@ import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 public class SendgridClient {
   public static final String EMAIL_REDIRECT_VAR = "env.email.redirectAllTo";
   public static final String SENDGRID_API_KEY_VAR = "env.email.sendgridApiKey";
+  /** overrides the SendGrid api base url, e.g. to point at a local stub server.  Defaults to SendGrid's api */
+  public static final String SENDGRID_BASE_URL_VAR = "env.email.sendgridBaseUrl";
+  public static final String BULK_BATCH_SIZE_VAR = "env.email.bulkBatchSize";
+  public static final String BULK_REQUESTS_PER_SECOND_VAR = "env.email.bulkRequestsPerSecond";
+  /** SendGrid accepts at most 1000 personalizations per mail/send request */
+  public static final int MAX_PERSONALIZATIONS = 1000;
+  /** SendGrid limits the substitutions in a personalization to 10000 bytes */
+  public static final int MAX_SUBSTITUTION_BYTES = 10000;
+  private static final String REDIRECT_NOTICE_TAG = "-juniperRedirectNotice-";
   private final String sendGridApiKey;
   private String emailRedirectAddress = "";
   private final String deploymentZone;
+  private final URI sendGridBaseUrl;
+  private final int bulkBatchSize;
+  private final long nanosBetweenBulkRequests;
+  private long nextBulkRequestAt = System.nanoTime();
+
   public SendgridClient(Environment env, ApplicationRoutingPaths applicationRoutingPaths) {
     this.sendGridApiKey = env.getProperty(SENDGRID_API_KEY_VAR, "");
     this.emailRedirectAddress = env.getProperty(EMAIL_REDIRECT_VAR, "");
+    String baseUrl = env.getProperty(SENDGRID_BASE_URL_VAR, "");
+    this.sendGridBaseUrl = StringUtils.isEmpty(baseUrl) ? null : URI.create(baseUrl);
+    this.bulkBatchSize = Math.clamp(env.getProperty(BULK_BATCH_SIZE_VAR, Integer.class, MAX_PERSONALIZATIONS),
+            1, MAX_PERSONALIZATIONS);
+    double bulkRequestsPerSecond = env.getProperty(BULK_REQUESTS_PER_SECOND_VAR, Double.class, 5.0);
+    this.nanosBetweenBulkRequests = bulkRequestsPerSecond > 0 ? (long) (1_000_000_000 / bulkRequestsPerSecond) : 0;
     deploymentZone = applicationRoutingPaths.getDeploymentZone();
   }
 
+  public int getBulkBatchSize() {
+    return bulkBatchSize;
+  }
+
 
   public String sendEmail(Mail mail) {
     if (StringUtils.isEmpty(sendGridApiKey)) {
@@ -49,7 +79,7 @@ public class SendgridClient {
       }
       return null;
     }
-    SendGrid sg = new SendGrid(sendGridApiKey);
+    SendGrid sg = newSendGrid();
     Request request = new Request();
 
     request.setMethod(Method.POST);
@@ -60,10 +90,8 @@ public class SendgridClient {
       // X-Message-Id identifies an individual SendGrid API request
       // We need to track this so we can correlate SendGrid events with notifications
       // Note that X-Message-Id is not guaranteed to be 1:1 with an individual message.
-      // Messages can be sent as a batch, and the X-Message-Id will be the same for all of them.
-      // Currently, Juniper only sends messages one at a time, so this is a 1:1 mapping for now.
-      // If we ever start batching emails, we'll need to update this to be a bit more sophisticated
-      // and use the Sendgrid Event Webhook. But in either case, we still need to track this ID.
+      // Messages sent as a batch (see buildBulkEmail) share an X-Message-Id, so events for them are
+      // correlated by both the id and the recipient address.
       return response.getHeaders().get("X-Message-Id");
     } catch (IOException ex) {
       // this likely means the network failed, not that the email failed to send
@@ -71,8 +99,17 @@ public class SendgridClient {
     }
   }
 
+  /**
+   * sends a mail built by buildBulkEmail.  Bulk requests are paced to at most env.email.bulkRequestsPerSecond,
+   * across all threads, so that large sends don't hit SendGrid's rate limits
+   */
+  public String sendBulkEmail(Mail mail) {
+    awaitBulkRequestSlot();
+    return sendEmail(mail);
+  }
+
   public List<SendgridEvent> getEvents(Instant startDate, Instant endDate, int queryLimit) throws Exception {
-    SendGrid sg = new SendGrid(sendGridApiKey);
+    SendGrid sg = newSendGrid();
     Request request = new Request();
     request.setMethod(Method.GET);
 
@@ -157,6 +194,98 @@ public class SendgridClient {
     return mail;
   }
 
+  /**
+   * builds a single mail that sends the template to each recipient, personalized with their own substitutor.  Each
+   * template variable is replaced with a SendGrid substitution tag, and each recipient gets a personalization with
+   * their values for those tags, so the template itself is only sent once.  At most MAX_PERSONALIZATIONS recipients
+   * can be sent in one mail, and each recipient's substitutions must fit in MAX_SUBSTITUTION_BYTES (see
+   * getSubstitutionBytes).
+   */
+  public Mail buildBulkEmail(LocalizedEmailTemplate localizedEmailTemplate,
+                             List<BulkEmailRecipient> recipients,
+                             String fromAddress,
+                             String fromName) {
+    if (recipients.size() > MAX_PERSONALIZATIONS) {
+      throw new IllegalArgumentException("At most %d recipients can be sent in one request".formatted(MAX_PERSONALIZATIONS));
+    }
+    Map<String, String> variableTags = new LinkedHashMap<>();
+    String subject = tagVariables(localizedEmailTemplate.getSubject(), variableTags);
+    String contentString = tagVariables(localizedEmailTemplate.getBody(), variableTags);
+    if (!StringUtils.isEmpty(emailRedirectAddress)) {
+      contentString = REDIRECT_NOTICE_TAG + contentString;
+    }
+
+    Mail mail = new Mail();
+    mail.setFrom(buildFrom(fromAddress, fromName));
+    mail.setSubject(subject);
+    mail.addContent(new Content("text/html", contentString));
+    for (BulkEmailRecipient recipient : recipients) {
+      Personalization personalization = new Personalization();
+      personalization.addTo(buildTo(recipient.toAddress()));
+      buildSubstitutions(variableTags, recipient).forEach(personalization::addSubstitution);
+      mail.addPersonalization(personalization);
+    }
+    return mail;
+  }
+
+  /** the size of the substitutions the recipient would have in a bulk email of the given template */
+  public int getSubstitutionBytes(LocalizedEmailTemplate localizedEmailTemplate, BulkEmailRecipient recipient) {
+    Map<String, String> variableTags = new LinkedHashMap<>();
+    tagVariables(localizedEmailTemplate.getSubject(), variableTags);
+    tagVariables(localizedEmailTemplate.getBody(), variableTags);
+    return buildSubstitutions(variableTags, recipient).entrySet().stream()
+            .mapToInt(entry -> entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                    + entry.getValue().getBytes(StandardCharsets.UTF_8).length)
+            .sum();
+  }
+
+  /**
+   * replaces each template variable with a substitution tag, adding the variable's tag to variableTags (keyed by the
+   * full variable expression) if it isn't already there
+   */
+  private String tagVariables(String template, Map<String, String> variableTags) {
+    return CompiledTemplate.of(template).renderTagged(variable ->
+            variableTags.computeIfAbsent(variable, v -> "-juniperVar%d-".formatted(variableTags.size())));
+  }
+
+  private Map<String, String> buildSubstitutions(Map<String, String> variableTags, BulkEmailRecipient recipient) {
+    Map<String, String> substitutions = new LinkedHashMap<>();
+    variableTags.forEach((variable, tag) ->
+            substitutions.put(tag, CompiledTemplate.of(variable).render(recipient.substitutor())));
+    if (!StringUtils.isEmpty(emailRedirectAddress)) {
+      substitutions.put(REDIRECT_NOTICE_TAG, "<p><i>Redirected from " + recipient.toAddress() + "</i></p>");
+    }
+    return substitutions;
+  }
+
+  private synchronized void awaitBulkRequestSlot() {
+    long waitNanos = nextBulkRequestAt - System.nanoTime();
+    if (waitNanos > 0) {
+      try {
+        Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting to send bulk email", e);
+      }
+    }
+    nextBulkRequestAt = Math.max(nextBulkRequestAt, System.nanoTime()) + nanosBetweenBulkRequests;
+  }
+
+  private SendGrid newSendGrid() {
+    if (sendGridBaseUrl == null) {
+      return new SendGrid(sendGridApiKey);
+    }
+    // the test flag makes the client use http, which local stub servers generally serve
+    SendGrid sg = new SendGrid(sendGridApiKey, "http".equalsIgnoreCase(sendGridBaseUrl.getScheme()));
+    sg.setHost(sendGridBaseUrl.getPort() > 0
+            ? "%s:%d".formatted(sendGridBaseUrl.getHost(), sendGridBaseUrl.getPort())
+            : sendGridBaseUrl.getHost());
+    return sg;
+  }
+
+  /** a recipient of a bulk email, with the substitutor for their values of the template's variables */
+  public record BulkEmailRecipient(String toAddress, StringSubstitutor substitutor) { }
+
   private Email buildFrom(String fromAddress, String fromName) {
     Email from = new Email(fromAddress);
 
@@ -180,13 +309,13 @@ public class SendgridClient {
   }
 
   private String buildSubject(LocalizedEmailTemplate localizedEmailTemplate, StringSubstitutor stringSubstitutor) {
-    return stringSubstitutor.replace(localizedEmailTemplate.getSubject());
+    return CompiledTemplate.of(localizedEmailTemplate.getSubject()).render(stringSubstitutor);
   }
 
   private String buildContent(LocalizedEmailTemplate localizedEmailTemplate,
                               StringSubstitutor stringSubstitutor,
                               String toAddress) {
-    String contentString = stringSubstitutor.replace(localizedEmailTemplate.getBody());
+    String contentString = CompiledTemplate.of(localizedEmailTemplate.getBody()).render(stringSubstitutor);
     if (!StringUtils.isEmpty(emailRedirectAddress)) {
       contentString = "<p><i>Redirected from " + toAddress + "</i></p>" + contentString;
     }
@@ -0,0 +1,133 @@
+package bio.terra.pearl.core.service.notification.substitutors;
+
+import bio.terra.pearl.core.service.cache.BoundedCache;
+import org.apache.commons.text.StringSubstitutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An email template split into literal text and ${variable} segments, so that it can be rendered for any number of
+ * recipients without scanning the template text again.  Rendering matches a default StringSubstitutor: $${...}
+ * escapes a variable, ${name:-default} gives a default for when the lookup returns null, variables the lookup can't
+ * resolve are left as is, and variables in resolved values are substituted in turn.
+ *
+ * Compiled templates are immutable and cached by template text, so are safe to share across threads.
+ */
+public class CompiledTemplate {
+    private static final int MAX_CACHED_TEMPLATES = 1000;
+    private static final BoundedCache<String, CompiledTemplate> CACHE = new BoundedCache<>(MAX_CACHED_TEMPLATES);
+    private static final String PREFIX = "${";
+    private static final String SUFFIX = "}";
+    private static final char ESCAPE = '$';
+    private static final String DEFAULT_DELIMITER = ":-";
+
+    private final List<Segment> segments;
+
+    private CompiledTemplate(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /** returns the compiled form of the template, compiling it if it hasn't been already */
+    public static CompiledTemplate of(String template) {
+        if (template == null) {
+            return new CompiledTemplate(List.of());
+        }
+        return CACHE.computeIfAbsent(template, CompiledTemplate::compile);
+    }
+
+    /** renders the template, resolving variables with the substitutor's lookup */
+    public String render(StringSubstitutor substitutor) {
+        StringBuilder rendered = new StringBuilder();
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                rendered.append(literal.text());
+            } else if (segment instanceof Variable variable) {
+                rendered.append(resolve(variable, substitutor));
+            }
+        }
+        return rendered.toString();
+    }
+
+    /**
+     * renders the template with each variable replaced by the result of the tagger, which is passed the variable's
+     * full expression, e.g. "${profile.givenName}".
+     */
+    public String renderTagged(Function<String, String> tagger) {
+        StringBuilder rendered = new StringBuilder();
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                rendered.append(literal.text());
+            } else if (segment instanceof Variable variable) {
+                rendered.append(tagger.apply(variable.expression()));
+            }
+        }
+        return rendered.toString();
+    }
+
+    private String resolve(Variable variable, StringSubstitutor substitutor) {
+        String value = substitutor.getStringLookup().lookup(variable.name());
+        if (value == null) {
+            value = variable.defaultValue();
+        }
+        if (value == null) {
+            return variable.expression();
+        }
+        if (value.contains(PREFIX)) {
+            // values can themselves contain variables (e.g. custom messages that include links)
+            return substitutor.replace(value);
+        }
+        return value;
+    }
+
+    private static CompiledTemplate compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (pos < template.length()) {
+            int prefixIndex = template.indexOf(PREFIX, pos);
+            if (prefixIndex < 0) {
+                literal.append(template, pos, template.length());
+                break;
+            }
+            if (prefixIndex > pos && template.charAt(prefixIndex - 1) == ESCAPE) {
+                // an escaped variable is output without the escape character, and not substituted
+                literal.append(template, pos, prefixIndex - 1).append(PREFIX);
+                pos = prefixIndex + PREFIX.length();
+                continue;
+            }
+            int suffixIndex = template.indexOf(SUFFIX, prefixIndex + PREFIX.length());
+            if (suffixIndex < 0) {
+                literal.append(template, pos, template.length());
+                break;
+            }
+            literal.append(template, pos, prefixIndex);
+            if (!literal.isEmpty()) {
+                segments.add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+            String expression = template.substring(prefixIndex, suffixIndex + SUFFIX.length());
+            String nameAndDefault = template.substring(prefixIndex + PREFIX.length(), suffixIndex);
+            int delimiterIndex = nameAndDefault.indexOf(DEFAULT_DELIMITER);
+            if (delimiterIndex < 0) {
+                segments.add(new Variable(expression, nameAndDefault, null));
+            } else {
+                segments.add(new Variable(expression, nameAndDefault.substring(0, delimiterIndex),
+                        nameAndDefault.substring(delimiterIndex + DEFAULT_DELIMITER.length())));
+            }
+            pos = suffixIndex + SUFFIX.length();
+        }
+        if (!literal.isEmpty()) {
+            segments.add(new Literal(literal.toString()));
+        }
+        return new CompiledTemplate(List.copyOf(segments));
+    }
+
+    private sealed interface Segment permits Literal, Variable { }
+
+    private record Literal(String text) implements Segment { }
+
+    /** expression is the variable as written in the template, e.g. "${name:-default}" */
+    private record Variable(String expression, String name, String defaultValue) implements Segment { }
+}
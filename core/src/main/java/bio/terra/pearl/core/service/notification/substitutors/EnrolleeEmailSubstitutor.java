@@ -5,9 +5,11 @@ import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.portal.PortalEnvironment;
 import bio.terra.pearl.core.model.portal.PortalEnvironmentConfig;
 import bio.terra.pearl.core.model.study.Study;
+import bio.terra.pearl.core.service.cache.BoundedCache;
 import bio.terra.pearl.core.service.exception.internal.IOInternalException;
 import bio.terra.pearl.core.service.notification.NotificationContextInfo;
 import bio.terra.pearl.core.service.rule.EnrolleeContext;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.shared.ApplicationRoutingPaths;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.beanutils.PropertyUtils;
@@ -25,6 +27,10 @@ import java.util.Map;
  * for each email to be sent. */
 @Slf4j
 public class EnrolleeEmailSubstitutor implements StringLookup {
+    private static final int MAX_CACHED_ACCESSORS = 1000;
+    /** accessors for template variable paths, shared across instances since they depend only on the value classes */
+    private static final BoundedCache<AccessorKey, PropertyAccessor> ACCESSORS =
+            new BoundedCache<>(MAX_CACHED_ACCESSORS);
     private final Map<String, Object> valueMap = new HashMap<>();
     private EnrolleeContext enrolleeContext;
     private NotificationContextInfo contextInfo;
@@ -72,7 +78,7 @@ public class EnrolleeEmailSubstitutor implements StringLookup {
     @Override
     public String lookup(String key) {
         try {
-            return PropertyUtils.getNestedProperty(valueMap, key).toString();
+            return readValue(key).toString();
         } catch (Exception e) {
             log.error("Could not resolve template value {}, environment: {}, enrollee: {}",
                     key, contextInfo.portal().getShortcode(), enrolleeContext.getEnrollee().getShortcode());
@@ -80,6 +86,27 @@ public class EnrolleeEmailSubstitutor implements StringLookup {
         return "";
     }
 
+    /**
+     * reads the value for the key, as PropertyUtils.getNestedProperty(valueMap, key) would, but with the getters for
+     * the path after the first segment resolved once per value class, rather than on every lookup
+     */
+    private Object readValue(String key) throws ReflectiveOperationException {
+        int dotIndex = key.indexOf('.');
+        if (dotIndex < 0 || key.contains("[") || key.contains("(")) {
+            return PropertyUtils.getNestedProperty(valueMap, key);
+        }
+        Object root = valueMap.get(key.substring(0, dotIndex));
+        if (root == null) {
+            return null;
+        }
+        AccessorKey accessorKey = new AccessorKey(root.getClass(), key.substring(dotIndex + 1));
+        PropertyAccessor accessor = ACCESSORS.computeIfAbsent(accessorKey,
+                k -> PropertyAccessor.of(k.rootClass(), k.path()));
+        return accessor.get(root);
+    }
+
+    private record AccessorKey(Class<?> rootClass, String path) { }
+
     public String getSiteLink(PortalEnvironment portalEnv, PortalEnvironmentConfig config, Portal portal) {
         String href = routingPaths.getParticipantBaseUrl(portalEnv, config, portal.getShortcode());
         return String.format("<a rel=\"noopener\" href=\"%s\" target=\"_blank\">%s</a>", href, href);
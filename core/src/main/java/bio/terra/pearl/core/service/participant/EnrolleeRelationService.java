@@ -5,6 +5,7 @@ import bio.terra.pearl.core.model.audit.DataAuditInfo;
 import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.model.participant.EnrolleeRelation;
 import bio.terra.pearl.core.model.participant.Family;
+import bio.terra.pearl.core.model.participant.Profile;
 import bio.terra.pearl.core.model.participant.RelationshipType;
 import bio.terra.pearl.core.service.DataAuditedService;
 import bio.terra.pearl.core.service.ParticipantDataAuditedService;
@@ -17,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EnrolleeRelationService extends ParticipantDataAuditedService<EnrolleeRelation, EnrolleeRelationDao> {
@@ -83,6 +86,46 @@ public class EnrolleeRelationService extends ParticipantDataAuditedService<Enrol
         return relations;
     }
 
+    /**
+     * batch version of findByTargetEnrolleeIdWithEnrollees, which also attaches families if includeFamilies is true.
+     * Returns a map of target enrollee id to that enrollee's valid relations.  The enrollees attached to the relations
+     * have their profiles loaded, and may be shared between relations.
+     */
+    public Map<UUID, List<EnrolleeRelation>> findByTargetEnrolleeIdsWithEnrollees(List<UUID> targetEnrolleeIds, boolean includeFamilies) {
+        List<EnrolleeRelation> relations = filterValid(dao.findByTargetEnrolleeIds(targetEnrolleeIds));
+        if (relations.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<UUID> enrolleeIds = relations.stream()
+                .flatMap(relation -> Stream.of(relation.getEnrolleeId(), relation.getTargetEnrolleeId()))
+                .distinct()
+                .toList();
+        Map<UUID, Enrollee> enrollees = enrolleeService.findAll(enrolleeIds)
+                .stream().collect(Collectors.toMap(Enrollee::getId, Function.identity()));
+        Map<UUID, Profile> profiles = profileService.loadAllWithMailingAddress(
+                enrollees.values().stream().map(Enrollee::getProfileId).filter(Objects::nonNull).toList());
+        enrollees.values().forEach(enrollee -> enrollee.setProfile(profiles.get(enrollee.getProfileId())));
+
+        Map<UUID, Family> families = new HashMap<>();
+        if (includeFamilies) {
+            List<UUID> familyIds = relations.stream()
+                    .map(EnrolleeRelation::getFamilyId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            familyService.findAll(familyIds).forEach(family -> families.put(family.getId(), family));
+        }
+
+        relations.forEach(relation -> {
+            relation.setTargetEnrollee(enrollees.get(relation.getTargetEnrolleeId()));
+            relation.setEnrollee(enrollees.get(relation.getEnrolleeId()));
+            if (includeFamilies && relation.getFamilyId() != null) {
+                relation.setFamily(families.get(relation.getFamilyId()));
+            }
+        });
+        return relations.stream().collect(Collectors.groupingBy(EnrolleeRelation::getTargetEnrolleeId));
+    }
+
     public List<EnrolleeRelation> findAllByEnrolleeOrTargetId(UUID enrolleeId) {
         return filterValid(dao.findAllByEnrolleeOrTargetId(enrolleeId));
     }
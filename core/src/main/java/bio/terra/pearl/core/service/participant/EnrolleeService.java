@@ -109,6 +109,10 @@ public class EnrolleeService extends CrudService<Enrollee, EnrolleeDao> {
         return dao.findByProfileId(ppUser.getProfileId());
     }
 
+    public String findParticipantHubVersionStamp(UUID profileId) {
+        return dao.findParticipantHubVersionStamp(profileId);
+    }
+
     public List<Enrollee> findAllByShortcodes(List<String> shortcodes) {
         return dao.findAllByShortcodes(shortcodes);
     }
@@ -153,12 +157,35 @@ public class EnrolleeService extends CrudService<Enrollee, EnrolleeDao> {
      * (See loadForAdminView description for performance information)
      */
     public Enrollee loadForParticipantDashboard(Enrollee enrollee) {
-        enrollee.getParticipantTasks().addAll(participantTaskService.findByEnrolleeId(enrollee.getId()));
-        enrollee.getKitRequests().addAll(kitRequestService.findByEnrollee(enrollee));
-        enrollee.setProfile(profileService.loadWithMailingAddress(enrollee.getProfileId()).orElse(null));
+        loadForParticipantDashboard(List.of(enrollee));
         return enrollee;
     }
 
+    /**
+     * Load tasks, profiles, and kit requests for all the given enrollees with one query for each, rather than a set of
+     * queries per enrollee.
+     */
+    public void loadForParticipantDashboard(List<Enrollee> enrollees) {
+        // the same enrollee may be included more than once, e.g. as the target of more than one relation
+        Set<Enrollee> distinctEnrollees = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctEnrollees.addAll(enrollees);
+        if (distinctEnrollees.isEmpty()) {
+            return;
+        }
+        Map<UUID, Enrollee> enrolleesById = new HashMap<>();
+        distinctEnrollees.forEach(enrollee -> enrolleesById.putIfAbsent(enrollee.getId(), enrollee));
+        Map<UUID, List<ParticipantTask>> tasksByEnrolleeId = participantTaskService.findByEnrolleeIds(
+                List.copyOf(enrolleesById.keySet()));
+        Map<UUID, List<KitRequestDto>> kitsByEnrolleeId = kitRequestService.findByEnrollees(enrolleesById.values());
+        Map<UUID, Profile> profilesById = profileService.loadAllWithMailingAddress(
+                enrolleesById.values().stream().map(Enrollee::getProfileId).distinct().toList());
+        for (Enrollee enrollee : distinctEnrollees) {
+            enrollee.getParticipantTasks().addAll(tasksByEnrolleeId.getOrDefault(enrollee.getId(), List.of()));
+            enrollee.getKitRequests().addAll(kitsByEnrolleeId.getOrDefault(enrollee.getId(), List.of()));
+            enrollee.setProfile(profilesById.get(enrollee.getProfileId()));
+        }
+    }
+
     /**
      * Fetches enrollees, loading all details needed for the kit management view -- currently tasks and kits.
      * Reduces database round-trips by fetching entities from each table and performing in-memory joins.
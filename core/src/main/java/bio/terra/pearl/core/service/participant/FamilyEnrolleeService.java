@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -90,6 +91,10 @@ public class FamilyEnrolleeService extends ParticipantDataAuditedService<FamilyE
         return dao.findByEnrolleeId(id);
     }
 
+    public List<FamilyEnrollee> findByEnrolleeIds(Collection<UUID> ids) {
+        return dao.findByEnrolleeIds(ids);
+    }
+
     @Override
     protected ParticipantDataChange makeCreationChangeRecord(FamilyEnrollee obj, DataAuditInfo auditInfo) {
         ParticipantDataChange participantDataChange = super.makeCreationChangeRecord(obj, auditInfo);
@@ -17,9 +17,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class FamilyService extends ParticipantDataAuditedService<Family, FamilyDao> {
@@ -100,6 +100,26 @@ public class FamilyService extends ParticipantDataAuditedService<Family, FamilyD
         return families;
     }
 
+    /**
+     * batch version of findByEnrolleeIdWithProband -- returns a map of enrollee id to the families that enrollee
+     * belongs to.  Enrollees without families are omitted from the map.
+     */
+    public Map<UUID, List<Family>> findByEnrolleeIdsWithProband(Collection<UUID> enrolleeIds) {
+        List<FamilyEnrollee> familyEnrollees = familyEnrolleeService.findByEnrolleeIds(enrolleeIds);
+        Map<UUID, Family> families = dao.findAll(familyEnrollees.stream().map(FamilyEnrollee::getFamilyId).distinct().toList())
+                .stream().collect(Collectors.toMap(Family::getId, Function.identity()));
+        List<UUID> probandIds = families.values().stream()
+                .map(Family::getProbandEnrolleeId).filter(Objects::nonNull).distinct().toList();
+        Map<UUID, Enrollee> probands = enrolleeService.findAll(probandIds)
+                .stream().collect(Collectors.toMap(Enrollee::getId, Function.identity()));
+        families.values().forEach(family -> family.setProband(probands.get(family.getProbandEnrolleeId())));
+
+        return familyEnrollees.stream()
+                .filter(familyEnrollee -> families.containsKey(familyEnrollee.getFamilyId()))
+                .collect(Collectors.groupingBy(FamilyEnrollee::getEnrolleeId,
+                        Collectors.mapping(familyEnrollee -> families.get(familyEnrollee.getFamilyId()), Collectors.toList())));
+    }
+
     public boolean isEnrolleeInFamily(Family family, Enrollee enrollee) {
         List<FamilyEnrollee> existingMembers = familyEnrolleeService.findByFamilyId(family.getId());
         return existingMembers.stream().anyMatch(fe -> fe.getEnrolleeId().equals(enrollee.getId()));
@@ -0,0 +1,203 @@
+package bio.terra.pearl.core.service.participant;
+
+import bio.terra.pearl.core.model.address.MailingAddress;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.EnrolleeRelation;
+import bio.terra.pearl.core.model.participant.PortalParticipantUser;
+import bio.terra.pearl.core.model.participant.Profile;
+import bio.terra.pearl.core.model.participant.RelationshipType;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.cache.VersionedCache;
+import bio.terra.pearl.core.service.kit.KitRequestDto;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Loads what the participant hub shows on login and token refresh: the participant's enrollees, the enrollees they
+ * are a proxy for, those enrollees' tasks, kits and profiles, and the portal participant users of the proxied
+ * enrollees.  Each of these is fetched with a set-based query, so the number of queries doesn't grow with the
+ * number of enrollees or governed users.
+ *
+ * If env.participantHub.cacheEnabled is set, the loaded enrollees and relations are cached for each portal
+ * participant user, with a version stamp covering everything they're loaded from (see
+ * EnrolleeDao.findParticipantHubVersionStamp), which is checked on every load.  A cached hub also expires when the
+ * earliest of its proxy relations ends.  Callers get their own copy of the cached enrollees, profiles, relations,
+ * tasks and kits, so may modify them freely.  The proxied portal participant users are always loaded fresh, since
+ * logins update them.
+ */
+@Service
+public class ParticipantHubLoader {
+    private static final int MAX_CACHED_HUBS = 1000;
+    private final VersionedCache<UUID, CachedHub> cache = new VersionedCache<>(MAX_CACHED_HUBS);
+    private final EnrolleeService enrolleeService;
+    private final EnrolleeRelationService enrolleeRelationService;
+    private final PortalParticipantUserService portalParticipantUserService;
+    private final ProfileService profileService;
+    private final boolean cacheEnabled;
+    private final Clock clock;
+
+    @Autowired
+    public ParticipantHubLoader(EnrolleeService enrolleeService,
+                                EnrolleeRelationService enrolleeRelationService,
+                                PortalParticipantUserService portalParticipantUserService,
+                                ProfileService profileService,
+                                Environment env) {
+        this(enrolleeService, enrolleeRelationService, portalParticipantUserService, profileService,
+                env.getProperty("env.participantHub.cacheEnabled", Boolean.class, false), Clock.systemUTC());
+    }
+
+    public ParticipantHubLoader(EnrolleeService enrolleeService,
+                                EnrolleeRelationService enrolleeRelationService,
+                                PortalParticipantUserService portalParticipantUserService,
+                                ProfileService profileService,
+                                boolean cacheEnabled,
+                                Clock clock) {
+        this.enrolleeService = enrolleeService;
+        this.enrolleeRelationService = enrolleeRelationService;
+        this.portalParticipantUserService = portalParticipantUserService;
+        this.profileService = profileService;
+        this.cacheEnabled = cacheEnabled;
+        this.clock = clock;
+    }
+
+    public ParticipantHub load(PortalParticipantUser ppUser) {
+        CachedHub hub = cacheEnabled ? copy(loadCached(ppUser)) : loadEnrollees(ppUser);
+        return new ParticipantHub(
+                hub.profile(),
+                new ArrayList<>(hub.enrollees()),
+                new ArrayList<>(hub.proxyRelations()),
+                findProxiedPpUsers(ppUser, hub.enrollees()));
+    }
+
+    private CachedHub loadCached(PortalParticipantUser ppUser) {
+        String versionStamp = enrolleeService.findParticipantHubVersionStamp(ppUser.getProfileId());
+        return cache.get(ppUser.getId(), versionStamp,
+                cached -> clock.instant().isBefore(cached.validUntil()), () -> loadEnrollees(ppUser));
+    }
+
+    private CachedHub loadEnrollees(PortalParticipantUser ppUser) {
+        List<Enrollee> enrollees = enrolleeService.findByPortalParticipantUser(ppUser);
+        List<EnrolleeRelation> proxyRelations = new ArrayList<>();
+        if (!enrollees.isEmpty()) {
+            proxyRelations = enrolleeRelationService.findByEnrolleeIdsAndRelationType(
+                    enrollees.stream().map(Enrollee::getId).toList(), RelationshipType.PROXY);
+            enrolleeRelationService.attachTargetEnrollees(proxyRelations);
+            enrollees.addAll(proxyRelations.stream().map(EnrolleeRelation::getTargetEnrollee).toList());
+        }
+        enrolleeService.loadForParticipantDashboard(enrollees);
+
+        Profile profile = enrollees.stream()
+                .map(Enrollee::getProfile)
+                .filter(enrolleeProfile -> enrolleeProfile != null && enrolleeProfile.getId().equals(ppUser.getProfileId()))
+                .findFirst()
+                .orElseGet(() -> profileService.loadProfile(ppUser));
+
+        // relations are only valid until their end date, so a cached hub can't be used past the earliest one
+        Instant validUntil = proxyRelations.stream()
+                .map(EnrolleeRelation::getEndDate)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(Instant.MAX);
+        return new CachedHub(validUntil, profile, List.copyOf(enrollees), List.copyOf(proxyRelations));
+    }
+
+    /** the portal participant users of the other profiles among the enrollees, in the order of the enrollees */
+    private List<PortalParticipantUser> findProxiedPpUsers(PortalParticipantUser ppUser, List<Enrollee> enrollees) {
+        Set<UUID> proxiedProfileIds = new LinkedHashSet<>();
+        for (Enrollee enrollee : enrollees) {
+            if (!enrollee.getProfileId().equals(ppUser.getProfileId())) {
+                proxiedProfileIds.add(enrollee.getProfileId());
+            }
+        }
+        if (proxiedProfileIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, PortalParticipantUser> ppUsersByProfileId = portalParticipantUserService
+                .findByProfileIds(List.copyOf(proxiedProfileIds)).stream()
+                .collect(Collectors.toMap(PortalParticipantUser::getProfileId, Function.identity(), (a, b) -> a));
+        return proxiedProfileIds.stream()
+                .map(ppUsersByProfileId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * copies the hub's enrollees, along with their profiles, tasks and kits, and its relations, which target the
+     * copied enrollees.  Only the properties the hub is loaded with are copied.
+     */
+    private static CachedHub copy(CachedHub hub) {
+        Map<Enrollee, Enrollee> enrolleeCopies = new IdentityHashMap<>();
+        List<Enrollee> enrollees = hub.enrollees().stream()
+                .map(enrollee -> enrolleeCopies.computeIfAbsent(enrollee, ParticipantHubLoader::copy))
+                .toList();
+        List<EnrolleeRelation> proxyRelations = hub.proxyRelations().stream().map(relation -> {
+            EnrolleeRelation relationCopy = copy(relation, EnrolleeRelation::new, "targetEnrollee", "enrollee", "family");
+            relationCopy.setTargetEnrollee(
+                    enrolleeCopies.computeIfAbsent(relation.getTargetEnrollee(), ParticipantHubLoader::copy));
+            return relationCopy;
+        }).toList();
+        return new CachedHub(hub.validUntil(), copy(hub.profile()), enrollees, proxyRelations);
+    }
+
+    private static Enrollee copy(Enrollee enrollee) {
+        // the lists the hub doesn't load are left as the copy's own empty lists
+        Enrollee enrolleeCopy = copy(enrollee, Enrollee::new, "profile", "participantTasks", "kitRequests",
+                "familyEnrollees", "surveyResponses", "participantNotes", "relations", "files");
+        enrolleeCopy.setProfile(copy(enrollee.getProfile()));
+        enrolleeCopy.setParticipantTasks(enrollee.getParticipantTasks().stream()
+                .map(task -> copy(task, ParticipantTask::new))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        enrolleeCopy.setKitRequests(enrollee.getKitRequests().stream()
+                .map(kit -> copy(kit, KitRequestDto::new))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return enrolleeCopy;
+    }
+
+    private static Profile copy(Profile profile) {
+        if (profile == null) {
+            return null;
+        }
+        Profile profileCopy = copy(profile, Profile::new, "mailingAddress");
+        if (profile.getMailingAddress() != null) {
+            profileCopy.setMailingAddress(copy(profile.getMailingAddress(), MailingAddress::new));
+        }
+        return profileCopy;
+    }
+
+    private static <T> T copy(T source, Supplier<T> constructor, String... ignoreProperties) {
+        T target = constructor.get();
+        BeanUtils.copyProperties(source, target, ignoreProperties);
+        return target;
+    }
+
+    /**
+     * enrollees includes the enrollees the participant is a proxy for, as well as their own.  proxiedPpUsers doesn't
+     * include the participant's own portal participant user.
+     */
+    public record ParticipantHub(Profile profile,
+                                 List<Enrollee> enrollees,
+                                 List<EnrolleeRelation> proxyRelations,
+                                 List<PortalParticipantUser> proxiedPpUsers) { }
+
+    private record CachedHub(Instant validUntil,
+                             Profile profile,
+                             List<Enrollee> enrollees,
+                             List<EnrolleeRelation> proxyRelations) { }
+}
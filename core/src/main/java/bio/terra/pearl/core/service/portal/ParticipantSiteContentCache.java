@@ -0,0 +1,123 @@
+package bio.terra.pearl.core.service.portal;
+
+import bio.terra.pearl.core.dao.portal.PortalDao;
+import bio.terra.pearl.core.model.EnvironmentName;
+import bio.terra.pearl.core.model.portal.Portal;
+import bio.terra.pearl.core.service.cache.VersionedCache;
+import bio.terra.pearl.core.service.cache.TransactionalEviction;
+import bio.terra.pearl.core.service.exception.internal.InternalServerException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the participant site (the portal with its environment's site content and the studies' preregistration
+ * content), already serialized to JSON, for each portal shortcode or hostname, environment and language.  The content
+ * only changes when an admin edits the sandbox or publishes, but is requested on every participant site load.
+ *
+ * Each entry is stored with a version stamp covering everything the site is loaded from (see
+ * PortalDao.findParticipantSiteContentVersionStamp).  The stamp is rechecked at most every
+ * env.siteContentCache.revalidateSeconds (default 5), so content changed by another process (such as publishing
+ * from the admin API) is picked up within that interval, while a site loaded more often than that is served without
+ * any queries.  Changes made through the portal services evict entries directly, both immediately and again once the
+ * transaction completes.  Nothing is cached while a transaction is active.
+ *
+ * Each entry also has a strong ETag, a hash of its JSON, so clients can revalidate without the content being
+ * serialized or sent again.
+ */
+@Component
+public class ParticipantSiteContentCache {
+    private static final int MAX_CACHED_SITES = 1000;
+    private final VersionedCache<CacheKey, CachedSite> cache = new VersionedCache<>(MAX_CACHED_SITES);
+    private final PortalDao portalDao;
+    private final ObjectMapper objectMapper;
+    private final Duration revalidateInterval;
+    private final Clock clock;
+
+    @Autowired
+    public ParticipantSiteContentCache(PortalDao portalDao, ObjectMapper objectMapper, Environment env) {
+        this(portalDao, objectMapper,
+                Duration.ofSeconds(env.getProperty("env.siteContentCache.revalidateSeconds", Long.class, 5L)),
+                Clock.systemUTC());
+    }
+
+    public ParticipantSiteContentCache(PortalDao portalDao, ObjectMapper objectMapper, Duration revalidateInterval,
+                                       Clock clock) {
+        this.portalDao = portalDao;
+        this.objectMapper = objectMapper;
+        this.revalidateInterval = revalidateInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * returns the serialized site, loading it if it is missing or out of date.  portalFinder finds the portal by
+     * shortcode or hostname, and contentLoader attaches the site content to it.  Empty if the portal doesn't exist.
+     */
+    public Optional<ParticipantSiteContent> get(String shortcodeOrHostname, EnvironmentName environmentName,
+                                                String language, Supplier<Optional<Portal>> portalFinder,
+                                                UnaryOperator<Portal> contentLoader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return portalFinder.get().map(portal -> serialize(contentLoader.apply(portal)));
+        }
+        CacheKey key = new CacheKey(shortcodeOrHostname, environmentName, language);
+        Instant now = clock.instant();
+        VersionedCache.Versioned<CachedSite> versioned = cache.getVersioned(key);
+        if (versioned != null) {
+            CachedSite cached = versioned.value();
+            if (now.isBefore(cached.checkedAt().plus(revalidateInterval))) {
+                return Optional.of(cached.content());
+            }
+            String versionStamp = portalDao.findParticipantSiteContentVersionStamp(cached.portalId(), environmentName);
+            if (versioned.versionStamp().equals(versionStamp)) {
+                cache.put(key, versionStamp, new CachedSite(cached.portalId(), now, cached.content()));
+                return Optional.of(cached.content());
+            }
+        }
+        Optional<Portal> portalOpt = portalFinder.get();
+        if (portalOpt.isEmpty()) {
+            // misses aren't cached, so that new portals are found as soon as they're created
+            cache.remove(key);
+            return Optional.empty();
+        }
+        Portal portal = portalOpt.get();
+        String versionStamp = portalDao.findParticipantSiteContentVersionStamp(portal.getId(), environmentName);
+        CachedSite loaded = cache.load(key, versionStamp,
+                () -> new CachedSite(portal.getId(), now, serialize(contentLoader.apply(portal))));
+        return Optional.of(loaded.content());
+    }
+
+    public void evictPortal(UUID portalId) {
+        TransactionalEviction.evict(() -> cache.removeIf((key, cached) -> cached.portalId().equals(portalId)));
+    }
+
+    private ParticipantSiteContent serialize(Portal portal) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(portal);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new ParticipantSiteContent("\"" + HexFormat.of().formatHex(hash) + "\"", json);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new InternalServerException("Error serializing participant site content", e);
+        }
+    }
+
+    /** the site serialized to JSON, with its ETag (including quotes).  The json is shared, so must not be modified. */
+    public record ParticipantSiteContent(String eTag, byte[] json) { }
+
+    private record CacheKey(String shortcodeOrHostname, EnvironmentName environmentName, String language) { }
+
+    private record CachedSite(UUID portalId, Instant checkedAt, ParticipantSiteContent content) { }
+}
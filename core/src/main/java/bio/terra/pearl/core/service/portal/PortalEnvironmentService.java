@@ -42,6 +42,7 @@ public class PortalEnvironmentService extends CrudService<PortalEnvironment, Por
     private SurveyService surveyService;
     private PortalDashboardConfigService portalDashboardConfigService;
     private PortalEnvironmentLanguageService portalEnvironmentLanguageService;
+    private ParticipantSiteContentCache participantSiteContentCache;
 
     public PortalEnvironmentService(PortalEnvironmentDao portalEnvironmentDao,
                                     PortalEnvironmentConfigService portalEnvironmentConfigService,
@@ -54,7 +55,8 @@ public class PortalEnvironmentService extends CrudService<PortalEnvironment, Por
                                     ParticipantDataChangeService participantDataChangeService,
                                     PortalDashboardConfigService portalDashboardConfigService,
                                     SurveyService surveyService,
-                                    PortalEnvironmentLanguageService portalEnvironmentLanguageService) {
+                                    PortalEnvironmentLanguageService portalEnvironmentLanguageService,
+                                    ParticipantSiteContentCache participantSiteContentCache) {
         super(portalEnvironmentDao);
         this.portalEnvironmentConfigService = portalEnvironmentConfigService;
         this.portalParticipantUserService = portalParticipantUserService;
@@ -67,6 +69,7 @@ public class PortalEnvironmentService extends CrudService<PortalEnvironment, Por
         this.surveyService = surveyService;
         this.portalDashboardConfigService = portalDashboardConfigService;
         this.portalEnvironmentLanguageService = portalEnvironmentLanguageService;
+        this.participantSiteContentCache = participantSiteContentCache;
     }
 
     public List<PortalEnvironment> findByPortal(UUID portalId) {
@@ -108,6 +111,15 @@ public class PortalEnvironmentService extends CrudService<PortalEnvironment, Por
         return newEnv;
     }
 
+    /** updates the environment, e.g. to switch its site content or preregistration survey */
+    @Transactional
+    @Override
+    public PortalEnvironment update(PortalEnvironment portalEnvironment) {
+        PortalEnvironment updatedEnv = super.update(portalEnvironment);
+        participantSiteContentCache.evictPortal(updatedEnv.getPortalId());
+        return updatedEnv;
+    }
+
     /** gets all configuration content for the environment. */
     public PortalEnvironment attachAllContent(PortalEnvironment portalEnv) {
         if (portalEnv.getPortalEnvironmentConfigId() != null) {
@@ -10,10 +10,12 @@ import bio.terra.pearl.core.model.study.PortalStudy;
 import bio.terra.pearl.core.model.study.Study;
 import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
+import bio.terra.pearl.core.service.admin.AdminAuthCache;
 import bio.terra.pearl.core.service.admin.AdminDataChangeService;
 import bio.terra.pearl.core.service.admin.PortalAdminUserService;
 import bio.terra.pearl.core.service.i18n.LanguageTextService;
 import bio.terra.pearl.core.service.notification.email.EmailTemplateService;
+import bio.terra.pearl.core.service.portal.ParticipantSiteContentCache.ParticipantSiteContent;
 import bio.terra.pearl.core.service.publishing.PortalEnvironmentChangeRecordService;
 import bio.terra.pearl.core.service.site.SiteContentService;
 import bio.terra.pearl.core.service.site.SiteMediaService;
@@ -42,6 +44,8 @@ public class PortalService extends CrudService<Portal, PortalDao> {
     private final LanguageTextService languageTextService;
     private final PortalEnvironmentChangeRecordService portalEnvironmentChangeRecordService;
     private final AdminDataChangeService adminDataChangeService;
+    private final AdminAuthCache adminAuthCache;
+    private final ParticipantSiteContentCache participantSiteContentCache;
 
     public PortalService(PortalDao portalDao, PortalStudyService portalStudyService,
                          PortalAdminUserService portalAdminUserService, StudyService studyService,
@@ -49,7 +53,8 @@ public class PortalService extends CrudService<Portal, PortalDao> {
                          SurveyService surveyService, SiteContentService siteContentService,
                          EmailTemplateService emailTemplateService,
                          SiteMediaService siteMediaService, LanguageTextService languageTextService,
-                         PortalEnvironmentChangeRecordService portalEnvironmentChangeRecordService, AdminDataChangeService adminDataChangeService) {
+                         PortalEnvironmentChangeRecordService portalEnvironmentChangeRecordService, AdminDataChangeService adminDataChangeService,
+                         AdminAuthCache adminAuthCache, ParticipantSiteContentCache participantSiteContentCache) {
         super(portalDao);
         this.portalStudyService = portalStudyService;
         this.portalAdminUserService = portalAdminUserService;
@@ -62,6 +67,8 @@ public class PortalService extends CrudService<Portal, PortalDao> {
         this.languageTextService = languageTextService;
         this.portalEnvironmentChangeRecordService = portalEnvironmentChangeRecordService;
         this.adminDataChangeService = adminDataChangeService;
+        this.adminAuthCache = adminAuthCache;
+        this.participantSiteContentCache = participantSiteContentCache;
     }
 
     @Transactional
@@ -103,6 +110,17 @@ public class PortalService extends CrudService<Portal, PortalDao> {
         portalAdminUserService.deleteByPortalId(portalId, auditInfo);
         adminDataChangeService.deleteByPortalId(portalId);
         dao.delete(portalId);
+        adminAuthCache.evictPortal(portalId);
+        participantSiteContentCache.evictPortal(portalId);
+    }
+
+    @Transactional
+    @Override
+    public Portal update(Portal portal) {
+        Portal updatedPortal = super.update(portal);
+        adminAuthCache.evictPortal(portal.getId());
+        participantSiteContentCache.evictPortal(portal.getId());
+        return updatedPortal;
     }
 
     public Optional<Portal> findOneByShortcode(String shortcode) {
@@ -122,20 +140,36 @@ public class PortalService extends CrudService<Portal, PortalDao> {
             EnvironmentName environmentName,
             String language) {
         Optional<Portal> portalOpt = dao.findOneByShortcodeOrHostname(shortcodeOrHostname);
-        portalOpt.ifPresent(portal -> {
-            Optional<PortalEnvironment> portalEnv = portalEnvironmentService
-                    .loadWithParticipantSiteContent(portal.getShortcode(), environmentName, language);
-            portal.getPortalEnvironments().add(portalEnv.get());
-            List<Study> studies = studyService.findWithPreregContent(portal.getShortcode(), environmentName);
-            for (Study study : studies) {
-                portal.getPortalStudies().add(
-                        PortalStudy.builder().study(study).build()
-                );
-            }
-        });
+        portalOpt.ifPresent(portal -> attachParticipantSiteContent(portal, environmentName, language));
         return portalOpt;
     }
 
+    /**
+     * the participant-facing site, as loaded by loadWithParticipantSiteContent, serialized to JSON.  Served from
+     * ParticipantSiteContentCache while the content is unchanged.
+     */
+    public Optional<ParticipantSiteContent> findParticipantSiteContent(
+            String shortcodeOrHostname,
+            EnvironmentName environmentName,
+            String language) {
+        return participantSiteContentCache.get(shortcodeOrHostname, environmentName, language,
+                () -> dao.findOneByShortcodeOrHostname(shortcodeOrHostname),
+                portal -> attachParticipantSiteContent(portal, environmentName, language));
+    }
+
+    private Portal attachParticipantSiteContent(Portal portal, EnvironmentName environmentName, String language) {
+        Optional<PortalEnvironment> portalEnv = portalEnvironmentService
+                .loadWithParticipantSiteContent(portal.getShortcode(), environmentName, language);
+        portal.getPortalEnvironments().add(portalEnv.get());
+        List<Study> studies = studyService.findWithPreregContent(portal.getShortcode(), environmentName);
+        for (Study study : studies) {
+            portal.getPortalStudies().add(
+                    PortalStudy.builder().study(study).build()
+            );
+        }
+        return portal;
+    }
+
     public List<Portal> findByAdminUser(AdminUser user) {
         if (user.isSuperuser()) {
             return dao.findAll();
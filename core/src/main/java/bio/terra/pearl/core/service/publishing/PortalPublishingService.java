@@ -12,6 +12,7 @@ import bio.terra.pearl.core.model.study.Study;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.service.exception.internal.InternalServerException;
 import bio.terra.pearl.core.service.portal.PortalDashboardConfigService;
+import bio.terra.pearl.core.service.portal.ParticipantSiteContentCache;
 import bio.terra.pearl.core.service.portal.PortalEnvironmentService;
 import bio.terra.pearl.core.service.study.StudyEnvironmentService;
 import bio.terra.pearl.core.service.study.StudyService;
@@ -35,6 +36,7 @@ public class PortalPublishingService {
     private final List<PortalEnvPublishable> portalEnvPublishables;
     private final List<StudyEnvPublishable> studyEnvPublishables;
     private final ObjectMapper objectMapper;
+    private final ParticipantSiteContentCache participantSiteContentCache;
 
 
     public PortalPublishingService(StudyService studyService, PortalEnvironmentService portalEnvService, PortalEnvironmentChangeRecordDao portalEnvironmentChangeRecordDao,
@@ -42,7 +44,8 @@ public class PortalPublishingService {
                                    StudyEnvironmentService studyEnvironmentService,
                                    List<PortalEnvPublishable> portalEnvPublishables,
                                    List<StudyEnvPublishable> studyEnvPublishables,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   ParticipantSiteContentCache participantSiteContentCache) {
         this.studyService = studyService;
         this.portalEnvService = portalEnvService;
         this.portalEnvironmentChangeRecordDao = portalEnvironmentChangeRecordDao;
@@ -51,6 +54,7 @@ public class PortalPublishingService {
         this.portalEnvPublishables = portalEnvPublishables;
         this.studyEnvPublishables = studyEnvPublishables;
         this.objectMapper = objectMapper;
+        this.participantSiteContentCache = participantSiteContentCache;
     }
 
 
@@ -127,6 +131,7 @@ public class PortalPublishingService {
         } catch (Exception e) {
             throw new InternalServerException("error writing publish audit log", e);
         }
+        participantSiteContentCache.evictPortal(destEnv.getPortalId());
         return destEnv;
     }
 
@@ -0,0 +1,119 @@
+package bio.terra.pearl.core.service.rule;
+
+import bio.terra.pearl.core.antlr.CohortRuleLexer;
+import bio.terra.pearl.core.antlr.CohortRuleParser;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A rule parsed into a tree of evaluators, so that it can be evaluated against any number of enrollees without
+ * parsing it again.  Literal values are converted, and the getters for variables resolved, when the rule is compiled.
+ * Compiled rules hold no per-evaluation state, so are safe to share across threads.
+ */
+public class CompiledEnrolleeRule {
+    private final String rule;
+    private final Condition condition;
+
+    private CompiledEnrolleeRule(String rule, Condition condition) {
+        this.rule = rule;
+        this.condition = condition;
+    }
+
+    public static CompiledEnrolleeRule compile(String rule) throws RuleParsingException {
+        if (StringUtils.isBlank(rule)) {
+            // the default rule is that the action is applied if the enrollee is a subject
+            return new CompiledEnrolleeRule(rule, ruleData -> ruleData.getEnrollee().isSubject());
+        }
+        CohortRuleLexer lexer = new CohortRuleLexer(CharStreams.fromString(rule));
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        CohortRuleParser parser = new CohortRuleParser(tokens);
+        return new CompiledEnrolleeRule(rule, compileExpression(parser.expr()));
+    }
+
+    public boolean evaluate(EnrolleeContext ruleData) {
+        return condition.evaluate(ruleData);
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    private static Condition compileExpression(CohortRuleParser.ExprContext ctx) throws RuleParsingException {
+        if (ctx.expr().size() > 1) {
+            Condition left = compileExpression(ctx.expr(0));
+            Condition right = compileExpression(ctx.expr(1));
+            if (ctx.AND() != null) {
+                return ruleData -> left.evaluate(ruleData) && right.evaluate(ruleData);
+            } else if (ctx.OR() != null) {
+                return ruleData -> left.evaluate(ruleData) || right.evaluate(ruleData);
+            } else {
+                throw new RuleParsingException("Unknown joiner");
+            }
+        }
+        if (ctx.OPERATOR() == null || ctx.term().size() != 2) {
+            throw new RuleParsingException("Unsupported expression: %s".formatted(ctx.getText()));
+        }
+        Operand left = compileTerm(ctx.term(0));
+        Operand right = compileTerm(ctx.term(1));
+        String operator = ctx.OPERATOR().getText();
+        return switch (operator) {
+            case "=" -> ruleData -> Objects.equals(left.value(ruleData), right.value(ruleData));
+            case "!=" -> ruleData -> !Objects.equals(left.value(ruleData), right.value(ruleData));
+            default -> throw new RuleParsingException("Unknown operator %s".formatted(operator));
+        };
+    }
+
+    private static Operand compileTerm(CohortRuleParser.TermContext ctx) throws RuleParsingException {
+        if (ctx.BOOLEAN() != null) {
+            Boolean value = Boolean.parseBoolean(ctx.BOOLEAN().getText());
+            return ruleData -> value;
+        } else if (ctx.STRING() != null) {
+            String rawString = ctx.STRING().getText();
+            // trim off quotes and any whitespace immediately inside the quotes
+            String value = rawString.substring(1, rawString.length() - 1).trim();
+            return ruleData -> value;
+        } else if (ctx.NUMBER() != null) {
+            Double value = Double.parseDouble(ctx.NUMBER().getText());
+            return ruleData -> value;
+        } else if (ctx.VARIABLE() != null) {
+            String rawString = ctx.VARIABLE().getText();
+            // trim off brackets and any whitespace immediately inside the brackets
+            String variableName = rawString.substring(1, rawString.length() - 1).trim();
+            PropertyAccessor accessor = PropertyAccessor.of(EnrolleeContext.class, variableName);
+            return ruleData -> readVariable(accessor, ruleData);
+        } else if (ctx.NULL() != null) {
+            return ruleData -> null;
+        }
+        throw new RuleParsingException("Unknown term type");
+    }
+
+    private static Object readVariable(PropertyAccessor accessor, EnrolleeContext ruleData) {
+        try {
+            Object value = accessor.get(ruleData);
+            if (value instanceof Integer || value instanceof Float || value instanceof BigInteger || value instanceof BigDecimal) {
+                // cast all numbers to Doubles for comparison -- this assumes that this
+                // framework will never be used for anything that requires more precision
+                return ((Number) value).doubleValue();
+            }
+            return value;
+        } catch (Exception e) {
+            // if the property doesn't exist, return null
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean evaluate(EnrolleeContext ruleData);
+    }
+
+    @FunctionalInterface
+    private interface Operand {
+        Object value(EnrolleeContext ruleData);
+    }
+}
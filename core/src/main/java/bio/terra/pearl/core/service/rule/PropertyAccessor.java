@@ -0,0 +1,94 @@
+package bio.terra.pearl.core.service.rule;
+
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a nested property path (e.g. "mailingAddress.country") from an object.  The getters are looked up once,
+ * against the declared types, when the accessor is created, rather than on every read as
+ * PropertyUtils.getNestedProperty does.  Paths that can't be resolved up front (e.g. properties only present on a
+ * runtime subclass) fall back to PropertyUtils.
+ *
+ * Accessors are immutable and safe to share across threads.
+ */
+public class PropertyAccessor {
+    private final String path;
+    /** the getter for each path segment, or null if the path is resolved dynamically */
+    private final Method[] getters;
+
+    private PropertyAccessor(String path, Method[] getters) {
+        this.path = path;
+        this.getters = getters;
+    }
+
+    public static PropertyAccessor of(Class<?> rootClass, String path) {
+        return new PropertyAccessor(path, resolveGetters(rootClass, path));
+    }
+
+    /**
+     * returns the property value, or null if any object along the path is null.
+     * throws if the property doesn't exist or can't be read
+     */
+    public Object get(Object root) throws ReflectiveOperationException {
+        if (getters == null) {
+            return getDynamic(root);
+        }
+        Object value = root;
+        for (Method getter : getters) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = getter.invoke(value);
+            } catch (IllegalArgumentException e) {
+                // the object isn't of the type the accessor was resolved against
+                return getDynamic(root);
+            }
+        }
+        return value;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    private Object getDynamic(Object root) throws ReflectiveOperationException {
+        if (root == null) {
+            return null;
+        }
+        try {
+            return PropertyUtils.getNestedProperty(root, path);
+        } catch (NestedNullException e) {
+            return null;
+        } catch (RuntimeException e) {
+            throw new NoSuchMethodException("Cannot read property %s: %s".formatted(path, e.getMessage()));
+        }
+    }
+
+    private static Method[] resolveGetters(Class<?> rootClass, String path) {
+        if (path.contains("[") || path.contains("(")) {
+            // indexed and mapped properties are left to PropertyUtils
+            return null;
+        }
+        List<Method> getters = new ArrayList<>();
+        Class<?> currentClass = rootClass;
+        for (String segment : path.split("\\.")) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(currentClass, segment);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                return null;
+            }
+            Method getter = descriptor.getReadMethod();
+            ReflectionUtils.makeAccessible(getter);
+            getters.add(getter);
+            currentClass = getter.getReturnType();
+        }
+        return getters.toArray(new Method[0]);
+    }
+}
@@ -1,13 +1,20 @@
 package bio.terra.pearl.core.service.search;
 
+import bio.terra.pearl.core.model.kit.KitRequest;
 import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.Family;
 import bio.terra.pearl.core.model.participant.Profile;
-import lombok.AllArgsConstructor;
+import bio.terra.pearl.core.model.survey.Answer;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Context for evaluating a search expression on an enrollee.
  */
@@ -15,8 +22,22 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class EnrolleeSearchContext {
     private Enrollee enrollee;
     private Profile profile; // must have mailing address attached
+
+    /**
+     * Data bulk loaded for a batch of enrollees by {@link EnrolleeSearchExpression#prefetch}, so that terms can be
+     * extracted without querying per enrollee.  Each is null if it wasn't prefetched, in which case terms load the
+     * data themselves.
+     */
+    private Map<String, Optional<Answer>> prefetchedAnswers; // keyed by AnswerTerm.prefetchKey()
+    private List<ParticipantTask> prefetchedTasks;
+    private List<KitRequest> prefetchedKitRequests;
+    private List<Family> prefetchedFamilies;
+
+    public EnrolleeSearchContext(Enrollee enrollee, Profile profile) {
+        this.enrollee = enrollee;
+        this.profile = profile;
+    }
 }
@@ -0,0 +1,40 @@
+package bio.terra.pearl.core.service.search;
+
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.service.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A keyset position in a search ordered by (enrollee.created_at, enrollee.id).  Paging with a cursor rather than an
+ * offset means each page is read straight from where the last one ended, so deep pages cost the same as the first.
+ *
+ * Cursors are passed to clients as opaque strings, see encode() and decode().
+ */
+public record EnrolleeSearchCursor(Instant createdAt, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public static EnrolleeSearchCursor of(Enrollee enrollee) {
+        return new EnrolleeSearchCursor(enrollee.getCreatedAt(), enrollee.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id.toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EnrolleeSearchCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new EnrolleeSearchCursor(
+                    Instant.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid search cursor: " + encoded);
+        }
+    }
+}
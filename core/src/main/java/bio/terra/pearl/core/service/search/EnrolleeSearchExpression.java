@@ -22,6 +22,12 @@ public interface EnrolleeSearchExpression {
 
     boolean evaluate(EnrolleeSearchContext enrollee);
 
+    /**
+     * Bulk loads any data the expression's terms need for evaluate() onto the given contexts.  Call this before
+     * evaluating a batch of enrollees so that evaluation runs in memory, rather than querying per enrollee and term.
+     */
+    default void prefetch(List<EnrolleeSearchContext> enrollees) {}
+
     EnrolleeSearchQueryBuilder generateQueryBuilder(UUID studyEnvId);
 
     default Query generateQuery(UUID studyEnvId) {
@@ -6,6 +6,7 @@ import bio.terra.pearl.core.dao.participant.EnrolleeDao;
 import bio.terra.pearl.core.dao.participant.ProfileDao;
 import bio.terra.pearl.core.model.export.ExportOptions;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.cache.BoundedCache;
 import bio.terra.pearl.core.service.export.ExportOptionsWithExpression;
 import bio.terra.pearl.core.service.rule.RuleParsingErrorListener;
 import bio.terra.pearl.core.service.rule.RuleParsingException;
@@ -29,6 +30,7 @@ import org.springframework.stereotype.Component;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -37,10 +39,14 @@ import java.util.UUID;
  */
 @Component
 public class EnrolleeSearchExpressionParser {
+    /** the most rules that will be held in the parsed rule cache before it is cleared */
+    private static final int MAX_CACHED_RULES = 1000;
     private final EnrolleeDao enrolleeDao;
     private final ProfileDao profileDao;
 
     private final List<SearchTermParser> searchTermParsers;
+    private final BoundedCache<String, EnrolleeSearchExpression> parsedRuleCache =
+            new BoundedCache<>(MAX_CACHED_RULES);
 
     public EnrolleeSearchExpressionParser(EnrolleeDao enrolleeDao,
                                           ProfileDao profileDao,
@@ -83,6 +89,22 @@ public class EnrolleeSearchExpressionParser {
 
     }
 
+    /**
+     * Same as parseRule, but reuses the expression if the rule has been parsed before.  Parsed expressions are
+     * immutable, so a cached one can be safely evaluated from any thread.  Use this for rules that are evaluated
+     * repeatedly in memory, such as task eligibility rules, which are checked on every participant action.
+     */
+    public EnrolleeSearchExpression parseRuleCached(String rule) throws RuleParsingException {
+        String cacheKey = Objects.requireNonNullElse(rule, "");
+        EnrolleeSearchExpression cached = parsedRuleCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        EnrolleeSearchExpression expression = parseRule(rule);
+        parsedRuleCache.put(cacheKey, expression);
+        return expression;
+    }
+
     private EnrolleeSearchExpression parseExpression(CohortRuleParser.ExprContext ctx) {
         if (ctx.NOT() != null) {
             if (!ctx.expr().isEmpty()) {
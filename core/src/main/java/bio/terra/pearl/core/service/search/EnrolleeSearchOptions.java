@@ -4,14 +4,30 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+import java.time.Instant;
+
 @SuperBuilder
 @Getter
 @Setter
 public class EnrolleeSearchOptions {
+    public static final String CURSOR_SORT_FIELD = "enrollee.created_at";
+
     // be careful; potential sql injection, only use trusted values
     private String sortField;
     private boolean sortAscending;
 
     // limit number of results
     private Integer limit;
+
+    // number of results to skip.  the skipped rows are still read by the database, so prefer a cursor for deep pages
+    private Integer offset;
+
+    /**
+     * if set, only results after this position in (enrollee.created_at, enrollee.id) order are returned.  The sort
+     * direction is given by sortAscending, and sortField must be empty or enrollee.created_at
+     */
+    private EnrolleeSearchCursor after;
+
+    /** if set, only enrollees whose data changed after this time are returned, for incremental exports */
+    private Instant changedSince;
 }
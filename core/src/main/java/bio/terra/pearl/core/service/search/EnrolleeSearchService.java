@@ -2,6 +2,7 @@ package bio.terra.pearl.core.service.search;
 
 import bio.terra.pearl.core.dao.search.EnrolleeSearchExpressionDao;
 import bio.terra.pearl.core.model.search.EnrolleeSearchExpressionResult;
+import bio.terra.pearl.core.model.search.EnrolleeSearchResultPage;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
 import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
 import org.postgresql.util.PSQLException;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class EnrolleeSearchService {
@@ -30,12 +32,39 @@ public class EnrolleeSearchService {
     }
 
     public List<EnrolleeSearchExpressionResult> executeSearchExpression(UUID studyEnvId, String expression, EnrolleeSearchOptions opts) {
+        return withSearchErrorHandling(() -> enrolleeSearchExpressionDao.executeSearch(
+                enrolleeSearchExpressionParser.parseRule(expression),
+                studyEnvId,
+                opts
+        ));
+    }
+
+    /**
+     * returns a single page of results.  If opts has a limit and the results are in cursor order (sorted by
+     * enrollee.created_at, or already paging by cursor), the page includes a cursor that can be passed back as
+     * opts.after to get the next page.  Since the count has to read every matching enrollee, it is only run if
+     * includeCount is true, so clients can request it once rather than with every page.
+     */
+    public EnrolleeSearchResultPage executeSearchExpressionPage(UUID studyEnvId, String expression, EnrolleeSearchOptions opts,
+                                                                boolean includeCount) {
+        return withSearchErrorHandling(() -> {
+            EnrolleeSearchExpression searchExpression = enrolleeSearchExpressionParser.parseRule(expression);
+            List<EnrolleeSearchExpressionResult> results = enrolleeSearchExpressionDao.executeSearch(searchExpression, studyEnvId, opts);
+            String nextCursor = null;
+            boolean cursorOrdered = Objects.nonNull(opts.getAfter()) || EnrolleeSearchOptions.CURSOR_SORT_FIELD.equals(opts.getSortField());
+            // in cursor order the limit counts enrollees (see EnrolleeSearchQueryBuilder.toQuery), and the results have
+            // one per enrollee, so a short page is the last one
+            if (cursorOrdered && Objects.nonNull(opts.getLimit()) && !results.isEmpty() && results.size() >= opts.getLimit()) {
+                nextCursor = EnrolleeSearchCursor.of(results.get(results.size() - 1).getEnrollee()).encode();
+            }
+            Long totalCount = includeCount ? enrolleeSearchExpressionDao.countSearch(searchExpression, studyEnvId) : null;
+            return new EnrolleeSearchResultPage(results, nextCursor, totalCount);
+        });
+    }
+
+    private <T> T withSearchErrorHandling(Supplier<T> search) {
         try {
-            return enrolleeSearchExpressionDao.executeSearch(
-                    enrolleeSearchExpressionParser.parseRule(expression),
-                    studyEnvId,
-                    opts
-            );
+            return search.get();
         } catch (UnableToExecuteStatementException e) {
             String message = e.getShortMessage();
 
@@ -5,6 +5,7 @@ import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Operator;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -30,6 +31,12 @@ public class BooleanSearchExpression implements EnrolleeSearchExpression {
         };
     }
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        left.prefetch(enrollees);
+        right.prefetch(enrollees);
+    }
+
     @Override
     public EnrolleeSearchQueryBuilder generateQueryBuilder(UUID studyEnvId) {
         EnrolleeSearchQueryBuilder leftSQL = left.generateQueryBuilder(studyEnvId);
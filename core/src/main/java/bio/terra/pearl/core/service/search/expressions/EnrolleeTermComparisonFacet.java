@@ -7,6 +7,7 @@ import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import bio.terra.pearl.core.service.search.terms.SearchTerm;
 import bio.terra.pearl.core.service.search.terms.SearchValue;
+import bio.terra.pearl.core.service.search.terms.UserInputTerm;
 import org.jooq.Condition;
 import org.jooq.Operator;
 
@@ -27,6 +28,9 @@ public class EnrolleeTermComparisonFacet implements EnrolleeSearchExpression {
     private final SearchTerm rightTermExtractor;
     private final SearchOperators operator;
     private final TimeComparisonType comparisonType;
+    /** user input values already parsed for in-memory comparison, or null if a side isn't user input that needs parsing */
+    private final SearchValue parsedLeftInput;
+    private final SearchValue parsedRightInput;
 
     public EnrolleeTermComparisonFacet(EnrolleeDao enrolleeDao, ProfileDao profileDao, SearchTerm leftTermExtractor, SearchTerm rightTermExtractor, SearchOperators operator) {
         this.leftTermExtractor = leftTermExtractor;
@@ -35,19 +39,23 @@ public class EnrolleeTermComparisonFacet implements EnrolleeSearchExpression {
         this.enrolleeDao = enrolleeDao;
         this.profileDao = profileDao;
         this.comparisonType = getTimeComparisonType();
+        this.parsedLeftInput = comparisonType.equals(TimeComparisonType.STRING_TO_TEMPORAL)
+                ? parseUserInput(leftTermExtractor, rightTermExtractor) : null;
+        this.parsedRightInput = comparisonType.equals(TimeComparisonType.TEMPORAL_TO_STRING)
+                ? parseUserInput(rightTermExtractor, leftTermExtractor) : null;
     }
 
     @Override
     public boolean evaluate(EnrolleeSearchContext enrolleeCtx) {
-        SearchValue leftSearchValue = leftTermExtractor.extract(enrolleeCtx);
-        SearchValue rightSearchValue = rightTermExtractor.extract(enrolleeCtx);
+        SearchValue leftSearchValue = parsedLeftInput != null ? parsedLeftInput : leftTermExtractor.extract(enrolleeCtx);
+        SearchValue rightSearchValue = parsedRightInput != null ? parsedRightInput : rightTermExtractor.extract(enrolleeCtx);
 
-        if (comparisonType.equals(TimeComparisonType.TEMPORAL_TO_STRING)) {
+        if (comparisonType.equals(TimeComparisonType.TEMPORAL_TO_STRING) && parsedRightInput == null) {
             // If the left value is an instant/date and the right value is a string, we need to parse the right value to an instant
-            rightSearchValue.parseTo(leftSearchValue.getSearchValueType());
-        } else if (comparisonType.equals(TimeComparisonType.STRING_TO_TEMPORAL)) {
+            rightSearchValue = rightSearchValue.parseTo(leftSearchValue.getSearchValueType());
+        } else if (comparisonType.equals(TimeComparisonType.STRING_TO_TEMPORAL) && parsedLeftInput == null) {
             // If the right value is an instant/date and the left value is a string, we need to parse the right value to an instant
-            leftSearchValue.parseTo(rightSearchValue.getSearchValueType());
+            leftSearchValue = leftSearchValue.parseTo(rightSearchValue.getSearchValueType());
         }
 
         return switch (operator) {
@@ -62,6 +70,12 @@ public class EnrolleeTermComparisonFacet implements EnrolleeSearchExpression {
         };
     }
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        leftTermExtractor.prefetch(enrollees);
+        rightTermExtractor.prefetch(enrollees);
+    }
+
     @Override
     public EnrolleeSearchQueryBuilder generateQueryBuilder(UUID studyEnvId) {
         EnrolleeSearchQueryBuilder enrolleeSearchQueryBuilder = new EnrolleeSearchQueryBuilder(enrolleeDao, profileDao, studyEnvId);
@@ -115,6 +129,22 @@ public class EnrolleeTermComparisonFacet implements EnrolleeSearchExpression {
         return enrolleeSearchQueryBuilder;
     }
 
+    /**
+     * parses a string user input (e.g. '2024-01-01') to the type of the term it's compared against once, up front,
+     * rather than on every evaluation.  Returns null if the term isn't user input, or can't be parsed -- in which case
+     * parsing is left to evaluation time, same as for values extracted from an enrollee
+     */
+    private static SearchValue parseUserInput(SearchTerm inputTerm, SearchTerm otherTerm) {
+        if (!(inputTerm instanceof UserInputTerm)) {
+            return null;
+        }
+        try {
+            return inputTerm.extract(null).parseTo(otherTerm.type().getType());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     /** We need to do special-case parsing and casting for time comparison, to handle string -> time conversions */
     private TimeComparisonType getTimeComparisonType() {
         if ((leftTermExtractor.type().getType().equals(SearchValue.SearchValueType.INSTANT) || leftTermExtractor.type().getType().equals(SearchValue.SearchValueType.DATE)) &&
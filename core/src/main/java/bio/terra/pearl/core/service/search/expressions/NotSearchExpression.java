@@ -4,6 +4,7 @@ import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -21,6 +22,11 @@ public class NotSearchExpression implements EnrolleeSearchExpression {
         return !inner.evaluate(enrolleeCtx);
     }
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        inner.prefetch(enrollees);
+    }
+
     @Override
     public EnrolleeSearchQueryBuilder generateQueryBuilder(UUID studyEnvId) {
         EnrolleeSearchQueryBuilder innerSQL = inner.generateQueryBuilder(studyEnvId);
@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jooq.Record;
 import org.jooq.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -17,7 +18,9 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.jooq.impl.DSL.condition;
+import static org.jooq.impl.DSL.countDistinct;
 import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.val;
 
 /**
  * A builder for constructing a jOOQ SQL query to search for enrollees via an
@@ -43,7 +46,11 @@ public class EnrolleeSearchQueryBuilder {
     }
 
     /**
-     * Converts the builder to a jOOQ query.
+     * Converts the builder to a jOOQ query.  Any limit, offset, or cursor in the opts is applied in the query, so only
+     * the requested page is read.  When the results are in cursor order (see EnrolleeSearchOptions.CURSOR_SORT_FIELD),
+     * the limit and offset count enrollees, so a page always ends at an enrollee boundary, even if a search that joins
+     * families returns several rows for an enrollee.  Otherwise they count rows.  If opts.changedSince is set, only
+     * enrollees whose data changed after it are returned (see changedSinceCondition).
      */
     public SelectQuery<Record> toQuery(DSLContext context, EnrolleeSearchOptions opts) {
         SelectJoinStep<Record> selectQuery = context
@@ -52,7 +59,110 @@ public class EnrolleeSearchQueryBuilder {
                         .map(select -> field(select.generateSql()))
                         .collect(Collectors.toList()))
                 .from("enrollee enrollee");
+        SelectQuery<Record> query = addJoinsAndConditions(selectQuery).getQuery();
+
+        String sortField = opts.getSortField();
+        String sortDirection = opts.isSortAscending() ? "ASC" : "DESC";
+        // conditions from the options, which the page query needs too
+        List<Condition> optionConditions = new ArrayList<>();
+        if (Objects.nonNull(opts.getChangedSince())) {
+            optionConditions.add(changedSinceCondition(opts.getChangedSince()));
+        }
+        if (Objects.nonNull(opts.getAfter())) {
+            if (Objects.nonNull(sortField) && !sortField.isEmpty() && !sortField.equals(EnrolleeSearchOptions.CURSOR_SORT_FIELD)) {
+                throw new IllegalArgumentException("Search cursors can only be used when sorting by " + EnrolleeSearchOptions.CURSOR_SORT_FIELD);
+            }
+            sortField = EnrolleeSearchOptions.CURSOR_SORT_FIELD;
+            // a row comparison, so postgres can seek straight to the cursor position on an index of (created_at, id)
+            optionConditions.add(condition("(enrollee.created_at, enrollee.id) %s (?, ?)".formatted(opts.isSortAscending() ? ">" : "<"),
+                    opts.getAfter().createdAt(), opts.getAfter().id()));
+        }
+        query.addConditions(optionConditions);
+
+        if (Objects.nonNull(sortField) && !sortField.isEmpty()) {
+            query.addOrderBy(field(sortField + " " + sortDirection));
+            // break ties by id, so that pages are stable and consistent with the cursor ordering
+            query.addOrderBy(field("enrollee.id " + sortDirection));
+        }
+
+        boolean paged = Objects.nonNull(opts.getLimit()) || Objects.nonNull(opts.getOffset());
+        if (paged && EnrolleeSearchOptions.CURSOR_SORT_FIELD.equals(sortField)) {
+            // page over the distinct enrollees, then join their rows
+            query.addConditions(field("enrollee.id").in(
+                    context.select(field("enrollee_page.id"))
+                            .from(toEnrolleePageQuery(context, opts, optionConditions, sortDirection).asTable("enrollee_page"))));
+        } else {
+            if (Objects.nonNull(opts.getLimit())) {
+                query.addLimit(opts.getLimit());
+            }
+            if (Objects.nonNull(opts.getOffset())) {
+                query.addOffset(opts.getOffset());
+            }
+        }
+
+        return query;
+    }
+
+    /** selects the ids of the enrollees on the page, in cursor order */
+    private SelectQuery<Record2<Object, Object>> toEnrolleePageQuery(DSLContext context, EnrolleeSearchOptions opts,
+                                                                     List<Condition> optionConditions, String sortDirection) {
+        SelectQuery<Record2<Object, Object>> pageQuery = addJoinsAndConditions(context
+                .selectDistinct(field("enrollee.id"), field("enrollee.created_at"))
+                .from("enrollee enrollee"))
+                .getQuery();
+        pageQuery.addConditions(optionConditions);
+        pageQuery.addOrderBy(field("enrollee.created_at " + sortDirection), field("enrollee.id " + sortDirection));
+        if (Objects.nonNull(opts.getLimit())) {
+            pageQuery.addLimit(opts.getLimit());
+        }
+        if (Objects.nonNull(opts.getOffset())) {
+            pageQuery.addOffset(opts.getOffset());
+        }
+        return pageQuery;
+    }
+
+    /**
+     * true for enrollees whose enrollee, profile, mailing address, answers, survey responses, tasks, kit requests,
+     * relations (as either side), or families (or their membership of them) were created or updated after
+     * changedSince.  Deletions can't be detected, so e.g. an enrollee removed from a family or whose relation was
+     * deleted won't match.  Neither will changes to the enrollee's participant user (e.g. their username).
+     */
+    private static Condition changedSinceCondition(Instant changedSince) {
+        return condition("""
+                (enrollee.last_updated_at > {0}
+                or exists (select 1 from profile changed_profile
+                    left join mailing_address changed_address on changed_address.id = changed_profile.mailing_address_id
+                    where changed_profile.id = enrollee.profile_id
+                    and (changed_profile.last_updated_at > {0} or changed_address.last_updated_at > {0}))
+                or exists (select 1 from answer changed_answer
+                    where changed_answer.enrollee_id = enrollee.id and changed_answer.last_updated_at > {0})
+                or exists (select 1 from survey_response changed_response
+                    where changed_response.enrollee_id = enrollee.id and changed_response.last_updated_at > {0})
+                or exists (select 1 from participant_task changed_task
+                    where changed_task.enrollee_id = enrollee.id and changed_task.last_updated_at > {0})
+                or exists (select 1 from kit_request changed_kit
+                    where changed_kit.enrollee_id = enrollee.id and changed_kit.last_updated_at > {0})
+                or exists (select 1 from enrollee_relation changed_relation
+                    where (changed_relation.enrollee_id = enrollee.id or changed_relation.target_enrollee_id = enrollee.id)
+                    and changed_relation.last_updated_at > {0})
+                or exists (select 1 from family_enrollee changed_member
+                    join family changed_family on changed_family.id = changed_member.family_id
+                    where changed_member.enrollee_id = enrollee.id
+                    and (changed_member.last_updated_at > {0} or changed_family.last_updated_at > {0})))
+                """, val(changedSince));
+    }
 
+    /**
+     * Converts the builder to a jOOQ query counting the distinct enrollees that match.
+     */
+    public SelectQuery<Record1<Integer>> toCountQuery(DSLContext context) {
+        SelectJoinStep<Record1<Integer>> selectQuery = context
+                .select(countDistinct(field("enrollee.id")))
+                .from("enrollee enrollee");
+        return addJoinsAndConditions(selectQuery).getQuery();
+    }
+
+    private <R extends Record> SelectConditionStep<R> addJoinsAndConditions(SelectJoinStep<R> selectQuery) {
         for (JoinClause join : joinClauseList) {
             String tableName = Objects.nonNull(join.getAlias())
                     ? join.getTable() + " " + join.getAlias()
@@ -60,35 +170,19 @@ public class EnrolleeSearchQueryBuilder {
 
             String joinType = join.getJoinType() == null ? "left" : join.getJoinType();
 
+            Object[] bindings = join.getBindings().toArray();
             switch (joinType.toLowerCase()) {
-                case "inner" -> selectQuery.innerJoin(tableName).on(join.getOn());
-                case "right" -> selectQuery.rightJoin(tableName).on(join.getOn());
-                default -> selectQuery.leftJoin(tableName).on(join.getOn());
+                case "inner" -> selectQuery.innerJoin(tableName, bindings).on(join.getOn());
+                case "right" -> selectQuery.rightJoin(tableName, bindings).on(join.getOn());
+                default -> selectQuery.leftJoin(tableName, bindings).on(join.getOn());
             }
         }
 
-        SelectConditionStep selectConditionStep = selectQuery
+        return selectQuery
                 .where(
                         whereConditions,
                         condition("enrollee.study_environment_id = ?", studyEnvId)
                 );
-
-
-        if (Objects.nonNull(opts.getSortField()) && !opts.getSortField().isEmpty()) {
-            String sortField = opts.getSortField() + " " + (opts.isSortAscending() ? "ASC" : "DESC");
-
-            var ordered = selectConditionStep.orderBy(field(sortField));
-            if (Objects.nonNull(opts.getLimit())) {
-                return ordered.limit(opts.getLimit()).getQuery();
-            }
-            return ordered.getQuery();
-        }
-
-        if (Objects.nonNull(opts.getLimit())) {
-            return selectConditionStep.limit(opts.getLimit()).getQuery();
-        }
-
-        return selectConditionStep.getQuery();
     }
 
     /**
@@ -163,21 +257,33 @@ public class EnrolleeSearchQueryBuilder {
         private final String alias;
         private final String table;
         private final String on;
+        /** values bound to any ? placeholders in the table */
+        private final List<Object> bindings;
 
         public JoinClause(String table, String alias, String on) {
-            this.joinType = null;
-            this.alias = alias;
-            this.table = table;
-            this.on = on;
+            this(null, table, alias, on);
         }
 
         public JoinClause(String joinType, String table, String alias, String on) {
+            this(joinType, table, alias, on, List.of());
+        }
+
+        private JoinClause(String joinType, String table, String alias, String on, List<Object> bindings) {
             this.joinType = joinType;
             this.alias = alias;
             this.table = table;
             this.on = on;
+            this.bindings = bindings;
         }
 
+        /**
+         * A left join to a lateral subquery, which may reference tables joined before it.  Use this for one-to-many
+         * relations where only one row is wanted (e.g. the latest answer to a question), so that the join contributes
+         * at most one row per enrollee and doesn't multiply the rows from other joins.
+         */
+        public static JoinClause lateral(String subquery, String alias, List<Object> bindings) {
+            return new JoinClause(null, "lateral (" + subquery + ")", alias, "true", bindings);
+        }
     }
 
     /**
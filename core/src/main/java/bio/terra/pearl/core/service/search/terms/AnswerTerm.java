@@ -7,15 +7,16 @@ import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-
-import static org.jooq.impl.DSL.condition;
+import java.util.*;
 
 /**
  * This term can be used to search for an answer to a question in a survey. Note that using the evaluate method on
- * this term requires a SQL call to the database per enrollee and as such could be slow for a large list of enrollees.
+ * this term requires a SQL call to the database per enrollee, unless the answers were prefetched for the batch of
+ * enrollees being evaluated -- see EnrolleeSearchExpression.prefetch.
+ *
+ * Only the enrollee's most recently updated answer to the question is searched.  Earlier answers, e.g. from a
+ * previous response to a recurring survey, are never matched: if an enrollee answered "yes" and later "no",
+ * {answer.survey.question} = 'yes' doesn't match them.
  */
 public class AnswerTerm extends SearchTerm {
     private final String studyName;
@@ -40,10 +41,7 @@ public class AnswerTerm extends SearchTerm {
 
     @Override
     public SearchValue extract(EnrolleeSearchContext context) {
-        Optional<Answer> answerOpt =
-                this.studyName == null
-                        ? answerDao.findForEnrolleeByQuestion(context.getEnrollee().getId(), surveyStableId, questionStableId)
-                        : answerDao.findByProfileIdStudyAndQuestion(context.getEnrollee().getProfileId(), studyName, surveyStableId, questionStableId);
+        Optional<Answer> answerOpt = findAnswer(context);
         if (answerOpt.isEmpty()) {
             return new SearchValue();
         }
@@ -61,25 +59,74 @@ public class AnswerTerm extends SearchTerm {
         };
     }
 
+    /** loads the latest answer to the question for every enrollee in one query */
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        String prefetchKey = prefetchKey();
+        if (enrollees.stream().allMatch(context -> context.getPrefetchedAnswers() != null
+                && context.getPrefetchedAnswers().containsKey(prefetchKey))) {
+            // the same answer is referenced more than once in the expression
+            return;
+        }
+        if (studyName == null) {
+            Map<UUID, Answer> answers = answerDao.findLatestForEnrolleesByQuestion(
+                    enrollees.stream().map(context -> context.getEnrollee().getId()).toList(), surveyStableId, questionStableId);
+            enrollees.forEach(context -> putPrefetchedAnswer(context, answers.get(context.getEnrollee().getId())));
+        } else {
+            Map<UUID, Answer> answers = answerDao.findLatestForProfilesByStudyAndQuestion(
+                    enrollees.stream().map(context -> context.getEnrollee().getProfileId()).distinct().toList(),
+                    studyName, surveyStableId, questionStableId);
+            enrollees.forEach(context -> putPrefetchedAnswer(context, answers.get(context.getEnrollee().getProfileId())));
+        }
+    }
+
+    /** identifies this term's answer in EnrolleeSearchContext.prefetchedAnswers */
+    public String prefetchKey() {
+        return "%s.%s.%s".formatted(studyName, surveyStableId, questionStableId);
+    }
+
+    private void putPrefetchedAnswer(EnrolleeSearchContext context, Answer answer) {
+        if (context.getPrefetchedAnswers() == null) {
+            context.setPrefetchedAnswers(new HashMap<>());
+        }
+        context.getPrefetchedAnswers().put(prefetchKey(), Optional.ofNullable(answer));
+    }
+
+    private Optional<Answer> findAnswer(EnrolleeSearchContext context) {
+        if (context.getPrefetchedAnswers() != null && context.getPrefetchedAnswers().containsKey(prefetchKey())) {
+            return context.getPrefetchedAnswers().get(prefetchKey());
+        }
+        return this.studyName == null
+                ? answerDao.findForEnrolleeByQuestion(context.getEnrollee().getId(), surveyStableId, questionStableId)
+                : answerDao.findByProfileIdStudyAndQuestion(context.getEnrollee().getProfileId(), studyName, surveyStableId, questionStableId);
+    }
+
+    /**
+     * Joins only the latest answer to the question (the same one extract() uses), so that each answer term adds at most
+     * one row per enrollee no matter how many answers the enrollee has.
+     */
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
+        String latestAnswerQuery = "select * from answer where enrollee_id = %s.id" +
+                " and survey_stable_id = ? and question_stable_id = ?" +
+                " order by last_updated_at desc limit 1";
 
         if (Objects.nonNull(studyName)) {
             List<EnrolleeSearchQueryBuilder.JoinClause> joinClauses = this
                     .joinClausesForStudy(studyName);
 
-            joinClauses.add(
-                    new EnrolleeSearchQueryBuilder.JoinClause("answer", alias(), "%s.id = %s.enrollee_id".formatted(
-                            addStudySuffix("enrollee", studyName),
-                            alias()))
-            );
+            joinClauses.add(EnrolleeSearchQueryBuilder.JoinClause.lateral(
+                    latestAnswerQuery.formatted(addStudySuffix("enrollee", studyName)),
+                    alias(),
+                    List.of(surveyStableId, questionStableId)));
 
             return joinClauses;
         }
 
-        return List.of(
-                new EnrolleeSearchQueryBuilder.JoinClause("answer", alias(), "enrollee.id = %s.enrollee_id".formatted(alias()))
-        );
+        return List.of(EnrolleeSearchQueryBuilder.JoinClause.lateral(
+                latestAnswerQuery.formatted("enrollee"),
+                alias(),
+                List.of(surveyStableId, questionStableId)));
     }
 
     @Override
@@ -91,10 +138,8 @@ public class AnswerTerm extends SearchTerm {
 
     @Override
     public Optional<Condition> requiredConditions() {
-        return Optional.of(
-                condition(
-                        alias() + ".survey_stable_id = ? AND " + alias() + ".question_stable_id = ?",
-                        surveyStableId, questionStableId));
+        // the survey and question are matched in the join
+        return Optional.empty();
     }
 
     @Override
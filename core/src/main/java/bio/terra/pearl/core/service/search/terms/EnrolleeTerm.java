@@ -1,6 +1,8 @@
 package bio.terra.pearl.core.service.search.terms;
 
+import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
@@ -18,6 +20,7 @@ import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueT
 public class EnrolleeTerm extends SearchTerm {
 
     private final String field;
+    private final PropertyAccessor accessor;
 
     public EnrolleeTerm(String field) {
         if (!FIELDS.containsKey(field)) {
@@ -25,12 +28,13 @@ public class EnrolleeTerm extends SearchTerm {
         }
 
         this.field = field;
+        this.accessor = PropertyAccessor.of(Enrollee.class, field);
     }
 
 
     @Override
     public SearchValue extract(EnrolleeSearchContext context) {
-        return SearchValue.ofNestedProperty(context.getEnrollee(), field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(context.getEnrollee(), accessor, FIELDS.get(field).getType());
     }
 
     @Override
@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.search.terms;
 import bio.terra.pearl.core.dao.participant.FamilyDao;
 import bio.terra.pearl.core.model.participant.Family;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
@@ -10,6 +11,7 @@ import org.jooq.Condition;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static bio.terra.pearl.core.dao.BaseJdbiDao.toSnakeCase;
 import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueType.STRING;
@@ -22,6 +24,7 @@ public class FamilyTerm extends SearchTerm {
 
     private final FamilyDao familyDao;
     private final String field;
+    private final PropertyAccessor accessor;
 
     public FamilyTerm(FamilyDao familyDao, String field) {
         this.familyDao = familyDao;
@@ -31,24 +34,39 @@ public class FamilyTerm extends SearchTerm {
         }
 
         this.field = field;
+        this.accessor = PropertyAccessor.of(Family.class, field);
     }
 
 
     @Override
     public SearchValue extract(EnrolleeSearchContext context) {
-        List<Family> families = this.familyDao.findByEnrolleeId(context.getEnrollee().getId());
+        List<Family> families = context.getPrefetchedFamilies() != null
+                ? context.getPrefetchedFamilies()
+                : this.familyDao.findByEnrolleeId(context.getEnrollee().getId());
         if (families.isEmpty()) {
             return new SearchValue();
         }
 
         List<SearchValue> values = families
                 .stream()
-                .map(val -> SearchValue.ofNestedProperty(val, field, FIELDS.get(field).getType()))
+                .map(val -> SearchValue.ofProperty(val, accessor, FIELDS.get(field).getType()))
                 .toList();
 
         return new SearchValue(values);
     }
 
+    /** loads the families of every enrollee in one query */
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        if (enrollees.stream().allMatch(context -> context.getPrefetchedFamilies() != null)) {
+            return;
+        }
+        Map<UUID, List<Family>> familiesByEnrollee = familyDao.findByEnrolleeIds(
+                enrollees.stream().map(context -> context.getEnrollee().getId()).toList());
+        enrollees.forEach(context -> context.setPrefetchedFamilies(
+                familiesByEnrollee.getOrDefault(context.getEnrollee().getId(), List.of())));
+    }
+
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
         return List.of(
@@ -5,23 +5,21 @@ import bio.terra.pearl.core.model.kit.KitRequest;
 import bio.terra.pearl.core.model.kit.KitRequestStatus;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
 import bio.terra.pearl.core.model.survey.QuestionChoice;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueType.STRING;
-import static org.jooq.impl.DSL.condition;
 
 /**
  * This term fetches information about the latest kit request for an enrollee.
  */
 public class LatestKitTerm extends SearchTerm {
     private final String field;
+    private final PropertyAccessor accessor;
     private final KitRequestDao kitRequestDao;
 
     public LatestKitTerm(KitRequestDao kitRequestDao, String field) {
@@ -32,26 +30,40 @@ public class LatestKitTerm extends SearchTerm {
 
         this.kitRequestDao = kitRequestDao;
         this.field = field;
+        this.accessor = PropertyAccessor.of(KitRequest.class, field);
     }
 
     @Override
     public SearchValue extract(EnrolleeSearchContext context) {
-        List<KitRequest> requests = kitRequestDao.findByEnrollee(context.getEnrollee().getId());
+        List<KitRequest> requests = context.getPrefetchedKitRequests() != null
+                ? context.getPrefetchedKitRequests()
+                : kitRequestDao.findByEnrollee(context.getEnrollee().getId());
         if (requests.isEmpty()) {
             return new SearchValue();
         }
-        requests.sort((r1, r2) -> r2.getLastUpdatedAt().compareTo(r1.getLastUpdatedAt()));
-        KitRequest latestKit = requests.get(0);
+        KitRequest latestKit = requests.stream().max(Comparator.comparing(KitRequest::getLastUpdatedAt)).get();
 
-        return SearchValue.ofNestedProperty(latestKit, field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(latestKit, accessor, FIELDS.get(field).getType());
+    }
+
+    /** loads the kit requests of every enrollee in one query */
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        if (enrollees.stream().allMatch(context -> context.getPrefetchedKitRequests() != null)) {
+            return;
+        }
+        Map<UUID, List<KitRequest>> kitsByEnrollee = kitRequestDao.findByEnrolleeIds(
+                enrollees.stream().map(context -> context.getEnrollee().getId()).toList());
+        enrollees.forEach(context -> context.setPrefetchedKitRequests(
+                kitsByEnrollee.getOrDefault(context.getEnrollee().getId(), List.of())));
     }
 
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
-        return List.of(new EnrolleeSearchQueryBuilder.JoinClause(
-                "kit_request",
+        return List.of(EnrolleeSearchQueryBuilder.JoinClause.lateral(
+                "select * from kit_request where enrollee_id = enrollee.id order by last_updated_at desc limit 1",
                 "latest_kit",
-                "enrollee.id = latest_kit.enrollee_id"));
+                List.of()));
     }
 
     @Override
@@ -63,10 +75,8 @@ public class LatestKitTerm extends SearchTerm {
 
     @Override
     public Optional<Condition> requiredConditions() {
-        // creates a subquery to ensure that the latest kit request is the only one returned
-        // could also be done with and order by/limit, but this fits into the existing search
-        // query infra better
-        return Optional.of(condition("NOT EXISTS (SELECT other_kit_request.id FROM kit_request other_kit_request WHERE other_kit_request.enrollee_id = enrollee.id AND other_kit_request.last_updated_at > latest_kit.last_updated_at)"));
+        // only the latest kit is joined, so no further filtering is needed
+        return Optional.empty();
     }
 
     @Override
@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.search.terms;
 import bio.terra.pearl.core.dao.participant.PortalParticipantUserDao;
 import bio.terra.pearl.core.model.participant.PortalParticipantUser;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
@@ -18,6 +19,7 @@ import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueT
 public class PortalUserTerm extends SearchTerm {
 
     private final String field;
+    private final PropertyAccessor accessor;
     private final PortalParticipantUserDao portalParticipantUserDao;
 
     public PortalUserTerm(PortalParticipantUserDao portalParticipantUserDao, String field) {
@@ -26,6 +28,7 @@ public class PortalUserTerm extends SearchTerm {
         }
         this.portalParticipantUserDao = portalParticipantUserDao;
         this.field = field;
+        this.accessor = PropertyAccessor.of(PortalParticipantUser.class, field);
     }
 
     @Override
@@ -34,7 +37,7 @@ public class PortalUserTerm extends SearchTerm {
         if (ppUser.isEmpty()) {
             return new SearchValue();
         }
-        return SearchValue.ofNestedProperty(ppUser.get(), field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(ppUser.get(), accessor, FIELDS.get(field).getType());
     }
 
     @Override
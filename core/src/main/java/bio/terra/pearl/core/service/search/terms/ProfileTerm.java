@@ -2,7 +2,9 @@ package bio.terra.pearl.core.service.search.terms;
 
 import bio.terra.pearl.core.dao.participant.MailingAddressDao;
 import bio.terra.pearl.core.dao.participant.ProfileDao;
+import bio.terra.pearl.core.model.participant.Profile;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
@@ -17,6 +19,7 @@ import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueT
  */
 public class ProfileTerm extends SearchTerm {
     private final String field;
+    private final PropertyAccessor accessor;
     private final ProfileDao profileDao;
     private final MailingAddressDao mailingAddressDao;
 
@@ -29,6 +32,7 @@ public class ProfileTerm extends SearchTerm {
         this.mailingAddressDao = mailingAddressDao;
 
         this.field = field;
+        this.accessor = PropertyAccessor.of(Profile.class, field);
     }
 
     @Override
@@ -44,7 +48,7 @@ public class ProfileTerm extends SearchTerm {
             return new SearchValue((givenName + " " + familyName).trim());
         }
 
-        return SearchValue.ofNestedProperty(context.getProfile(), field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(context.getProfile(), accessor, FIELDS.get(field).getType());
     }
 
     @Override
@@ -19,6 +19,12 @@ public abstract class SearchTerm {
      */
     public abstract SearchValue extract(EnrolleeSearchContext enrollee);
 
+    /**
+     * Bulk loads the data extract() needs for a batch of enrollees onto their contexts.  Terms that extract from
+     * data already on the context, such as the enrollee or profile, don't need to do anything.
+     */
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {}
+
     /**
      * Joins required to extract this term in a SQL search.
      */
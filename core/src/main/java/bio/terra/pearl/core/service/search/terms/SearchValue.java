@@ -1,8 +1,7 @@
 package bio.terra.pearl.core.service.search.terms;
 
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import lombok.Getter;
-import org.apache.commons.beanutils.NestedNullException;
-import org.apache.commons.beanutils.PropertyUtils;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -72,14 +71,15 @@ public class SearchValue {
         }
     }
 
-    public static SearchValue ofNestedProperty(Object object, String field, SearchValueType type) {
+    /** reads the property from the object using a pre-resolved accessor, see PropertyAccessor */
+    public static SearchValue ofProperty(Object object, PropertyAccessor accessor, SearchValueType type) {
         try {
-            Object objValue = PropertyUtils.getNestedProperty(object, field);
+            Object objValue = accessor.get(object);
             return of(objValue, type);
-        } catch (NestedNullException | NullPointerException e) {
+        } catch (NullPointerException e) {
             return new SearchValue();
         } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid field: " + field);
+            throw new IllegalArgumentException("Invalid field: " + accessor.getPath());
         }
     }
 
@@ -196,20 +196,20 @@ public class SearchValue {
         return this.stringValue.toLowerCase().contains(rightSearchValue.stringValue.toLowerCase());
     }
 
-    /** attempts to parse the the value into the given type.
-     * This will do nothing if there is no value to convert, but throw on error on invalid format
+    /** attempts to parse the the value into the given type, returning the parsed value.
+     * This will return this value unchanged if there is no value to convert, but throw on error on invalid format.
+     * Values are never modified in place, since user input values are shared by cached expressions.
      * */
-    public void parseTo(SearchValueType newType) {
+    public SearchValue parseTo(SearchValueType newType) {
         if (this.stringValue == null) {
-            return;
+            return this;
         }
         if (SearchValueType.INSTANT.equals(newType)) {
-            this.instantValue = Instant.parse(this.stringValue);
-            this.searchValueType = SearchValueType.INSTANT;
+            return new SearchValue(Instant.parse(this.stringValue));
         } else if (SearchValueType.DATE.equals(newType)) {
-            this.dateValue = LocalDate.parse(this.stringValue);
-            this.searchValueType = SearchValueType.DATE;
+            return new SearchValue(LocalDate.parse(this.stringValue));
         }
+        return this;
     }
 
     public enum SearchValueType {
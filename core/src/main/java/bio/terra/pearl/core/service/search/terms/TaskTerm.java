@@ -5,26 +5,28 @@ import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
 import bio.terra.pearl.core.model.survey.QuestionChoice;
 import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.model.workflow.TaskStatus;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 import static bio.terra.pearl.core.dao.BaseJdbiDao.toSnakeCase;
 import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueType.BOOLEAN;
 import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueType.STRING;
-import static org.jooq.impl.DSL.condition;
 
 /**
  * Allows searching on an enrollee's task status.
+ *
+ * Only the enrollee's most recently created task for the activity is searched.  If the activity was assigned more
+ * than once, e.g. a recurring survey, {task.activity.status} = 'COMPLETE' matches only if the newest task is complete,
+ * regardless of earlier ones.
  */
 public class TaskTerm extends SearchTerm {
     private final String targetStableId;
     private final String field;
+    private final PropertyAccessor accessor;
     private final ParticipantTaskDao participantTaskDao;
 
     public TaskTerm(ParticipantTaskDao participantTaskDao, String targetStableId, String field) {
@@ -38,15 +40,13 @@ public class TaskTerm extends SearchTerm {
 
         this.targetStableId = targetStableId;
         this.field = field;
+        this.accessor = PropertyAccessor.of(ParticipantTask.class, field);
         this.participantTaskDao = participantTaskDao;
     }
 
     @Override
     public SearchValue extract(EnrolleeSearchContext context) {
-        Optional<ParticipantTask> taskOpt = participantTaskDao.findTaskForActivity(
-                context.getEnrollee(),
-                context.getEnrollee().getStudyEnvironmentId(),
-                this.targetStableId);
+        Optional<ParticipantTask> taskOpt = findTask(context);
 
         if (field.equals("assigned")) {
             return new SearchValue(taskOpt.isPresent());
@@ -56,12 +56,46 @@ public class TaskTerm extends SearchTerm {
             return new SearchValue();
         }
         ParticipantTask task = taskOpt.get();
-        return SearchValue.ofNestedProperty(task, field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(task, accessor, FIELDS.get(field).getType());
+    }
+
+    /** loads all the tasks of every enrollee in one query, so they can be shared by all task terms */
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        if (enrollees.stream().allMatch(context -> context.getPrefetchedTasks() != null)) {
+            return;
+        }
+        Map<UUID, List<ParticipantTask>> tasksByEnrollee = participantTaskDao.findByEnrolleeIds(
+                enrollees.stream().map(context -> context.getEnrollee().getId()).toList());
+        enrollees.forEach(context -> context.setPrefetchedTasks(
+                tasksByEnrollee.getOrDefault(context.getEnrollee().getId(), List.of())));
+    }
+
+    /** the enrollee's latest task for the activity */
+    private Optional<ParticipantTask> findTask(EnrolleeSearchContext context) {
+        if (context.getPrefetchedTasks() != null) {
+            return context.getPrefetchedTasks().stream()
+                    .filter(task -> targetStableId.equals(task.getTargetStableId())
+                            && context.getEnrollee().getStudyEnvironmentId().equals(task.getStudyEnvironmentId()))
+                    .max(Comparator.comparing(ParticipantTask::getCreatedAt));
+        }
+        return participantTaskDao.findTaskForActivity(
+                context.getEnrollee(),
+                context.getEnrollee().getStudyEnvironmentId(),
+                this.targetStableId);
     }
 
+    /**
+     * Joins only the latest task for the activity (the same one extract() uses), so that each task term adds at most
+     * one row per enrollee.  An enrollee without the task gets nulls, which is what makes "assigned = false" work.
+     */
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
-        return List.of(new EnrolleeSearchQueryBuilder.JoinClause("participant_task", alias(), "enrollee.id = %s.enrollee_id".formatted(alias())));
+        return List.of(EnrolleeSearchQueryBuilder.JoinClause.lateral(
+                "select * from participant_task where enrollee_id = enrollee.id and target_stable_id = ?" +
+                        " order by created_at desc limit 1",
+                alias(),
+                List.of(targetStableId)));
     }
 
     @Override
@@ -73,10 +107,8 @@ public class TaskTerm extends SearchTerm {
 
     @Override
     public Optional<Condition> requiredConditions() {
-        return Optional.of(
-                condition(
-                        alias() + ".target_stable_id = ?",
-                        targetStableId));
+        // the target is matched in the join
+        return Optional.empty();
     }
 
     @Override
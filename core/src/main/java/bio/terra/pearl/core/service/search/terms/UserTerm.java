@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.search.terms;
 import bio.terra.pearl.core.dao.participant.ParticipantUserDao;
 import bio.terra.pearl.core.model.participant.ParticipantUser;
 import bio.terra.pearl.core.model.search.SearchValueTypeDefinition;
+import bio.terra.pearl.core.service.rule.PropertyAccessor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchContext;
 import bio.terra.pearl.core.service.search.sql.EnrolleeSearchQueryBuilder;
 import org.jooq.Condition;
@@ -21,6 +22,7 @@ import static bio.terra.pearl.core.service.search.terms.SearchValue.SearchValueT
 public class UserTerm extends SearchTerm {
 
     private final String field;
+    private final PropertyAccessor accessor;
     private final ParticipantUserDao participantUserDao;
 
     public UserTerm(ParticipantUserDao participantUserDao, String field) {
@@ -30,6 +32,7 @@ public class UserTerm extends SearchTerm {
 
         this.participantUserDao = participantUserDao;
         this.field = field;
+        this.accessor = PropertyAccessor.of(ParticipantUser.class, field);
     }
 
     @Override
@@ -38,7 +41,7 @@ public class UserTerm extends SearchTerm {
         if (user.isEmpty()) {
             return new SearchValue();
         }
-        return SearchValue.ofNestedProperty(user.get(), field, FIELDS.get(field).getType());
+        return SearchValue.ofProperty(user.get(), accessor, FIELDS.get(field).getType());
     }
 
     @Override
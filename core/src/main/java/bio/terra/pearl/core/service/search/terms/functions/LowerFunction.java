@@ -38,6 +38,11 @@ public class LowerFunction extends SearchTerm {
         throw new IllegalArgumentException("Lower function can only be applied to string values");
     }
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        term.prefetch(enrollees);
+    }
+
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
         return this.term.requiredJoinClauses();
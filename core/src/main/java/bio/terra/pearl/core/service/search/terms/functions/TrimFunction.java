@@ -34,6 +34,11 @@ public class TrimFunction extends SearchTerm {
         throw new IllegalArgumentException("Trim can only be applied to string values");
     }
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        term.prefetch(enrollees);
+    }
+
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
         return this.term.requiredJoinClauses();
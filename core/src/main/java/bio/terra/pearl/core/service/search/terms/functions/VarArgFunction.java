@@ -34,6 +34,11 @@ public abstract class VarArgFunction extends SearchTerm {
 
     protected abstract SearchValue apply(List<SearchValue> values);
 
+    @Override
+    public void prefetch(List<EnrolleeSearchContext> enrollees) {
+        this.terms.forEach(term -> term.prefetch(enrollees));
+    }
+
     @Override
     public List<EnrolleeSearchQueryBuilder.JoinClause> requiredJoinClauses() {
         return this.terms.stream().flatMap(term -> term.requiredJoinClauses().stream()).toList();
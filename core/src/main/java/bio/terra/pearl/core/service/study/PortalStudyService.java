@@ -3,6 +3,7 @@ package bio.terra.pearl.core.service.study;
 import bio.terra.pearl.core.dao.study.PortalStudyDao;
 import bio.terra.pearl.core.model.study.PortalStudy;
 import bio.terra.pearl.core.service.ImmutableEntityService;
+import bio.terra.pearl.core.service.admin.AdminAuthCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,9 +13,11 @@ import java.util.UUID;
 
 @Service
 public class PortalStudyService extends ImmutableEntityService<PortalStudy, PortalStudyDao> {
+    private final AdminAuthCache adminAuthCache;
 
-    public PortalStudyService(PortalStudyDao portalStudyDao) {
+    public PortalStudyService(PortalStudyDao portalStudyDao, AdminAuthCache adminAuthCache) {
         super(portalStudyDao);
+        this.adminAuthCache = adminAuthCache;
     }
 
     public List<PortalStudy> findByPortalId(UUID portalId) {
@@ -42,10 +45,12 @@ public class PortalStudyService extends ImmutableEntityService<PortalStudy, Port
     @Transactional
     public void deleteByPortalId(UUID portalId) {
         dao.deleteByPortalId(portalId);
+        adminAuthCache.evictPortal(portalId);
     }
 
     @Transactional
     public void deleteByStudyId(UUID studyId) {
         dao.deleteByStudyId(studyId);
+        adminAuthCache.evictStudy(studyId);
     }
 }
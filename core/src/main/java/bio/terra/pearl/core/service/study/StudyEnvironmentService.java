@@ -17,6 +17,7 @@ import bio.terra.pearl.core.model.survey.StudyEnvironmentSurvey;
 import bio.terra.pearl.core.model.survey.Survey;
 import bio.terra.pearl.core.service.CascadeProperty;
 import bio.terra.pearl.core.service.CrudService;
+import bio.terra.pearl.core.service.admin.AdminAuthCache;
 import bio.terra.pearl.core.service.export.dataimport.ImportService;
 import bio.terra.pearl.core.service.datarepo.DataRepoJobService;
 import bio.terra.pearl.core.service.datarepo.DatasetService;
@@ -62,7 +63,7 @@ public class StudyEnvironmentService extends CrudService<StudyEnvironment, Study
     private final ImportService importService;
     private final ExportIntegrationService exportIntegrationService;
     private final SurveyService surveyService;
-
+    private final AdminAuthCache adminAuthCache;
 
     public StudyEnvironmentService(StudyEnvironmentDao studyEnvironmentDao,
                                    StudyEnvironmentSurveyDao studyEnvironmentSurveyDao,
@@ -78,7 +79,8 @@ public class StudyEnvironmentService extends CrudService<StudyEnvironment, Study
                                    FamilyEnrolleeService familyEnrolleeService,
                                    EnrolleeRelationService enrolleeRelationService,
                                    ParticipantDataChangeService participantDataChangeService,
-                                   @Lazy ExportIntegrationService exportIntegrationService, SurveyService surveyService) {
+                                   @Lazy ExportIntegrationService exportIntegrationService, SurveyService surveyService,
+                                   AdminAuthCache adminAuthCache) {
         super(studyEnvironmentDao);
         this.studyEnvironmentSurveyDao = studyEnvironmentSurveyDao;
         this.studyEnvironmentConfigService = studyEnvironmentConfigService;
@@ -96,6 +98,7 @@ public class StudyEnvironmentService extends CrudService<StudyEnvironment, Study
         this.participantDataChangeService = participantDataChangeService;
         this.exportIntegrationService = exportIntegrationService;
         this.surveyService = surveyService;
+        this.adminAuthCache = adminAuthCache;
     }
 
     public List<StudyEnvironment> findByStudy(UUID studyId) {
@@ -159,6 +162,15 @@ public class StudyEnvironmentService extends CrudService<StudyEnvironment, Study
         if (studyEnv.getStudyEnvironmentConfigId() != null) {
             studyEnvironmentConfigService.delete(studyEnv.getStudyEnvironmentConfigId());
         }
+        adminAuthCache.evictStudyEnvironment(studyEnvironmentId);
+    }
+
+    @Transactional
+    @Override
+    public StudyEnvironment update(StudyEnvironment studyEnv) {
+        StudyEnvironment updatedEnv = super.update(studyEnv);
+        adminAuthCache.evictStudyEnvironment(studyEnv.getId());
+        return updatedEnv;
     }
 
     @Transactional
@@ -17,6 +17,7 @@ import bio.terra.pearl.core.service.publishing.PortalEnvPublishable;
 import bio.terra.pearl.core.service.publishing.PublishingUtils;
 import bio.terra.pearl.core.service.publishing.StudyEnvPublishable;
 import bio.terra.pearl.core.service.survey.SurveyService;
+import bio.terra.pearl.core.service.survey.SurveyTaskConfigCache;
 import bio.terra.pearl.core.service.workflow.EventService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,10 +26,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class StudyEnvironmentSurveyService extends CrudService<StudyEnvironmentSurvey, StudyEnvironmentSurveyDao> implements StudyEnvPublishable{
     private final SurveyService surveyService;
     private final EventService eventService;
-    public StudyEnvironmentSurveyService(StudyEnvironmentSurveyDao dao, SurveyService surveyService, EventService eventService) {
+    private final SurveyTaskConfigCache surveyTaskConfigCache;
+    public StudyEnvironmentSurveyService(StudyEnvironmentSurveyDao dao, SurveyService surveyService, EventService eventService,
+                                         SurveyTaskConfigCache surveyTaskConfigCache) {
         super(dao);
         this.surveyService = surveyService;
         this.eventService = eventService;
+        this.surveyTaskConfigCache = surveyTaskConfigCache;
     }
 
     public List<StudyEnvironmentSurvey> findAllByStudyEnvId(UUID studyEnvId, Boolean active) {
@@ -56,6 +60,7 @@ public class StudyEnvironmentSurveyService extends CrudService<StudyEnvironmentS
     public StudyEnvironmentSurvey deactivate(UUID id) {
         StudyEnvironmentSurvey ses = dao.find(id).get();
         ses.setActive(false);
+        surveyTaskConfigCache.evict(ses.getStudyEnvironmentId());
         return dao.update(ses);
     }
 
@@ -63,6 +68,7 @@ public class StudyEnvironmentSurveyService extends CrudService<StudyEnvironmentS
     @Override
     public StudyEnvironmentSurvey create(StudyEnvironmentSurvey studyEnvSurvey) {
         validateSurveyNotAlreadyActive(studyEnvSurvey);
+        surveyTaskConfigCache.evict(studyEnvSurvey.getStudyEnvironmentId());
         return super.create(studyEnvSurvey);
     }
 
@@ -70,6 +76,7 @@ public class StudyEnvironmentSurveyService extends CrudService<StudyEnvironmentS
     @Override
     public StudyEnvironmentSurvey update(StudyEnvironmentSurvey studyEnvSurvey) {
         validateSurveyNotAlreadyActive(studyEnvSurvey);
+        surveyTaskConfigCache.evict(studyEnvSurvey.getStudyEnvironmentId());
         return super.update(studyEnvSurvey);
     }
 
@@ -94,6 +101,7 @@ public class StudyEnvironmentSurveyService extends CrudService<StudyEnvironmentS
     }
 
     public void deleteBySurveyId(UUID surveyId) {
+        dao.findBySurveyId(surveyId).forEach(ses -> surveyTaskConfigCache.evict(ses.getStudyEnvironmentId()));
         dao.deleteBySurveyId(surveyId);
     }
 
@@ -0,0 +1,54 @@
+package bio.terra.pearl.core.service.survey;
+
+import bio.terra.pearl.core.dao.study.StudyEnvironmentSurveyDao;
+import bio.terra.pearl.core.model.survey.SurveyTaskConfigDto;
+import bio.terra.pearl.core.service.cache.VersionedCache;
+import bio.terra.pearl.core.service.survey.event.SurveyPublishedEvent;
+import bio.terra.pearl.core.service.workflow.DispatcherOrder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caches the active survey task configs for each study environment, so that survey tasks can be synced for an
+ * enrollee (e.g. on every survey submission) without reloading the surveys.  The cached surveys do not include
+ * content.
+ *
+ * Each entry is stored with the environment's config version stamp (see
+ * StudyEnvironmentSurveyDao.findConfigVersionStamp), which is checked on every read, so changes made by other
+ * processes are picked up too.  Entries are also evicted directly when a survey is published or a study environment
+ * survey changes in this process.
+ */
+@Component
+public class SurveyTaskConfigCache {
+    private static final int MAX_CACHED_STUDY_ENVS = 1000;
+    private final VersionedCache<UUID, List<SurveyTaskConfigDto>> cache = new VersionedCache<>(MAX_CACHED_STUDY_ENVS);
+    private final StudyEnvironmentSurveyDao studyEnvironmentSurveyDao;
+
+    public SurveyTaskConfigCache(StudyEnvironmentSurveyDao studyEnvironmentSurveyDao) {
+        this.studyEnvironmentSurveyDao = studyEnvironmentSurveyDao;
+    }
+
+    /** returns the task configs for the study environment's active surveys.  The returned configs must not be modified */
+    public List<SurveyTaskConfigDto> findByStudyEnvironment(UUID studyEnvId) {
+        String versionStamp = studyEnvironmentSurveyDao.findConfigVersionStamp(studyEnvId);
+        return cache.get(studyEnvId, versionStamp, () -> studyEnvironmentSurveyDao
+                .findAllWithSurveyNoContent(List.of(studyEnvId), null, true)
+                .stream().map(SurveyTaskConfigDto::new).toList());
+    }
+
+    public void evict(UUID studyEnvId) {
+        if (studyEnvId != null) {
+            cache.remove(studyEnvId);
+        }
+    }
+
+    @EventListener
+    @Order(DispatcherOrder.CACHE_EVICTION)
+    public void handleSurveyPublishedEvent(SurveyPublishedEvent event) {
+        evict(event.getStudyEnvironmentId());
+    }
+}
@@ -5,7 +5,7 @@ import bio.terra.pearl.core.model.survey.Survey;
 import bio.terra.pearl.core.model.survey.SurveyTaskConfigDto;
 import bio.terra.pearl.core.model.survey.SurveyType;
 import bio.terra.pearl.core.model.workflow.TaskType;
-import bio.terra.pearl.core.service.exception.NotFoundException;
+import bio.terra.pearl.core.service.TransactionHandler;
 import bio.terra.pearl.core.service.participant.EnrolleeService;
 import bio.terra.pearl.core.service.participant.PortalParticipantUserService;
 import bio.terra.pearl.core.service.rule.EnrolleeContextService;
@@ -31,6 +31,7 @@ import java.util.UUID;
 public class SurveyTaskDispatcher extends TaskDispatcher<SurveyTaskConfigDto> {
     private final StudyEnvironmentSurveyService studyEnvironmentSurveyService;
     private final SurveyService surveyService;
+    private final SurveyTaskConfigCache surveyTaskConfigCache;
 
 
     public SurveyTaskDispatcher(StudyEnvironmentSurveyService studyEnvironmentSurveyService,
@@ -38,10 +39,14 @@ public class SurveyTaskDispatcher extends TaskDispatcher<SurveyTaskConfigDto> {
                                 EnrolleeService enrolleeService,
                                 PortalParticipantUserService portalParticipantUserService,
                                 EnrolleeContextService enrolleeContextService,
-                                EnrolleeSearchExpressionParser enrolleeSearchExpressionParser, SurveyService surveyService) {
-        super(studyEnvironmentService, participantTaskService, enrolleeService, enrolleeSearchExpressionParser, enrolleeContextService, portalParticipantUserService);
+                                EnrolleeSearchExpressionParser enrolleeSearchExpressionParser, SurveyService surveyService,
+                                TaskAssignmentConfig taskAssignmentConfig, SurveyTaskConfigCache surveyTaskConfigCache,
+                                TaskAssignmentTracker taskAssignmentTracker, TransactionHandler transactionHandler) {
+        super(studyEnvironmentService, participantTaskService, enrolleeService, enrolleeSearchExpressionParser,
+                enrolleeContextService, portalParticipantUserService, taskAssignmentConfig, taskAssignmentTracker, transactionHandler);
         this.studyEnvironmentSurveyService = studyEnvironmentSurveyService;
         this.surveyService = surveyService;
+        this.surveyTaskConfigCache = surveyTaskConfigCache;
     }
 
     @EventListener
@@ -81,16 +86,7 @@ public class SurveyTaskDispatcher extends TaskDispatcher<SurveyTaskConfigDto> {
 
     @Override
     protected List<SurveyTaskConfigDto> findTaskConfigsByStudyEnvironment(UUID studyEnvId) {
-        List<StudyEnvironmentSurvey> studyEnvironmentSurveys = studyEnvironmentSurveyService.findAllByStudyEnvId(studyEnvId, true);
-        // load surveys
-        return studyEnvironmentSurveys.stream()
-                .map(ses -> {
-                    Survey survey = surveyService.find(ses.getSurveyId())
-                            .orElseThrow(() -> new NotFoundException("Could not find survey"));
-                    return new SurveyTaskConfigDto(ses, survey);
-                })
-                .toList();
-
+        return surveyTaskConfigCache.findByStudyEnvironment(studyEnvId);
     }
 
     @Override
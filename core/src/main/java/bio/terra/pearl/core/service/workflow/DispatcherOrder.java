@@ -8,9 +8,14 @@ package bio.terra.pearl.core.service.workflow;
  *
  * All classes that listen to spring events should be given an ordered priority below, even if they
  * don't yet listen to the same events as other classes.
+ *
+ * Listeners whose effects the publisher doesn't need to see should also implement OutboxEventListener, so that they
+ * can be run from the event outbox, after the publishing transaction commits, instead.
   */
 
 public class DispatcherOrder {
+    // cached config must be evicted before any other listener reads it
+    public static final int CACHE_EVICTION = 1;
     public static final int CONSENT_PROCESSOR = 5;
     public static final int SURVEY_TASK = 10;
     public static final int KIT_TASK = 20;
@@ -0,0 +1,38 @@
+package bio.terra.pearl.core.service.workflow;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+public class EventOutboxConfig {
+    /**
+     * whether OutboxEventListeners receive enrollee events from the outbox, after the transaction that published them
+     * commits, rather than synchronously as they are published.
+     */
+    private boolean enabled;
+    /** the most entries leased by a single drain of the outbox */
+    private int batchSize;
+    /** the number of delivery attempts after which an entry is marked FAILED */
+    private int maxAttempts;
+    /** how long a worker has to deliver an entry before another worker may lease it */
+    private int leaseSeconds;
+    /** the delay before the first retry of a failed delivery.  each later retry waits twice as long as the last */
+    private int retryBackoffSeconds;
+    private int maxRetryBackoffSeconds;
+    /** how long delivered entries are kept before they are deleted */
+    private int retentionDays;
+
+    public EventOutboxConfig(Environment environment) {
+        this.enabled = environment.getProperty("env.events.outbox.enabled", Boolean.class, false);
+        this.batchSize = environment.getProperty("env.events.outbox.batchSize", Integer.class, 100);
+        this.maxAttempts = environment.getProperty("env.events.outbox.maxAttempts", Integer.class, 8);
+        this.leaseSeconds = environment.getProperty("env.events.outbox.leaseSeconds", Integer.class, 300);
+        this.retryBackoffSeconds = environment.getProperty("env.events.outbox.retryBackoffSeconds", Integer.class, 30);
+        this.maxRetryBackoffSeconds = environment.getProperty("env.events.outbox.maxRetryBackoffSeconds", Integer.class, 3600);
+        this.retentionDays = environment.getProperty("env.events.outbox.retentionDays", Integer.class, 7);
+    }
+}
@@ -0,0 +1,267 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.config.AsyncExecutorConfig;
+import bio.terra.pearl.core.config.BoundedTaskExecutor;
+import bio.terra.pearl.core.dao.kit.KitRequestDao;
+import bio.terra.pearl.core.dao.kit.KitTypeDao;
+import bio.terra.pearl.core.dao.participant.EnrolleeDao;
+import bio.terra.pearl.core.dao.participant.PortalParticipantUserDao;
+import bio.terra.pearl.core.dao.survey.SurveyResponseDao;
+import bio.terra.pearl.core.dao.workflow.EventOutboxDao;
+import bio.terra.pearl.core.dao.workflow.ParticipantTaskDao;
+import bio.terra.pearl.core.model.kit.KitRequest;
+import bio.terra.pearl.core.model.kit.KitType;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.PortalParticipantUser;
+import bio.terra.pearl.core.model.workflow.EventClass;
+import bio.terra.pearl.core.model.workflow.EventOutboxEntry;
+import bio.terra.pearl.core.model.workflow.EventOutboxStatus;
+import bio.terra.pearl.core.service.consent.EnrolleeConsentEvent;
+import bio.terra.pearl.core.service.exception.NotFoundException;
+import bio.terra.pearl.core.service.kit.KitStatusEvent;
+import bio.terra.pearl.core.service.rule.EnrolleeContextService;
+import bio.terra.pearl.core.service.survey.event.EnrolleeSurveyEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * When the outbox is enabled (see EventOutboxConfig), enrollee events are written to the event_outbox_entry table in
+ * the transaction that publishes them, and delivered to OutboxEventListeners by a pool of workers (see
+ * AsyncExecutorConfig.eventOutboxExecutor) once that transaction commits.  Delivery is at least once, and each enrollee's events are delivered one at a time, in the
+ * order they were published.  Failed deliveries are retried with exponential backoff.  Listeners record each side
+ * effect as a step of the delivery (see OutboxDelivery), so a retry only repeats the steps that hadn't completed.
+ *
+ * Deliveries are kicked off as soon as the publishing transaction commits.  The admin api also drains the outbox on a
+ * schedule, which picks up retries and any entries whose worker died before delivering them.
+ *
+ * Events are rebuilt from current data when they are delivered (see rebuildEvent), rather than carrying the objects
+ * they were published with.  This is an intentional change from synchronous delivery: e.g. a trigger rule is evaluated
+ * against the enrollee as they are when the event is delivered, which may include later changes.
+ */
+@Service
+@Slf4j
+public class EventOutboxService {
+    private final EventOutboxDao eventOutboxDao;
+    private final EventOutboxConfig eventOutboxConfig;
+    private final EnrolleeDao enrolleeDao;
+    private final PortalParticipantUserDao portalParticipantUserDao;
+    private final SurveyResponseDao surveyResponseDao;
+    private final ParticipantTaskDao participantTaskDao;
+    private final KitRequestDao kitRequestDao;
+    private final KitTypeDao kitTypeDao;
+    private final EnrolleeContextService enrolleeContextService;
+    private final List<OutboxEventListener> outboxEventListeners;
+    private final BoundedTaskExecutor executor;
+
+    public EventOutboxService(EventOutboxDao eventOutboxDao, EventOutboxConfig eventOutboxConfig, EnrolleeDao enrolleeDao,
+                              PortalParticipantUserDao portalParticipantUserDao, SurveyResponseDao surveyResponseDao,
+                              ParticipantTaskDao participantTaskDao, KitRequestDao kitRequestDao, KitTypeDao kitTypeDao,
+                              EnrolleeContextService enrolleeContextService,
+                              // the listeners are lazy since they may (indirectly) publish events themselves
+                              @Lazy List<OutboxEventListener> outboxEventListeners,
+                              @Qualifier(AsyncExecutorConfig.EVENT_OUTBOX_EXECUTOR) BoundedTaskExecutor executor) {
+        this.eventOutboxDao = eventOutboxDao;
+        this.eventOutboxConfig = eventOutboxConfig;
+        this.enrolleeDao = enrolleeDao;
+        this.portalParticipantUserDao = portalParticipantUserDao;
+        this.surveyResponseDao = surveyResponseDao;
+        this.participantTaskDao = participantTaskDao;
+        this.kitRequestDao = kitRequestDao;
+        this.kitTypeDao = kitTypeDao;
+        this.enrolleeContextService = enrolleeContextService;
+        this.outboxEventListeners = outboxEventListeners;
+        this.executor = executor;
+    }
+
+    public boolean isEnabled() {
+        return eventOutboxConfig.isEnabled();
+    }
+
+    /**
+     * writes the event to the outbox.  This should be called in the transaction that makes the change the event
+     * describes, so that the event is delivered if and only if the change is committed.
+     */
+    public EventOutboxEntry enqueue(EventClass eventClass, EnrolleeEvent event) {
+        EventOutboxEntry.EventOutboxEntryBuilder<?, ?> builder = EventOutboxEntry.builder()
+                .eventClass(eventClass)
+                .enrolleeId(event.getEnrollee().getId())
+                .portalParticipantUserId(event.getPortalParticipantUser().getId());
+        if (event instanceof KitStatusEvent kitStatusEvent) {
+            builder.kitRequestId(kitStatusEvent.getKitRequest().getId())
+                    .kitStatus(kitStatusEvent.getKitRequest().getStatus())
+                    .priorKitStatus(kitStatusEvent.getPriorStatus());
+        } else if (event instanceof EnrolleeSurveyEvent surveyEvent) {
+            builder.surveyResponseId(surveyEvent.getSurveyResponse().getId())
+                    .participantTaskId(surveyEvent.getParticipantTask().getId());
+        }
+        EventOutboxEntry entry = eventOutboxDao.create(builder.build());
+
+        UUID enrolleeId = entry.getEnrolleeId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    kick(enrolleeId);
+                }
+            });
+        } else {
+            kick(enrolleeId);
+        }
+        return entry;
+    }
+
+    /**
+     * leases a batch of due entries, and delivers them in parallel, continuing with each enrollee's later entries until
+     * they are caught up.  Returns the number of entries delivered.
+     */
+    public int drain() {
+        if (!eventOutboxConfig.isEnabled()) {
+            return 0;
+        }
+        List<EventOutboxEntry> entries = eventOutboxDao.leaseDue(eventOutboxConfig.getBatchSize(), leaseDuration());
+        List<CompletableFuture<Integer>> futures = entries.stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> {
+                    if (!deliver(entry)) {
+                        return 0;
+                    }
+                    return 1 + drainEnrollee(entry.getEnrolleeId());
+                }, executor))
+                .toList();
+        return futures.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    /** deletes delivered entries older than the configured retention.  Returns the number deleted */
+    public int deleteExpired() {
+        return eventOutboxDao.deleteDeliveredBefore(
+                Instant.now().minus(eventOutboxConfig.getRetentionDays(), ChronoUnit.DAYS));
+    }
+
+    /** delivers the enrollee's due entries, in order, until one fails or none are left */
+    protected int drainEnrollee(UUID enrolleeId) {
+        int delivered = 0;
+        List<EventOutboxEntry> entries;
+        while (!(entries = eventOutboxDao.leaseDueForEnrollee(enrolleeId, leaseDuration())).isEmpty()) {
+            if (!deliver(entries.get(0))) {
+                // the enrollee's later entries have to wait until this one is retried
+                break;
+            }
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /**
+     * delivers a leased entry to all OutboxEventListeners, and records the outcome.  returns whether delivery succeeded.
+     * If a listener fails, the entry is retried for all listeners, so each may see it more than once, but the steps
+     * they completed in earlier attempts are skipped.
+     */
+    protected boolean deliver(EventOutboxEntry entry) {
+        try {
+            EnrolleeEvent event = rebuildEvent(entry);
+            OutboxDelivery delivery = new OutboxDelivery(entry, eventOutboxDao);
+            for (OutboxEventListener listener : outboxEventListeners) {
+                listener.handleOutboxEvent(event, delivery);
+            }
+            entry.setStatus(EventOutboxStatus.DELIVERED);
+            entry.setLeasedUntil(null);
+            eventOutboxDao.update(entry);
+            return true;
+        } catch (Exception e) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLastError(e.getMessage());
+            entry.setLeasedUntil(null);
+            if (entry.getAttempts() >= eventOutboxConfig.getMaxAttempts()) {
+                entry.setStatus(EventOutboxStatus.FAILED);
+                log.error("Outbox entry {} ({}) for enrollee {} failed after {} attempts, giving up",
+                        entry.getId(), entry.getEventClass(), entry.getEnrolleeId(), entry.getAttempts(), e);
+            } else {
+                entry.setNextAttemptAt(Instant.now().plus(retryBackoff(entry.getAttempts())));
+                log.warn("Outbox entry {} ({}) for enrollee {} failed on attempt {}, will retry at {}",
+                        entry.getId(), entry.getEventClass(), entry.getEnrolleeId(), entry.getAttempts(),
+                        entry.getNextAttemptAt(), e);
+            }
+            eventOutboxDao.update(entry);
+            return false;
+        }
+    }
+
+    /**
+     * rebuilds the event from the entry's ids.  The event's objects are loaded as they are now, not as they were when
+     * the event was published -- by design, so the entry stays small and listeners act on current data.  The one
+     * exception is that a kit status event keeps the status it was published with, so that the same event subclass is
+     * delivered.
+     */
+    protected EnrolleeEvent rebuildEvent(EventOutboxEntry entry) {
+        Enrollee enrollee = enrolleeDao.find(entry.getEnrolleeId())
+                .orElseThrow(() -> new NotFoundException("Enrollee not found: %s".formatted(entry.getEnrolleeId())));
+        PortalParticipantUser ppUser = portalParticipantUserDao.find(entry.getPortalParticipantUserId())
+                .orElseThrow(() -> new NotFoundException("Portal participant user not found: %s"
+                        .formatted(entry.getPortalParticipantUserId())));
+        EnrolleeEvent event = switch (entry.getEventClass()) {
+            case KIT_STATUS_EVENT -> {
+                KitRequest kitRequest = kitRequestDao.find(entry.getKitRequestId())
+                        .orElseThrow(() -> new NotFoundException("Kit request not found: %s".formatted(entry.getKitRequestId())));
+                kitRequest.setStatus(entry.getKitStatus());
+                KitType kitType = kitTypeDao.find(kitRequest.getKitTypeId())
+                        .orElseThrow(() -> new NotFoundException("Kit type not found: %s".formatted(kitRequest.getKitTypeId())));
+                kitRequest.setKitType(kitType);
+                yield KitStatusEvent.newInstance(kitRequest, entry.getPriorKitStatus(), kitType);
+            }
+            case ENROLLEE_SURVEY_EVENT -> EnrolleeSurveyEvent.builder()
+                    .surveyResponse(surveyResponseDao.find(entry.getSurveyResponseId())
+                            .orElseThrow(() -> new NotFoundException("Survey response not found: %s".formatted(entry.getSurveyResponseId()))))
+                    .participantTask(participantTaskDao.find(entry.getParticipantTaskId())
+                            .orElseThrow(() -> new NotFoundException("Task not found: %s".formatted(entry.getParticipantTaskId()))))
+                    .build();
+            case ENROLLEE_CONSENT_EVENT -> EnrolleeConsentEvent.builder().build();
+            case ENROLLEE_CREATION_EVENT -> EnrolleeCreationEvent.builder().build();
+            default -> throw new IllegalStateException("Unsupported outbox event class: %s".formatted(entry.getEventClass()));
+        };
+        event.setEnrollee(enrollee);
+        event.setPortalParticipantUser(ppUser);
+        event.setEnrolleeContext(enrolleeContextService.fetchData(enrollee));
+        enrollee.getParticipantTasks().addAll(participantTaskDao.findByEnrolleeId(enrollee.getId()));
+        return event;
+    }
+
+    private void kick(UUID enrolleeId) {
+        if (!eventOutboxConfig.isEnabled()) {
+            // the outbox was disabled after the entry was written; it stays pending until it's enabled again
+            return;
+        }
+        try {
+            executor.submit(() -> {
+                try {
+                    drainEnrollee(enrolleeId);
+                } catch (Exception e) {
+                    // the entries will be picked up by the next scheduled drain
+                    log.error("Error draining outbox for enrollee {}", enrolleeId, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // the workers are saturated; the entries stay pending for the next scheduled drain
+            log.info("Outbox workers busy, leaving entries for enrollee {} to the scheduled drain", enrolleeId);
+        }
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofSeconds(eventOutboxConfig.getLeaseSeconds());
+    }
+
+    private Duration retryBackoff(int attempts) {
+        long backoffSeconds = (long) eventOutboxConfig.getRetryBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(backoffSeconds, eventOutboxConfig.getMaxRetryBackoffSeconds()));
+    }
+}
@@ -40,13 +40,16 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
     private final ParticipantTaskService participantTaskService;
     private final EnrolleeContextService enrolleeContextService;
     private final KitTypeDao kitTypeDao;
+    private final EventOutboxService eventOutboxService;
 
     public EventService(EventDao dao, ParticipantTaskService participantTaskService,
-                        EnrolleeContextService enrolleeContextService, KitTypeDao kitTypeDao) {
+                        EnrolleeContextService enrolleeContextService, KitTypeDao kitTypeDao,
+                        EventOutboxService eventOutboxService) {
         super(dao);
         this.participantTaskService = participantTaskService;
         this.enrolleeContextService = enrolleeContextService;
         this.kitTypeDao = kitTypeDao;
+        this.eventOutboxService = eventOutboxService;
     }
 
     /**
@@ -74,7 +77,7 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
                 enrollee.getShortcode(), enrollee.getStudyEnvironmentId(),
                 priorStatus, kitRequest.getStatus());
         saveEvent(EventClass.KIT_STATUS_EVENT, portalParticipantUser.getPortalEnvironmentId(), enrollee);
-        applicationEventPublisher.publishEvent(event);
+        publishEnrolleeEvent(EventClass.KIT_STATUS_EVENT, event);
         return event;
     }
 
@@ -88,7 +91,7 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
         log.info("consent event for enrollee {}, studyEnv {}, consented - {}",
                 enrollee.getShortcode(), enrollee.getStudyEnvironmentId(), enrollee.isConsented());
         saveEvent(EventClass.ENROLLEE_CONSENT_EVENT, ppUser.getPortalEnvironmentId(), enrollee);
-        applicationEventPublisher.publishEvent(event);
+        publishEnrolleeEvent(EventClass.ENROLLEE_CONSENT_EVENT, event);
         return event;
     }
 
@@ -105,7 +108,7 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
                 enrollee.getShortcode(), enrollee.getStudyEnvironmentId(),
                 response.getSurveyId(), response.isComplete());
         saveEvent(EventClass.ENROLLEE_SURVEY_EVENT, ppUser.getPortalEnvironmentId(), enrollee);
-        applicationEventPublisher.publishEvent(event);
+        publishEnrolleeEvent(EventClass.ENROLLEE_SURVEY_EVENT, event);
         return event;
     }
 
@@ -130,7 +133,7 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
                 .enrolleeContext(enrolleeContext)
                 .build();
         saveEvent(EventClass.ENROLLEE_CREATION_EVENT, ppUser.getPortalEnvironmentId(), enrollee);
-        applicationEventPublisher.publishEvent(enrolleeEvent);
+        publishEnrolleeEvent(EventClass.ENROLLEE_CREATION_EVENT, enrolleeEvent);
         return enrolleeEvent;
     }
 
@@ -148,6 +151,18 @@ public class EventService extends ImmutableEntityService<Event, EventDao> {
         return event;
     }
 
+    /**
+     * Publishes the event to the synchronous listeners, and, if the outbox is enabled, writes it to the outbox for
+     * the OutboxEventListeners.  The event is written to the outbox first, so that it is queued before any events the
+     * synchronous listeners publish in turn.
+     */
+    private void publishEnrolleeEvent(EventClass eventClass, EnrolleeEvent event) {
+        if (eventOutboxService.isEnabled()) {
+            eventOutboxService.enqueue(eventClass, event);
+        }
+        applicationEventPublisher.publishEvent(event);
+    }
+
     /**
      * Saves a record of the event. If the event does not involve a specific enrollee/portalEnv,
      * they can be set to null.
@@ -0,0 +1,41 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.dao.workflow.EventOutboxDao;
+import bio.terra.pearl.core.model.workflow.EventOutboxEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+
+/**
+ * One attempt to deliver an outbox entry.  Listeners run each of their side effects (e.g. each trigger's action)
+ * through runOnce, which records the step on the entry once it completes.  If a later step fails and the entry is
+ * retried, the completed steps are skipped, so e.g. a notification isn't sent twice because a task update failed.
+ *
+ * A step that completes but whose record fails to save (e.g. because the worker dies in between) may still be repeated.
+ */
+@Slf4j
+public class OutboxDelivery {
+    private final EventOutboxEntry entry;
+    private final EventOutboxDao eventOutboxDao;
+
+    public OutboxDelivery(EventOutboxEntry entry, EventOutboxDao eventOutboxDao) {
+        this.entry = entry;
+        this.eventOutboxDao = eventOutboxDao;
+        if (entry.getCompletedSteps() == null) {
+            // entries written before steps were tracked have no steps column value
+            entry.setCompletedSteps(new ArrayList<>());
+        }
+    }
+
+    /** runs the step, unless it already completed in an earlier attempt.  stepKey must be unique across listeners */
+    public void runOnce(String stepKey, Runnable step) {
+        if (entry.getCompletedSteps().contains(stepKey)) {
+            log.info("Skipping step {} of outbox entry {}, which completed in an earlier attempt", stepKey, entry.getId());
+            return;
+        }
+        step.run();
+        eventOutboxDao.addCompletedStep(entry.getId(), stepKey);
+        // keep the entry in sync, so the step isn't lost when the entry's outcome is saved
+        entry.getCompletedSteps().add(stepKey);
+    }
+}
@@ -0,0 +1,20 @@
+package bio.terra.pearl.core.service.workflow;
+
+/**
+ * A listener for enrollee events whose effects the publisher doesn't need to see.  When the event outbox is enabled
+ * (see EventOutboxConfig), these listeners are not called as events are published.  Instead, EventOutboxService
+ * delivers each event to them after the publishing transaction commits, at least once, and in order for each enrollee.
+ *
+ * Listeners whose effects must be visible in the publisher's response -- e.g. task assignment and consent processing,
+ * which change the tasks and enrollee returned in a HubResponse -- must stay synchronous, and not implement this.
+ * Implementations should also have their @EventListener skip events when the outbox is enabled, e.g. with
+ * condition = "!@eventOutboxConfig.enabled", or skip just the effects they handle from the outbox (as
+ * TriggerActionService does, running task status changes synchronously).
+ *
+ * Since an event may be delivered more than once, implementations should run each side effect through
+ * OutboxDelivery.runOnce, so that it isn't repeated when delivery is retried.  Events are rebuilt from current data when
+ * delivered, so implementations should also tolerate events that reflect later changes than the one that caused them.
+ */
+public interface OutboxEventListener {
+    void handleOutboxEvent(EnrolleeEvent event, OutboxDelivery delivery);
+}
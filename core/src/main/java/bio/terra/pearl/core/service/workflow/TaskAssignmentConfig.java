@@ -0,0 +1,21 @@
+package bio.terra.pearl.core.service.workflow;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+public class TaskAssignmentConfig {
+    /**
+     * the number of enrollees whose eligibility is evaluated, and whose tasks are inserted, together when assigning
+     * tasks.  Each chunk is loaded with a fixed number of queries, and its tasks written in a single batch.
+     */
+    private int chunkSize;
+
+    public TaskAssignmentConfig(Environment environment) {
+        this.chunkSize = environment.getProperty("env.tasks.assignChunkSize", Integer.class, 500);
+    }
+}
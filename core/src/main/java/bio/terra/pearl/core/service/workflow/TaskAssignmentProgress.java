@@ -0,0 +1,21 @@
+package bio.terra.pearl.core.service.workflow;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk task assignment, updated after each chunk of enrollees is processed.
+ * operationId matches the operationId on the audit records of the created tasks.
+ */
+public record TaskAssignmentProgress(UUID operationId,
+                                     UUID studyEnvironmentId,
+                                     String targetStableId,
+                                     int enrolleesProcessed,
+                                     int enrolleesTotal,
+                                     int tasksCreated,
+                                     Instant startedAt,
+                                     Instant updatedAt) {
+    public boolean isComplete() {
+        return enrolleesProcessed >= enrolleesTotal;
+    }
+}
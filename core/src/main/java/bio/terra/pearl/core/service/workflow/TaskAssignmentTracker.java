@@ -0,0 +1,43 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.service.cache.BoundedCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds the progress of recent bulk task assignments in memory, so admins can follow a large assignment while it
+ * runs.  Progress is per server instance and is not persisted -- the durable record of an assignment is the set of
+ * audit records sharing its operation id.
+ */
+@Component
+public class TaskAssignmentTracker {
+    private static final int MAX_TRACKED = 1000;
+    /** how long a finished assignment stays visible */
+    private static final Duration RETENTION = Duration.ofHours(1);
+    private final BoundedCache<UUID, TaskAssignmentProgress> progressByOperationId = new BoundedCache<>(MAX_TRACKED);
+
+    public void update(TaskAssignmentProgress progress) {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        progressByOperationId.removeIf((operationId, tracked) ->
+                tracked.isComplete() && tracked.updatedAt().isBefore(cutoff));
+        progressByOperationId.put(progress.operationId(), progress);
+    }
+
+    public Optional<TaskAssignmentProgress> find(UUID operationId) {
+        return Optional.ofNullable(progressByOperationId.get(operationId));
+    }
+
+    /** recent assignments in the study environment, most recently started first */
+    public List<TaskAssignmentProgress> findByStudyEnvironment(UUID studyEnvironmentId) {
+        return progressByOperationId.values().stream()
+                .filter(progress -> progress.studyEnvironmentId().equals(studyEnvironmentId))
+                .sorted(Comparator.comparing(TaskAssignmentProgress::startedAt).reversed())
+                .toList();
+    }
+}
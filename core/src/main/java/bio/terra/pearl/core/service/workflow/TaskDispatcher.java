@@ -9,6 +9,7 @@ import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.model.workflow.RecurrenceType;
 import bio.terra.pearl.core.model.workflow.TaskStatus;
 import bio.terra.pearl.core.model.workflow.TaskType;
+import bio.terra.pearl.core.service.TransactionHandler;
 import bio.terra.pearl.core.service.participant.EnrolleeService;
 import bio.terra.pearl.core.service.participant.PortalParticipantUserService;
 import bio.terra.pearl.core.service.rule.EnrolleeContext;
@@ -26,6 +27,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Handles dispatching tasks to enrollees based on task configurations.
@@ -43,6 +45,9 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
     private final EnrolleeSearchExpressionParser enrolleeSearchExpressionParser;
     private final EnrolleeContextService enrolleeContextService;
     private final PortalParticipantUserService portalParticipantUserService;
+    private final TaskAssignmentConfig taskAssignmentConfig;
+    private final TaskAssignmentTracker taskAssignmentTracker;
+    private final TransactionHandler transactionHandler;
 
 
     public TaskDispatcher(StudyEnvironmentService studyEnvironmentService,
@@ -50,13 +55,19 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
                           EnrolleeService enrolleeService,
                           EnrolleeSearchExpressionParser enrolleeSearchExpressionParser,
                           EnrolleeContextService enrolleeContextService,
-                          PortalParticipantUserService portalParticipantUserService) {
+                          PortalParticipantUserService portalParticipantUserService,
+                          TaskAssignmentConfig taskAssignmentConfig,
+                          TaskAssignmentTracker taskAssignmentTracker,
+                          TransactionHandler transactionHandler) {
         this.studyEnvironmentService = studyEnvironmentService;
         this.participantTaskService = participantTaskService;
         this.enrolleeService = enrolleeService;
         this.enrolleeSearchExpressionParser = enrolleeSearchExpressionParser;
         this.enrolleeContextService = enrolleeContextService;
         this.portalParticipantUserService = portalParticipantUserService;
+        this.taskAssignmentConfig = taskAssignmentConfig;
+        this.taskAssignmentTracker = taskAssignmentTracker;
+        this.transactionHandler = transactionHandler;
     }
 
     protected abstract List<T> findTaskConfigsByStudyEnvironment(UUID studyEnvId);
@@ -83,46 +94,96 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
         return assign(enrollees, taskConfigOpt.get(), assignDto.overrideEligibility(), assignDto.justification(), operator);
     }
 
+    /**
+     * assigns the task to each of the enrollees who is eligible for it and doesn't already have it.  Enrollees are
+     * processed in chunks: the data needed to evaluate eligibility and check for duplicates is loaded for the whole
+     * chunk at once, and the chunk's tasks and their audit records are each inserted in a single batch.
+     * When called outside a transaction, each chunk commits on its own, so a failure part way through keeps the tasks
+     * from the chunks already done.  When called inside one (e.g. on survey publish), all chunks share it.
+     * Progress is reported to the TaskAssignmentTracker after each chunk, keyed by the operation id on the tasks'
+     * audit records.
+     */
     public List<ParticipantTask> assign(List<Enrollee> enrollees,
                                         T taskDispatchConfig,
                                         boolean overrideEligibility,
                                         String justification,
                                         ResponsibleEntity operator) {
+        UUID auditOperationId = UUID.randomUUID();
+        Instant startedAt = Instant.now();
+        List<ParticipantTask> createdTasks = new ArrayList<>();
+        int chunkSize = Math.max(1, taskAssignmentConfig.getChunkSize());
+        for (int chunkStart = 0; chunkStart < enrollees.size(); chunkStart += chunkSize) {
+            List<Enrollee> chunk = enrollees.subList(chunkStart, Math.min(chunkStart + chunkSize, enrollees.size()));
+            createdTasks.addAll(transactionHandler.runInTransaction(() ->
+                    assignChunk(chunk, taskDispatchConfig, overrideEligibility, auditOperationId, operator)));
+            TaskAssignmentProgress progress = new TaskAssignmentProgress(auditOperationId,
+                    taskDispatchConfig.getStudyEnvironmentId(), taskDispatchConfig.getStableId(),
+                    chunkStart + chunk.size(), enrollees.size(), createdTasks.size(), startedAt, Instant.now());
+            taskAssignmentTracker.update(progress);
+            if (enrollees.size() > chunkSize) {
+                log.info("Task assignment {} for {}: {} of {} enrollees processed, {} tasks created", auditOperationId,
+                        taskDispatchConfig.getStableId(), progress.enrolleesProcessed(), enrollees.size(), createdTasks.size());
+            }
+        }
+        return createdTasks;
+    }
+
+    private List<ParticipantTask> assignChunk(List<Enrollee> enrollees,
+                                              T taskDispatchConfig,
+                                              boolean overrideEligibility,
+                                              UUID auditOperationId,
+                                              ResponsibleEntity operator) {
         List<UUID> profileIds = enrollees.stream().map(Enrollee::getProfileId).toList();
         List<PortalParticipantUser> ppUsers = portalParticipantUserService.findByProfileIds(profileIds);
         if (ppUsers.size() != enrollees.size()) {
             throw new IllegalStateException("Task dispatch failed: Portal participant user not matched to enrollee");
         }
-        List<EnrolleeContext> enrolleeRuleData = enrolleeContextService.fetchData(enrollees.stream().map(Enrollee::getId).toList());
+        List<UUID> enrolleeIds = enrollees.stream().map(Enrollee::getId).toList();
+        Map<UUID, List<ParticipantTask>> existingTasksByEnrollee = participantTaskService.findByEnrolleeIds(enrolleeIds);
+        List<EnrolleeSearchContext> searchContexts = null;
+        if (!overrideEligibility) {
+            // load everything the eligibility rule needs for all the enrollees up front, rather than per enrollee
+            searchContexts = enrolleeContextService.fetchData(enrolleeIds).stream()
+                    .map(ruleData -> new EnrolleeSearchContext(ruleData.getEnrollee(), ruleData.getProfile()))
+                    .toList();
+            enrolleeSearchExpressionParser.parseRuleCached(taskDispatchConfig.getEligibilityRule()).prefetch(searchContexts);
+        }
 
-        UUID auditOperationId = UUID.randomUUID();
-        List<ParticipantTask> createdTasks = new ArrayList<>();
+        List<ParticipantTask> newTasks = new ArrayList<>();
         for (int i = 0; i < enrollees.size(); i++) {
-            List<ParticipantTask> existingTasks = participantTaskService.findByEnrolleeId(enrollees.get(i).getId());
+            List<ParticipantTask> existingTasks = existingTasksByEnrollee.getOrDefault(enrollees.get(i).getId(), List.of());
             Optional<ParticipantTask> taskOpt;
             if (overrideEligibility) {
                 taskOpt = Optional.of(buildTask(enrollees.get(i), ppUsers.get(i),
                         taskDispatchConfig));
             } else {
-                taskOpt = buildTaskIfApplicable(enrollees.get(i), existingTasks, ppUsers.get(i), enrolleeRuleData.get(i),
+                taskOpt = buildTaskIfApplicable(enrollees.get(i), existingTasks, ppUsers.get(i), searchContexts.get(i),
                         taskDispatchConfig);
             }
             if (taskOpt.isPresent()) {
                 ParticipantTask task = taskOpt.get();
                 copyForwardDataIfApplicable(task, taskDispatchConfig, existingTasks);
-                DataAuditInfo auditInfo = DataAuditInfo.builder()
-                        .portalParticipantUserId(ppUsers.get(i).getId())
-                        .operationId(auditOperationId)
-                        .enrolleeId(enrollees.get(i).getId()).build();
-                auditInfo.setResponsibleEntity(operator);
-
-                task = participantTaskService.create(task, auditInfo);
-                log.info("Task creation: enrollee {}  -- task {}, target {}", enrollees.get(i).getShortcode(),
-                        task.getTaskType(), task.getTargetStableId());
-                createdTasks.add(task);
+                newTasks.add(task);
             }
         }
-        return createdTasks;
+        if (newTasks.isEmpty()) {
+            return newTasks;
+        }
+
+        participantTaskService.bulkCreateWithAuditInfos(newTasks, task -> {
+            DataAuditInfo auditInfo = DataAuditInfo.builder()
+                    .portalParticipantUserId(task.getPortalParticipantUserId())
+                    .operationId(auditOperationId)
+                    .enrolleeId(task.getEnrolleeId()).build();
+            auditInfo.setResponsibleEntity(operator);
+            return auditInfo;
+        });
+        Map<UUID, String> shortcodesById = enrollees.stream().collect(Collectors.toMap(Enrollee::getId, Enrollee::getShortcode));
+        for (ParticipantTask task : newTasks) {
+            log.info("Task creation: enrollee {}  -- task {}, target {}", shortcodesById.get(task.getEnrolleeId()),
+                    task.getTaskType(), task.getTargetStableId());
+        }
+        return newTasks;
     }
 
     protected void syncTasksForEnrollee(EnrolleeContext enrolleeContext) {
@@ -178,38 +239,62 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
 
 
     private void assignScheduledTasks(StudyEnvironment studyEnv) {
-        List<T> assignableTasks = findTaskConfigsByStudyEnvironment(studyEnv.getId());
-        for (T assignableTask : assignableTasks) {
-            if (assignableTask.getRecurrenceType() != RecurrenceType.NONE && assignableTask.getRecurrenceIntervalDays() != null) {
-                assignRecurring(assignableTask);
-            }
-            if (assignableTask.getDaysAfterEligible() != null && assignableTask.getDaysAfterEligible() > 0) {
-                assignDelayed(assignableTask);
-            }
+        for (T taskConfig : findScheduledTaskConfigs(studyEnv.getId())) {
+            assignScheduledTasks(taskConfig);
+        }
+    }
+
+    /** the task configs in the study environment that are assigned on a schedule, i.e. recurring or delayed */
+    public List<T> findScheduledTaskConfigs(UUID studyEnvId) {
+        return findTaskConfigsByStudyEnvironment(studyEnvId).stream()
+                .filter(taskConfig -> isRecurring(taskConfig) || isDelayed(taskConfig))
+                .toList();
+    }
+
+    /**
+     * assigns the task to any enrollees who are due for it, either for the first time (if delayed) or again (if
+     * recurring).  Returns the created tasks.
+     */
+    public List<ParticipantTask> assignScheduledTasks(T taskConfig) {
+        List<ParticipantTask> createdTasks = new ArrayList<>();
+        if (isRecurring(taskConfig)) {
+            createdTasks.addAll(assignRecurring(taskConfig));
         }
+        if (isDelayed(taskConfig)) {
+            createdTasks.addAll(assignDelayed(taskConfig));
+        }
+        return createdTasks;
+    }
+
+    private boolean isRecurring(T taskConfig) {
+        return taskConfig.getRecurrenceType() != RecurrenceType.NONE && taskConfig.getRecurrenceIntervalDays() != null;
+    }
+
+    private boolean isDelayed(T taskConfig) {
+        return taskConfig.getDaysAfterEligible() != null && taskConfig.getDaysAfterEligible() > 0;
     }
 
     /**
      * will assign a recurring task to enrollees who have already taken it at least once, but are due to take it again
      */
-    private void assignRecurring(T taskConfig) {
+    private List<ParticipantTask> assignRecurring(T taskConfig) {
         List<Enrollee> enrollees = enrolleeService.findWithTaskInPast(
                 taskConfig.getStudyEnvironmentId(),
                 taskConfig.getStableId(),
                 Duration.of(taskConfig.getRecurrenceIntervalDays(), ChronoUnit.DAYS));
-        assign(enrollees, taskConfig, false, "scheduled",
+        return assign(enrollees, taskConfig, false, "scheduled",
                 new ResponsibleEntity(DataAuditInfo.systemProcessName(getClass(), "assignRecurringSurvey")));
     }
 
     /**
      * will assign a delayed task to enrollees who have never taken it, but are due to take it now
      */
-    private void assignDelayed(T taskConfig) {
+    private List<ParticipantTask> assignDelayed(T taskConfig) {
         List<Enrollee> enrollees = enrolleeService.findUnassignedToTask(taskConfig.getStudyEnvironmentId(), taskConfig.getStableId(), null);
         enrollees = enrollees.stream().filter(enrollee ->
                 enrollee.getCreatedAt().plus(taskConfig.getDaysAfterEligible(), ChronoUnit.DAYS)
                         .isBefore(Instant.now())).toList();
-        assign(enrollees, taskConfig, false, "scheduled", new ResponsibleEntity(DataAuditInfo.systemProcessName(getClass(), "assignDelayedSurvey")));
+        return assign(enrollees, taskConfig, false, "scheduled", new ResponsibleEntity(DataAuditInfo.systemProcessName(getClass(), "assignDelayedSurvey")));
     }
 
     private void createTaskIfApplicable(T taskDispatchConfig,
@@ -219,7 +304,7 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
         Optional<ParticipantTask> taskOpt = buildTaskIfApplicable(enrolleeContext.getEnrollee(),
                 enrolleeContext.getEnrollee().getParticipantTasks(),
                 ppUser,
-                enrolleeContext,
+                new EnrolleeSearchContext(enrolleeContext.getEnrollee(), enrolleeContext.getProfile()),
                 taskDispatchConfig);
         if (taskOpt.isPresent()) {
             ParticipantTask task = taskOpt.get();
@@ -236,9 +321,9 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
     private Optional<ParticipantTask> buildTaskIfApplicable(Enrollee enrollee,
                                                       List<ParticipantTask> existingEnrolleeTasks,
                                                       PortalParticipantUser portalParticipantUser,
-                                                      EnrolleeContext enrolleeContext,
+                                                      EnrolleeSearchContext searchContext,
                                                            T taskDispatchConfig) {
-        if (isEligible(taskDispatchConfig, enrolleeContext)) {
+        if (isEligible(taskDispatchConfig, searchContext)) {
             ParticipantTask task = buildTask(enrollee, portalParticipantUser, taskDispatchConfig);
             if (!isDuplicateTask(taskDispatchConfig, task, existingEnrolleeTasks)) {
                 return Optional.of(task);
@@ -278,18 +363,18 @@ public abstract class TaskDispatcher<T extends TaskConfig> {
         }
     }
 
-    private boolean isEligible(T taskDispatchConfig, EnrolleeContext enrolleeContext) {
+    private boolean isEligible(T taskDispatchConfig, EnrolleeSearchContext searchContext) {
         /**
          * eligible if the enrollee is a subject, the task is not restricted by time, and the enrollee meets the rule
          * note that this does not include a duplicate task check -- that is done elsewhere
          */
         // TODO JN-977: this logic will need to change because we will need to support surveys for proxies
-        return enrolleeContext.getEnrollee().isSubject() &&
+        return searchContext.getEnrollee().isSubject() &&
                 (taskDispatchConfig.getDaysAfterEligible() == null ||
-                        enrolleeContext.getEnrollee().getCreatedAt().plus(taskDispatchConfig.getDaysAfterEligible(), ChronoUnit.DAYS).isBefore(Instant.now())) &&
+                        searchContext.getEnrollee().getCreatedAt().plus(taskDispatchConfig.getDaysAfterEligible(), ChronoUnit.DAYS).isBefore(Instant.now())) &&
                 enrolleeSearchExpressionParser
-                        .parseRule(taskDispatchConfig.getEligibilityRule())
-                        .evaluate(new EnrolleeSearchContext(enrolleeContext.getEnrollee(), enrolleeContext.getProfile()));
+                        .parseRuleCached(taskDispatchConfig.getEligibilityRule())
+                        .evaluate(searchContext);
     }
 
 
@@ -4,15 +4,12 @@ import bio.terra.pearl.core.model.audit.DataAuditInfo;
 import bio.terra.pearl.core.model.notification.Trigger;
 import bio.terra.pearl.core.model.notification.TriggerActionType;
 import bio.terra.pearl.core.model.notification.TriggerScope;
-import bio.terra.pearl.core.model.notification.TriggerType;
 import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.service.admin.AdminUserService;
 import bio.terra.pearl.core.service.notification.NotificationDispatcher;
-import bio.terra.pearl.core.service.notification.TriggerService;
 import bio.terra.pearl.core.service.notification.email.AdminEmailService;
 import bio.terra.pearl.core.service.notification.email.EmailTemplateService;
 import bio.terra.pearl.core.service.portal.PortalService;
-import bio.terra.pearl.core.service.rule.EnrolleeRuleEvaluator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
@@ -31,54 +28,104 @@ import java.util.List;
  */
 @Service
 @Slf4j
-public class TriggerActionService {
-    private final TriggerService triggerService;
+public class TriggerActionService implements OutboxEventListener {
+    private final TriggerRegistry triggerRegistry;
     private final NotificationDispatcher notificationDispatcher;
     private final ParticipantTaskService participantTaskService;
     private final AdminEmailService adminEmailService;
     private final PortalService portalService;
     private final EmailTemplateService emailTemplateService;
     private final AdminUserService adminUserService;
+    private final EventOutboxConfig eventOutboxConfig;
 
-    public TriggerActionService(TriggerService triggerService, NotificationDispatcher notificationDispatcher, ParticipantTaskService participantTaskService, AdminEmailService adminEmailService, PortalService portalService, EmailTemplateService emailTemplateService, AdminUserService adminUserService) {
-        this.triggerService = triggerService;
+    public TriggerActionService(TriggerRegistry triggerRegistry, NotificationDispatcher notificationDispatcher, ParticipantTaskService participantTaskService, AdminEmailService adminEmailService, PortalService portalService, EmailTemplateService emailTemplateService, AdminUserService adminUserService,
+                                EventOutboxConfig eventOutboxConfig) {
+        this.triggerRegistry = triggerRegistry;
         this.notificationDispatcher = notificationDispatcher;
         this.participantTaskService = participantTaskService;
         this.adminEmailService = adminEmailService;
         this.portalService = portalService;
         this.emailTemplateService = emailTemplateService;
         this.adminUserService = adminUserService;
+        this.eventOutboxConfig = eventOutboxConfig;
     }
 
-    /** actions could be triggered by just about anything, so listen to all enrollee events */
+    /**
+     * actions could be triggered by just about anything, so listen to all enrollee events.  Most actions don't change
+     * anything returned to the publisher, so when the outbox is enabled they're run from the outbox instead.  Task
+     * status changes do (the tasks in the participant's HubResponse), so those are always run here, synchronously.
+     */
     @EventListener
     @Order(DispatcherOrder.ACTION)
     public void handleEvent(EnrolleeEvent event) {
-        List<Trigger> applicableTriggers = triggerService
-                .findByStudyEnvironmentId(event.getEnrollee().getStudyEnvironmentId(), true)
-                // only EVENT triggers
-                .stream().filter(trigger  -> trigger.getTriggerType().equals(TriggerType.EVENT))
-                // that match the event type
-                .filter(trigger -> trigger.getEventType().eventClass.isInstance(event))
-                // that match the trigger's event target (if a target is specified)
-                .filter(trigger -> trigger.getFilterTargetStableIds().isEmpty() || trigger.getFilterTargetStableIds().contains(event.getTargetStableId()))
+        boolean outboxEnabled = eventOutboxConfig.isEnabled();
+        for (Trigger trigger : findApplicableTriggers(event)) {
+            if (!outboxEnabled || isSynchronous(trigger)) {
+                runAction(trigger, event);
+            }
+        }
+    }
+
+    /**
+     * each trigger's action is a separate step, so an action isn't repeated if a later one fails and is retried.
+     * Notifications are sent on the outbox worker rather than queued, so the step is only recorded complete once the
+     * send has been attempted and its outcome saved.
+     */
+    @Override
+    public void handleOutboxEvent(EnrolleeEvent event, OutboxDelivery delivery) {
+        for (Trigger trigger : findApplicableTriggers(event)) {
+            if (isSynchronous(trigger)) {
+                // already run by handleEvent when the event was published
+                continue;
+            }
+            delivery.runOnce("trigger:%s".formatted(trigger.getId()), () -> {
+                if (TriggerActionType.NOTIFICATION.equals(trigger.getActionType())) {
+                    notificationDispatcher.dispatchNotification(trigger, event.getEnrolleeContext(),
+                            notificationDispatcher.loadContextInfo(trigger));
+                } else {
+                    runAction(trigger, event);
+                }
+            });
+        }
+    }
+
+    private List<Trigger> findApplicableTriggers(EnrolleeEvent event) {
+        return triggerRegistry
+                // active EVENT triggers that match the event type and the trigger's event target (if specified)
+                .findEventTriggers(event.getEnrollee().getStudyEnvironmentId(), event)
                 // that satisfy the trigger's rule
-                .filter(trigger -> EnrolleeRuleEvaluator.evaluateRule(trigger.getRule(), event.getEnrolleeContext()))
+                .stream().filter(registeredTrigger -> ruleMatches(registeredTrigger, event))
+                .map(TriggerRegistry.RegisteredTrigger::trigger)
                 .toList();
+    }
 
-        for (Trigger trigger: applicableTriggers) {
-            if (TriggerActionType.NOTIFICATION.equals(trigger.getActionType())) {
-                notificationDispatcher.dispatchNotificationAsync(trigger, event.getEnrolleeContext(),
-                        event.getPortalParticipantUser().getPortalEnvironmentId());
-            } else if (TriggerActionType.ADMIN_NOTIFICATION.equals(trigger.getActionType())) {
-                try {
-                    adminEmailService.sendEmailFromTrigger(trigger, event);
-                } catch (Exception e) {
-                    log.error("Failed to send admin email for trigger {}", trigger.getId(), e);
-                }
-            } else if (TriggerActionType.TASK_STATUS_CHANGE.equals(trigger.getActionType())) {
-                updateTaskStatus(trigger, event);
+    /** whether the trigger's action must complete before the event's publisher continues */
+    private boolean isSynchronous(Trigger trigger) {
+        return TriggerActionType.TASK_STATUS_CHANGE.equals(trigger.getActionType());
+    }
+
+    private void runAction(Trigger trigger, EnrolleeEvent event) {
+        if (TriggerActionType.NOTIFICATION.equals(trigger.getActionType())) {
+            notificationDispatcher.dispatchNotificationAsync(trigger, event.getEnrolleeContext(),
+                    event.getPortalParticipantUser().getPortalEnvironmentId());
+        } else if (TriggerActionType.ADMIN_NOTIFICATION.equals(trigger.getActionType())) {
+            try {
+                adminEmailService.sendEmailFromTrigger(trigger, event);
+            } catch (Exception e) {
+                log.error("Failed to send admin email for trigger {}", trigger.getId(), e);
             }
+        } else if (TriggerActionType.TASK_STATUS_CHANGE.equals(trigger.getActionType())) {
+            updateTaskStatus(trigger, event);
+        }
+    }
+
+    private boolean ruleMatches(TriggerRegistry.RegisteredTrigger registeredTrigger, EnrolleeEvent event) {
+        try {
+            return registeredTrigger.rule().evaluate(event.getEnrolleeContext());
+        } catch (RuntimeException e) {
+            log.warn("Error evaluating rule [ {} ] for trigger {}: enrollee {}", registeredTrigger.rule().getRule(),
+                    registeredTrigger.trigger().getId(), event.getEnrollee().getShortcode(), e);
+            return false;
         }
     }
 
@@ -0,0 +1,109 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.dao.notification.TriggerDao;
+import bio.terra.pearl.core.model.notification.Trigger;
+import bio.terra.pearl.core.model.notification.TriggerEventType;
+import bio.terra.pearl.core.model.notification.TriggerType;
+import bio.terra.pearl.core.service.cache.VersionedCache;
+import bio.terra.pearl.core.service.rule.CompiledEnrolleeRule;
+import bio.terra.pearl.core.service.rule.EnrolleeRuleEvaluator;
+import bio.terra.pearl.core.service.rule.RuleParsingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Holds the active event triggers for each study environment, indexed by event type and target stable id, with their
+ * rules compiled.  This lets TriggerActionService route an event with map lookups, rather than loading and scanning
+ * all the environment's triggers.
+ *
+ * Each entry is stored with the environment's trigger version stamp (see
+ * TriggerDao.findVersionStampByStudyEnvironmentId), which is checked on every lookup, so changes made by other
+ * processes are picked up.  Entries are also evicted directly when triggers are changed through TriggerService.
+ */
+@Component
+@Slf4j
+public class TriggerRegistry {
+    private static final int MAX_CACHED_STUDY_ENVS = 1000;
+    /** the trigger event types that apply to each event class, including event subclasses */
+    private static final ClassValue<List<TriggerEventType>> EVENT_TYPES_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected List<TriggerEventType> computeValue(Class<?> eventClass) {
+            return Arrays.stream(TriggerEventType.values())
+                    .filter(eventType -> eventType.eventClass.isAssignableFrom(eventClass))
+                    .toList();
+        }
+    };
+    private final VersionedCache<UUID, StudyEnvTriggers> registry = new VersionedCache<>(MAX_CACHED_STUDY_ENVS);
+    private final TriggerDao triggerDao;
+
+    public TriggerRegistry(TriggerDao triggerDao) {
+        this.triggerDao = triggerDao;
+    }
+
+    /**
+     * returns the active EVENT triggers in the study environment that match the event's type and target.  The triggers'
+     * rules are not evaluated, and the returned triggers must not be modified.
+     */
+    public List<RegisteredTrigger> findEventTriggers(UUID studyEnvId, EnrolleeEvent event) {
+        StudyEnvTriggers studyEnvTriggers = getStudyEnvTriggers(studyEnvId);
+        List<RegisteredTrigger> matches = new ArrayList<>();
+        for (TriggerEventType eventType : EVENT_TYPES_BY_CLASS.get(event.getClass())) {
+            matches.addAll(studyEnvTriggers.untargeted().getOrDefault(eventType, List.of()));
+            if (event.getTargetStableId() != null) {
+                matches.addAll(studyEnvTriggers.targeted()
+                        .getOrDefault(new TargetKey(eventType, event.getTargetStableId()), List.of()));
+            }
+        }
+        return matches;
+    }
+
+    public void evict(UUID studyEnvId) {
+        if (studyEnvId != null) {
+            registry.remove(studyEnvId);
+        }
+    }
+
+    private StudyEnvTriggers getStudyEnvTriggers(UUID studyEnvId) {
+        String versionStamp = triggerDao.findVersionStampByStudyEnvironmentId(studyEnvId);
+        return registry.get(studyEnvId, versionStamp,
+                () -> index(triggerDao.findByStudyEnvironmentId(studyEnvId, true)));
+    }
+
+    private StudyEnvTriggers index(List<Trigger> triggers) {
+        Map<TriggerEventType, List<RegisteredTrigger>> untargeted = new EnumMap<>(TriggerEventType.class);
+        Map<TargetKey, List<RegisteredTrigger>> targeted = new HashMap<>();
+        for (Trigger trigger : triggers) {
+            if (!TriggerType.EVENT.equals(trigger.getTriggerType()) || trigger.getEventType() == null) {
+                continue;
+            }
+            CompiledEnrolleeRule rule;
+            try {
+                rule = EnrolleeRuleEvaluator.getCompiledRule(trigger.getRule());
+            } catch (RuleParsingException e) {
+                // a rule that can't be parsed never matches, as with EnrolleeRuleEvaluator.evaluateRule
+                log.warn("Error compiling rule [ {} ] for trigger {}", trigger.getRule(), trigger.getId(), e);
+                continue;
+            }
+            RegisteredTrigger registeredTrigger = new RegisteredTrigger(trigger, rule);
+            if (trigger.getFilterTargetStableIds() == null || trigger.getFilterTargetStableIds().isEmpty()) {
+                untargeted.computeIfAbsent(trigger.getEventType(), eventType -> new ArrayList<>()).add(registeredTrigger);
+            } else {
+                for (String targetStableId : new LinkedHashSet<>(trigger.getFilterTargetStableIds())) {
+                    targeted.computeIfAbsent(new TargetKey(trigger.getEventType(), targetStableId), key -> new ArrayList<>())
+                            .add(registeredTrigger);
+                }
+            }
+        }
+        return new StudyEnvTriggers(untargeted, targeted);
+    }
+
+    /** an active event trigger, with its rule compiled */
+    public record RegisteredTrigger(Trigger trigger, CompiledEnrolleeRule rule) { }
+
+    private record TargetKey(TriggerEventType eventType, String targetStableId) { }
+
+    private record StudyEnvTriggers(Map<TriggerEventType, List<RegisteredTrigger>> untargeted,
+                                    Map<TargetKey, List<RegisteredTrigger>> targeted) { }
+}
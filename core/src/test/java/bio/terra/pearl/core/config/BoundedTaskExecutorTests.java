@@ -0,0 +1,86 @@
+package bio.terra.pearl.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedTaskExecutorTests {
+    @Test
+    public void testCallerRunsWhenFull() throws Exception {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("testCallerRuns", 1, 1, BoundedTaskExecutor.WhenFull.CALLER_RUNS);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release)); // occupies the only thread
+            executor.execute(() -> await(release)); // fills the queue
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+            assertThat(ranOn.get(), equalTo(Thread.currentThread()));
+            BoundedTaskExecutor.Stats stats = executor.getStats();
+            assertThat(stats.poolSize(), equalTo(1));
+            assertThat(stats.queueDepth(), equalTo(1));
+            assertThat(stats.queueRemainingCapacity(), equalTo(0));
+            assertThat(stats.rejectedCount(), equalTo(1L));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsWhenFull() {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("testRejects", 1, 0, BoundedTaskExecutor.WhenFull.REJECT);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+            assertThat(executor.getStats().rejectedCount(), equalTo(1L));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsOnlyOutsideTransaction() {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("testCallerRunsOutsideTransaction", 1, 0,
+                BoundedTaskExecutor.WhenFull.CALLER_RUNS_OUTSIDE_TRANSACTION);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            executor.execute(() -> ranOn.set(Thread.currentThread()));
+            assertThat(ranOn.get(), equalTo(Thread.currentThread()));
+
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+            assertThat(executor.getStats().rejectedCount(), equalTo(2L));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
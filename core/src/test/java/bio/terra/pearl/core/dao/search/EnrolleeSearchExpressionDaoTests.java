@@ -22,8 +22,11 @@ import bio.terra.pearl.core.model.workflow.TaskType;
 import bio.terra.pearl.core.service.kit.pepper.PepperKitStatus;
 import bio.terra.pearl.core.service.participant.PortalParticipantUserService;
 import bio.terra.pearl.core.service.participant.ProfileService;
+import bio.terra.pearl.core.service.exception.ValidationException;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpression;
+import bio.terra.pearl.core.service.search.EnrolleeSearchCursor;
 import bio.terra.pearl.core.service.search.EnrolleeSearchExpressionParser;
+import bio.terra.pearl.core.service.search.EnrolleeSearchOptions;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Assertions;
@@ -35,9 +38,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -71,6 +78,113 @@ public class EnrolleeSearchExpressionDaoTests extends BaseSpringBootTest {
     TimeShiftDao timeShiftDao;
 
 
+    @Test
+    @Transactional
+    public void testCursorPaging(TestInfo info) {
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(getTestName(info));
+        List<Enrollee> enrollees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            enrollees.add(enrolleeFactory.buildPersisted(getTestName(info), studyEnv, new Profile()));
+        }
+        // an enrollee in another environment, which should never be returned
+        enrolleeFactory.buildPersisted(getTestName(info), studyEnvironmentFactory.buildPersisted(getTestName(info)), new Profile());
+        List<UUID> expectedIds = enrollees.stream()
+                .sorted(Comparator.comparing(Enrollee::getCreatedAt).reversed())
+                .map(Enrollee::getId)
+                .toList();
+
+        EnrolleeSearchExpression exp = enrolleeSearchExpressionParser.parseRule("");
+        List<UUID> pagedIds = new ArrayList<>();
+        EnrolleeSearchCursor cursor = null;
+        int numPages = 0;
+        do {
+            List<EnrolleeSearchExpressionResult> page = enrolleeSearchExpressionDao.executeSearch(exp, studyEnv.getId(),
+                    EnrolleeSearchOptions.builder().sortField(EnrolleeSearchOptions.CURSOR_SORT_FIELD).limit(2).after(cursor).build());
+            assertThat(page.size(), lessThanOrEqualTo(2));
+            page.forEach(result -> pagedIds.add(result.getEnrollee().getId()));
+            cursor = page.isEmpty() ? null : EnrolleeSearchCursor.of(page.get(page.size() - 1).getEnrollee());
+            numPages++;
+        } while (cursor != null);
+
+        assertThat(pagedIds, equalTo(expectedIds));
+        // 3 pages of results, then an empty one
+        assertThat(numPages, equalTo(4));
+
+        // offsets give the same pages
+        List<EnrolleeSearchExpressionResult> offsetPage = enrolleeSearchExpressionDao.executeSearch(exp, studyEnv.getId(),
+                EnrolleeSearchOptions.builder().sortField(EnrolleeSearchOptions.CURSOR_SORT_FIELD).limit(2).offset(2).build());
+        assertThat(offsetPage.stream().map(result -> result.getEnrollee().getId()).toList(), equalTo(expectedIds.subList(2, 4)));
+
+        assertThat(enrolleeSearchExpressionDao.countSearch(exp, studyEnv.getId()), equalTo(5L));
+    }
+
+    @Test
+    @Transactional
+    public void testCursorPagingWithFamilies(TestInfo info) {
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(getTestName(info));
+        List<Enrollee> enrollees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            enrollees.add(enrolleeFactory.buildPersisted(getTestName(info), studyEnv, new Profile()));
+        }
+        List<Enrollee> newestFirst = enrollees.stream()
+                .sorted(Comparator.comparing(Enrollee::getCreatedAt).thenComparing(Enrollee::getId).reversed())
+                .toList();
+        // the second enrollee on the first page is in two families, so has two rows, and a limit counting rows would
+        // end the page partway through them
+        Enrollee inTwoFamilies = newestFirst.get(1);
+        Family family1 = familyFactory.buildPersisted(getTestName(info), inTwoFamilies);
+        Family family2 = familyFactory.buildPersisted(getTestName(info), inTwoFamilies);
+        familyFactory.linkEnrolleeToFamily(newestFirst.get(0), family1);
+
+        EnrolleeSearchExpression exp = enrolleeSearchExpressionParser.parseRule("include({family.shortcode})");
+        List<EnrolleeSearchExpressionResult> pagedResults = new ArrayList<>();
+        EnrolleeSearchCursor cursor = null;
+        do {
+            List<EnrolleeSearchExpressionResult> page = enrolleeSearchExpressionDao.executeSearch(exp, studyEnv.getId(),
+                    EnrolleeSearchOptions.builder().sortField(EnrolleeSearchOptions.CURSOR_SORT_FIELD).limit(2).after(cursor).build());
+            assertThat(page.size(), lessThanOrEqualTo(2));
+            pagedResults.addAll(page);
+            cursor = page.isEmpty() ? null : EnrolleeSearchCursor.of(page.get(page.size() - 1).getEnrollee());
+        } while (cursor != null);
+
+        assertThat(pagedResults.stream().map(result -> result.getEnrollee().getId()).toList(),
+                equalTo(newestFirst.stream().map(Enrollee::getId).toList()));
+        // every family row of the enrollee in two families was returned, on the same page
+        assertThat(pagedResults.get(1).getFamilies().stream().map(Family::getId).collect(Collectors.toSet()),
+                equalTo(Set.of(family1.getId(), family2.getId())));
+        assertThat(pagedResults.get(0).getFamilies().stream().map(Family::getId).toList(), equalTo(List.of(family1.getId())));
+    }
+
+    @Test
+    public void testCursorEncoding() {
+        EnrolleeSearchCursor cursor = new EnrolleeSearchCursor(Instant.parse("2024-05-01T12:30:00.123456Z"), UUID.randomUUID());
+        assertThat(EnrolleeSearchCursor.decode(cursor.encode()), equalTo(cursor));
+        Assertions.assertThrows(ValidationException.class, () -> EnrolleeSearchCursor.decode("notACursor"));
+    }
+
+    @Test
+    @Transactional
+    public void testChangedSince(TestInfo info) {
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(getTestName(info));
+        Enrollee withNewKit = enrolleeFactory.buildPersisted(getTestName(info), studyEnv, new Profile());
+        Enrollee withNewFamily = enrolleeFactory.buildPersisted(getTestName(info), studyEnv, new Profile());
+        enrolleeFactory.buildPersisted(getTestName(info), studyEnv, new Profile());
+        Instant changedSince = Instant.now();
+        kitRequestFactory.buildPersisted(getTestName(info), withNewKit, PepperKitStatus.CREATED);
+        familyFactory.buildPersisted(getTestName(info), withNewFamily);
+
+        List<EnrolleeSearchExpressionResult> results = enrolleeSearchExpressionDao.executeSearch(null, studyEnv.getId(),
+                EnrolleeSearchOptions.builder().changedSince(changedSince).build());
+        assertThat(results.stream().map(result -> result.getEnrollee().getId()).toList(),
+                containsInAnyOrder(withNewKit.getId(), withNewFamily.getId()));
+
+        // the limit applies to the changed enrollees
+        results = enrolleeSearchExpressionDao.executeSearch(null, studyEnv.getId(),
+                EnrolleeSearchOptions.builder().sortField(EnrolleeSearchOptions.CURSOR_SORT_FIELD).limit(1)
+                        .changedSince(changedSince).build());
+        assertThat(results, hasSize(1));
+    }
+
     @Test
     @Transactional
     public void testExecuteAnswerSearch(TestInfo info) {
@@ -372,6 +486,16 @@ public class EnrolleeSearchExpressionDaoTests extends BaseSpringBootTest {
         // attaches the task to the enrollee search result
         assertTrue(resultsInProgress.stream().allMatch(r -> r.getTasks().size() == 1 && r.getTasks().get(0).getTargetStableId().equals("demographic_survey")));
         assertTrue(resultsAssigned.stream().allMatch(r -> r.getTasks().size() == 1 && r.getTasks().get(0).getTargetStableId().equals("demographic_survey")));
+
+        EnrolleeSearchExpression notAssignedExp = enrolleeSearchExpressionParser.parseRule(
+                "{task.demographic_survey.assigned} = false"
+        );
+        List<EnrolleeSearchExpressionResult> resultsNotAssigned = enrolleeSearchExpressionDao.executeSearch(notAssignedExp, studyEnvBundle.getStudyEnv().getId());
+        Assertions.assertEquals(2, resultsNotAssigned.size());
+        assertTrue(resultsNotAssigned.stream().anyMatch(r -> r.getEnrollee().getId().equals(enrolleeNotAssigned.getId())));
+        assertTrue(resultsNotAssigned.stream().anyMatch(r -> r.getEnrollee().getId().equals(eBundleInProgressWrongTask.enrollee().getId())));
+        // no task is attached when the enrollee doesn't have one
+        assertTrue(resultsNotAssigned.stream().allMatch(r -> r.getTasks().isEmpty()));
     }
 
     @Test
@@ -0,0 +1,88 @@
+package bio.terra.pearl.core.dao.workflow;
+
+import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.factory.participant.EnrolleeBundle;
+import bio.terra.pearl.core.factory.participant.EnrolleeFactory;
+import bio.terra.pearl.core.model.workflow.EventClass;
+import bio.terra.pearl.core.model.workflow.EventOutboxEntry;
+import bio.terra.pearl.core.model.workflow.EventOutboxStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+
+public class EventOutboxDaoTests extends BaseSpringBootTest {
+    @Autowired
+    private EventOutboxDao eventOutboxDao;
+    @Autowired
+    private EnrolleeFactory enrolleeFactory;
+
+    @Test
+    @Transactional
+    public void testLeaseDueInOrderPerEnrollee(TestInfo testInfo) {
+        EnrolleeBundle bundle1 = enrolleeFactory.buildWithPortalUser(getTestName(testInfo));
+        EnrolleeBundle bundle2 = enrolleeFactory.buildWithPortalUser(getTestName(testInfo));
+        EventOutboxEntry first1 = createEntry(bundle1, EventClass.ENROLLEE_CREATION_EVENT);
+        EventOutboxEntry second1 = createEntry(bundle1, EventClass.ENROLLEE_CONSENT_EVENT);
+        EventOutboxEntry first2 = createEntry(bundle2, EventClass.ENROLLEE_CREATION_EVENT);
+
+        // only the oldest entry for each enrollee is leased
+        List<EventOutboxEntry> leased = eventOutboxDao.leaseDue(1000, Duration.ofMinutes(5));
+        List<UUID> leasedIds = leased.stream().map(EventOutboxEntry::getId).toList();
+        assertThat(leasedIds, hasItems(first1.getId(), first2.getId()));
+        assertThat(leasedIds, not(hasItem(second1.getId())));
+
+        // leased entries can't be leased again, and hold up the enrollee's later entries
+        assertThat(eventOutboxDao.leaseDueForEnrollee(bundle1.enrollee().getId(), Duration.ofMinutes(5)), empty());
+
+        EventOutboxEntry delivered = eventOutboxDao.find(first1.getId()).orElseThrow();
+        delivered.setStatus(EventOutboxStatus.DELIVERED);
+        delivered.setLeasedUntil(null);
+        eventOutboxDao.update(delivered);
+        assertThat(eventOutboxDao.leaseDueForEnrollee(bundle1.enrollee().getId(), Duration.ofMinutes(5))
+                .stream().map(EventOutboxEntry::getId).toList(), contains(second1.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void testLeaseSkipsEntriesNotYetDue(TestInfo testInfo) {
+        EnrolleeBundle bundle = enrolleeFactory.buildWithPortalUser(getTestName(testInfo));
+        EventOutboxEntry entry = createEntry(bundle, EventClass.ENROLLEE_CREATION_EVENT);
+        entry.setNextAttemptAt(Instant.now().plus(Duration.ofMinutes(10)));
+        eventOutboxDao.update(entry);
+
+        assertThat(eventOutboxDao.leaseDueForEnrollee(bundle.enrollee().getId(), Duration.ofMinutes(5)), empty());
+    }
+
+    @Test
+    @Transactional
+    public void testAddCompletedStep(TestInfo testInfo) {
+        EnrolleeBundle bundle = enrolleeFactory.buildWithPortalUser(getTestName(testInfo));
+        EventOutboxEntry entry = createEntry(bundle, EventClass.ENROLLEE_CREATION_EVENT);
+        eventOutboxDao.addCompletedStep(entry.getId(), "trigger:1");
+        eventOutboxDao.addCompletedStep(entry.getId(), "trigger:2");
+
+        assertThat(eventOutboxDao.find(entry.getId()).orElseThrow().getCompletedSteps(),
+                contains("trigger:1", "trigger:2"));
+    }
+
+    private EventOutboxEntry createEntry(EnrolleeBundle bundle, EventClass eventClass) {
+        return eventOutboxDao.create(EventOutboxEntry.builder()
+                .eventClass(eventClass)
+                .enrolleeId(bundle.enrollee().getId())
+                .portalParticipantUserId(bundle.portalParticipantUser().getId())
+                .build());
+    }
+}
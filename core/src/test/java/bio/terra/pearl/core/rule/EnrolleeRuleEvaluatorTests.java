@@ -1,13 +1,16 @@
 package bio.terra.pearl.core.rule;
 
+import bio.terra.pearl.core.model.address.MailingAddress;
 import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.model.participant.Profile;
+import bio.terra.pearl.core.service.rule.CompiledEnrolleeRule;
 import bio.terra.pearl.core.service.rule.EnrolleeContext;
 import bio.terra.pearl.core.service.rule.EnrolleeRuleEvaluator;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class EnrolleeRuleEvaluatorTests {
 
@@ -82,6 +85,26 @@ public class EnrolleeRuleEvaluatorTests {
         assertThat(EnrolleeRuleEvaluator.evaluateRuleChecked(rule, new EnrolleeContext(Enrollee.builder().shortcode("FOO").build(), null, null)), equalTo(false));
     }
 
+    @Test
+    public void testNestedVariableInsertion() throws Exception {
+        String rule = "{profile.mailingAddress.country} = 'US'";
+        Profile usProfile = Profile.builder().mailingAddress(MailingAddress.builder().country("US").build()).build();
+        assertThat(EnrolleeRuleEvaluator.evaluateRuleChecked(rule, new EnrolleeContext(null, usProfile, null)), equalTo(true));
+        assertThat(EnrolleeRuleEvaluator.evaluateRuleChecked(rule, new EnrolleeContext(null, Profile.builder().build(), null)), equalTo(false));
+    }
+
+    @Test
+    public void testCompiledRuleIsReused() throws Exception {
+        String rule = "{enrollee.consented} = true and {profile.sexAtBirth} = 'F'";
+        CompiledEnrolleeRule compiledRule = EnrolleeRuleEvaluator.getCompiledRule(rule);
+        assertThat(EnrolleeRuleEvaluator.getCompiledRule(rule), sameInstance(compiledRule));
+        // a compiled rule can be evaluated against any enrollee
+        assertThat(compiledRule.evaluate(new EnrolleeContext(Enrollee.builder().consented(true).build(),
+                Profile.builder().sexAtBirth("F").build(), null)), equalTo(true));
+        assertThat(compiledRule.evaluate(new EnrolleeContext(Enrollee.builder().consented(false).build(),
+                Profile.builder().sexAtBirth("F").build(), null)), equalTo(false));
+    }
+
     /**
      *  We should have tests for numeric values here, but we don't yet have numeric properties on EnrolleeRuleData --
      * that will come once we start attaching answers to EnrolleeRuleData.
@@ -0,0 +1,116 @@
+package bio.terra.pearl.core.service.admin;
+
+import bio.terra.pearl.core.MutableClock;
+import bio.terra.pearl.core.model.admin.AdminPrincipal;
+import bio.terra.pearl.core.model.admin.AdminUser;
+import bio.terra.pearl.core.model.portal.Portal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class AdminAuthCacheTests {
+    private final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    public void testPrincipalCachedUntilExpiry() {
+        MutableClock clock = new MutableClock(start);
+        AdminAuthCache cache = new AdminAuthCache(Duration.ofSeconds(30), clock);
+        AtomicInteger loads = new AtomicInteger();
+        AdminPrincipal principal = principal(UUID.randomUUID(), "Staff@test.com");
+
+        AdminPrincipal first = cache.getPrincipal("staff@test.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(principal);
+        }).orElseThrow();
+        // usernames are case-insensitive
+        AdminPrincipal second = cache.getPrincipal("STAFF@test.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(principal);
+        }).orElseThrow();
+        assertThat(loads.get(), equalTo(1));
+        assertThat(second.user().getId(), equalTo(principal.user().getId()));
+        // callers get their own copy of the user
+        assertThat(second.user(), not(sameInstance(first.user())));
+
+        clock.setInstant(start.plusSeconds(31));
+        cache.getPrincipal("staff@test.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(principal);
+        });
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void testEvictPrincipal() {
+        AdminAuthCache cache = new AdminAuthCache(Duration.ofSeconds(30), Clock.fixed(start, ZoneOffset.UTC));
+        AtomicInteger loads = new AtomicInteger();
+        UUID adminUserId = UUID.randomUUID();
+        AdminPrincipal principal = principal(adminUserId, "staff@test.com");
+
+        cache.getPrincipal("staff@test.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(principal);
+        });
+        cache.evictPrincipal(adminUserId);
+        cache.getPrincipal("staff@test.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(principal);
+        });
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void testMissesNotCached() {
+        AdminAuthCache cache = new AdminAuthCache(Duration.ofSeconds(30), Clock.fixed(start, ZoneOffset.UTC));
+        assertThat(cache.getPortal("newPortal", Optional::empty).isPresent(), equalTo(false));
+        Portal portal = Portal.builder().id(UUID.randomUUID()).shortcode("newPortal").name("New").build();
+        assertThat(cache.getPortal("newPortal", () -> Optional.of(portal)).orElseThrow().getId(),
+                equalTo(portal.getId()));
+    }
+
+    @Test
+    public void testEvictPortal() {
+        AdminAuthCache cache = new AdminAuthCache(Duration.ofSeconds(30), Clock.fixed(start, ZoneOffset.UTC));
+        Portal portal = Portal.builder().id(UUID.randomUUID()).shortcode("portal1").name("Original").build();
+        cache.getPortal("portal1", () -> Optional.of(portal));
+        Portal renamed = Portal.builder().id(portal.getId()).shortcode("portal1").name("Renamed").build();
+        assertThat(cache.getPortal("portal1", () -> Optional.of(renamed)).orElseThrow().getName(),
+                equalTo("Original"));
+
+        cache.evictPortal(portal.getId());
+        assertThat(cache.getPortal("portal1", () -> Optional.of(renamed)).orElseThrow().getName(),
+                equalTo("Renamed"));
+    }
+
+    @Test
+    public void testZeroTtlDisablesCaching() {
+        AdminAuthCache cache = new AdminAuthCache(Duration.ZERO, Clock.fixed(start, ZoneOffset.UTC));
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.getPortal("portal1", () -> {
+                loads.incrementAndGet();
+                return Optional.of(Portal.builder().id(UUID.randomUUID()).shortcode("portal1").build());
+            });
+        }
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    private AdminPrincipal principal(UUID adminUserId, String username) {
+        AdminUser user = AdminUser.builder().id(adminUserId).username(username).build();
+        UUID portalId = UUID.randomUUID();
+        return new AdminPrincipal(user, Set.of(portalId), Map.of(portalId, Set.of("participant_data_view")));
+    }
+}
@@ -7,6 +7,7 @@ import bio.terra.pearl.core.factory.admin.PermissionFactory;
 import bio.terra.pearl.core.factory.admin.PortalAdminUserFactory;
 import bio.terra.pearl.core.factory.admin.RoleFactory;
 import bio.terra.pearl.core.factory.portal.PortalFactory;
+import bio.terra.pearl.core.model.admin.AdminPrincipal;
 import bio.terra.pearl.core.model.admin.AdminUser;
 import bio.terra.pearl.core.model.admin.AdminUserWithPermissions;
 import bio.terra.pearl.core.model.admin.Permission;
@@ -111,6 +112,28 @@ public class AdminUserServiceTests extends BaseSpringBootTest {
         ) );
     }
 
+    @Test
+    @Transactional
+    public void testFindPrincipal(TestInfo info) {
+        Permission permission = permissionFactory.buildPersisted(getTestName(info));
+        Role role = roleFactory.buildPersisted(getTestName(info), List.of(permission.getName()));
+        PortalAdminUser portalAdminUser = portalAdminUserFactory.buildPersisted(getTestName(info));
+        AdminUser adminUser = adminUserService.find(portalAdminUser.getAdminUserId()).get();
+        Portal otherPortal = portalFactory.buildPersisted(getTestName(info));
+
+        AdminPrincipal principal = adminUserService.findPrincipalByUsername(adminUser.getUsername().toUpperCase()).get();
+        assertThat(principal.user().getId(), equalTo(adminUser.getId()));
+        assertThat(principal.isInPortal(portalAdminUser.getPortalId()), equalTo(true));
+        assertThat(principal.isInPortal(otherPortal.getId()), equalTo(false));
+        assertThat(principal.hasPermission(portalAdminUser.getPortalId(), permission.getName()), equalTo(false));
+
+        portalAdminUserRoleService.setRoles(portalAdminUser.getId(), List.of(role.getName()), getAuditInfo(info));
+        principal = adminUserService.findPrincipalByUsername(adminUser.getUsername()).get();
+        assertThat(principal.hasPermission(portalAdminUser.getPortalId(), permission.getName()), equalTo(true));
+        assertThat(principal.hasPermission(otherPortal.getId(), permission.getName()), equalTo(false));
+        assertThat(adminUserService.findPrincipalByUsername(adminUser.getUsername() + "x").isPresent(), equalTo(false));
+    }
+
     @Test
     @Transactional
     public void testGetByPortal(TestInfo info) {
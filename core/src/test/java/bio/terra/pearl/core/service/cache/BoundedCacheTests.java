@@ -0,0 +1,49 @@
+package bio.terra.pearl.core.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class BoundedCacheTests {
+    @Test
+    public void testClearedWhenFull() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        // replacing an entry doesn't clear the cache
+        cache.put("b", 3);
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.get("a"), equalTo(1));
+
+        cache.put("c", 4);
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.get("a"), nullValue());
+        assertThat(cache.get("c"), equalTo(4));
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        assertThat(cache.computeIfAbsent("a", String::length), equalTo(1));
+        assertThat(cache.computeIfAbsent("bb", String::length), equalTo(2));
+        // cached values are returned without loading, even when the cache is full
+        assertThat(cache.computeIfAbsent("a", key -> 10), equalTo(1));
+        assertThat(cache.size(), equalTo(2));
+
+        assertThat(cache.computeIfAbsent("ccc", String::length), equalTo(3));
+        assertThat(cache.size(), equalTo(1));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.removeIf((key, value) -> key.equals("a") || value == 3);
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.get("b"), equalTo(2));
+    }
+}
@@ -0,0 +1,47 @@
+package bio.terra.pearl.core.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VersionedCacheTests {
+    @Test
+    public void testReloadedWhenStampChanges() {
+        VersionedCache<String, Integer> cache = new VersionedCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get("a", "v1", loads::incrementAndGet), equalTo(1));
+        assertThat(cache.get("a", "v1", loads::incrementAndGet), equalTo(1));
+        assertThat(cache.get("a", "v2", loads::incrementAndGet), equalTo(2));
+        assertThat(cache.getVersioned("a"), equalTo(new VersionedCache.Versioned<>("v2", 2)));
+    }
+
+    @Test
+    public void testReloadedWhenNotUsable() {
+        VersionedCache<String, Integer> cache = new VersionedCache<>(10);
+        cache.put("a", "v1", 1);
+        assertThat(cache.get("a", "v1", value -> value > 1, () -> 2), equalTo(2));
+        assertThat(cache.get("a", "v1", value -> value > 1, () -> 3), equalTo(2));
+    }
+
+    @Test
+    public void testNullNotCached() {
+        VersionedCache<String, Integer> cache = new VersionedCache<>(10);
+        assertThat(cache.get("a", "v1", () -> null), nullValue());
+        assertThat(cache.getVersioned("a"), nullValue());
+        assertThat(cache.get("a", "v1", () -> 1), equalTo(1));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        VersionedCache<String, Integer> cache = new VersionedCache<>(10);
+        cache.put("a", "v1", 1);
+        cache.put("b", "v1", 2);
+        cache.removeIf((key, value) -> value == 1);
+        assertThat(cache.getVersioned("a"), nullValue());
+        assertThat(cache.getVersioned("b").value(), equalTo(2));
+    }
+}
@@ -84,6 +84,10 @@ public class EnrolleeExportServiceTests extends BaseSpringBootTest {
     private SurveyResponseFactory surveyResponseFactory;
     @Autowired
     private ParticipantTaskFactory participantTaskFactory;
+    @Autowired
+    private ExportConfig exportConfig;
+    @Autowired
+    private EnrolleeExportLoader enrolleeExportLoader;
 
     @Test
     @Transactional
@@ -106,6 +110,28 @@ public class EnrolleeExportServiceTests extends BaseSpringBootTest {
         assertThat(exportMaps.get(1).get("enrollee.shortcode"), equalTo(enrollee2.getShortcode()));
     }
 
+    @Test
+    @Transactional
+    public void testModuleLoadTimesRecorded(TestInfo testInfo) {
+        String testName = getTestName(testInfo);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        long answerLoadsBefore = answerLoadCount();
+
+        enrolleeExportService.loadEnrolleeExportData(studyEnv.getId(), new ExportOptionsWithExpression());
+
+        assertThat(answerLoadCount(), equalTo(answerLoadsBefore + 1));
+        assertThat(enrolleeExportLoader.getModuleStats().stream().map(EnrolleeExportLoader.ModuleStats::module).toList(),
+                hasItems("profile", "answers", "tasks", "proxies"));
+    }
+
+    private long answerLoadCount() {
+        return enrolleeExportLoader.getModuleStats().stream()
+                .filter(stats -> stats.module().equals("answers"))
+                .mapToLong(EnrolleeExportLoader.ModuleStats::loadCount)
+                .sum();
+    }
+
     @Test
     @Transactional
     public void testExportIncludeFields(TestInfo testInfo) {
@@ -627,6 +653,66 @@ public class EnrolleeExportServiceTests extends BaseSpringBootTest {
     }
 
 
+    @Test
+    @Transactional
+    public void testChunkedExportMatchesUnstreamed(TestInfo testInfo) throws Exception {
+        String testName = getTestName(testInfo);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        Survey survey = surveyService.create(
+                surveyFactory
+                        .builderWithDependencies(getTestName(testInfo))
+                        .content(DYNAMIC_PANEL_EXCERPT)
+                        .name("Dynamic Panel Test")
+                        .stableId("examplesurvey")
+                        .surveyType(SurveyType.RESEARCH)
+                        .version(1)
+                        .build());
+        surveyFactory.attachToEnv(survey, studyEnv.getId(), true);
+
+        // enrollees are exported most-recent first, so the oldest enrollee's data is in the last chunk
+        Enrollee oldestEnrollee = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        Enrollee newerEnrollee = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+
+        surveyResponseFactory.buildWithAnswers(newerEnrollee, survey, Map.of(
+                "examplePanel", objectMapper.readTree("""
+                            [{"firstName":"Jonas","lastName":"Salk"}]
+                        """)));
+        // the oldest enrollee has more panel entries and more responses, so the columns depend on the last chunk
+        surveyResponseFactory.buildWithAnswers(oldestEnrollee, survey, Map.of(
+                "examplePanel", objectMapper.readTree("""
+                            [{"firstName":"John","lastName":"Doe"},
+                             {"firstName":"Jane","lastName":"Doe"},
+                             {"firstName":"Jim","lastName":"Doe"}]
+                        """)));
+        surveyResponseFactory.buildWithAnswers(oldestEnrollee, survey, Map.of());
+
+        int originalChunkSize = exportConfig.getChunkSize();
+        try {
+            for (ExportFileFormat fileFormat : List.of(ExportFileFormat.TSV, ExportFileFormat.JSON)) {
+                ExportOptionsWithExpression opts = ExportOptionsWithExpression.builder().fileFormat(fileFormat).build();
+                // the output of an unstreamed export, with every enrollee's value map built up front
+                List<EnrolleeExportData> exportData = enrolleeExportService.loadEnrolleeExportData(studyEnv.getId(), opts);
+                List<ModuleFormatter> moduleFormatters = enrolleeExportService.generateModuleInfos(opts, studyEnv.getId(), exportData);
+                List<Map<String, String>> valueMaps = enrolleeExportService.generateExportMaps(exportData, moduleFormatters);
+                ByteArrayOutputStream unchunked = new ByteArrayOutputStream();
+                enrolleeExportService.getExporter(fileFormat, moduleFormatters, valueMaps, opts.getIncludeFields())
+                        .export(unchunked, opts.isIncludeSubHeaders());
+
+                exportConfig.setChunkSize(1);
+                ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+                enrolleeExportService.export(opts, studyEnv.getId(), chunked);
+                exportConfig.setChunkSize(originalChunkSize);
+
+                assertThat(chunked.toString(), equalTo(unchunked.toString()));
+                assertThat(chunked.toString(), containsString("examplesurvey[2].complete"));
+                assertThat(chunked.toString(), containsString("examplesurvey.examplePanel.firstName[2]"));
+            }
+        } finally {
+            exportConfig.setChunkSize(originalChunkSize);
+        }
+    }
+
     @Test
     @Transactional
     public void testDynamicPanelExportNoResponses(TestInfo testInfo) {
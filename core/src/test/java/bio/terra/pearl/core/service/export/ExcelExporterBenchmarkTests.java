@@ -0,0 +1,133 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.model.export.ExportOptions;
+import bio.terra.pearl.core.model.survey.Survey;
+import bio.terra.pearl.core.model.survey.SurveyQuestionDefinition;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.SurveyFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Compares the streaming excel writer against the previous approach (autosize tracking, and a cell created for every
+ * value, even empty ones) on a synthetic wide dataset, sized like the largest real exports: 10k enrollees answering a
+ * 2k question survey.  The previous writer takes a long time at this size, so this only runs when the RUN_BENCHMARKS
+ * environment variable is set -- e.g. `RUN_BENCHMARKS=true ./gradlew :core:test --tests '*ExcelExporterBenchmarkTests'`
+ */
+@Slf4j
+public class ExcelExporterBenchmarkTests {
+    private static final int NUM_ROWS = 10000;
+    private static final int NUM_QUESTIONS = 2000;
+    /** every nth question is left unanswered, since real exports are sparse */
+    private static final int UNANSWERED_EVERY = 3;
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    public void benchmarkWideExport() throws Exception {
+        List<ModuleFormatter> moduleFormatters = List.of(buildSurveyFormatter());
+
+        ExcelExporter exporter = new ExcelExporter(moduleFormatters, List.of(), null);
+        List<String> columnKeys = exporter.getColumnKeys();
+        CountingOutputStream streamingOutput = new CountingOutputStream();
+        long streamingStart = System.currentTimeMillis();
+        exporter.startExport(streamingOutput, true);
+        ExportRow row = exporter.newRow();
+        for (int rowNum = 0; rowNum < NUM_ROWS; rowNum++) {
+            row.clear();
+            for (int col = 0; col < columnKeys.size(); col++) {
+                row.put(columnKeys.get(col), syntheticValue(rowNum, col));
+            }
+            exporter.writeRow(row);
+        }
+        // a header row and a subheader row, followed by a row per enrollee
+        assertThat(exporter.sheet.getLastRowNum(), equalTo(NUM_ROWS + 1));
+        exporter.finishExport();
+        long streamingMs = System.currentTimeMillis() - streamingStart;
+
+        CountingOutputStream legacyOutput = new CountingOutputStream();
+        long legacyStart = System.currentTimeMillis();
+        writeLegacy(exporter.getHeaderRow(), exporter.getSubHeaderRow(), legacyOutput);
+        long legacyMs = System.currentTimeMillis() - legacyStart;
+
+        log.info("Excel export of {} rows x {} columns: streaming writer {} ms, {} bytes; previous writer {} ms, {} bytes",
+                NUM_ROWS, columnKeys.size(), streamingMs, streamingOutput.count, legacyMs, legacyOutput.count);
+        assertThat(streamingMs, lessThan(legacyMs));
+        assertThat(streamingOutput.count, lessThan(legacyOutput.count));
+    }
+
+    /** writes the same data the way ExcelExporter used to */
+    private void writeLegacy(List<String> headerRow, List<String> subHeaderRow, OutputStream os) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(200)) {
+            SXSSFSheet sheet = workbook.createSheet("Participants");
+            sheet.trackAllColumnsForAutoSizing();
+            writeLegacyRow(sheet, headerRow, 0);
+            writeLegacyRow(sheet, subHeaderRow, 1);
+            for (int rowNum = 0; rowNum < NUM_ROWS; rowNum++) {
+                List<String> rowValues = new ArrayList<>(headerRow.size());
+                for (int col = 0; col < headerRow.size(); col++) {
+                    String value = syntheticValue(rowNum, col);
+                    rowValues.add(value == null ? "" : value);
+                }
+                writeLegacyRow(sheet, rowValues, rowNum + 2);
+            }
+            workbook.write(os);
+            workbook.dispose();
+        }
+    }
+
+    private void writeLegacyRow(SXSSFSheet sheet, List<String> rowValues, int rowNum) {
+        Row row = sheet.createRow(rowNum);
+        IntStream.range(0, rowValues.size()).forEach(i -> {
+            row.createCell(i).setCellValue(rowValues.get(i));
+        });
+    }
+
+    private String syntheticValue(int rowNum, int col) {
+        if (col % UNANSWERED_EVERY == 0) {
+            return null;
+        }
+        return "answer" + ((rowNum + col) % 50);
+    }
+
+    private SurveyFormatter buildSurveyFormatter() {
+        Survey survey = Survey.builder().stableId("benchmark").build();
+        List<SurveyQuestionDefinition> questionDefs = IntStream.range(0, NUM_QUESTIONS)
+                .<SurveyQuestionDefinition>mapToObj(i -> SurveyQuestionDefinition.builder()
+                        .questionStableId("question" + i)
+                        .questionText("Question " + i)
+                        .questionType("text")
+                        .exportOrder(i)
+                        .build())
+                .toList();
+        return new SurveyFormatter(new ExportOptions(), "benchmark", List.of(survey), questionDefs, List.of(), new ObjectMapper());
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.factory.StudyEnvironmentFactory;
+import bio.terra.pearl.core.factory.participant.EnrolleeFactory;
+import bio.terra.pearl.core.factory.survey.SurveyFactory;
+import bio.terra.pearl.core.factory.survey.SurveyResponseFactory;
+import bio.terra.pearl.core.model.export.ExportOptions;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.Profile;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.model.survey.Survey;
+import bio.terra.pearl.core.model.survey.SurveyType;
+import bio.terra.pearl.core.service.export.formatters.item.PropertyItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.EnrolleeFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import bio.terra.pearl.core.service.survey.SurveyService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+public class JsonExporterTests extends BaseSpringBootTest {
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private StudyEnvironmentFactory studyEnvironmentFactory;
+    @Autowired
+    private EnrolleeFactory enrolleeFactory;
+    @Autowired
+    private SurveyService surveyService;
+    @Autowired
+    private SurveyFactory surveyFactory;
+    @Autowired
+    private SurveyResponseFactory surveyResponseFactory;
+    @Autowired
+    private EnrolleeExportService enrolleeExportService;
+    private final ZoneId defaultZoneId = ZoneId.of("America/New_York");
+
+    private static final String SPARSE_SURVEY_CONTENT = """
+            {
+              "pages": [{
+                "elements": [
+                  {"name": "favoriteColor", "type": "text", "title": "What is your favorite color?"},
+                  {"name": "heightInches", "type": "text", "inputType": "number", "title": "How tall are you?"},
+                  {"name": "hasPets", "type": "radiogroup", "title": "Do you have pets?",
+                   "choices": [{"text": "Yes", "value": "yes"}, {"text": "No", "value": "no"}]}
+                ]
+              }]
+            }
+            """;
+
+    @Test
+    @Transactional
+    public void testStreamedExportMatchesValueMaps(TestInfo testInfo) throws Exception {
+        String testName = getTestName(testInfo);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        Survey survey = surveyService.create(
+                surveyFactory
+                        .builderWithDependencies(testName)
+                        .content(SPARSE_SURVEY_CONTENT)
+                        .name("Sparse")
+                        .stableId("sparse")
+                        .surveyType(SurveyType.RESEARCH)
+                        .version(1)
+                        .build());
+        surveyFactory.attachToEnv(survey, studyEnv.getId(), true);
+        // one enrollee answers only some of the questions, and the other doesn't take the survey at all
+        Enrollee partialEnrollee = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        surveyResponseFactory.buildWithAnswers(partialEnrollee, survey, Map.of("favoriteColor", "blue"));
+
+        // the output an unstreamed export produces, from the enrollees' value maps
+        List<EnrolleeExportData> exportData = enrolleeExportService.loadEnrolleeExportData(studyEnv.getId(), new ExportOptionsWithExpression());
+        List<ModuleFormatter> moduleFormatters = enrolleeExportService.generateModuleInfos(new ExportOptions(), studyEnv.getId(), exportData);
+        List<Map<String, String>> valueMaps = enrolleeExportService.generateExportMaps(exportData, moduleFormatters);
+        BaseExporter mapExporter = enrolleeExportService.getExporter(ExportFileFormat.JSON, moduleFormatters, valueMaps, null);
+        String expected = objectMapper.writeValueAsString(new JsonExporter.JsonExport(mapExporter.getColumnKeys(),
+                mapExporter.getHeaderRow(), mapExporter.getSubHeaderRow(), valueMaps)) + System.lineSeparator();
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        enrolleeExportService.export(ExportOptionsWithExpression.builder().fileFormat(ExportFileFormat.JSON).build(),
+                studyEnv.getId(), streamed);
+
+        assertThat(streamed.toString(), equalTo(expected));
+        // unanswered questions are left out, rather than written as nulls
+        JsonNode streamedValueMaps = objectMapper.readTree(streamed.toString()).get("valueMaps");
+        for (JsonNode valueMap : streamedValueMaps) {
+            assertThat(valueMap.has("sparse.heightInches"), equalTo(false));
+            assertThat(valueMap.has("sparse.hasPets"), equalTo(false));
+        }
+    }
+
+    @Test
+    public void testStreamedRowOmitsColumnsWithNoValue() throws Exception {
+        JsonExporter exporter = new JsonExporter(List.of(buildFormatter()), List.of(), null, objectMapper);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporter.startExport(baos, true);
+        ExportRow row = exporter.newRow();
+        row.put("enrollee.shortcode", "ABCDEF");
+        row.put("enrollee.consented", "");
+        exporter.writeRow(row);
+        exporter.finishExport();
+
+        JsonNode valueMap = objectMapper.readTree(baos.toString()).get("valueMaps").get(0);
+        List<String> fieldNames = new ArrayList<>();
+        valueMap.fieldNames().forEachRemaining(fieldNames::add);
+        assertThat(fieldNames, contains("enrollee.shortcode", "enrollee.consented"));
+        assertThat(valueMap.get("enrollee.consented").asText(), equalTo(""));
+    }
+
+    private EnrolleeFormatter buildFormatter() {
+        EnrolleeFormatter formatter = new EnrolleeFormatter(new ExportOptions());
+        // replace the formatters with a simple set we control
+        formatter.getItemFormatters().clear();
+        formatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("shortcode", Enrollee.class, defaultZoneId));
+        formatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("consented", Enrollee.class, defaultZoneId));
+        formatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("subject", Enrollee.class, defaultZoneId));
+        return formatter;
+    }
+}
@@ -0,0 +1,201 @@
+package bio.terra.pearl.core.service.export;
+
+import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.model.export.ExportOptions;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.survey.Survey;
+import bio.terra.pearl.core.model.survey.SurveyQuestionDefinition;
+import bio.terra.pearl.core.service.export.formatters.ExportFormatUtils;
+import bio.terra.pearl.core.service.export.formatters.item.AnswerItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.item.PropertyItemFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.EnrolleeFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.ModuleFormatter;
+import bio.terra.pearl.core.service.export.formatters.module.SurveyFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ParquetExporterTests extends BaseSpringBootTest {
+    @Autowired
+    ObjectMapper objectMapper;
+    private final ZoneId defaultZoneId = ZoneId.of("America/New_York");
+    private static final String CHOICES = """
+            [
+              {"stableId": "choice1", "text": "Choice 1"},
+              {"stableId": "choice2", "text": "Choice 2"},
+              {"stableId": "choice3", "text": "Choice 3"}
+            ]
+            """;
+
+    @Test
+    public void testTypedPropertyColumns() throws Exception {
+        EnrolleeFormatter sampleFormatter = new EnrolleeFormatter(new ExportOptions());
+        // replace the formatters with a simple set we control
+        sampleFormatter.getItemFormatters().clear();
+        sampleFormatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("shortcode", Enrollee.class, defaultZoneId));
+        sampleFormatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("consented", Enrollee.class, defaultZoneId));
+        sampleFormatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("createdAt", Enrollee.class, defaultZoneId));
+        Instant createdAt = Instant.parse("2024-03-05T14:30:00Z");
+        Map<String, String> valueMap = Map.of("enrollee.shortcode", "ABCDEF",
+                "enrollee.consented", "true",
+                "enrollee.createdAt", ExportFormatUtils.formatInstant(createdAt, defaultZoneId));
+
+        ParquetResult result = getExportResult(List.of(valueMap, Map.of()), List.of(sampleFormatter));
+
+        assertThat(result.schema.getType("enrollee.shortcode").getLogicalTypeAnnotation(), equalTo(LogicalTypeAnnotation.stringType()));
+        assertThat(result.schema.getType("enrollee.consented").asPrimitiveType().getPrimitiveTypeName(),
+                equalTo(PrimitiveType.PrimitiveTypeName.BOOLEAN));
+        assertThat(result.schema.getType("enrollee.createdAt").getLogicalTypeAnnotation(),
+                equalTo(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS)));
+
+        Group row = result.rows.get(0);
+        assertThat(row.getString("enrollee.shortcode", 0), equalTo("ABCDEF"));
+        assertThat(row.getBoolean("enrollee.consented", 0), equalTo(true));
+        assertThat(row.getLong("enrollee.createdAt", 0), equalTo(createdAt.toEpochMilli()));
+        // empty values are written as nulls
+        Group emptyRow = result.rows.get(1);
+        assertThat(emptyRow.getFieldRepetitionCount("enrollee.shortcode"), equalTo(0));
+        assertThat(emptyRow.getFieldRepetitionCount("enrollee.createdAt"), equalTo(0));
+        // header text is stored in the file metadata
+        assertThat(result.metadata.get(ParquetExporter.HEADER_ROW_METADATA_KEY), containsString("enrollee.shortcode"));
+        assertThat(result.metadata.get(ParquetExporter.SUBHEADER_ROW_METADATA_KEY), containsString("Shortcode"));
+    }
+
+    @Test
+    public void testMultiSelectListColumn() throws Exception {
+        ExportOptions opts = ExportOptions.builder().stableIdsForOptions(true).build();
+        SurveyFormatter surveyFormatter = buildSurveyFormatter(opts);
+        Map<String, String> valueMap = Map.of("survey.q1", "choice1, choice3");
+
+        ParquetResult result = getExportResult(List.of(valueMap), List.of(surveyFormatter));
+
+        assertThat(result.schema.getType("survey.q1").getLogicalTypeAnnotation(), equalTo(LogicalTypeAnnotation.listType()));
+        Group list = result.rows.get(0).getGroup("survey.q1", 0);
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < list.getFieldRepetitionCount("list"); i++) {
+            selected.add(list.getGroup("list", i).getString("element", 0));
+        }
+        assertThat(selected, contains("choice1", "choice3"));
+    }
+
+    @Test
+    public void testSplitOptionBooleanColumns() throws Exception {
+        ExportOptions opts = ExportOptions.builder().splitOptionsIntoColumns(true).build();
+        SurveyFormatter surveyFormatter = buildSurveyFormatter(opts);
+        Map<String, String> valueMap = Map.of("survey.q1.choice1", "1",
+                "survey.q1.choice3", "1");
+
+        ParquetResult result = getExportResult(List.of(valueMap), List.of(surveyFormatter));
+
+        Group row = result.rows.get(0);
+        assertThat(row.getBoolean("survey.q1.choice1", 0), equalTo(true));
+        // unselected options get the split-option empty value, so are false rather than null
+        assertThat(row.getBoolean("survey.q1.choice2", 0), equalTo(false));
+        assertThat(row.getBoolean("survey.q1.choice3", 0), equalTo(true));
+    }
+
+    @Test
+    public void testTypedAnswerColumns() throws Exception {
+        ExportOptions opts = new ExportOptions();
+        SurveyFormatter surveyFormatter = buildSurveyFormatter(opts, List.of(
+                SurveyQuestionDefinition.builder().questionStableId("hasPets").questionType("boolean").build(),
+                SurveyQuestionDefinition.builder().questionStableId("painLevel").questionType("rating").build(),
+                SurveyQuestionDefinition.builder().questionStableId("visitDate").questionType("datepicker").build(),
+                SurveyQuestionDefinition.builder().questionStableId("favoriteColor").questionType("text").build()));
+        Map<String, String> valueMap = Map.of("survey.hasPets", "true",
+                "survey.painLevel", "4",
+                "survey.visitDate", "2024-03-05",
+                "survey.favoriteColor", "blue");
+        // a boolean question with custom values for true and false
+        Map<String, String> customBooleanMap = Map.of("survey.hasPets", "yes");
+
+        ParquetResult result = getExportResult(List.of(valueMap, customBooleanMap), List.of(surveyFormatter));
+
+        assertThat(result.schema.getType("survey.hasPets").asPrimitiveType().getPrimitiveTypeName(),
+                equalTo(PrimitiveType.PrimitiveTypeName.BOOLEAN));
+        assertThat(result.schema.getType("survey.painLevel").asPrimitiveType().getPrimitiveTypeName(),
+                equalTo(PrimitiveType.PrimitiveTypeName.DOUBLE));
+        assertThat(result.schema.getType("survey.visitDate").getLogicalTypeAnnotation(), equalTo(LogicalTypeAnnotation.dateType()));
+        assertThat(result.schema.getType("survey.favoriteColor").getLogicalTypeAnnotation(), equalTo(LogicalTypeAnnotation.stringType()));
+
+        Group row = result.rows.get(0);
+        assertThat(row.getBoolean("survey.hasPets", 0), equalTo(true));
+        assertThat(row.getDouble("survey.painLevel", 0), equalTo(4.0));
+        assertThat(row.getInteger("survey.visitDate", 0), equalTo((int) LocalDate.of(2024, 3, 5).toEpochDay()));
+        assertThat(row.getString("survey.favoriteColor", 0), equalTo("blue"));
+        // values that aren't true or false are left out, rather than written as false
+        assertThat(result.rows.get(1).getFieldRepetitionCount("survey.hasPets"), equalTo(0));
+    }
+
+    private SurveyFormatter buildSurveyFormatter(ExportOptions opts) {
+        return buildSurveyFormatter(opts, List.of(
+                SurveyQuestionDefinition.builder()
+                        .questionStableId("q1")
+                        .questionType("checkbox")
+                        .allowMultiple(true)
+                        .choices(CHOICES)
+                        .build()));
+    }
+
+    private SurveyFormatter buildSurveyFormatter(ExportOptions opts, List<SurveyQuestionDefinition> questionDefs) {
+        SurveyFormatter surveyFormatter = new SurveyFormatter(opts, "survey", List.of(Survey.builder().stableId("survey").build()), List.of(), List.of(), objectMapper);
+        // replace the formatters with a simple set we control
+        surveyFormatter.getItemFormatters().clear();
+        for (SurveyQuestionDefinition questionDef : questionDefs) {
+            surveyFormatter.getItemFormatters().add(new AnswerItemFormatter(opts, "survey", List.of(questionDef), objectMapper));
+        }
+        return surveyFormatter;
+    }
+
+    private ParquetResult getExportResult(List<Map<String, String>> valueMaps, List<ModuleFormatter> moduleFormatters) throws Exception {
+        ParquetExporter exporter = new ParquetExporter(moduleFormatters, valueMaps, null, objectMapper);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporter.export(baos);
+        Path file = Files.createTempFile("export", ".parquet");
+        try {
+            Files.write(file, baos.toByteArray());
+            try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+                MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+                List<Group> rows = new ArrayList<>();
+                PageReadStore rowGroup;
+                while ((rowGroup = reader.readNextRowGroup()) != null) {
+                    RecordReader<Group> recordReader = new ColumnIOFactory().getColumnIO(schema)
+                            .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                    for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                        rows.add(recordReader.read());
+                    }
+                }
+                return new ParquetResult(schema, reader.getFooter().getFileMetaData().getKeyValueMetaData(), rows);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private record ParquetResult(MessageType schema, Map<String, String> metadata, List<Group> rows) {}
+}
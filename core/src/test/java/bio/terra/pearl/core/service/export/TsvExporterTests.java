@@ -41,6 +41,27 @@ public class TsvExporterTests extends BaseSpringBootTest {
         assertThat(outString, equalTo("enrollee.shortcode\tenrollee.consented\nShortcode\tConsented\nABCDEF\tfalse\n"));
     }
 
+    @Test
+    public void testRowExportWithColumnSorting() throws Exception {
+        EnrolleeFormatter sampleFormatter = new EnrolleeFormatter(new ExportOptions());
+        // replace the formatters with a simple set we control
+        sampleFormatter.getItemFormatters().clear();
+        sampleFormatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("shortcode", Enrollee.class, defaultZoneId));
+        sampleFormatter.getItemFormatters().add(new PropertyItemFormatter<Enrollee>("consented", Enrollee.class, defaultZoneId));
+        EnrolleeExportData exportData = EnrolleeExportData.builder()
+                .enrollee(Enrollee.builder().shortcode("ABCDEF").consented(false).build())
+                .build();
+
+        TsvExporter exporter = new TsvExporter(List.of(sampleFormatter), List.of(), ExportFileFormat.TSV, List.of("enrollee.consented"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporter.startExport(baos, true);
+        ExportRow row = exporter.newRow();
+        sampleFormatter.writeValues(exportData, row);
+        exporter.writeRow(row);
+        exporter.finishExport();
+        assertThat(baos.toString(), equalTo("enrollee.consented\tenrollee.shortcode\nConsented\tShortcode\nfalse\tABCDEF\n"));
+    }
+
     @Test
     public void testExportValueSanitization() throws Exception {
         EnrolleeFormatter sampleFormatter = new EnrolleeFormatter(new ExportOptions());
@@ -7,17 +7,25 @@ import bio.terra.pearl.core.model.audit.ResponsibleEntity;
 import bio.terra.pearl.core.model.export.ExportDestinationType;
 import bio.terra.pearl.core.model.export.ExportIntegration;
 import bio.terra.pearl.core.model.export.ExportIntegrationJob;
+import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.model.participant.Profile;
 import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.service.export.EnrolleeExportService;
+import bio.terra.pearl.core.service.export.ExportConfig;
 import bio.terra.pearl.core.service.export.ExportOptionsWithExpression;
+import bio.terra.pearl.core.service.participant.EnrolleeService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,6 +42,10 @@ public class ExportIntegrationServiceTests extends BaseSpringBootTest {
     private ExportIntegrationJobService exportIntegrationJobService;
     @Autowired
     private EnrolleeExportService enrolleeExportService;
+    @Autowired
+    private EnrolleeService enrolleeService;
+    @Autowired
+    private ExportConfig exportConfig;
 
 
     @Test
@@ -129,25 +141,160 @@ public class ExportIntegrationServiceTests extends BaseSpringBootTest {
         assertThat(jobs.get(0).getResult(), containsString("mock error"));
     }
 
+    @Test
+    @Transactional
+    public void testIncrementalExport(TestInfo testInfo) throws InterruptedException {
+        String testName = getTestName(testInfo);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        Enrollee enrollee1 = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        Enrollee enrollee2 = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+
+        ExportIntegration exportIntegration = exportIntegrationService.create(ExportIntegration.builder()
+                .name(getTestName(testInfo))
+                .studyEnvironmentId(studyEnv.getId())
+                .enabled(true)
+                .incremental(true)
+                .exportOptions(ExportOptionsWithExpression.builder().build())
+                .destinationType(ExportDestinationType.AIRTABLE)
+                .destinationUrl("badURL")
+                .build());
+        ExportIntegration loadedIntegration = exportIntegrationService.findWithOptions(exportIntegration.getId()).get();
+
+        // the first run has nothing to be incremental from, so exports everyone
+        CapturingExporter firstExporter = new CapturingExporter();
+        exportIntegrationService.doExport(firstExporter, loadedIntegration, new ResponsibleEntity(testName));
+        ExportIntegrationJob firstJob = exportIntegrationJobService.findByStudyEnvironment(studyEnv.getId()).get(0);
+        assertThat(firstJob.getChangedSince(), nullValue());
+        assertThat(firstJob.getHighWaterMark(), equalTo(firstJob.getStartedAt().minusSeconds(exportConfig.getIncrementalOverlapSeconds())));
+        assertThat(firstExporter.output, containsString(enrollee1.getShortcode()));
+        assertThat(firstExporter.output, containsString(enrollee2.getShortcode()));
+
+        int originalOverlap = exportConfig.getIncrementalOverlapSeconds();
+        try {
+            // with no overlap, the next job picks up exactly where this one left off
+            exportConfig.setIncrementalOverlapSeconds(0);
+            exportIntegrationService.doExport(new CapturingExporter(), loadedIntegration, new ResponsibleEntity(testName));
+
+            Thread.sleep(10); // make sure the update is strictly after the high water mark
+            enrolleeService.updateConsented(enrollee2.getId(), true);
+
+            // the next run only exports the enrollee that changed since the previous run
+            CapturingExporter secondExporter = new CapturingExporter();
+            exportIntegrationService.doExport(secondExporter, loadedIntegration, new ResponsibleEntity(testName));
+            List<ExportIntegrationJob> jobs = exportIntegrationJobService.findByStudyEnvironment(studyEnv.getId()).stream()
+                    .sorted(Comparator.comparing(ExportIntegrationJob::getCreatedAt)).toList();
+            assertThat(jobs, hasSize(3));
+            assertThat(jobs.get(2).getChangedSince(), equalTo(jobs.get(1).getHighWaterMark()));
+            assertThat(secondExporter.output, not(containsString(enrollee1.getShortcode())));
+            assertThat(secondExporter.output, containsString(enrollee2.getShortcode()));
+        } finally {
+            exportConfig.setIncrementalOverlapSeconds(originalOverlap);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testIncrementalExportOverlapIsUpserted(TestInfo testInfo) {
+        String testName = getTestName(testInfo);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        Enrollee enrollee1 = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+        Enrollee enrollee2 = enrolleeFactory.buildPersisted(testName, studyEnv, new Profile());
+
+        ExportIntegration exportIntegration = exportIntegrationService.create(ExportIntegration.builder()
+                .name(getTestName(testInfo))
+                .studyEnvironmentId(studyEnv.getId())
+                .enabled(true)
+                .incremental(true)
+                .exportOptions(ExportOptionsWithExpression.builder().includeSubHeaders(false).build())
+                .destinationType(ExportDestinationType.AIRTABLE)
+                .destinationUrl("badURL")
+                .build());
+        ExportIntegration loadedIntegration = exportIntegrationService.findWithOptions(exportIntegration.getId()).get();
+
+        UpsertingExporter exporter = new UpsertingExporter();
+        exportIntegrationService.doExport(exporter, loadedIntegration, new ResponsibleEntity(testName));
+        enrolleeService.updateConsented(enrollee2.getId(), true);
+        exportIntegrationService.doExport(exporter, loadedIntegration, new ResponsibleEntity(testName));
+
+        // both enrollees changed within the overlap, so both were sent twice, but each is still a single row
+        assertThat(exporter.sendCount, equalTo(2));
+        assertThat(exporter.rowsByShortcode.keySet(), containsInAnyOrder(enrollee1.getShortcode(), enrollee2.getShortcode()));
+        assertThat(exporter.rowsByShortcode.get(enrollee1.getShortcode()).get("enrollee.consented"), equalTo("false"));
+        assertThat(exporter.rowsByShortcode.get(enrollee2.getShortcode()).get("enrollee.consented"), equalTo("true"));
+    }
+
     protected class MockExporter extends ExternalExporter {
         public MockExporter() {
-            super(exportIntegrationJobService, enrolleeExportService);
+            super(exportIntegrationJobService, enrolleeExportService, exportConfig);
         }
         @Override
-        public void send(ExportIntegration integration, ByteArrayOutputStream outputStream, Consumer<String> handleComplete, Consumer<Exception> handleError) {
-            // confirm the output stream can be stringified, otherwise do nothing
-            outputStream.toString();
+        public void send(ExportIntegration integration, ExportPayload payload, Consumer<String> handleComplete, Consumer<Exception> handleError) {
+            // confirm the payload can be read, otherwise do nothing
+            try (InputStream inputStream = payload.openInputStream()) {
+                inputStream.readAllBytes();
+            } catch (IOException e) {
+                handleError.accept(e);
+                return;
+            }
             handleComplete.accept("mock done");
         }
     }
 
     protected class MockErrorExporter extends ExternalExporter {
         public MockErrorExporter() {
-            super(exportIntegrationJobService, enrolleeExportService);
+            super(exportIntegrationJobService, enrolleeExportService, exportConfig);
         }
         @Override
-        public void send(ExportIntegration integration, ByteArrayOutputStream outputStream, Consumer<String> handleComplete, Consumer<Exception> handleError) {
+        public void send(ExportIntegration integration, ExportPayload payload, Consumer<String> handleComplete, Consumer<Exception> handleError) {
             handleError.accept(new RuntimeException("mock error"));
         }
     }
+
+    /** a destination that, like an Airtable sync table, replaces the existing row for an enrollee when it's sent again */
+    protected class UpsertingExporter extends ExternalExporter {
+        private final Map<String, Map<String, String>> rowsByShortcode = new HashMap<>();
+        private int sendCount = 0;
+
+        public UpsertingExporter() {
+            super(exportIntegrationJobService, enrolleeExportService, exportConfig);
+        }
+        @Override
+        public void send(ExportIntegration integration, ExportPayload payload, Consumer<String> handleComplete, Consumer<Exception> handleError) {
+            try (InputStream inputStream = payload.openInputStream()) {
+                List<String> lines = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+                String[] columnKeys = lines.get(0).split("\t", -1);
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] values = line.split("\t", -1);
+                    Map<String, String> row = new HashMap<>();
+                    for (int i = 0; i < columnKeys.length; i++) {
+                        row.put(columnKeys[i], values[i]);
+                    }
+                    rowsByShortcode.put(row.get("enrollee.shortcode"), row);
+                }
+            } catch (IOException e) {
+                handleError.accept(e);
+                return;
+            }
+            sendCount++;
+            handleComplete.accept("mock done");
+        }
+    }
+
+    protected class CapturingExporter extends ExternalExporter {
+        private String output;
+
+        public CapturingExporter() {
+            super(exportIntegrationJobService, enrolleeExportService, exportConfig);
+        }
+        @Override
+        public void send(ExportIntegration integration, ExportPayload payload, Consumer<String> handleComplete, Consumer<Exception> handleError) {
+            try (InputStream inputStream = payload.openInputStream()) {
+                output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                handleError.accept(e);
+                return;
+            }
+            handleComplete.accept("mock done");
+        }
+    }
 }
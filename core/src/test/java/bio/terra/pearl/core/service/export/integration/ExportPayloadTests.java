@@ -0,0 +1,63 @@
+package bio.terra.pearl.core.service.export.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExportPayloadTests {
+
+    @Test
+    public void testSmallPayloadStaysInMemory() throws IOException {
+        ExportPayload payload = new ExportPayload(100);
+        try (payload) {
+            payload.write("shortcode\tname\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(payload.isInMemory(), equalTo(true));
+        assertThat(readAll(payload), equalTo("shortcode\tname\n"));
+        payload.delete();
+    }
+
+    @Test
+    public void testLargePayloadSpillsToFile() throws IOException {
+        ExportPayload payload = new ExportPayload(10);
+        StringBuilder expected = new StringBuilder();
+        try (payload) {
+            for (int i = 0; i < 100; i++) {
+                String row = "row" + i + "\n";
+                expected.append(row);
+                payload.write(row.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(payload.isInMemory(), equalTo(false));
+        assertThat(payload.getSize(), equalTo((long) expected.length()));
+        // the payload can be read more than once, e.g. if a send is retried
+        assertThat(readAll(payload), equalTo(expected.toString()));
+        assertThat(readAll(payload), equalTo(expected.toString()));
+
+        payload.delete();
+        assertThrows(IllegalStateException.class, payload::openInputStream);
+        // deleting twice is harmless
+        payload.delete();
+    }
+
+    @Test
+    public void testCannotReadBeforeClose() throws IOException {
+        ExportPayload payload = new ExportPayload(100);
+        payload.write("partial".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, payload::openInputStream);
+        payload.delete();
+        assertThrows(IOException.class, () -> payload.write(1));
+    }
+
+    private String readAll(ExportPayload payload) throws IOException {
+        try (InputStream inputStream = payload.openInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -54,7 +55,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -472,6 +475,115 @@ public class KitRequestServiceTest extends BaseSpringBootTest {
         verifyKit(kitRequest2, kitStatus2, KitRequestStatus.ERRORED);
     }
 
+    @Transactional
+    @Test
+    public void testSyncKitStatusesSkipsUnchangedKits(TestInfo testInfo) throws Exception {
+        String testName = getTestName(testInfo);
+        KitType kitType = kitTypeFactory.buildPersisted(testName);
+        AdminUser adminUser = adminUserFactory.buildPersisted(testName);
+        StudyEnvironment studyEnvironment = studyEnvironmentFactory.buildPersisted(testName);
+        PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(testName);
+        Study study = studyDao.find(studyEnvironment.getStudyId()).get();
+        Enrollee enrollee1 = enrolleeFactory.buildWithPortalUser(testName, portalEnv, studyEnvironment).enrollee();
+        Enrollee enrollee2 = enrolleeFactory.buildWithPortalUser(testName, portalEnv, studyEnvironment).enrollee();
+        KitRequest sentKit = kitRequestFactory.buildPersisted(testName,
+                enrollee1, PepperKitStatus.CREATED, kitType.getId(), adminUser.getId());
+        KitRequest createdKit = kitRequestFactory.buildPersisted(testName,
+                enrollee2, PepperKitStatus.CREATED, kitType.getId(), adminUser.getId());
+
+        PepperKit sentStatus = PepperKit.builder()
+                .juniperKitId(sentKit.getId().toString())
+                .currentStatus(PepperKitStatus.SENT.pepperString)
+                .scanDate("2023-11-17T14:57:59.548Z")
+                .build();
+        PepperKit createdStatus = PepperKit.builder()
+                .juniperKitId(createdKit.getId().toString())
+                .currentStatus(PepperKitStatus.CREATED.pepperString)
+                .build();
+        when(mockPepperDSMClient.fetchKitStatusByStudy(eq(study.getShortcode()), any()))
+                .thenReturn(List.of(sentStatus, createdStatus));
+
+        KitRequestService.KitSyncResult result =
+                kitRequestService.syncKitStatusesForStudyEnv(study, studyEnvironment.getEnvironmentName());
+        assertThat(result, equalTo(new KitRequestService.KitSyncResult(1, 1, 0)));
+        assertThat(kitRequestDao.find(sentKit.getId()).get().getStatus(), equalTo(KitRequestStatus.SENT));
+        verify(mockEventService, Mockito.times(1)).publishKitStatusEvent(any(), any(), any(), any());
+
+        // syncing the same statuses again changes nothing, and publishes no more events
+        Instant lastUpdatedAt = kitRequestDao.find(sentKit.getId()).get().getLastUpdatedAt();
+        result = kitRequestService.syncKitStatusesForStudyEnv(study, studyEnvironment.getEnvironmentName());
+        assertThat(result, equalTo(new KitRequestService.KitSyncResult(2, 0, 0)));
+        assertThat(kitRequestDao.find(sentKit.getId()).get().getLastUpdatedAt(), equalTo(lastUpdatedAt));
+        verify(mockEventService, Mockito.times(1)).publishKitStatusEvent(any(), any(), any(), any());
+    }
+
+    @Transactional
+    @Test
+    public void testSyncKitStatusesSavesKitsIndividuallyWhenBatchFails(TestInfo testInfo) throws Exception {
+        String testName = getTestName(testInfo);
+        KitType kitType = kitTypeFactory.buildPersisted(testName);
+        AdminUser adminUser = adminUserFactory.buildPersisted(testName);
+        StudyEnvironment studyEnvironment = studyEnvironmentFactory.buildPersisted(testName);
+        PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(testName);
+        Study study = studyDao.find(studyEnvironment.getStudyId()).get();
+        Enrollee enrollee1 = enrolleeFactory.buildWithPortalUser(testName, portalEnv, studyEnvironment).enrollee();
+        Enrollee enrollee2 = enrolleeFactory.buildWithPortalUser(testName, portalEnv, studyEnvironment).enrollee();
+        KitRequest savedKit = kitRequestFactory.buildPersisted(testName,
+                enrollee1, PepperKitStatus.CREATED, kitType.getId(), adminUser.getId());
+        KitRequest failingKit = kitRequestFactory.buildPersisted(testName,
+                enrollee2, PepperKitStatus.CREATED, kitType.getId(), adminUser.getId());
+        when(mockPepperDSMClient.fetchKitStatusByStudy(eq(study.getShortcode()), any()))
+                .thenReturn(List.of(
+                        PepperKit.builder().juniperKitId(savedKit.getId().toString())
+                                .currentStatus(PepperKitStatus.SENT.pepperString).build(),
+                        PepperKit.builder().juniperKitId(failingKit.getId().toString())
+                                .currentStatus(PepperKitStatus.SENT.pepperString).build()));
+        // the batch fails, and so does the individual update of one kit
+        doThrow(new IllegalStateException("bulk update failed for at least one row"))
+                .when(kitRequestDao).bulkUpdate(any());
+        doThrow(new IllegalStateException("no row updated"))
+                .when(kitRequestDao).update(argThat((KitRequest kit) -> kit.getId().equals(failingKit.getId())));
+
+        KitRequestService.KitSyncResult result =
+                kitRequestService.syncKitStatusesForStudyEnv(study, studyEnvironment.getEnvironmentName());
+
+        assertThat(result, equalTo(new KitRequestService.KitSyncResult(0, 1, 1)));
+        assertThat(kitRequestDao.find(savedKit.getId()).get().getStatus(), equalTo(KitRequestStatus.SENT));
+        assertThat(kitRequestDao.find(failingKit.getId()).get().getStatus(), equalTo(KitRequestStatus.CREATED));
+        // only the saved kit's change is published
+        verify(mockEventService, Mockito.times(1)).publishKitStatusEvent(
+                argThat((KitRequest kit) -> kit.getId().equals(savedKit.getId())), any(), any(), any());
+        verify(mockEventService, Mockito.times(1)).publishKitStatusEvent(any(), any(), any(), any());
+    }
+
+    @Transactional
+    @Test
+    public void testSyncAllKitStatusesContinuesAfterStudyEnvFails(TestInfo testInfo) throws Exception {
+        String testName = getTestName(testInfo);
+        KitType kitType = kitTypeFactory.buildPersisted(testName);
+        AdminUser adminUser = adminUserFactory.buildPersisted(testName);
+        PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(testName);
+        StudyEnvironment failingStudyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        kitTypeFactory.attachTypeToEnvironment(kitType.getId(), failingStudyEnv.getId());
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(testName);
+        kitTypeFactory.attachTypeToEnvironment(kitType.getId(), studyEnv.getId());
+        Study study = studyDao.find(studyEnv.getStudyId()).get();
+        Enrollee enrollee = enrolleeFactory.buildWithPortalUser(testName, portalEnv, studyEnv).enrollee();
+        KitRequest kitRequest = kitRequestFactory.buildPersisted(testName,
+                enrollee, PepperKitStatus.CREATED, kitType.getId(), adminUser.getId());
+        PepperKit kitStatus = PepperKit.builder()
+                .juniperKitId(kitRequest.getId().toString())
+                .currentStatus(PepperKitStatus.SENT.pepperString)
+                .build();
+        when(mockPepperDSMClient.fetchKitStatusByStudy(eq(study.getShortcode()), any())).thenReturn(List.of(kitStatus));
+        doThrow(new IllegalStateException("unexpected kit data"))
+                .when(kitRequestDao).findByStudyEnvironment(failingStudyEnv.getId());
+
+        kitRequestService.syncAllKitStatusesFromPepper();
+
+        verifyKit(kitRequest, kitStatus, KitRequestStatus.SENT);
+    }
+
     @Transactional
     @Test
     void testNotifyKitStatus(TestInfo testInfo) {
@@ -571,7 +683,7 @@ public class KitRequestServiceTest extends BaseSpringBootTest {
     private AdminUserFactory adminUserFactory;
     @Autowired
     private EnrolleeFactory enrolleeFactory;
-    @Autowired
+    @MockitoSpyBean
     private KitRequestDao kitRequestDao;
     @Autowired
     private KitRequestFactory kitRequestFactory;
@@ -23,14 +23,20 @@ import org.springframework.http.HttpStatus;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.matchesRegex;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -244,6 +250,78 @@ public class LivePepperDSMClientTest extends BaseSpringBootTest {
         verifyRequestForPath("/kitstatus/study/juniper-%s".formatted(studyShortcode));
     }
 
+    @Transactional
+    @Test
+    public void testSingleKitRequestsAsync(TestInfo info) throws Exception {
+        Enrollee enrollee = enrolleeFactory.buildPersisted(getTestName(info));
+        KitRequest kitRequest = kitRequestFactory.buildPersisted(getTestName(info), enrollee);
+        PepperKit kitStatus = PepperKit.builder()
+                .juniperKitId(kitRequest.getId().toString())
+                .currentStatus(PepperKitStatus.CREATED.pepperString)
+                .build();
+        mockPepperResponse(HttpStatus.OK, objectMapper.writeValueAsString(PepperKitStatusResponse.builder()
+                .isError(false)
+                .kits(new PepperKit[]{kitStatus})
+                .build()));
+
+        CompletableFuture<PepperKit> sent = client.sendKitRequestAsync("testStudy", new StudyEnvironmentConfig(), enrollee,
+                kitRequest, PepperKitAddress.builder().build());
+
+        assertThat(sent.get(5, TimeUnit.SECONDS).getCurrentStatus(), equalTo(PepperKitStatus.CREATED.pepperString));
+        verifyRequestForPath("/shipKit");
+
+        // a status fetch for one kit that gets more than one back fails the future, rather than throwing
+        mockPepperResponse(HttpStatus.OK, objectMapper.writeValueAsString(PepperKitStatusResponse.builder()
+                .isError(false)
+                .kits(new PepperKit[]{kitStatus, kitStatus})
+                .build()));
+
+        CompletableFuture<PepperKit> fetched = client.fetchKitStatusAsync(new StudyEnvironmentConfig(), kitRequest.getId());
+
+        ExecutionException fetchError = assertThrows(ExecutionException.class, () -> fetched.get(5, TimeUnit.SECONDS));
+        assertThat(fetchError.getCause(), instanceOf(PepperApiException.class));
+        verifyRequestForPath("/kitstatus/juniperKit/%s".formatted(kitRequest.getId()));
+    }
+
+    /**
+     * fetches concurrently from a stand-in DSM that takes a while to respond.  Bump the counts and delay here to
+     * benchmark the client's throughput.
+     */
+    @Test
+    public void testFetchKitStatusByStudyAsyncConcurrently(TestInfo info) throws Exception {
+        int requestCount = 20;
+        long responseDelayMs = 200;
+        PepperKitStatusResponse pepperResponse = PepperKitStatusResponse.builder()
+                .kits(new PepperKit[]{ PepperKit.builder().juniperKitId(getTestName(info) + "_kit1").build() })
+                .isError(false)
+                .build();
+        String body = objectMapper.writeValueAsString(pepperResponse);
+        // warm up the client, so the timing below doesn't include setting up the connection pool
+        mockPepperResponse(HttpStatus.OK, body);
+        client.fetchKitStatusByStudy("test_study", new StudyEnvironmentConfig());
+        for (int i = 0; i < requestCount; i++) {
+            mockWebServer.enqueue(new MockResponse()
+                    .addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                    .setResponseCode(HttpStatus.OK.value())
+                    .setBodyDelay(responseDelayMs, TimeUnit.MILLISECONDS)
+                    .setBody(body));
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<Collection<PepperKit>>> futures = new ArrayList<>();
+        for (int i = 0; i < requestCount; i++) {
+            futures.add(client.fetchKitStatusByStudyAsync("test_study", new StudyEnvironmentConfig()));
+        }
+        for (CompletableFuture<Collection<PepperKit>> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS).size(), equalTo(1));
+        }
+        long elapsedMs = System.currentTimeMillis() - startTime;
+
+        // sequential requests would take at least requestCount * responseDelayMs
+        assertThat(elapsedMs, lessThan(requestCount * responseDelayMs / 2));
+        assertThat(mockWebServer.getRequestCount(), equalTo(requestCount + 1));
+    }
+
     private static void mockPepperResponse(HttpStatus status, String pepperResponse) {
         mockWebServer.enqueue(new MockResponse()
                 .addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON)
@@ -0,0 +1,63 @@
+package bio.terra.pearl.core.service.kit.pepper;
+
+import bio.terra.pearl.core.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PepperCircuitBreakerTests {
+    private final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        PepperCircuitBreaker breaker = new PepperCircuitBreaker(2, Duration.ofSeconds(60), Clock.fixed(start, ZoneOffset.UTC));
+        AtomicInteger sent = new AtomicInteger();
+        Mono<String> failing = Mono.fromCallable(() -> {
+            sent.incrementAndGet();
+            throw new PepperApiException("down", HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        assertThrows(PepperApiException.class, () -> breaker.protect(failing).block());
+        assertThat(breaker.isOpen(), equalTo(false));
+        assertThrows(PepperApiException.class, () -> breaker.protect(failing).block());
+        assertThat(breaker.isOpen(), equalTo(true));
+
+        // once open, requests fail without being sent
+        assertThrows(PepperApiException.class, () -> breaker.protect(failing).block());
+        assertThat(sent.get(), equalTo(2));
+    }
+
+    @Test
+    public void testClosesAfterSuccessfulTrial() {
+        MutableClock clock = new MutableClock(start);
+        PepperCircuitBreaker breaker = new PepperCircuitBreaker(1, Duration.ofSeconds(60), clock);
+        assertThrows(PepperApiException.class,
+                () -> breaker.protect(Mono.error(new PepperApiException("timeout"))).block());
+        assertThat(breaker.isOpen(), equalTo(true));
+        assertThrows(PepperApiException.class, () -> breaker.protect(Mono.just("ok")).block());
+
+        clock.setInstant(start.plusSeconds(61));
+        assertThat(breaker.protect(Mono.just("ok")).block(), equalTo("ok"));
+        assertThat(breaker.isOpen(), equalTo(false));
+    }
+
+    @Test
+    public void testClientErrorsDontCount() {
+        PepperCircuitBreaker breaker = new PepperCircuitBreaker(1, Duration.ofSeconds(60), Clock.fixed(start, ZoneOffset.UTC));
+        assertThrows(PepperApiException.class,
+                () -> breaker.protect(Mono.error(new PepperApiException("bad address", HttpStatus.BAD_REQUEST))).block());
+        assertThrows(PepperParseException.class,
+                () -> breaker.protect(Mono.error(new PepperParseException("bad json", "{}"))).block());
+        assertThat(breaker.isOpen(), equalTo(false));
+    }
+}
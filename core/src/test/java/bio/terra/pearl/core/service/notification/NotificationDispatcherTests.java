@@ -10,15 +10,28 @@ import bio.terra.pearl.core.model.kit.KitRequestStatus;
 import bio.terra.pearl.core.model.notification.*;
 import bio.terra.pearl.core.model.participant.Enrollee;
 import bio.terra.pearl.core.service.kit.pepper.PepperKitStatus;
+import bio.terra.pearl.core.service.notification.email.EnrolleeEmailService;
+import bio.terra.pearl.core.service.rule.EnrolleeContext;
 import bio.terra.pearl.core.service.workflow.EventService;
 import java.util.List;
+import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.samePropertyValuesAs;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 public class NotificationDispatcherTests extends BaseSpringBootTest {
     @Test
@@ -60,6 +73,33 @@ public class NotificationDispatcherTests extends BaseSpringBootTest {
         verifyNotification(config, enrolleeBundle);
     }
 
+    @Test
+    public void testAsyncNotificationResentAfterCommitWhenQueueFull() {
+        NotificationService mockNotificationService = mock(NotificationService.class);
+        EnrolleeEmailService mockEmailService = mock(EnrolleeEmailService.class);
+        when(mockNotificationService.create(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        // the queue is full while the caller's transaction is open, but not once it commits
+        doThrow(new TaskRejectedException("queue full")).doNothing()
+                .when(mockEmailService).processNotificationAsync(any(), any(), any());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(mock(TriggerService.class),
+                mockNotificationService, mockEmailService);
+        Trigger config = Trigger.builder().id(UUID.randomUUID()).deliveryType(NotificationDeliveryType.EMAIL).build();
+        EnrolleeContext enrolleeContext = new EnrolleeContext(Enrollee.builder().id(UUID.randomUUID()).build(), null, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dispatcher.dispatchNotificationAsync(config, enrolleeContext, UUID.randomUUID());
+            verify(mockEmailService, times(1)).processNotificationAsync(any(), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(mockEmailService, times(2)).processNotificationAsync(any(), any(), any());
+        // the notification is never marked as failed
+        verify(mockNotificationService, never()).update(any());
+    }
+
     private Trigger createNotificationConfig(EnrolleeBundle enrolleeBundle, TriggerEventType eventType) {
         Enrollee enrollee = enrolleeBundle.enrollee();
         Trigger config = Trigger.builder()
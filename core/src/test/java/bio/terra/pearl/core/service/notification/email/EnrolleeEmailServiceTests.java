@@ -1,11 +1,14 @@
 package bio.terra.pearl.core.service.notification.email;
 
 import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.dao.portal.PortalEnvironmentConfigDao;
+import bio.terra.pearl.core.factory.StudyEnvironmentFactory;
 import bio.terra.pearl.core.factory.notification.EmailTemplateFactory;
 import bio.terra.pearl.core.factory.notification.NotificationFactory;
 import bio.terra.pearl.core.factory.notification.TriggerFactory;
 import bio.terra.pearl.core.factory.participant.EnrolleeBundle;
 import bio.terra.pearl.core.factory.participant.EnrolleeFactory;
+import bio.terra.pearl.core.factory.portal.PortalEnvironmentFactory;
 import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.notification.*;
 import bio.terra.pearl.core.model.participant.Enrollee;
@@ -13,6 +16,7 @@ import bio.terra.pearl.core.model.participant.Profile;
 import bio.terra.pearl.core.model.portal.Portal;
 import bio.terra.pearl.core.model.portal.PortalEnvironment;
 import bio.terra.pearl.core.model.portal.PortalEnvironmentConfig;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
 import bio.terra.pearl.core.model.workflow.TaskType;
 import bio.terra.pearl.core.service.notification.NotificationContextInfo;
 import bio.terra.pearl.core.service.notification.NotificationService;
@@ -29,6 +33,8 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class EnrolleeEmailServiceTests extends BaseSpringBootTest {
     @Autowired
@@ -49,6 +55,12 @@ public class EnrolleeEmailServiceTests extends BaseSpringBootTest {
     private SendgridClient sendgridClient;
     @Autowired
     private EnrolleeEmailService enrolleeEmailService;
+    @Autowired
+    private PortalEnvironmentFactory portalEnvironmentFactory;
+    @Autowired
+    private StudyEnvironmentFactory studyEnvironmentFactory;
+    @Autowired
+    private PortalEnvironmentConfigDao portalEnvironmentConfigDao;
 
 
     @Test
@@ -212,4 +224,27 @@ public class EnrolleeEmailServiceTests extends BaseSpringBootTest {
         assertThat(updatedNotification.getDeliveryStatus(), equalTo(NotificationDeliveryStatus.SKIPPED));
     }
 
+    @Test
+    @Transactional
+    public void testContextInfoCached(TestInfo info) {
+        String testName = getTestName(info);
+        PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(testName);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(portalEnv, testName);
+        EmailTemplate emailTemplate = emailTemplateFactory.buildPersisted(testName, portalEnv.getPortalId());
+        Trigger trigger = triggerFactory.buildPersisted(Trigger.builder()
+                .triggerType(TriggerType.EVENT)
+                .deliveryType(NotificationDeliveryType.EMAIL)
+                .emailTemplateId(emailTemplate.getId()), studyEnv.getId(), portalEnv.getId());
+
+        NotificationContextInfo contextInfo = enrolleeEmailService.loadContextInfo(trigger);
+        assertThat(enrolleeEmailService.loadContextInfo(trigger), sameInstance(contextInfo));
+
+        // changing the portal environment config, even directly through the dao, reloads the context info
+        PortalEnvironmentConfig config = portalEnvironmentConfigDao.find(portalEnv.getPortalEnvironmentConfigId()).orElseThrow();
+        config.setEmailSourceAddress("updated@test.com");
+        portalEnvironmentConfigDao.update(config);
+        NotificationContextInfo reloaded = enrolleeEmailService.loadContextInfo(trigger);
+        assertThat(reloaded, not(sameInstance(contextInfo)));
+        assertThat(reloaded.portalEnvConfig().getEmailSourceAddress(), equalTo("updated@test.com"));
+    }
 }
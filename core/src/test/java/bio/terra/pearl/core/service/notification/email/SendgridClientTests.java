@@ -6,7 +6,12 @@ import bio.terra.pearl.core.model.notification.LocalizedEmailTemplate;
 import bio.terra.pearl.core.service.notification.NotificationContextInfo;
 import bio.terra.pearl.core.service.notification.substitutors.AdminEmailSubstitutor;
 import bio.terra.pearl.core.shared.ApplicationRoutingPaths;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sendgrid.helpers.mail.Mail;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.apache.commons.text.StringSubstitutor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +20,7 @@ import org.springframework.mock.env.MockEnvironment;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -94,4 +100,62 @@ public class SendgridClientTests extends BaseSpringBootTest {
             containsString("Redirected from admin1@admin.com, admin2@admin.com"));
   }
 
+  @Test
+  public void testBuildBulkEmail() {
+    Environment env = new MockEnvironment().withProperty(SendgridClient.EMAIL_REDIRECT_VAR, "");
+    SendgridClient sendgridClient = new SendgridClient(env, applicationRoutingPaths);
+    LocalizedEmailTemplate localizedEmailTemplate = LocalizedEmailTemplate.builder()
+            .body("hello ${name}, from ${site}.  Literal: $${name}")
+            .language("en")
+            .subject("Hi ${name}").build();
+
+    Mail email = sendgridClient.buildBulkEmail(localizedEmailTemplate, List.of(
+            recipient("a@test.com", Map.of("name", "Ann", "site", "ourhealth")),
+            recipient("b@test.com", Map.of("name", "Bob", "site", "ourhealth"))),
+            "us@broad.org", "Broad");
+
+    // the template is sent once, with a personalization for each recipient
+    assertThat(email.getSubject(), equalTo("Hi -juniperVar0-"));
+    assertThat(email.getContent().get(0).getValue(),
+            equalTo("hello -juniperVar0-, from -juniperVar1-.  Literal: ${name}"));
+    assertThat(email.getPersonalization().size(), equalTo(2));
+    assertThat(email.getPersonalization().get(0).getTos().get(0).getEmail(), equalTo("a@test.com"));
+    assertThat(email.getPersonalization().get(0).getSubstitutions(),
+            equalTo(Map.of("-juniperVar0-", "Ann", "-juniperVar1-", "ourhealth")));
+    assertThat(email.getPersonalization().get(1).getTos().get(0).getEmail(), equalTo("b@test.com"));
+    assertThat(email.getPersonalization().get(1).getSubstitutions(),
+            equalTo(Map.of("-juniperVar0-", "Bob", "-juniperVar1-", "ourhealth")));
+  }
+
+  @Test
+  public void testSendBulkEmailToStub() throws Exception {
+    try (MockWebServer mockWebServer = new MockWebServer()) {
+      mockWebServer.enqueue(new MockResponse().setResponseCode(202).setHeader("X-Message-Id", "bulkRequestId"));
+      mockWebServer.start();
+      Environment env = new MockEnvironment()
+              .withProperty(SendgridClient.SENDGRID_API_KEY_VAR, "fakeKey")
+              .withProperty(SendgridClient.SENDGRID_BASE_URL_VAR, "http://localhost:%d".formatted(mockWebServer.getPort()));
+      SendgridClient sendgridClient = new SendgridClient(env, applicationRoutingPaths);
+      LocalizedEmailTemplate localizedEmailTemplate = LocalizedEmailTemplate.builder()
+              .body("hello ${name}")
+              .language("en")
+              .subject("Hi").build();
+      Mail email = sendgridClient.buildBulkEmail(localizedEmailTemplate, List.of(
+              recipient("a@test.com", Map.of("name", "Ann")),
+              recipient("b@test.com", Map.of("name", "Bob"))),
+              "us@broad.org", "Broad");
+
+      assertThat(sendgridClient.sendBulkEmail(email), equalTo("bulkRequestId"));
+
+      RecordedRequest request = mockWebServer.takeRequest();
+      assertThat(request.getPath(), equalTo("/v3/mail/send"));
+      JsonNode body = new ObjectMapper().readTree(request.getBody().readUtf8());
+      assertThat(body.get("personalizations").size(), equalTo(2));
+      assertThat(body.get("personalizations").get(1).get("substitutions").get("-juniperVar0-").asText(), equalTo("Bob"));
+    }
+  }
+
+  private SendgridClient.BulkEmailRecipient recipient(String toAddress, Map<String, String> values) {
+    return new SendgridClient.BulkEmailRecipient(toAddress, new StringSubstitutor(values));
+  }
 }
@@ -0,0 +1,44 @@
+package bio.terra.pearl.core.service.notification.substitutors;
+
+import org.apache.commons.text.StringSubstitutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class CompiledTemplateTests {
+    private final StringSubstitutor substitutor = new StringSubstitutor(Map.of(
+            "name", "Ann",
+            "site", "ourhealth",
+            "link", "<a>${site}</a>"));
+
+    @Test
+    public void testRenderMatchesStringSubstitutor() {
+        for (String template : new String[] {
+                "hi ${name}!",
+                "$${name} is ${name}",
+                "${missing}",
+                "${missing:-default} and ${name:-default}",
+                "${link}",
+                "unclosed ${name",
+                "${name}${site}",
+                "no variables"}) {
+            assertThat(template, CompiledTemplate.of(template).render(substitutor), equalTo(substitutor.replace(template)));
+        }
+    }
+
+    @Test
+    public void testRenderTagged() {
+        String tagged = CompiledTemplate.of("hi ${name}, $${name}, ${site:-x}")
+                .renderTagged(variable -> "[" + variable + "]");
+        assertThat(tagged, equalTo("hi [${name}], ${name}, [${site:-x}]"));
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        assertThat(CompiledTemplate.of("hello ${name}"), sameInstance(CompiledTemplate.of("hello ${name}")));
+    }
+}
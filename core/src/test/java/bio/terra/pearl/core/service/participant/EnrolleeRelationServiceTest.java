@@ -18,6 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -277,6 +279,28 @@ class EnrolleeRelationServiceTest extends BaseSpringBootTest {
         Assertions.assertNotNull(relation.getEnrollee().getProfile());
     }
 
+    @Test
+    @Transactional
+    void testFindByTargetEnrolleeIdsWithEnrollees(TestInfo info) {
+        EnrolleeAndProxy hubResponse = enrolleeFactory.buildProxyAndGovernedEnrollee(getTestName(info), "proxyEmail@test.com");
+        Enrollee proxyEnrollee = hubResponse.proxy();
+        Enrollee governedEnrollee = hubResponse.governedEnrollee();
+        Enrollee unrelatedEnrollee = enrolleeFactory.buildPersisted(getTestName(info), governedEnrollee.getStudyEnvironmentId(),
+                proxyEnrollee.getParticipantUserId(), proxyEnrollee.getProfileId());
+
+        Map<UUID, List<EnrolleeRelation>> relationMap = enrolleeRelationService.findByTargetEnrolleeIdsWithEnrollees(
+                List.of(governedEnrollee.getId(), unrelatedEnrollee.getId()), true);
+
+        assertEquals(1, relationMap.size());
+        assertEquals(1, relationMap.get(governedEnrollee.getId()).size());
+        EnrolleeRelation relation = relationMap.get(governedEnrollee.getId()).get(0);
+        assertEquals(RelationshipType.PROXY, relation.getRelationshipType());
+        assertEquals(proxyEnrollee.getId(), relation.getEnrollee().getId());
+        assertEquals(governedEnrollee.getId(), relation.getTargetEnrollee().getId());
+        Assertions.assertNotNull(relation.getTargetEnrollee().getProfile());
+        Assertions.assertNotNull(relation.getEnrollee().getProfile());
+    }
+
     @Test
     @Transactional
     public void testCreateFamilyRelationship(TestInfo info) {
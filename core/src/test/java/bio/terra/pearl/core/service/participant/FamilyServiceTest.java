@@ -13,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,6 +56,26 @@ class FamilyServiceTest extends BaseSpringBootTest {
         assertTrue(created.getShortcode().startsWith("F_"));
     }
 
+    @Test
+    @Transactional
+    public void testFindByEnrolleeIdsWithProband(TestInfo info) {
+        StudyEnvironment studyEnvironment = studyEnvironmentFactory.buildPersisted(getTestName(info));
+        Enrollee proband = enrolleeFactory.buildPersisted(getTestName(info), studyEnvironment);
+        Enrollee member = enrolleeFactory.buildPersisted(getTestName(info), studyEnvironment);
+        Enrollee nonMember = enrolleeFactory.buildPersisted(getTestName(info), studyEnvironment);
+        Family family = familyFactory.buildPersisted(getTestName(info), proband);
+        familyService.addEnrollee(family.getShortcode(), member.getShortcode(), studyEnvironment.getId(), getAuditInfo(info));
+
+        Map<UUID, List<Family>> families = familyService.findByEnrolleeIdsWithProband(
+                List.of(proband.getId(), member.getId(), nonMember.getId()));
+
+        assertEquals(2, families.size());
+        assertFalse(families.containsKey(nonMember.getId()));
+        assertEquals(family.getId(), families.get(member.getId()).get(0).getId());
+        assertEquals(proband.getId(), families.get(member.getId()).get(0).getProband().getId());
+        assertEquals(family.getId(), families.get(proband.getId()).get(0).getId());
+    }
+
     @Test
     @Transactional
     public void testAddMember(TestInfo info) {
@@ -0,0 +1,227 @@
+package bio.terra.pearl.core.service.participant;
+
+import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.MutableClock;
+import bio.terra.pearl.core.dao.kit.KitRequestDao;
+import bio.terra.pearl.core.dao.participant.EnrolleeRelationDao;
+import bio.terra.pearl.core.dao.workflow.ParticipantTaskDao;
+import bio.terra.pearl.core.factory.kit.KitRequestFactory;
+import bio.terra.pearl.core.factory.participant.EnrolleeAndProxy;
+import bio.terra.pearl.core.factory.participant.EnrolleeBundle;
+import bio.terra.pearl.core.factory.participant.EnrolleeFactory;
+import bio.terra.pearl.core.factory.participant.ParticipantTaskFactory;
+import bio.terra.pearl.core.model.kit.KitRequest;
+import bio.terra.pearl.core.model.kit.KitRequestStatus;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.EnrolleeRelation;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.model.workflow.TaskStatus;
+import bio.terra.pearl.core.model.workflow.TaskType;
+import bio.terra.pearl.core.service.kit.KitRequestDto;
+import bio.terra.pearl.core.service.participant.ParticipantHubLoader.ParticipantHub;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ParticipantHubLoaderTests extends BaseSpringBootTest {
+    @Autowired
+    private ParticipantHubLoader participantHubLoader;
+    @MockitoSpyBean
+    private EnrolleeService enrolleeService;
+    @Autowired
+    private EnrolleeRelationService enrolleeRelationService;
+    @Autowired
+    private PortalParticipantUserService portalParticipantUserService;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private EnrolleeFactory enrolleeFactory;
+    @Autowired
+    private ParticipantTaskFactory participantTaskFactory;
+    @Autowired
+    private KitRequestFactory kitRequestFactory;
+    @Autowired
+    private ParticipantTaskDao participantTaskDao;
+    @Autowired
+    private KitRequestDao kitRequestDao;
+    @Autowired
+    private EnrolleeRelationDao enrolleeRelationDao;
+
+    @Test
+    @Transactional
+    public void testLoadWithProxy(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        ParticipantTask governedTask = buildTask(enrolleeAndProxy);
+        KitRequest proxyKit = kitRequestFactory.buildPersisted(getTestName(info), enrolleeAndProxy.proxy());
+
+        ParticipantHub hub = participantHubLoader.load(enrolleeAndProxy.proxyPpUser());
+
+        assertThat(hub.profile().getId(), equalTo(enrolleeAndProxy.proxyPpUser().getProfileId()));
+        assertThat(hub.enrollees().stream().map(Enrollee::getId).toList(),
+                containsInAnyOrder(enrolleeAndProxy.proxy().getId(), enrolleeAndProxy.governedEnrollee().getId()));
+        assertThat(hub.proxyRelations(), hasSize(1));
+        assertThat(hub.proxyRelations().get(0).getTargetEnrollee().getId(),
+                equalTo(enrolleeAndProxy.governedEnrollee().getId()));
+        // each enrollee is loaded with its own profile, tasks and kits
+        Enrollee proxy = findEnrollee(hub, enrolleeAndProxy.proxy().getId());
+        Enrollee governed = findEnrollee(hub, enrolleeAndProxy.governedEnrollee().getId());
+        assertThat(proxy.getProfile().getId(), equalTo(enrolleeAndProxy.proxy().getProfileId()));
+        assertThat(governed.getProfile().getId(), equalTo(enrolleeAndProxy.governedEnrollee().getProfileId()));
+        assertThat(governed.getParticipantTasks().stream().map(ParticipantTask::getId).toList(),
+                contains(governedTask.getId()));
+        assertThat(proxy.getParticipantTasks(), empty());
+        assertThat(proxy.getKitRequests().stream().map(KitRequestDto::getId).toList(), contains(proxyKit.getId()));
+        assertThat(governed.getKitRequests(), empty());
+        assertThat(hub.proxiedPpUsers(), hasSize(1));
+        assertThat(hub.proxiedPpUsers().get(0).getProfileId(),
+                equalTo(enrolleeAndProxy.governedEnrollee().getProfileId()));
+    }
+
+    @Test
+    @Transactional
+    public void testCachedHubReloadedAfterTaskUpdate(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        ParticipantTask task = buildTask(enrolleeAndProxy);
+        ParticipantHubLoader cachingLoader = buildCachingLoader(Clock.systemUTC());
+
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        // the second load is served from the cache
+        verify(enrolleeService, times(1)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+
+        task.setStatus(TaskStatus.COMPLETE);
+        participantTaskDao.update(task);
+        ParticipantHub hub = cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+
+        verify(enrolleeService, times(2)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+        assertThat(findEnrollee(hub, enrolleeAndProxy.governedEnrollee().getId()).getParticipantTasks().get(0)
+                .getStatus(), equalTo(TaskStatus.COMPLETE));
+    }
+
+    @Test
+    @Transactional
+    public void testCachedHubReloadedAfterKitUpdate(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        KitRequest kit = kitRequestFactory.buildPersisted(getTestName(info), enrolleeAndProxy.proxy());
+        ParticipantHubLoader cachingLoader = buildCachingLoader(Clock.systemUTC());
+
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        kit = kitRequestDao.find(kit.getId()).orElseThrow();
+        kit.setStatus(KitRequestStatus.SENT);
+        kitRequestDao.update(kit);
+        ParticipantHub hub = cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+
+        verify(enrolleeService, times(2)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+        assertThat(findEnrollee(hub, enrolleeAndProxy.proxy().getId()).getKitRequests().get(0).getStatus(),
+                equalTo(KitRequestStatus.SENT));
+    }
+
+    @Test
+    @Transactional
+    public void testCachedHubExpiresAtRelationEndDate(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        Instant endDate = Instant.now().plus(Duration.ofHours(1));
+        EnrolleeRelation relation = enrolleeRelationService.findByTargetEnrolleeId(
+                enrolleeAndProxy.governedEnrollee().getId()).get(0);
+        relation.setEndDate(endDate);
+        enrolleeRelationDao.update(relation);
+        MutableClock clock = new MutableClock(endDate.minus(Duration.ofMinutes(1)));
+        ParticipantHubLoader cachingLoader = buildCachingLoader(clock);
+
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        verify(enrolleeService, times(1)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+
+        clock.setInstant(endDate);
+        cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        verify(enrolleeService, times(2)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+    }
+
+    @Test
+    @Transactional
+    public void testCachedHubCopied(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        buildTask(enrolleeAndProxy);
+        ParticipantHubLoader cachingLoader = buildCachingLoader(Clock.systemUTC());
+
+        ParticipantHub hub = cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        Enrollee governed = findEnrollee(hub, enrolleeAndProxy.governedEnrollee().getId());
+        String governedName = governed.getProfile().getGivenName();
+        String proxyName = hub.profile().getGivenName();
+        governed.getProfile().setGivenName("changed");
+        governed.getParticipantTasks().get(0).setStatus(TaskStatus.COMPLETE);
+        governed.getParticipantTasks().clear();
+        hub.profile().setGivenName("changed");
+
+        ParticipantHub reloaded = cachingLoader.load(enrolleeAndProxy.proxyPpUser());
+        verify(enrolleeService, times(1)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+        Enrollee reloadedGoverned = findEnrollee(reloaded, enrolleeAndProxy.governedEnrollee().getId());
+        assertThat(reloadedGoverned.getProfile().getGivenName(), equalTo(governedName));
+        assertThat(reloadedGoverned.getParticipantTasks(), hasSize(1));
+        assertThat(reloadedGoverned.getParticipantTasks().get(0).getStatus(), equalTo(TaskStatus.NEW));
+        assertThat(reloaded.profile().getGivenName(), equalTo(proxyName));
+        // relations target the enrollees in the same hub
+        assertThat(reloaded.proxyRelations().get(0).getTargetEnrollee(), sameInstance(reloadedGoverned));
+    }
+
+    @Test
+    @Transactional
+    public void testCacheDisabled(TestInfo info) {
+        EnrolleeAndProxy enrolleeAndProxy = buildProxyAndGovernedEnrollee(info);
+        clearInvocations(enrolleeService);
+
+        // caching is off by default
+        participantHubLoader.load(enrolleeAndProxy.proxyPpUser());
+        ParticipantHub hub = participantHubLoader.load(enrolleeAndProxy.proxyPpUser());
+
+        verify(enrolleeService, times(2)).findByPortalParticipantUser(enrolleeAndProxy.proxyPpUser());
+        verify(enrolleeService, never()).findParticipantHubVersionStamp(enrolleeAndProxy.proxyPpUser().getProfileId());
+        assertThat(hub.enrollees(), hasSize(2));
+        assertThat(hub.profile(), notNullValue());
+    }
+
+    private EnrolleeAndProxy buildProxyAndGovernedEnrollee(TestInfo info) {
+        String email = "proxy" + RandomStringUtils.randomAlphabetic(5) + "@test.com";
+        EnrolleeAndProxy enrolleeAndProxy = enrolleeFactory.buildProxyAndGovernedEnrollee(getTestName(info), email);
+        // only count the loads made by the test
+        clearInvocations(enrolleeService);
+        return enrolleeAndProxy;
+    }
+
+    /** a task for the governed enrollee, which the proxy manages */
+    private ParticipantTask buildTask(EnrolleeAndProxy enrolleeAndProxy) {
+        EnrolleeBundle governedBundle = new EnrolleeBundle(enrolleeAndProxy.governedEnrollee(), null,
+                enrolleeAndProxy.proxyPpUser(), enrolleeAndProxy.portalEnv().getPortalId());
+        return participantTaskFactory.buildPersisted(governedBundle, TaskStatus.NEW, TaskType.SURVEY);
+    }
+
+    private ParticipantHubLoader buildCachingLoader(Clock clock) {
+        return new ParticipantHubLoader(enrolleeService, enrolleeRelationService, portalParticipantUserService,
+                profileService, true, clock);
+    }
+
+    private Enrollee findEnrollee(ParticipantHub hub, UUID enrolleeId) {
+        return hub.enrollees().stream().filter(enrollee -> enrollee.getId().equals(enrolleeId)).findFirst().orElseThrow();
+    }
+}
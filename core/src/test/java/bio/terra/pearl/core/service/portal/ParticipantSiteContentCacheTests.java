@@ -0,0 +1,106 @@
+package bio.terra.pearl.core.service.portal;
+
+import bio.terra.pearl.core.MutableClock;
+import bio.terra.pearl.core.config.MappingConfiguration;
+import bio.terra.pearl.core.dao.portal.PortalDao;
+import bio.terra.pearl.core.model.EnvironmentName;
+import bio.terra.pearl.core.model.portal.Portal;
+import bio.terra.pearl.core.service.portal.ParticipantSiteContentCache.ParticipantSiteContent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParticipantSiteContentCacheTests {
+    private final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+    private final UUID portalId = UUID.randomUUID();
+    private final ObjectMapper objectMapper = new MappingConfiguration().populateObjectMapper();
+
+    @Test
+    public void testServedWithoutQueriesUntilRevalidation() {
+        PortalDao portalDao = Mockito.mock(PortalDao.class);
+        when(portalDao.findParticipantSiteContentVersionStamp(any(), any())).thenReturn("v1");
+        MutableClock clock = new MutableClock(start);
+        ParticipantSiteContentCache cache = new ParticipantSiteContentCache(portalDao, objectMapper,
+                Duration.ofSeconds(5), clock);
+        AtomicInteger loads = new AtomicInteger();
+
+        ParticipantSiteContent first = get(cache, "Original", loads).orElseThrow();
+        ParticipantSiteContent second = get(cache, "Original", loads).orElseThrow();
+        assertThat(loads.get(), equalTo(1));
+        assertThat(second.eTag(), equalTo(first.eTag()));
+        verify(portalDao, times(1)).findParticipantSiteContentVersionStamp(portalId, EnvironmentName.live);
+
+        // once the interval has passed, the stamp is checked, but the content isn't reloaded if it's unchanged
+        clock.setInstant(start.plusSeconds(6));
+        get(cache, "Original", loads);
+        assertThat(loads.get(), equalTo(1));
+        verify(portalDao, times(2)).findParticipantSiteContentVersionStamp(portalId, EnvironmentName.live);
+    }
+
+    @Test
+    public void testReloadedWhenStampChanges() {
+        PortalDao portalDao = Mockito.mock(PortalDao.class);
+        when(portalDao.findParticipantSiteContentVersionStamp(any(), any())).thenReturn("v1");
+        ParticipantSiteContentCache cache = new ParticipantSiteContentCache(portalDao, objectMapper,
+                Duration.ZERO, Clock.fixed(start, ZoneOffset.UTC));
+        AtomicInteger loads = new AtomicInteger();
+
+        ParticipantSiteContent original = get(cache, "Original", loads).orElseThrow();
+        when(portalDao.findParticipantSiteContentVersionStamp(any(), any())).thenReturn("v2");
+        ParticipantSiteContent renamed = get(cache, "Renamed", loads).orElseThrow();
+        assertThat(loads.get(), equalTo(2));
+        assertThat(renamed.eTag(), not(equalTo(original.eTag())));
+        assertThat(new String(renamed.json()).contains("Renamed"), equalTo(true));
+    }
+
+    @Test
+    public void testEvictPortal() {
+        PortalDao portalDao = Mockito.mock(PortalDao.class);
+        when(portalDao.findParticipantSiteContentVersionStamp(any(), any())).thenReturn("v1");
+        ParticipantSiteContentCache cache = new ParticipantSiteContentCache(portalDao, objectMapper,
+                Duration.ofSeconds(5), Clock.fixed(start, ZoneOffset.UTC));
+        AtomicInteger loads = new AtomicInteger();
+
+        get(cache, "Original", loads);
+        cache.evictPortal(portalId);
+        get(cache, "Original", loads);
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void testMissesNotCached() {
+        PortalDao portalDao = Mockito.mock(PortalDao.class);
+        ParticipantSiteContentCache cache = new ParticipantSiteContentCache(portalDao, objectMapper,
+                Duration.ofSeconds(5), Clock.fixed(start, ZoneOffset.UTC));
+        Optional<ParticipantSiteContent> content = cache.get("newPortal", EnvironmentName.live, "en",
+                Optional::empty, portal -> portal);
+        assertThat(content.isPresent(), equalTo(false));
+        verify(portalDao, never()).findParticipantSiteContentVersionStamp(any(), any());
+    }
+
+    private Optional<ParticipantSiteContent> get(ParticipantSiteContentCache cache, String name, AtomicInteger loads) {
+        return cache.get("portal1", EnvironmentName.live, "en",
+                () -> Optional.of(Portal.builder().id(portalId).shortcode("portal1").name(name).build()),
+                portal -> {
+                    loads.incrementAndGet();
+                    return portal;
+                });
+    }
+}
@@ -31,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -173,6 +174,39 @@ class EnrolleeSearchExpressionTest extends BaseSpringBootTest {
                 .build()));
     }
 
+    @Test
+    @Transactional
+    public void testPrefetchedEvaluate(TestInfo info) {
+        StudyEnvironmentBundle studyEnvBundle = studyEnvironmentFactory.buildBundle(getTestName(info), EnvironmentName.sandbox);
+        Survey survey = surveyFactory.buildPersisted(getTestName(info));
+        surveyFactory.attachToEnv(survey, studyEnvBundle.getStudyEnv().getId(), true);
+
+        EnrolleeBundle bundleMatches = enrolleeFactory.buildWithPortalUser(getTestName(info), studyEnvBundle.getPortalEnv(), studyEnvBundle.getStudyEnv());
+        surveyResponseFactory.buildWithAnswers(bundleMatches.enrollee(), survey, Map.of("oh_oh_givenName", "John"));
+        participantTaskFactory.buildPersisted(bundleMatches, "demographic_survey", TaskStatus.IN_PROGRESS, TaskType.SURVEY);
+
+        EnrolleeBundle bundleNoTask = enrolleeFactory.buildWithPortalUser(getTestName(info), studyEnvBundle.getPortalEnv(), studyEnvBundle.getStudyEnv());
+        surveyResponseFactory.buildWithAnswers(bundleNoTask.enrollee(), survey, Map.of("oh_oh_givenName", "John"));
+
+        EnrolleeBundle bundleNoResponse = enrolleeFactory.buildWithPortalUser(getTestName(info), studyEnvBundle.getPortalEnv(), studyEnvBundle.getStudyEnv());
+        participantTaskFactory.buildPersisted(bundleNoResponse, "demographic_survey", TaskStatus.IN_PROGRESS, TaskType.SURVEY);
+
+        EnrolleeSearchExpression searchExp = enrolleeSearchExpressionParser.parseRule(
+                "{answer.%s.oh_oh_givenName} = 'John' and {task.demographic_survey.status} = 'IN_PROGRESS'".formatted(survey.getStableId()));
+
+        List<EnrolleeSearchContext> contexts = List.of(
+                EnrolleeSearchContext.builder().enrollee(bundleMatches.enrollee()).build(),
+                EnrolleeSearchContext.builder().enrollee(bundleNoTask.enrollee()).build(),
+                EnrolleeSearchContext.builder().enrollee(bundleNoResponse.enrollee()).build());
+        searchExp.prefetch(contexts);
+
+        // the answers and tasks are loaded onto the contexts, so evaluation doesn't need to query
+        assertTrue(contexts.stream().allMatch(context -> context.getPrefetchedAnswers() != null && context.getPrefetchedTasks() != null));
+        assertTrue(searchExp.evaluate(contexts.get(0)));
+        assertFalse(searchExp.evaluate(contexts.get(1)));
+        assertFalse(searchExp.evaluate(contexts.get(2)));
+    }
+
     @Test
     @Transactional
     public void testInstantParseEvaluate(TestInfo info) {
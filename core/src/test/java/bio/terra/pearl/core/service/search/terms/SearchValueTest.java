@@ -84,4 +84,13 @@ class SearchValueTest extends BaseSpringBootTest {
         assertFalse(arrayVal.equals(wrongOrder));
     }
 
+    @Test
+    public void testParseToDoesNotModifyValue(TestInfo info) {
+        SearchValue input = new SearchValue("2024-03-05T14:30:00Z");
+        SearchValue parsed = input.parseTo(SearchValue.SearchValueType.INSTANT);
+        assertTrue(parsed.equals(new SearchValue(Instant.parse("2024-03-05T14:30:00Z"))));
+        // the original value is shared by cached expressions, so must be left as it was
+        assertTrue(input.equals(new SearchValue("2024-03-05T14:30:00Z")));
+    }
+
 }
@@ -2,6 +2,7 @@ package bio.terra.pearl.core.service.survey;
 
 import bio.terra.pearl.core.BaseSpringBootTest;
 import bio.terra.pearl.core.dao.dataimport.TimeShiftDao;
+import bio.terra.pearl.core.dao.study.StudyEnvironmentSurveyDao;
 import bio.terra.pearl.core.factory.StudyEnvironmentBundle;
 import bio.terra.pearl.core.factory.StudyEnvironmentFactory;
 import bio.terra.pearl.core.factory.admin.AdminUserFactory;
@@ -14,6 +15,7 @@ import bio.terra.pearl.core.factory.survey.SurveyResponseFactory;
 import bio.terra.pearl.core.model.EnvironmentName;
 import bio.terra.pearl.core.model.admin.AdminUser;
 import bio.terra.pearl.core.model.audit.DataAuditInfo;
+import bio.terra.pearl.core.model.audit.ParticipantDataChange;
 import bio.terra.pearl.core.model.audit.ResponsibleEntity;
 import bio.terra.pearl.core.model.participant.Profile;
 import bio.terra.pearl.core.model.survey.StudyEnvironmentSurvey;
@@ -23,8 +25,12 @@ import bio.terra.pearl.core.model.workflow.ParticipantTask;
 import bio.terra.pearl.core.model.workflow.RecurrenceType;
 import bio.terra.pearl.core.model.workflow.TaskStatus;
 import bio.terra.pearl.core.model.workflow.TaskType;
+import bio.terra.pearl.core.service.workflow.ParticipantDataChangeService;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskAssignDto;
 import bio.terra.pearl.core.service.workflow.ParticipantTaskService;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentConfig;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentProgress;
+import bio.terra.pearl.core.service.workflow.TaskAssignmentTracker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +65,14 @@ class SurveyTaskDispatcherTest extends BaseSpringBootTest {
     private SurveyResponseFactory surveyResponseFactory;
     @Autowired
     private TimeShiftDao timeShiftDao;
+    @Autowired
+    private TaskAssignmentConfig taskAssignmentConfig;
+    @Autowired
+    private StudyEnvironmentSurveyDao studyEnvironmentSurveyDao;
+    @Autowired
+    private ParticipantDataChangeService participantDataChangeService;
+    @Autowired
+    private TaskAssignmentTracker taskAssignmentTracker;
 
 
     @Test
@@ -201,6 +215,81 @@ class SurveyTaskDispatcherTest extends BaseSpringBootTest {
         assertThat(participantTasks, hasSize(2));
     }
 
+    @Test
+    @Transactional
+    public void testAssignInChunks(TestInfo testInfo) {
+        int originalChunkSize = taskAssignmentConfig.getChunkSize();
+        taskAssignmentConfig.setChunkSize(2);
+        try {
+            StudyEnvironmentBundle sandboxBundle = studyEnvironmentFactory.buildBundle(getTestName(testInfo), EnvironmentName.sandbox);
+            AdminUser operator = adminUserFactory.buildPersisted(getTestName(testInfo), true);
+            Survey survey = surveyFactory.buildPersisted(getTestName(testInfo));
+            surveyFactory.attachToEnv(survey, sandboxBundle.getStudyEnv().getId(), true);
+            List<EnrolleeBundle> enrolleeBundles = List.of(
+                    enrolleeFactory.buildWithPortalUser(getTestName(testInfo), sandboxBundle.getPortalEnv(), sandboxBundle.getStudyEnv()),
+                    enrolleeFactory.buildWithPortalUser(getTestName(testInfo), sandboxBundle.getPortalEnv(), sandboxBundle.getStudyEnv()),
+                    enrolleeFactory.buildWithPortalUser(getTestName(testInfo), sandboxBundle.getPortalEnv(), sandboxBundle.getStudyEnv()));
+            // the second enrollee already has the task
+            participantTaskFactory.buildPersisted(enrolleeBundles.get(1), ParticipantTaskFactory.DEFAULT_BUILDER
+                    .targetStableId(survey.getStableId()).targetAssignedVersion(survey.getVersion()));
+
+            List<ParticipantTask> createdTasks = surveyTaskDispatcher.assign(
+                    enrolleeBundles.stream().map(EnrolleeBundle::enrollee).toList(),
+                    surveyTaskDispatcher.findTaskConfigByStableId(sandboxBundle.getStudyEnv().getId(), survey.getStableId(), survey.getVersion()).orElseThrow(),
+                    false, "reason", new ResponsibleEntity(operator));
+
+            assertThat(createdTasks, hasSize(2));
+
+            // each created task has its own audit record, and all are tagged with the assignment's operation id
+            UUID operationId = participantDataChangeService.findByModelId(createdTasks.get(0).getId()).get(0).getOperationId();
+            assertThat(operationId, notNullValue());
+            for (ParticipantTask task : createdTasks) {
+                assertThat(task.getId(), notNullValue());
+                List<ParticipantDataChange> changes = participantDataChangeService.findByModelId(task.getId());
+                assertThat(changes, hasSize(1));
+                assertThat(changes.get(0).getEnrolleeId(), equalTo(task.getEnrolleeId()));
+                assertThat(changes.get(0).getOperationId(), equalTo(operationId));
+                assertThat(changes.get(0).getResponsibleAdminUserId(), equalTo(operator.getId()));
+            }
+            List<ParticipantTask> participantTasks = participantTaskService.findTasksByStudyAndTarget(sandboxBundle.getStudyEnv().getId(), List.of(survey.getStableId()));
+            assertThat(participantTasks, hasSize(3));
+
+            // the assignment's progress is tracked under the same operation id
+            TaskAssignmentProgress progress = taskAssignmentTracker.find(operationId).orElseThrow();
+            assertThat(progress.enrolleesProcessed(), equalTo(3));
+            assertThat(progress.tasksCreated(), equalTo(2));
+            assertTrue(progress.isComplete());
+            assertThat(taskAssignmentTracker.findByStudyEnvironment(sandboxBundle.getStudyEnv().getId()), contains(progress));
+        } finally {
+            taskAssignmentConfig.setChunkSize(originalChunkSize);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testTaskConfigsCached(TestInfo testInfo) {
+        StudyEnvironmentBundle sandboxBundle = studyEnvironmentFactory.buildBundle(getTestName(testInfo), EnvironmentName.sandbox);
+        UUID studyEnvId = sandboxBundle.getStudyEnv().getId();
+        Survey survey = surveyFactory.buildPersisted(getTestName(testInfo));
+        surveyFactory.attachToEnv(survey, studyEnvId, true);
+
+        List<SurveyTaskConfigDto> configs = surveyTaskDispatcher.findTaskConfigsByStudyEnvironment(studyEnvId);
+        assertThat(configs.stream().map(SurveyTaskConfigDto::getStableId).toList(), contains(survey.getStableId()));
+        // survey content isn't needed for task assignment, so isn't loaded
+        assertThat(configs.get(0).getSurvey().getContent(), nullValue());
+        assertThat(surveyTaskDispatcher.findTaskConfigsByStudyEnvironment(studyEnvId), sameInstance(configs));
+
+        // adding a survey through the service evicts the cache
+        Survey survey2 = surveyFactory.buildPersisted(getTestName(testInfo));
+        StudyEnvironmentSurvey ses2 = surveyFactory.attachToEnv(survey2, studyEnvId, true);
+        assertThat(surveyTaskDispatcher.findTaskConfigsByStudyEnvironment(studyEnvId), hasSize(2));
+
+        // changes made without going through the service (e.g. by another process) are picked up too
+        ses2.setActive(false);
+        studyEnvironmentSurveyDao.update(ses2);
+        assertThat(surveyTaskDispatcher.findTaskConfigsByStudyEnvironment(studyEnvId), hasSize(1));
+    }
+
     @Test
     @Transactional
     public void testAssignWithSearchExpression(TestInfo testInfo) {
@@ -0,0 +1,272 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.config.BoundedTaskExecutor;
+import bio.terra.pearl.core.dao.kit.KitRequestDao;
+import bio.terra.pearl.core.dao.kit.KitTypeDao;
+import bio.terra.pearl.core.dao.participant.EnrolleeDao;
+import bio.terra.pearl.core.dao.participant.PortalParticipantUserDao;
+import bio.terra.pearl.core.dao.survey.SurveyResponseDao;
+import bio.terra.pearl.core.dao.workflow.EventOutboxDao;
+import bio.terra.pearl.core.dao.workflow.ParticipantTaskDao;
+import bio.terra.pearl.core.model.kit.KitRequest;
+import bio.terra.pearl.core.model.kit.KitRequestStatus;
+import bio.terra.pearl.core.model.kit.KitType;
+import bio.terra.pearl.core.model.participant.Enrollee;
+import bio.terra.pearl.core.model.participant.PortalParticipantUser;
+import bio.terra.pearl.core.model.survey.SurveyResponse;
+import bio.terra.pearl.core.model.workflow.EventClass;
+import bio.terra.pearl.core.model.workflow.EventOutboxEntry;
+import bio.terra.pearl.core.model.workflow.EventOutboxStatus;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.consent.EnrolleeConsentEvent;
+import bio.terra.pearl.core.service.kit.KitSentEvent;
+import bio.terra.pearl.core.service.rule.EnrolleeContextService;
+import bio.terra.pearl.core.service.survey.event.EnrolleeSurveyEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EventOutboxServiceTests {
+    private final EventOutboxDao eventOutboxDao = Mockito.mock(EventOutboxDao.class);
+    private final EnrolleeDao enrolleeDao = Mockito.mock(EnrolleeDao.class);
+    private final PortalParticipantUserDao portalParticipantUserDao = Mockito.mock(PortalParticipantUserDao.class);
+    private final SurveyResponseDao surveyResponseDao = Mockito.mock(SurveyResponseDao.class);
+    private final ParticipantTaskDao participantTaskDao = Mockito.mock(ParticipantTaskDao.class);
+    private final KitRequestDao kitRequestDao = Mockito.mock(KitRequestDao.class);
+    private final KitTypeDao kitTypeDao = Mockito.mock(KitTypeDao.class);
+    private final Enrollee enrollee = Enrollee.builder().id(UUID.randomUUID()).shortcode("OUTBOX").build();
+    private final PortalParticipantUser ppUser = PortalParticipantUser.builder().id(UUID.randomUUID()).build();
+    private final List<OutboxEventListener> listeners = new ArrayList<>();
+    private EventOutboxService service;
+    private BoundedTaskExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        when(enrolleeDao.find(enrollee.getId())).thenReturn(Optional.of(enrollee));
+        when(portalParticipantUserDao.find(ppUser.getId())).thenReturn(Optional.of(ppUser));
+        when(eventOutboxDao.create(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRetryBackoff() {
+        service = buildService(true, 20);
+        listeners.add((event, delivery) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        EventOutboxEntry entry = buildEntry(EventClass.ENROLLEE_CREATION_EVENT);
+
+        Instant before = Instant.now();
+        assertThat(service.deliver(entry), equalTo(false));
+        assertThat(entry.getStatus(), equalTo(EventOutboxStatus.PENDING));
+        assertThat(entry.getAttempts(), equalTo(1));
+        assertThat(entry.getLastError(), equalTo("listener failed"));
+        assertBetween(entry.getNextAttemptAt(), before.plusSeconds(30), Instant.now().plusSeconds(30));
+
+        // each retry waits twice as long as the last, up to the max
+        before = Instant.now();
+        service.deliver(entry);
+        assertThat(entry.getAttempts(), equalTo(2));
+        assertBetween(entry.getNextAttemptAt(), before.plusSeconds(60), Instant.now().plusSeconds(60));
+
+        entry.setAttempts(7);
+        before = Instant.now();
+        service.deliver(entry);
+        assertBetween(entry.getNextAttemptAt(), before.plusSeconds(3600), Instant.now().plusSeconds(3600));
+        verify(eventOutboxDao, times(3)).update(entry);
+    }
+
+    @Test
+    public void testFailedAfterMaxAttempts() {
+        service = buildService(true, 3);
+        listeners.add((event, delivery) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        EventOutboxEntry entry = buildEntry(EventClass.ENROLLEE_CREATION_EVENT);
+        entry.setAttempts(2);
+
+        assertThat(service.deliver(entry), equalTo(false));
+        assertThat(entry.getStatus(), equalTo(EventOutboxStatus.FAILED));
+        assertThat(entry.getAttempts(), equalTo(3));
+        verify(eventOutboxDao).update(entry);
+    }
+
+    @Test
+    public void testCompletedStepsSkippedOnRetry() {
+        service = buildService(true, 8);
+        AtomicInteger firstStepRuns = new AtomicInteger();
+        AtomicInteger secondStepRuns = new AtomicInteger();
+        listeners.add((event, delivery) -> {
+            delivery.runOnce("first", firstStepRuns::incrementAndGet);
+            delivery.runOnce("second", () -> {
+                if (secondStepRuns.incrementAndGet() == 1) {
+                    throw new IllegalStateException("second step failed");
+                }
+            });
+        });
+        EventOutboxEntry entry = buildEntry(EventClass.ENROLLEE_CREATION_EVENT);
+
+        assertThat(service.deliver(entry), equalTo(false));
+        assertThat(entry.getCompletedSteps(), contains("first"));
+        assertThat(service.deliver(entry), equalTo(true));
+        assertThat(entry.getStatus(), equalTo(EventOutboxStatus.DELIVERED));
+        assertThat(firstStepRuns.get(), equalTo(1));
+        assertThat(secondStepRuns.get(), equalTo(2));
+        assertThat(entry.getCompletedSteps(), contains("first", "second"));
+        verify(eventOutboxDao, times(1)).addCompletedStep(entry.getId(), "first");
+        verify(eventOutboxDao, times(1)).addCompletedStep(entry.getId(), "second");
+    }
+
+    @Test
+    public void testRebuildKitStatusEvent() {
+        service = buildService(true, 8);
+        KitType kitType = KitType.builder().id(UUID.randomUUID()).name("SALIVA").build();
+        // the kit has moved on since the event was published
+        KitRequest kitRequest = KitRequest.builder().id(UUID.randomUUID()).kitTypeId(kitType.getId())
+                .status(KitRequestStatus.RECEIVED).build();
+        when(kitRequestDao.find(kitRequest.getId())).thenReturn(Optional.of(kitRequest));
+        when(kitTypeDao.find(kitType.getId())).thenReturn(Optional.of(kitType));
+        EventOutboxEntry entry = buildEntry(EventClass.KIT_STATUS_EVENT);
+        entry.setKitRequestId(kitRequest.getId());
+        entry.setKitStatus(KitRequestStatus.SENT);
+        entry.setPriorKitStatus(KitRequestStatus.CREATED);
+
+        EnrolleeEvent event = service.rebuildEvent(entry);
+        // the event keeps the status it was published with
+        assertThat(event, instanceOf(KitSentEvent.class));
+        KitSentEvent kitEvent = (KitSentEvent) event;
+        assertThat(kitEvent.getKitRequest().getStatus(), equalTo(KitRequestStatus.SENT));
+        assertThat(kitEvent.getPriorStatus(), equalTo(KitRequestStatus.CREATED));
+        assertThat(kitEvent.getKitRequest().getKitType(), equalTo(kitType));
+        assertRebuiltFor(event);
+    }
+
+    @Test
+    public void testRebuildSurveyEvent() {
+        service = buildService(true, 8);
+        SurveyResponse response = SurveyResponse.builder().id(UUID.randomUUID()).complete(true).build();
+        ParticipantTask task = ParticipantTask.builder().id(UUID.randomUUID()).build();
+        when(surveyResponseDao.find(response.getId())).thenReturn(Optional.of(response));
+        when(participantTaskDao.find(task.getId())).thenReturn(Optional.of(task));
+        when(participantTaskDao.findByEnrolleeId(enrollee.getId())).thenReturn(List.of(task));
+        EventOutboxEntry entry = buildEntry(EventClass.ENROLLEE_SURVEY_EVENT);
+        entry.setSurveyResponseId(response.getId());
+        entry.setParticipantTaskId(task.getId());
+
+        EnrolleeEvent event = service.rebuildEvent(entry);
+        assertThat(event, instanceOf(EnrolleeSurveyEvent.class));
+        assertThat(((EnrolleeSurveyEvent) event).getSurveyResponse(), equalTo(response));
+        assertThat(((EnrolleeSurveyEvent) event).getParticipantTask(), equalTo(task));
+        assertRebuiltFor(event);
+        // the enrollee is loaded with its current tasks, for rules that check them
+        assertThat(event.getEnrollee().getParticipantTasks(), contains(task));
+    }
+
+    @Test
+    public void testRebuildConsentAndCreationEvents() {
+        service = buildService(true, 8);
+        EnrolleeEvent consentEvent = service.rebuildEvent(buildEntry(EventClass.ENROLLEE_CONSENT_EVENT));
+        assertThat(consentEvent, instanceOf(EnrolleeConsentEvent.class));
+        assertRebuiltFor(consentEvent);
+
+        EnrolleeEvent creationEvent = service.rebuildEvent(buildEntry(EventClass.ENROLLEE_CREATION_EVENT));
+        assertThat(creationEvent, instanceOf(EnrolleeCreationEvent.class));
+        assertRebuiltFor(creationEvent);
+
+        assertThrows(IllegalStateException.class,
+                () -> service.rebuildEvent(buildEntry(EventClass.PORTAL_REGISTRATION_EVENT)));
+    }
+
+    @Test
+    public void testEnqueueKicksDeliveryAfterCommit() {
+        service = buildService(true, 8);
+        when(eventOutboxDao.leaseDueForEnrollee(eq(enrollee.getId()), any(Duration.class))).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        EnrolleeCreationEvent event = EnrolleeCreationEvent.builder().enrollee(enrollee).portalParticipantUser(ppUser).build();
+        EventOutboxEntry entry = service.enqueue(EventClass.ENROLLEE_CREATION_EVENT, event);
+        assertThat(entry.getEnrolleeId(), equalTo(enrollee.getId()));
+        assertThat(entry.getStatus(), equalTo(EventOutboxStatus.PENDING));
+        // nothing is delivered until the transaction commits
+        verify(eventOutboxDao, never()).leaseDueForEnrollee(any(), any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(eventOutboxDao, timeout(5000)).leaseDueForEnrollee(eq(enrollee.getId()), any(Duration.class));
+    }
+
+    @Test
+    public void testDisabledDeliversNothing() {
+        service = buildService(false, 8);
+        assertThat(service.drain(), equalTo(0));
+        verify(eventOutboxDao, never()).leaseDue(Mockito.anyInt(), any());
+    }
+
+    private EventOutboxService buildService(boolean enabled, int maxAttempts) {
+        EventOutboxConfig config = new EventOutboxConfig(new MockEnvironment()
+                .withProperty("env.events.outbox.enabled", Boolean.toString(enabled))
+                .withProperty("env.events.outbox.maxAttempts", Integer.toString(maxAttempts)));
+        executor = new BoundedTaskExecutor("eventOutboxExecutor", 1, 100,
+                BoundedTaskExecutor.WhenFull.CALLER_RUNS_OUTSIDE_TRANSACTION);
+        executor.initialize();
+        return new EventOutboxService(eventOutboxDao, config, enrolleeDao, portalParticipantUserDao, surveyResponseDao,
+                participantTaskDao, kitRequestDao, kitTypeDao, Mockito.mock(EnrolleeContextService.class), listeners,
+                executor);
+    }
+
+    private EventOutboxEntry buildEntry(EventClass eventClass) {
+        return EventOutboxEntry.builder()
+                .id(UUID.randomUUID())
+                .eventClass(eventClass)
+                .enrolleeId(enrollee.getId())
+                .portalParticipantUserId(ppUser.getId())
+                .build();
+    }
+
+    private void assertRebuiltFor(EnrolleeEvent event) {
+        assertThat(event.getEnrollee(), equalTo(enrollee));
+        assertThat(event.getPortalParticipantUser(), equalTo(ppUser));
+    }
+
+    private void assertBetween(Instant instant, Instant earliest, Instant latest) {
+        assertThat(instant, greaterThanOrEqualTo(earliest));
+        assertThat(instant, lessThanOrEqualTo(latest));
+    }
+}
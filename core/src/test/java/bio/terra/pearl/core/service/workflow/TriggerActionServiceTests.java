@@ -51,6 +51,8 @@ public class TriggerActionServiceTests extends BaseSpringBootTest {
     private KitRequestFactory kitRequestFactory;
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private EventOutboxConfig eventOutboxConfig;
 
     @Test
     @Transactional
@@ -83,6 +85,31 @@ public class TriggerActionServiceTests extends BaseSpringBootTest {
         assertThat(otherEnrolleeTask.getStatus(), equalTo(TaskStatus.NEW));
     }
 
+    @Test
+    @Transactional
+    public void testUpdateTaskStatusSynchronousWithOutbox(TestInfo testInfo) {
+        // task status changes are visible to the publisher, so they aren't deferred to the outbox
+        boolean outboxEnabled = eventOutboxConfig.isEnabled();
+        eventOutboxConfig.setEnabled(true);
+        try {
+            EnrolleeBundle enrolleeBundle = enrolleeFactory.buildWithPortalUser(getTestName(testInfo));
+            ParticipantTask task = createTask(enrolleeBundle, "exampleTask", TaskStatus.NEW);
+            Trigger config = createStatusTrigger(enrolleeBundle, TriggerEventType.KIT_SENT);
+            config.setStatusToUpdateTo(TaskStatus.COMPLETE);
+            config.setActionTargetStableIds(List.of("exampleTask"));
+            triggerService.update(config);
+
+            KitRequest kitRequest = createKitRequest(enrolleeBundle, getTestName(testInfo));
+            eventService.publishKitStatusEvent(kitRequest, enrolleeBundle.enrollee(), enrolleeBundle.portalParticipantUser(),
+                    KitRequestStatus.SENT);
+
+            task = participantTaskService.find(task.getId()).orElseThrow();
+            assertThat(task.getStatus(), equalTo(TaskStatus.COMPLETE));
+        } finally {
+            eventOutboxConfig.setEnabled(outboxEnabled);
+        }
+    }
+
     @Test
     @Transactional
     public void testTargetStableIdFilter(TestInfo testInfo) {
@@ -0,0 +1,90 @@
+package bio.terra.pearl.core.service.workflow;
+
+import bio.terra.pearl.core.BaseSpringBootTest;
+import bio.terra.pearl.core.dao.notification.TriggerDao;
+import bio.terra.pearl.core.factory.StudyEnvironmentFactory;
+import bio.terra.pearl.core.factory.portal.PortalEnvironmentFactory;
+import bio.terra.pearl.core.model.kit.KitType;
+import bio.terra.pearl.core.model.notification.Trigger;
+import bio.terra.pearl.core.model.notification.TriggerEventType;
+import bio.terra.pearl.core.model.notification.TriggerType;
+import bio.terra.pearl.core.model.portal.PortalEnvironment;
+import bio.terra.pearl.core.model.study.StudyEnvironment;
+import bio.terra.pearl.core.model.workflow.ParticipantTask;
+import bio.terra.pearl.core.service.kit.KitSentEvent;
+import bio.terra.pearl.core.service.notification.TriggerService;
+import bio.terra.pearl.core.service.survey.event.EnrolleeSurveyEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+public class TriggerRegistryTests extends BaseSpringBootTest {
+    @Autowired
+    private TriggerRegistry triggerRegistry;
+    @Autowired
+    private TriggerService triggerService;
+    @Autowired
+    private TriggerDao triggerDao;
+    @Autowired
+    private StudyEnvironmentFactory studyEnvironmentFactory;
+    @Autowired
+    private PortalEnvironmentFactory portalEnvironmentFactory;
+
+    @Test
+    @Transactional
+    public void testFindEventTriggers(TestInfo testInfo) {
+        String testName = getTestName(testInfo);
+        PortalEnvironment portalEnv = portalEnvironmentFactory.buildPersisted(testName);
+        StudyEnvironment studyEnv = studyEnvironmentFactory.buildPersisted(portalEnv, testName);
+        Trigger allSurveys = createTrigger(portalEnv, studyEnv, TriggerEventType.SURVEY_RESPONSE, List.of(), true);
+        Trigger surveyA = createTrigger(portalEnv, studyEnv, TriggerEventType.SURVEY_RESPONSE, List.of("surveyA"), true);
+        createTrigger(portalEnv, studyEnv, TriggerEventType.SURVEY_RESPONSE, List.of(), false);
+        Trigger kitSent = createTrigger(portalEnv, studyEnv, TriggerEventType.KIT_SENT, List.of(), true);
+
+        assertThat(findTriggerIds(studyEnv.getId(), surveyEvent("surveyA")), containsInAnyOrder(allSurveys.getId(), surveyA.getId()));
+        assertThat(findTriggerIds(studyEnv.getId(), surveyEvent("surveyB")), containsInAnyOrder(allSurveys.getId()));
+        KitSentEvent kitEvent = KitSentEvent.builder().kitType(KitType.builder().name("blood").build()).build();
+        assertThat(findTriggerIds(studyEnv.getId(), kitEvent), containsInAnyOrder(kitSent.getId()));
+        assertThat(findTriggerIds(UUID.randomUUID(), surveyEvent("surveyA")), empty());
+
+        // changes made through the service are seen immediately
+        Trigger surveyB = createTrigger(portalEnv, studyEnv, TriggerEventType.SURVEY_RESPONSE, List.of("surveyB"), true);
+        assertThat(findTriggerIds(studyEnv.getId(), surveyEvent("surveyB")), containsInAnyOrder(allSurveys.getId(), surveyB.getId()));
+
+        // as are changes made without going through the service (e.g. by another process)
+        allSurveys.setActive(false);
+        triggerDao.update(allSurveys);
+        assertThat(findTriggerIds(studyEnv.getId(), surveyEvent("surveyB")), containsInAnyOrder(surveyB.getId()));
+    }
+
+    private List<UUID> findTriggerIds(UUID studyEnvId, EnrolleeEvent event) {
+        return triggerRegistry.findEventTriggers(studyEnvId, event).stream()
+                .map(registeredTrigger -> registeredTrigger.trigger().getId())
+                .toList();
+    }
+
+    private EnrolleeSurveyEvent surveyEvent(String surveyStableId) {
+        return EnrolleeSurveyEvent.builder()
+                .participantTask(ParticipantTask.builder().targetStableId(surveyStableId).build())
+                .build();
+    }
+
+    private Trigger createTrigger(PortalEnvironment portalEnv, StudyEnvironment studyEnv, TriggerEventType eventType, List<String> filterTargetStableIds, boolean active) {
+        return triggerService.create(Trigger.builder()
+                .triggerType(TriggerType.EVENT)
+                .eventType(eventType)
+                .filterTargetStableIds(filterTargetStableIds)
+                .active(active)
+                .studyEnvironmentId(studyEnv.getId())
+                .portalEnvironmentId(portalEnv.getId())
+                .build());
+    }
+}
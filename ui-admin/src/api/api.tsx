@@ -84,6 +84,12 @@ export type EnrolleeSearchExpressionResult = {
   portalParticipantUser?: PortalParticipantUser
 }
 
+export type EnrolleeSearchResultPage = {
+  results: EnrolleeSearchExpressionResult[]
+  nextCursor?: string
+  totalCount?: number
+}
+
 export type ParticipantUsersAndEnrollees = {
   participantUsers: ParticipantUser[]
   enrollees: Enrollee[]
@@ -426,6 +432,7 @@ export type ExportIntegration = {
     lastUpdatedAt: number,
     destinationType: string,
     enabled: boolean,
+    incremental: boolean,
     exportOptions: ExportOptions,
     destinationUrl: string
 }
@@ -436,6 +443,8 @@ export type ExportIntegrationJob = {
   exportIntegrationId: string,
   startedAt: number,
   completedAt?: number,
+  changedSince?: number,
+  highWaterMark?: number,
   result: string,
   creatingAdminUserId?: string,
   systemProcess?: string
@@ -900,6 +909,26 @@ export default {
     return await this.processJsonResponse(response)
   },
 
+  async executeSearchExpressionPage(
+    portalShortcode: string,
+    studyShortcode: string,
+    envName: string,
+    expression: string,
+    opts: { limit: number, cursor?: string, includeCount?: boolean }):
+    Promise<EnrolleeSearchResultPage> {
+    let url = `${
+      baseStudyEnvUrl(portalShortcode, studyShortcode, envName)
+    }/enrollee/search/v2/page?expression=${encodeURIComponent(expression)}&limit=${opts.limit}`
+    if (opts.cursor) {
+      url += `&cursor=${encodeURIComponent(opts.cursor)}`
+    }
+    if (opts.includeCount) {
+      url += '&includeCount=true'
+    }
+    const response = await fetch(url, this.getGetInit())
+    return await this.processJsonResponse(response)
+  },
+
   async getEnrollee(portalShortcode: string, studyShortcode: string, envName: string, enrolleeShortcodeOrId: string):
     Promise<Enrollee> {
     const url = `${baseStudyEnvUrl(portalShortcode, studyShortcode, envName)}/enrollees/${enrolleeShortcodeOrId}`
@@ -21,6 +21,10 @@ export const FILE_FORMATS = [{
   label: 'Excel (.xlsx)',
   value: 'EXCEL',
   fileSuffix: 'xlsx'
+}, {
+  label: 'Parquet (.parquet)',
+  value: 'PARQUET',
+  fileSuffix: 'parquet'
 }]
 
 const MODULE_EXCLUDE_OPTIONS: Record<string, string> = { surveys: 'Surveys', profile: 'Profile', account: 'Account' }
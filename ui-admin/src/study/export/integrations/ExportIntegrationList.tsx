@@ -29,6 +29,7 @@ const DEFAULT_EXPORT_INTEGRATION: ExportIntegration = {
   name: 'new',
   destinationType: 'AIRTABLE',
   enabled: true,
+  incremental: false,
   createdAt: new Date().getTime(),
   lastUpdatedAt: new Date().getTime(),
   id: '',
@@ -93,6 +93,17 @@ export const ExportIntegrationForm = ({ integration, setIntegration }: {
             className="me-1"/>
         </label>
       </dd>
+      <dt>Incremental:</dt><dd>
+        <label className="form-control border-0">
+          <input type="checkbox" name="incremental" checked={integration.incremental}
+            onChange={e => setIntegration({
+              ...integration,
+              incremental: e.target.checked
+            })}
+            className="me-1"/>
+          only send enrollees changed since the last successful run
+        </label>
+      </dd>
       <dt>Url:</dt><dd className="d-flex align-items-center">
         <code>https://api.airtable.com/</code>
         <TextInput value={integration.destinationUrl}